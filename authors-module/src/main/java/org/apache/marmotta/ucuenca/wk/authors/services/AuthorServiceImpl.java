@@ -27,6 +27,10 @@ package org.apache.marmotta.ucuenca.wk.authors.services;
 //import java.util.List;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import org.slf4j.Logger;
 
@@ -99,6 +103,9 @@ public class AuthorServiceImpl implements AuthorService {
 
     private boolean provenanceinsert = false; //variable to know if the provenance of an author was already inserted
 
+    /* keywords of the author being loaded -> occurrences in its publications */
+    private final Map<String, Integer> keywordCounts = new LinkedHashMap<>();
+
     /**
      * authorDocumentProperty : http://rdaregistry.info/Elements/a/P50161 |
      * http://rdaregistry.info/Elements/a/P50195
@@ -185,6 +192,7 @@ public class AuthorServiceImpl implements AuthorService {
                                 TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcePropertyQuery); //
                                 TupleQueryResult tripletasResult = resourcequery.evaluate();
                                 provenanceinsert = false;
+                                keywordCounts.clear();
                                 while (tripletasResult.hasNext()) {
                                     //obtengo name, lastname, firstname, type, etc.,   para formar tripletas INSERT
                                     BindingSet tripletsResource = tripletasResult.next();
@@ -196,6 +204,7 @@ public class AuthorServiceImpl implements AuthorService {
                                 }
                                 conUri.commit();
                                 conUri.close();
+                                insertKeywordCounts(resource);
                             } catch (QueryEvaluationException ex) {
                                 log.error("Al evaluar la consulta: " + getResourcePropertyQuery);
                                 //java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
@@ -242,18 +251,28 @@ public class AuthorServiceImpl implements AuthorService {
             getRetrieveKeysQuery = queriesService.getRetrieveKeysQuery();
             TupleQuery keysquery = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, getRetrieveKeysQuery); //
             TupleQueryResult tripletaskeysResult = keysquery.evaluate();
+            List<String> insertedKeywords = new ArrayList<>();
             while (tripletaskeysResult.hasNext()) {
                 BindingSet tripletskeysResource = tripletaskeysResult.next();
                 String subjectproperty = tripletskeysResource.getValue("y").toString();
                 String keyword = tripletskeysResource.getValue("z").toString();
                //only insert Literal Subjects
                 if ((!commonsService.isURI(keyword)) && (kservice.isValidKeyword(keyword))) {
-                    executeInsertQuery(author, subjectproperty, kservice.cleaningText(keyword).toUpperCase(), endpoint, provenanceinsert);
+                    String cleanKeyword = kservice.cleaningText(tripletskeysResource.getValue("z").stringValue());
+                    countKeyword(cleanKeyword);
+                    insertedKeywords.add(cleanKeyword);
                 }
             }
             String getAbstractAndTitleQuery = queriesService.getAbstractAndTitleQuery(publication);
             TupleQuery abstractTitlequery = conUriPub.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractAndTitleQuery); //
             TupleQueryResult tripletasATResult = abstractTitlequery.evaluate();
+            //the abstract is stored once on the publication, not on each of its authors
+            boolean describedPublication = false;
+            try {
+                describedPublication = askAuthor(queriesService.getAskResourceQuery(constantService.getAuthorsGraph(), publication));
+            } catch (AskException ex) {
+                log.error("Failure to ask existence of: " + publication);
+            }
             while (tripletasATResult.hasNext()) {
                 BindingSet tripletsATResource = tripletasATResult.next();
                 StringBuilder textAnalized = new StringBuilder();
@@ -263,22 +282,29 @@ public class AuthorServiceImpl implements AuthorService {
                 }
                 if (tripletsATResource.getValue("abstract") != null) {
                     String abstractvalue = tripletsATResource.getValue("abstract").toString();
-                    executeInsertQuery(author, "dct:description", abstractvalue, endpoint, provenanceinsert);
+                    if (!describedPublication) {
+                        updateAuthor(buildInsertQuery(constantService.getAuthorsGraph(), publication, "dct:description", abstractvalue));
+                    }
                     textAnalized.append(abstractvalue);
                 }
                 if (tripletsATResource.getValue("description") != null)
                 {
                     String abstractvalue = tripletsATResource.getValue("description").toString();
-                    executeInsertQuery(author, "dct:description", abstractvalue, endpoint, provenanceinsert);
+                    if (!describedPublication) {
+                        updateAuthor(buildInsertQuery(constantService.getAuthorsGraph(), publication, "dct:description", abstractvalue));
+                    }
                     textAnalized.append(abstractvalue);
                 }    
                 /*insert keywords from the abstract of publications from dspace*/
                 for (String keywordfromAbstract : kservice.getKeywords(textAnalized.toString())) {
-                    executeInsertQuery(author, "dct:subject","\"" +  keywordfromAbstract.toUpperCase() + "\"", endpoint, provenanceinsert);
+                    countKeyword(keywordfromAbstract);
+                    insertedKeywords.add(keywordfromAbstract);
                 }
             }
             conUriPub.commit();
             conUriPub.close();
+            //translated once here, and not on each semantic comparison
+            kservice.translateKeywords(insertedKeywords);
         
     }
 
@@ -297,6 +323,8 @@ public class AuthorServiceImpl implements AuthorService {
             return 1;
         } else {
             try {
+                //link to the publication that keeps the abstract
+                updateAuthor(buildInsertQuery(constantService.getAuthorsGraph(), sujeto, predicado, objeto));
                 insertKeywordsAndAbstractValues(objeto, sujeto, endpoint);
             } catch (RepositoryException | MalformedQueryException | IOException | ClassNotFoundException ex) {
                 java.util.logging.Logger.getLogger(AuthorServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
@@ -305,6 +333,25 @@ public class AuthorServiceImpl implements AuthorService {
         return 0;
     }
 
+    private void countKeyword(String keyword) {
+        String key = keyword.trim().toUpperCase();
+        if (!key.isEmpty()) {
+            Integer count = keywordCounts.get(key);
+            keywordCounts.put(key, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Insert the keywords of an author once, with the number of times each
+     * one was found, instead of a triple per keyword of each publication.
+     */
+    private void insertKeywordCounts(String author) {
+        if (!keywordCounts.isEmpty()) {
+            updateAuthor(queriesService.getInsertKeywordCountsQuery(constantService.getAuthorsGraph(), author, keywordCounts));
+            keywordCounts.clear();
+        }
+    }
+
     /*
      * 
      * @param contAutoresNuevosEncontrados
@@ -0,0 +1,346 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.async;
+
+import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.openrdf.model.Model;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking retrieval of resources of {@link HttpDataProvider}s. The
+ * requests are sent by the I/O threads of an asynchronous HTTP client and the
+ * responses are parsed by a small pool, so the number of resources being
+ * retrieved at the same time is limited by the connections and not by the
+ * threads of the caller.
+ * <p/>
+ * Responses compressed with gzip or deflate are accepted, and each resource
+ * has a deadline for all its requests, including the further requests
+ * returned by the provider. A {@link FallbackHttpDataProvider} can replace a
+ * failed request by other requests.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class AsyncHttpTransport implements Closeable {
+
+    public static final long DEFAULT_DEADLINE = 60000L;
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    private static Logger log = LoggerFactory.getLogger(AsyncHttpTransport.class);
+
+    private final CloseableHttpAsyncClient client;
+    private final ExecutorService parsers;
+    private final ScheduledExecutorService deadlines;
+
+    public AsyncHttpTransport() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+    }
+
+    /**
+     * @param threads I/O threads of the client, and threads that parse the
+     * responses
+     */
+    public AsyncHttpTransport(int threads, int maxConnections, int maxConnectionsPerRoute) {
+        client = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(threads).build())
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .build();
+        client.start();
+        parsers = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("async-provider-parser-%d").setDaemon(true).build());
+        deadlines = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("async-provider-deadline").setDaemon(true).build());
+    }
+
+    public ListenableFuture<ClientResponse> retrieve(HttpDataProvider provider, String resource, Endpoint endpoint) {
+        return retrieve(provider, resource, endpoint, DEFAULT_DEADLINE);
+    }
+
+    /**
+     * Retrieve a resource. The future fails with a DataRetrievalException if
+     * a request or the parsing of a response fails, or when the deadline is
+     * reached; the requests still in flight are then cancelled, as when the
+     * future is cancelled.
+     *
+     * @param deadline milliseconds for all the requests of the resource
+     */
+    public ListenableFuture<ClientResponse> retrieve(HttpDataProvider provider, String resource, Endpoint endpoint, long deadline) {
+        Retrieval retrieval = new Retrieval(provider, resource, endpoint, deadline);
+        try {
+            retrieval.start(provider.buildRequestUrl(resource, endpoint));
+        } catch (DataRetrievalException e) {
+            retrieval.fail(e);
+        }
+        return retrieval.result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deadlines.shutdownNow();
+        parsers.shutdownNow();
+        client.close();
+    }
+
+    private static InputStream decode(HttpResponse response) throws IOException {
+        InputStream input = response.getEntity().getContent();
+        Header encoding = response.getFirstHeader("Content-Encoding");
+        if (encoding == null) {
+            return input;
+        }
+        switch (encoding.getValue().trim().toLowerCase(Locale.ENGLISH)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(input);
+            case "deflate":
+                return new InflaterInputStream(input);
+            default:
+                return input;
+        }
+    }
+
+    private static String contentType(HttpResponse response) {
+        Header type = response.getFirstHeader("Content-Type");
+        return type == null ? null : type.getValue().split(";")[0].trim();
+    }
+
+    /**
+     * Requests and triples of a resource.
+     */
+    private class Retrieval implements Runnable {
+
+        private final HttpDataProvider provider;
+        private final String resource;
+        private final Endpoint endpoint;
+        private final RequestConfig config;
+        private final String accept;
+        private final Model triples = new LinkedHashModel();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Set<Future<HttpResponse>> requests = Collections.newSetFromMap(new ConcurrentHashMap<Future<HttpResponse>, Boolean>());
+        private final SettableFuture<ClientResponse> result = SettableFuture.create();
+        private final ScheduledFuture<?> timeout;
+
+        Retrieval(HttpDataProvider provider, final String resource, Endpoint endpoint, final long deadline) {
+            this.provider = provider;
+            this.resource = resource;
+            this.endpoint = endpoint;
+            config = RequestConfig.custom().setConnectTimeout((int) deadline).setSocketTimeout((int) deadline).build();
+            accept = Joiner.on(", ").join(provider.listMimeTypes());
+            timeout = deadlines.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    fail(new DataRetrievalException("deadline of " + deadline + " ms reached while retrieving " + resource));
+                }
+            }, deadline, TimeUnit.MILLISECONDS);
+            result.addListener(this, parsers);
+        }
+
+        /**
+         * Once the resource is retrieved, failed or cancelled.
+         */
+        @Override
+        public void run() {
+            timeout.cancel(false);
+            for (Future<HttpResponse> request : requests) {
+                request.cancel(true);
+            }
+        }
+
+        void start(List<String> urls) throws DataRetrievalException {
+            if (urls.isEmpty()) {
+                complete();
+                return;
+            }
+            // the pending count must not reach zero before all are sent
+            pending.addAndGet(urls.size());
+            for (String url : urls) {
+                send(url);
+            }
+        }
+
+        private void send(final String url) throws DataRetrievalException {
+            if (url == null) {
+                throw new DataRetrievalException("no request URL for resource " + resource);
+            }
+            HttpGet get = new HttpGet(url);
+            get.setConfig(config);
+            get.setHeader("Accept", accept);
+            get.setHeader("Accept-Encoding", "gzip, deflate");
+            log.debug("retrieving {} for resource {}", url, resource);
+            requests.add(client.execute(get, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(final HttpResponse response) {
+                    parsers.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            parse(url, response);
+                        }
+                    });
+                }
+
+                @Override
+                public void failed(final Exception ex) {
+                    parsers.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            recover(url, new DataRetrievalException("could not retrieve " + url, ex));
+                        }
+                    });
+                }
+
+                @Override
+                public void cancelled() {
+                    // by the deadline or the failure of another request
+                }
+            }));
+        }
+
+        private void parse(String url, HttpResponse response) {
+            if (result.isDone()) {
+                return;
+            }
+            List<String> next;
+            try {
+                next = read(url, response);
+            } catch (DataRetrievalException e) {
+                recover(url, e);
+                return;
+            }
+            try {
+                follow(next);
+            } catch (DataRetrievalException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * @return the further URLs of the response
+         */
+        private List<String> read(String url, HttpResponse response) throws DataRetrievalException {
+            try {
+                int status = response.getStatusLine().getStatusCode();
+                if (status < 200 || status >= 300) {
+                    throw new DataRetrievalException("the request " + url + " returned " + response.getStatusLine());
+                }
+                Model model = new LinkedHashModel();
+                List<String> next;
+                InputStream input = decode(response);
+                try {
+                    next = provider.parseResponse(resource, url, model, input, contentType(response));
+                } finally {
+                    input.close();
+                }
+                synchronized (triples) {
+                    triples.addAll(model);
+                }
+                return next;
+            } catch (IOException e) {
+                throw new DataRetrievalException("I/O error while reading the response of " + url, e);
+            } catch (RuntimeException e) {
+                throw new DataRetrievalException("could not parse the response of " + url, e);
+            }
+        }
+
+        /**
+         * Send the requests that replace a failed request, or fail the
+         * resource if the provider has none.
+         */
+        private void recover(String url, DataRetrievalException e) {
+            if (result.isDone()) {
+                return;
+            }
+            List<String> fallback = provider instanceof FallbackHttpDataProvider
+                    ? ((FallbackHttpDataProvider) provider).fallbackUrls(resource, url) : null;
+            if (fallback == null) {
+                fail(e);
+                return;
+            }
+            log.debug("{} failed, requesting {} instead: {}", url, fallback, e.getMessage());
+            try {
+                follow(fallback);
+            } catch (DataRetrievalException f) {
+                fail(f);
+            }
+        }
+
+        /**
+         * Send the further requests of a finished request.
+         */
+        private void follow(List<String> next) throws DataRetrievalException {
+            if (next != null) {
+                pending.addAndGet(next.size());
+                for (String nextUrl : next) {
+                    send(nextUrl);
+                }
+            }
+            if (pending.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            ClientResponse response;
+            synchronized (triples) {
+                response = new ClientResponse(200, triples);
+            }
+            if (endpoint != null && endpoint.getDefaultExpiry() != null) {
+                response.setExpires(new Date(System.currentTimeMillis() + endpoint.getDefaultExpiry() * 1000));
+            }
+            result.set(response);
+        }
+
+        void fail(DataRetrievalException e) {
+            if (result.setException(e)) {
+                log.debug("retrieval of {} failed: {}", resource, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.async;
+
+import java.util.List;
+
+/**
+ * {@link HttpDataProvider} that can replace a failed request by other
+ * requests, so that {@link AsyncHttpTransport} goes on with the resource
+ * instead of failing it.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public interface FallbackHttpDataProvider extends HttpDataProvider {
+
+    /**
+     * @param requestUrl a request of the resource that returned an error, or
+     * whose response could not be read or parsed
+     * @return the URLs to request instead, or null to fail the resource
+     */
+    List<String> fallbackUrls(String resource, String requestUrl);
+}
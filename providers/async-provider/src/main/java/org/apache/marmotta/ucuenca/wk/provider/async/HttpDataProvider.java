@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.async;
+
+import java.io.InputStream;
+import java.util.List;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.api.provider.DataProvider;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.openrdf.model.Model;
+
+/**
+ * Data provider that retrieves a resource with HTTP GET requests, as the
+ * AbstractHttpProvider does, exposing the building of the requests and the
+ * parsing of the responses so that {@link AsyncHttpTransport} can do the
+ * requests.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public interface HttpDataProvider extends DataProvider {
+
+    /**
+     * @return the URLs to request for the resource
+     */
+    List<String> buildRequestUrl(String resource, Endpoint endpoint) throws DataRetrievalException;
+
+    /**
+     * Add the triples of a response to the model.
+     *
+     * @return further URLs to request for the resource
+     */
+    List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException;
+}
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.async;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.api.ldclient.LDClientService;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Retrieval against a local HTTP server: compressed responses, further
+ * requests, fallback requests, deadlines and many resources in flight on two
+ * threads.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestAsyncHttpTransport {
+
+    private static final int THREADS = 2;
+    private static final URI VALUE = ValueFactoryImpl.getInstance().createURI("http://example.org/value");
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final List<String> encodings = Collections.synchronizedList(new ArrayList<String>());
+    private HttpServer server;
+    private AsyncHttpTransport transport;
+    private String base;
+    private volatile long delay;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int current = inFlight.incrementAndGet();
+                synchronized (maxInFlight) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), current));
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                encodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+                // page 1 links to page 2, page 2 is the last one
+                String path = exchange.getRequestURI().getPath();
+                if (path.startsWith("/missing")) {
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                    return;
+                }
+                String body = path.endsWith("/1") ? "value " + path + "\nnext " + base + path.replace("/1", "/2") + "\n" : "value " + path + "\n";
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+                gzip.write(body.getBytes("UTF-8"));
+                gzip.close();
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, compressed.size());
+                OutputStream output = exchange.getResponseBody();
+                compressed.writeTo(output);
+                output.close();
+            }
+        });
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+        transport = new AsyncHttpTransport(THREADS, 500, 500);
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testCompressedPages() throws Exception {
+        ClientResponse response = transport.retrieve(new LineProvider(), base + "/author/1", null).get();
+
+        Model triples = response.getData();
+        assertEquals(2, triples.size());
+        assertTrue(triples.contains(null, VALUE, ValueFactoryImpl.getInstance().createLiteral("/author/1")));
+        assertTrue(triples.contains(null, VALUE, ValueFactoryImpl.getInstance().createLiteral("/author/2")));
+        assertEquals(2, encodings.size());
+        assertTrue(encodings.get(0).contains("gzip"));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        ClientResponse response = transport.retrieve(new FallbackLineProvider(), base + "/missing/1", null).get();
+
+        // the fallback of the failed page is followed as any other request
+        Model triples = response.getData();
+        assertEquals(2, triples.size());
+        assertTrue(triples.contains(null, VALUE, ValueFactoryImpl.getInstance().createLiteral("/found/2")));
+
+        try {
+            transport.retrieve(new LineProvider(), base + "/missing/1", null).get();
+            fail("the failed request was not reported");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DataRetrievalException);
+        }
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        delay = 5000;
+        long start = System.currentTimeMillis();
+        try {
+            transport.retrieve(new LineProvider(), base + "/author/1", null, 200).get();
+            fail("the deadline was not reached");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DataRetrievalException);
+        }
+        assertTrue(System.currentTimeMillis() - start < 4000);
+    }
+
+    @Test
+    public void testManyInFlight() throws Exception {
+        delay = 200;
+        List<ListenableFuture<ClientResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            responses.add(transport.retrieve(new LineProvider(), base + "/author" + i + "/2", null));
+        }
+        for (ListenableFuture<ClientResponse> response : responses) {
+            assertEquals(1, response.get().getData().size());
+        }
+        // far more requests at the same time than threads of the transport
+        assertTrue(maxInFlight.get() > 10 * THREADS);
+    }
+
+    /**
+     * One triple per "value" line, and one further request per "next" line.
+     */
+    private static class LineProvider implements HttpDataProvider {
+
+        private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+        @Override
+        public String getName() {
+            return "Line Provider";
+        }
+
+        @Override
+        public String[] listMimeTypes() {
+            return new String[]{"text/plain"};
+        }
+
+        @Override
+        public ClientResponse retrieveResource(String resource, LDClientService client, Endpoint endpoint) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
+            return Collections.singletonList(resource);
+        }
+
+        @Override
+        public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+            List<String> next = new ArrayList<>();
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.startsWith("value ")) {
+                        triples.add(factory.createURI(resource), VALUE, factory.createLiteral(line.substring(6)));
+                    } else if (line.startsWith("next ")) {
+                        next.add(line.substring(5));
+                    }
+                }
+            } catch (IOException e) {
+                throw new DataRetrievalException("could not read the response", e);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Requests /found instead of /missing.
+     */
+    private static class FallbackLineProvider extends LineProvider implements FallbackHttpDataProvider {
+
+        @Override
+        public List<String> fallbackUrls(String resource, String requestUrl) {
+            return requestUrl.contains("/missing/") ? Collections.singletonList(requestUrl.replace("/missing/", "/found/")) : null;
+        }
+    }
+}
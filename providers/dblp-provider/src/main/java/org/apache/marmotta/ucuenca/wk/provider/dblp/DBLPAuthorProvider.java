@@ -25,17 +25,17 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
-import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathLiteralMapper;
-import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ucuenca.wk.endpoint.dblp.DBLPResourceEndpoint;
 import org.apache.marmotta.ucuenca.wk.provider.dblp.mapper.DBLPDateMapper;
 import org.apache.marmotta.ucuenca.wk.provider.dblp.mapper.DBLPURIMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.AbstractStreamXMLDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.StreamMapping;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Value;
@@ -61,7 +61,7 @@ import java.util.regex.Pattern;
  * Author: Santiago Gonzalez
  */
 @Deprecated
-public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataProvider {
+public class DBLPAuthorProvider extends AbstractStreamXMLDataProvider implements HttpDataProvider {
 
     public static final String NS_AUTHOR = "http://rdf.dblp.com/ns/author/";
     public static final String NAME = "DBLP Author Provider";
@@ -80,13 +80,13 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
     
     private static final String ROOT = "/rdf:RDF/dblp:Person/";
 
-    private static ConcurrentMap<String,XPathValueMapper> mediaOntMappings = new ConcurrentHashMap<String, XPathValueMapper>();
+    private static ConcurrentMap<String, StreamMapping> mediaOntMappings = new ConcurrentHashMap<String, StreamMapping>();
     static {
-    	mediaOntMappings.put(FOAF.name.stringValue(), new XPathLiteralMapper(ROOT + "dblp:primaryFullPersonName", dblpNamespaces));
+    	mediaOntMappings.put(FOAF.name.stringValue(), new StreamMapping(new XPathLiteralMapper(ROOT + "dblp:primaryFullPersonName", dblpNamespaces)));
     	//mediaOntMappings.put(FOAF.name.stringValue(), new XPathLiteralMapper(ROOT + "*[dblp::primaryFullPersonName or dblp::otherFullPersonName]", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.modified.stringValue(), new DBLPDateMapper(ROOT+ "dblp:personLastModifiedDate", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.license.stringValue(), new DBLPURIMapper(ROOT + "dcterms:license/@rdf:resource", dblpNamespaces));
-        mediaOntMappings.put(FOAF.publications.stringValue(), new DBLPURIMapper(ROOT + "dblp:authorOf/@rdf:resource", dblpNamespaces));
+    	mediaOntMappings.put(DCTERMS.modified.stringValue(), new StreamMapping(new DBLPDateMapper(ROOT+ "dblp:personLastModifiedDate", dblpNamespaces)));
+    	mediaOntMappings.put(DCTERMS.license.stringValue(), new StreamMapping(new DBLPURIMapper(ROOT + "dcterms:license/@rdf:resource", dblpNamespaces)));
+        mediaOntMappings.put(FOAF.publications.stringValue(), new StreamMapping(new DBLPURIMapper(ROOT + "dblp:authorOf/@rdf:resource", dblpNamespaces)));
         
     }
 
@@ -172,14 +172,14 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
 
 
     /**
-     * Return a mapping table mapping from RDF properties to XPath Value Mappers. Each entry in the map is evaluated
+     * Return a mapping table mapping from RDF properties to stream mappings. Each entry in the map is evaluated
      * in turn; in case the XPath expression yields a result, the property is added for the processed resource.
      *
      * @return
      * @param requestUrl
      */
     @Override
-    protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
+    protected Map<String, StreamMapping> getStreamMappings(String requestUrl) {
         return mediaOntMappings;
     }
 
@@ -194,15 +194,5 @@ public class DBLPAuthorProvider extends AbstractXMLDataProvider implements DataP
         return ImmutableList.of(FOAF.Person.stringValue());
     }
     
-    /**
-     * Provide namespace mappings for the XPath expressions from namespace prefix to namespace URI. May be overridden
-     * by subclasses as appropriate, the default implementation returns an empty map.
-     *
-     * @return
-     */
-    @Override
-    protected Map<String, String> getNamespaceMappings() {
-        return dblpNamespaces;
-    }
 
 }
@@ -27,6 +27,7 @@ import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Value;
@@ -54,7 +55,7 @@ import java.util.regex.Pattern;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class DBLPAuthorRawProvider extends AbstractHttpProvider {
+public class DBLPAuthorRawProvider extends AbstractHttpProvider implements HttpDataProvider {
 
     public static final String NS_AUTHOR = "http://rdf.dblp.com/ns/author/";
     public static final String NAME = "DBLP Author Raw Provider";
@@ -24,10 +24,10 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
-import org.apache.marmotta.ldclient.api.provider.DataProvider;
-import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
-import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
 import org.apache.marmotta.ucuenca.wk.provider.dblp.mapper.DBLPURIMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.AbstractStreamXMLDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.StreamMapping;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,16 +43,16 @@ import java.util.concurrent.ConcurrentMap;
  * Author: Santiago Gonzalez
  */
 @Deprecated
-public class DBLPCandidatesProvider extends AbstractXMLDataProvider implements DataProvider {
+public class DBLPCandidatesProvider extends AbstractStreamXMLDataProvider implements HttpDataProvider {
 	
     public static final String NAME = "DBLP Candidates Provider";
     public static final String API = "http://dblp.uni-trier.de/search/author?xauthor=%s";
     public static final String PATTERN = "http(s?)://rdf\\.dblp\\.com/ns/candidates/.*";
     public static final String NS_CANDIDATES = "http://rdf.dblp.com/ns/candidates/";
 
-    private static ConcurrentMap<String,XPathValueMapper> mediaOntMappings = new ConcurrentHashMap<String, XPathValueMapper>();
+    private static ConcurrentMap<String, StreamMapping> mediaOntMappings = new ConcurrentHashMap<String, StreamMapping>();
     static {
-        mediaOntMappings.put(FOAF.member.stringValue(), new DBLPURIMapper(DBLPAuthorProvider.NS_AUTHOR, "/authors/author/@urlpt"));
+        mediaOntMappings.put(FOAF.member.stringValue(), new StreamMapping(new DBLPURIMapper(DBLPAuthorProvider.NS_AUTHOR, "/authors/author/@urlpt")));
     }
 
     private static Logger log = LoggerFactory.getLogger(DBLPCandidatesProvider.class);
@@ -99,14 +99,14 @@ public class DBLPCandidatesProvider extends AbstractXMLDataProvider implements D
     }
 
     /**
-     * Return a mapping table mapping from RDF properties to XPath Value Mappers. Each entry in the map is evaluated
+     * Return a mapping table mapping from RDF properties to stream mappings. Each entry in the map is evaluated
      * in turn; in case the XPath expression yields a result, the property is added for the processed resource.
      *
      * @return
      * @param requestUrl
      */
     @Override
-    protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
+    protected Map<String, StreamMapping> getStreamMappings(String requestUrl) {
         return mediaOntMappings;
     }
 
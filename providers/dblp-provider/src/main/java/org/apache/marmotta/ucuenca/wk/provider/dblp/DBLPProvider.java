@@ -24,14 +24,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
-import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
-import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ucuenca.wk.provider.dblp.mapper.DBLPURIMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.AbstractStreamXMLDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.StreamMapping;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Value;
@@ -56,16 +56,16 @@ import java.util.regex.Pattern;
  * Author: Santiago Gonzalez
  */
 @Deprecated
-public class DBLPProvider extends AbstractXMLDataProvider implements DataProvider {
+public class DBLPProvider extends AbstractStreamXMLDataProvider implements HttpDataProvider {
 	
     public static final String NAME = "DBLP Provider";
     public static final String API = "http://dblp.uni-trier.de/search/author/api?q=%s&format=xml";
     public static final String SERVICE_PATTERN = "http://dblp\\.uni\\-trier\\.de/search/author/api\\?q\\=(.*)(\\&format\\=xml)?$";
     public static final String PATTERN = "http(s?)://rdf\\.dblp\\.com/ns/search/.*";
     
-    private static ConcurrentMap<String,XPathValueMapper> mediaOntMappings = new ConcurrentHashMap<String, XPathValueMapper>();
+    private static ConcurrentMap<String, StreamMapping> mediaOntMappings = new ConcurrentHashMap<String, StreamMapping>();
     static {
-        mediaOntMappings.put(FOAF.member.stringValue(), new DBLPURIMapper("/result/hits/hit/info/url"));
+        mediaOntMappings.put(FOAF.member.stringValue(), new StreamMapping(new DBLPURIMapper("/result/hits/hit/info/url")));
     }
 
 
@@ -147,14 +147,14 @@ public class DBLPProvider extends AbstractXMLDataProvider implements DataProvide
 
 
     /**
-     * Return a mapping table mapping from RDF properties to XPath Value Mappers. Each entry in the map is evaluated
+     * Return a mapping table mapping from RDF properties to stream mappings. Each entry in the map is evaluated
      * in turn; in case the XPath expression yields a result, the property is added for the processed resource.
      *
      * @return
      * @param requestUrl
      */
     @Override
-    protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
+    protected Map<String, StreamMapping> getStreamMappings(String requestUrl) {
         return mediaOntMappings;
     }
 
@@ -21,31 +21,29 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.marmotta.commons.vocabulary.FOAF;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.provider.xml.mapping.XPathURIMapper;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
-import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.JDOMException;
-import org.jdom2.filter.ElementFilter;
-import org.jdom2.input.SAXBuilder;
-import org.jdom2.input.sax.XMLReaders;
-import org.jdom2.xpath.XPathFactory;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.AbstractStreamXMLDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.StreamMapping;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
+import org.openrdf.model.Value;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -54,13 +52,17 @@ import java.util.regex.Pattern;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class DBLPRawProvider extends AbstractHttpProvider{
+public class DBLPRawProvider extends AbstractStreamXMLDataProvider implements HttpDataProvider {
 	
     public static final String NAME = "DBLP Raw Provider";
     public static final String API = "http://dblp.uni-trier.de/search/author/api?q=%s&format=xml";
     public static final String SERVICE_PATTERN = "http://dblp\\.uni\\-trier\\.de/search/author/api\\?q\\=(.*)(\\&format\\=xml)?$";
     public static final String PATTERN = "http(s?)://rdf\\.dblp\\.com/ns/search/.*";
     
+    /* the candidates are kept as they come in the search results */
+    private static final Map<String, StreamMapping> MAPPINGS = Collections.singletonMap(FOAF.member.stringValue(),
+            new StreamMapping(new XPathURIMapper("/result/hits/hit/info/url")));
+
     private static Logger log = LoggerFactory.getLogger(DBLPRawProvider.class);
 
     /**
@@ -112,40 +114,36 @@ public class DBLPRawProvider extends AbstractHttpProvider{
     @Override
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
     	log.debug("Request Successful to {0}", requestUrl);
-    	try {
-    		List<String> candidates = new ArrayList<String>();
-    		ValueFactory factory = ValueFactoryImpl.getInstance();
-    		final Document doc = new SAXBuilder(XMLReaders.NONVALIDATING).build(input);
-	    	for(Element element: queryElements(doc, "/result/hits/hit/info/url")) {
-	    		String candidate = element.getText();
-	    		triples.add(factory.createStatement(factory.createURI( resource ), FOAF.member, factory.createURI( candidate ) ));
-	    		candidates.add(candidate);
+    	mapResponse(resource, requestUrl, triples, input);
+    	ValueFactory factory = ValueFactoryImpl.getInstance();
+    	Set<Value> candidates = triples.filter(factory.createURI(resource), FOAF.member, null).objects();
+    	ClientConfiguration conf = new ClientConfiguration();
+        LDClient ldClient = new LDClient(conf);
+        if(!candidates.isEmpty()) {
+	        Model candidateModel = null;
+	    	for(Value author: candidates) {
+	    		ClientResponse response = ldClient.retrieveResource(author.stringValue());
+	        	Model authorModel = response.getData();
+	        	if(candidateModel == null) {
+	        		candidateModel = authorModel;
+	        	} else {
+	        		candidateModel.addAll(authorModel);
+	        	}
 	    	}
-	    	ClientConfiguration conf = new ClientConfiguration();
-	        LDClient ldClient = new LDClient(conf);
-	        if(!candidates.isEmpty()) {
-		        Model candidateModel = null;
-		    	for(String author: candidates) {
-		    		ClientResponse response = ldClient.retrieveResource(author);
-		        	Model authorModel = response.getData();
-		        	if(candidateModel == null) {
-		        		candidateModel = authorModel;
-		        	} else {
-		        		candidateModel.addAll(authorModel);
-		        	}
-		    	}
-		    	triples.addAll(candidateModel);
-	        }
-    	}catch (IOException e) {
-            throw new DataRetrievalException("I/O error while parsing HTML response", e);
-        }catch (JDOMException e) {
-            throw new DataRetrievalException("could not parse XML response. It is not in proper XML format", e);
+	    	triples.addAll(candidateModel);
         }
     	return Collections.emptyList();
     }
-    
-    protected static List<Element> queryElements(Document n, String query) {
-        return XPathFactory.instance().compile(query, new ElementFilter()).evaluate(n);
+
+    @Override
+    protected Map<String, StreamMapping> getStreamMappings(String requestUrl) {
+        return MAPPINGS;
     }
+
+    @Override
+    protected List<String> getTypes(org.openrdf.model.URI resource) {
+        return ImmutableList.of();
+    }
+
     
 }
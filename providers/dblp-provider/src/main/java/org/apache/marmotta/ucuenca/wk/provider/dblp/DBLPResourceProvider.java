@@ -23,11 +23,11 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
-import org.apache.marmotta.ldclient.api.provider.DataProvider;
-import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathLiteralMapper;
-import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
 import org.apache.marmotta.ucuenca.wk.provider.dblp.mapper.DBLPURIMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.AbstractStreamXMLDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.stream.StreamMapping;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,7 +45,7 @@ import java.util.regex.Pattern;
  * Author: Santiago Gonzalez
  */
 @Deprecated
-public class DBLPResourceProvider extends AbstractXMLDataProvider implements DataProvider {
+public class DBLPResourceProvider extends AbstractStreamXMLDataProvider implements HttpDataProvider {
 
     private static final String NS_DOCUMENT = "http://purl.org/ontology/bibo/";
     public static final String NAME = "DBLP Resource Provider";
@@ -65,17 +65,17 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
 
     private static final String ROOT = "/rdf:RDF/dblp:Publication/";
 
-    private static ConcurrentMap<String, XPathValueMapper> mediaOntMappings = new ConcurrentHashMap<String, XPathValueMapper>();
+    private static ConcurrentMap<String, StreamMapping> mediaOntMappings = new ConcurrentHashMap<String, StreamMapping>();
 
     static {
         //mediaOntMappings.put(OWL.SAMEAS.stringValue(), new DBLPURIMapper(ROOT + "owl:sameAs/@rdf:resource", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.title.stringValue(), new XPathLiteralMapper(ROOT + "dblp:title", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.contributor.stringValue(), new DBLPURIMapper(ROOT + "dblp:authoredBy/@rdf:resource", dblpNamespaces));
-    	mediaOntMappings.put(NS_DOCUMENT + "uri", new DBLPURIMapper(ROOT + "dblp:primaryElectronicEdition/@rdf:resource", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.publisher.stringValue(), new XPathLiteralMapper(ROOT + "dblp:publishedInBook", dblpNamespaces));
-        mediaOntMappings.put(NS_DOCUMENT + "numPages", new XPathLiteralMapper(ROOT + "dblp:pageNumbers", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.isPartOf.stringValue() , new DBLPURIMapper(ROOT + "dblp:publishedAsPartOf/@rdf:resource", dblpNamespaces));
-    	mediaOntMappings.put(DCTERMS.license.stringValue(), new DBLPURIMapper(ROOT + "dcterms:license/@rdf:resource", dblpNamespaces));
+    	mediaOntMappings.put(DCTERMS.title.stringValue(), new StreamMapping(new XPathLiteralMapper(ROOT + "dblp:title", dblpNamespaces)));
+    	mediaOntMappings.put(DCTERMS.contributor.stringValue(), new StreamMapping(new DBLPURIMapper(ROOT + "dblp:authoredBy/@rdf:resource", dblpNamespaces)));
+    	mediaOntMappings.put(NS_DOCUMENT + "uri", new StreamMapping(new DBLPURIMapper(ROOT + "dblp:primaryElectronicEdition/@rdf:resource", dblpNamespaces)));
+    	mediaOntMappings.put(DCTERMS.publisher.stringValue(), new StreamMapping(new XPathLiteralMapper(ROOT + "dblp:publishedInBook", dblpNamespaces)));
+        mediaOntMappings.put(NS_DOCUMENT + "numPages", new StreamMapping(new XPathLiteralMapper(ROOT + "dblp:pageNumbers", dblpNamespaces)));
+    	mediaOntMappings.put(DCTERMS.isPartOf.stringValue() , new StreamMapping(new DBLPURIMapper(ROOT + "dblp:publishedAsPartOf/@rdf:resource", dblpNamespaces)));
+    	mediaOntMappings.put(DCTERMS.license.stringValue(), new StreamMapping(new DBLPURIMapper(ROOT + "dcterms:license/@rdf:resource", dblpNamespaces)));
     }
 
     private static Logger log = LoggerFactory.getLogger(DBLPResourceProvider.class);
@@ -130,8 +130,8 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
         return Collections.singletonList(uri.concat(".rdf"));
     }
     /**
-     * Return a mapping table mapping from RDF properties to XPath Value
-     * Mappers. Each entry in the map is evaluated in turn; in case the XPath
+     * Return a mapping table mapping from RDF properties to stream
+     * mappings. Each entry in the map is evaluated in turn; in case the XPath
      * expression yields a result, the property is added for the processed
      * resource.
      *
@@ -139,7 +139,7 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
      * @param requestUrl
      */
     @Override
-    protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
+    protected Map<String, StreamMapping> getStreamMappings(String requestUrl) {
         return mediaOntMappings;
     }
 
@@ -155,16 +155,5 @@ public class DBLPResourceProvider extends AbstractXMLDataProvider implements Dat
         return ImmutableList.of(NS_DOCUMENT + "Document");
     }
 
-    /**
-     * Provide namespace mappings for the XPath expressions from namespace
-     * prefix to namespace URI. May be overridden by subclasses as appropriate,
-     * the default implementation returns an empty map.
-     *
-     * @return
-     */
-    @Override
-    protected Map<String, String> getNamespaceMappings() {
-        return dblpNamespaces;
-    }
 
 }
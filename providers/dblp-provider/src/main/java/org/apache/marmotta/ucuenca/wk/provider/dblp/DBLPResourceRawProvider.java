@@ -25,6 +25,7 @@ import com.google.common.base.Preconditions;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFParseException;
@@ -43,7 +44,7 @@ import java.util.regex.Pattern;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class DBLPResourceRawProvider extends AbstractHttpProvider {
+public class DBLPResourceRawProvider extends AbstractHttpProvider implements HttpDataProvider {
 
 	public static final String NAME = "DBLP Resource Raw Provider";
     public static final String PATTERN = "(http://dblp\\.dagstuhl\\.de\\.de/rec/)(.*)";
@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.dump;
+
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns the records of the dump into the triples that the DBLP providers
+ * store in the provider graph: publications and persons with the dblp RDF
+ * schema, <code>dblp:authorOf</code> from the persons to their publications
+ * and <code>owl:sameAs</code> from our authors to the dblp persons.
+ * <p/>
+ * Persons are identified as in dblp.org, by the name as it is written
+ * (http://dblp.dagstuhl.de/pers/s/Saquicela:Victor). A name that matches
+ * several of our authors is not linked to any of them.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class DBLPDumpMapper implements DBLPDumpReader.Handler {
+
+    public static final String NS_SCHEMA = "http://dblp.dagstuhl.de/rdf/schema-2015-01-26#";
+    public static final String NS_PERSON = "http://dblp.dagstuhl.de/pers/";
+    public static final String NS_RECORD = "http://dblp.dagstuhl.de/rec/";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI publication = schema("Publication");
+    private final URI person = schema("Person");
+    private final URI title = schema("title");
+    private final URI authoredBy = schema("authoredBy");
+    private final URI authorOf = schema("authorOf");
+    private final URI primaryElectronicEdition = schema("primaryElectronicEdition");
+    private final URI pageNumbers = schema("pageNumbers");
+    private final URI yearOfPublication = schema("yearOfPublication");
+    private final URI publishedInBook = schema("publishedInBook");
+    private final URI publishedInJournal = schema("publishedInJournal");
+    private final URI publishedAsPartOf = schema("publishedAsPartOf");
+    private final URI primaryFullPersonName = schema("primaryFullPersonName");
+    private final URI otherFullPersonName = schema("otherFullPersonName");
+
+    private final DBLPNameIndex index;
+    private final RDFHandler output;
+
+    /* persons and links already written, bounded by the number of our authors */
+    private final Set<String> persons = new HashSet<String>();
+    private final Set<String> links = new HashSet<String>();
+
+    private long ambiguous;
+
+    public DBLPDumpMapper(DBLPNameIndex index, RDFHandler output) {
+        this.index = index;
+        this.output = output;
+    }
+
+    @Override
+    public void record(DBLPRecord record) throws DBLPDumpException {
+        try {
+            if (record.isPerson()) {
+                person(record);
+            } else {
+                publication(record);
+            }
+        } catch (RDFHandlerException e) {
+            throw new DBLPDumpException("could not write the triples of " + record.getKey(), e);
+        }
+    }
+
+    private void publication(DBLPRecord record) throws RDFHandlerException {
+        URI subject = factory.createURI(NS_RECORD + record.getKey());
+        add(subject, RDF.TYPE, publication);
+        if (record.getTitle() != null) {
+            add(subject, title, factory.createLiteral(record.getTitle()));
+        }
+        for (String author : record.getAuthors()) {
+            URI authorUri = personUri(author);
+            add(subject, authoredBy, authorUri);
+            if (index.matches(author)) {
+                add(authorUri, authorOf, subject);
+                matchedPerson(authorUri, author);
+            }
+        }
+        for (String edition : record.getElectronicEditions()) {
+            if (edition.startsWith("http")) {
+                add(subject, primaryElectronicEdition, factory.createURI(edition));
+                break;
+            }
+        }
+        if (record.getPages() != null) {
+            add(subject, pageNumbers, factory.createLiteral(record.getPages()));
+        }
+        if (record.getYear() != null) {
+            add(subject, yearOfPublication, factory.createLiteral(record.getYear()));
+        }
+        if (record.getBooktitle() != null) {
+            add(subject, publishedInBook, factory.createLiteral(record.getBooktitle()));
+        }
+        if (record.getJournal() != null) {
+            add(subject, publishedInJournal, factory.createLiteral(record.getJournal()));
+        }
+        if (record.getCrossref() != null) {
+            add(subject, publishedAsPartOf, factory.createURI(NS_RECORD + record.getCrossref()));
+        }
+    }
+
+    /**
+     * Person page: the first name is the primary one, the others are aliases
+     * used in some publications.
+     */
+    private void person(DBLPRecord record) throws RDFHandlerException {
+        List<String> names = record.getAuthors();
+        URI primary = personUri(names.get(0));
+        persons.add(primary.stringValue());
+        add(primary, RDF.TYPE, person);
+        add(primary, primaryFullPersonName, factory.createLiteral(names.get(0)));
+        for (String alias : names.subList(1, names.size())) {
+            add(primary, otherFullPersonName, factory.createLiteral(alias));
+            if (index.matches(alias)) {
+                add(personUri(alias), OWL.SAMEAS, primary);
+            }
+        }
+        for (String name : names) {
+            if (index.matches(name)) {
+                link(name, primary);
+            }
+        }
+    }
+
+    private void matchedPerson(URI uri, String name) throws RDFHandlerException {
+        if (persons.add(uri.stringValue())) {
+            add(uri, RDF.TYPE, person);
+            add(uri, primaryFullPersonName, factory.createLiteral(name));
+            link(name, uri);
+        }
+    }
+
+    /**
+     * owl:sameAs from our author to the dblp person, only if the name is not
+     * shared by several of our authors.
+     */
+    private void link(String name, URI uri) throws RDFHandlerException {
+        Set<String> authors = index.lookup(name);
+        if (authors.size() != 1) {
+            ambiguous++;
+            return;
+        }
+        String author = authors.iterator().next();
+        if (links.add(author + " " + uri.stringValue())) {
+            add(factory.createURI(author), OWL.SAMEAS, uri);
+        }
+    }
+
+    private void add(Resource subject, URI predicate, Value object) throws RDFHandlerException {
+        output.handleStatement(factory.createStatement(subject, predicate, object));
+    }
+
+    private URI schema(String name) {
+        return factory.createURI(NS_SCHEMA + name);
+    }
+
+    private URI personUri(String name) {
+        return factory.createURI(NS_PERSON + urlpt(name));
+    }
+
+    /**
+     * Path of a person in dblp.org: first letter of the last name / last name
+     * : first names, e.g. "b/Bl=aacute=zquez:Luis_Manuel_Vilches" for Luis
+     * Manuel Vilches Blázquez. Accented letters are written as =entity=,
+     * other symbols as =, spaces as _. The homonym number goes with the last
+     * name ("w/Wang_0001:Wei").
+     */
+    public static String urlpt(String name) {
+        String[] words = name.trim().split("\\s+");
+        int last = words.length - 1;
+        String lastName = words[last];
+        if (last > 0 && words[last].matches("\\d{4}")) {
+            last--;
+            lastName = words[last] + "_" + words[last + 1];
+        }
+        StringBuilder firstNames = new StringBuilder();
+        for (int i = 0; i < last; i++) {
+            if (i > 0) {
+                firstNames.append('_');
+            }
+            firstNames.append(words[i]);
+        }
+        String folded = Normalizer.normalize(lastName, Normalizer.Form.NFD);
+        char initial = folded.isEmpty() ? '_' : Character.toLowerCase(folded.charAt(0));
+        if (!(initial >= 'a' && initial <= 'z')) {
+            initial = '=';
+        }
+        return initial + "/" + encode(lastName) + ":" + encode(firstNames.toString());
+    }
+
+    private static String encode(String value) {
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                encoded.append(c);
+            } else if (c == ' ') {
+                encoded.append('_');
+            } else {
+                String entity = entity(c);
+                encoded.append('=');
+                if (entity != null) {
+                    encoded.append(entity).append('=');
+                }
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @return HTML entity name of a latin letter, or null
+     */
+    private static String entity(char c) {
+        switch (c) {
+            case 'ß':
+                return "szlig";
+            case 'ø':
+                return "oslash";
+            case 'Ø':
+                return "Oslash";
+            case 'æ':
+                return "aelig";
+            case 'Æ':
+                return "AElig";
+            default:
+                break;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        if (decomposed.length() != 2 || decomposed.charAt(0) > 'z' || !Character.isLetter(decomposed.charAt(0))) {
+            return null;
+        }
+        String accent;
+        switch (decomposed.charAt(1)) {
+            case '\u0301':
+                accent = "acute";
+                break;
+            case '\u0300':
+                accent = "grave";
+                break;
+            case '\u0302':
+                accent = "circ";
+                break;
+            case '\u0303':
+                accent = "tilde";
+                break;
+            case '\u0308':
+                accent = "uml";
+                break;
+            case '\u0327':
+                accent = "cedil";
+                break;
+            case '\u030A':
+                accent = "ring";
+                break;
+            default:
+                return null;
+        }
+        return decomposed.charAt(0) + accent;
+    }
+
+    /**
+     * @return number of matched names that were not linked because several
+     * of our authors have them
+     */
+    public long getAmbiguous() {
+        return ambiguous;
+    }
+
+    /**
+     * @return number of dblp persons found for our authors
+     */
+    public int getPersons() {
+        return persons.size();
+    }
+
+    /**
+     * @return number of owl:sameAs written from our authors
+     */
+    public int getLinks() {
+        return links.size();
+    }
+}
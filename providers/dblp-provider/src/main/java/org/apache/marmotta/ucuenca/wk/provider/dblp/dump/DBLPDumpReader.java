@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.dump;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a local copy of the dblp.xml dump (plain or gzip) in one forward pass
+ * and reports the records where one of the authors is in the name index.
+ * Only the record being read is kept in memory.
+ * <p/>
+ * The dump declares its character entities in dblp.dtd, which must be in the
+ * same directory as the dump; nothing is read from the network.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class DBLPDumpReader {
+
+    /**
+     * Receives the records that match the index.
+     */
+    public interface Handler {
+
+        void record(DBLPRecord record) throws DBLPDumpException;
+    }
+
+    private static final int BUFFER = 1 << 16;
+
+    /**
+     * The dump references its character entities (&amp;uuml; and the like)
+     * tens of millions of times, far above the default JDK limits of 64000
+     * expansions and 50 MB; these bounds leave room for the dump to grow
+     * while still stopping a runaway expansion.
+     */
+    private static final String ENTITY_EXPANSION_LIMIT = "500000000";
+
+    private static final String TOTAL_ENTITY_SIZE_LIMIT = "1000000000";
+
+    private final DBLPNameIndex index;
+
+    private long records;
+    private long matches;
+
+    public DBLPDumpReader(DBLPNameIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * @param dump dblp.xml or dblp.xml.gz
+     */
+    public void read(File dump, Handler handler) throws IOException, DBLPDumpException {
+        InputStream input = new BufferedInputStream(new FileInputStream(dump), BUFFER);
+        try {
+            if (dump.getName().endsWith(".gz")) {
+                input = new GZIPInputStream(input, BUFFER);
+            }
+            read(input, dump.getAbsoluteFile().getParentFile(), handler);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * @param input content of the dump, it is not closed
+     * @param directory where dblp.dtd is found
+     */
+    public void read(InputStream input, File directory, Handler handler) throws DBLPDumpException {
+        try {
+            XMLStreamReader reader = createFactory(directory).createXMLStreamReader(input);
+            try {
+                read(reader, handler);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new DBLPDumpException("could not parse the dblp dump after " + records + " records", e);
+        }
+    }
+
+    private void read(XMLStreamReader reader, Handler handler) throws XMLStreamException, DBLPDumpException {
+        int depth = 0;
+        DBLPRecord record = null;
+        List<String> editors = new ArrayList<String>();
+        String field = null;
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    if (depth == 2) {
+                        record = new DBLPRecord(reader.getLocalName(), reader.getAttributeValue(null, "key"));
+                        editors.clear();
+                    } else if (depth == 3) {
+                        field = reader.getLocalName();
+                        text.setLength(0);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth >= 3) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 3) {
+                        setField(record, editors, field, text.toString().trim());
+                    } else if (depth == 2) {
+                        records++;
+                        if (record.getAuthors().isEmpty()) {
+                            record.getAuthors().addAll(editors);
+                        }
+                        if (isRelevant(record)) {
+                            matches++;
+                            handler.record(record);
+                        }
+                        record = null;
+                    }
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void setField(DBLPRecord record, List<String> editors, String field, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        if ("author".equals(field)) {
+            record.getAuthors().add(value);
+        } else if ("editor".equals(field)) {
+            editors.add(value);
+        } else if ("title".equals(field)) {
+            record.setTitle(value);
+        } else if ("year".equals(field)) {
+            record.setYear(value);
+        } else if ("pages".equals(field)) {
+            record.setPages(value);
+        } else if ("booktitle".equals(field)) {
+            record.setBooktitle(value);
+        } else if ("journal".equals(field)) {
+            record.setJournal(value);
+        } else if ("crossref".equals(field)) {
+            record.setCrossref(value);
+        } else if ("ee".equals(field)) {
+            record.getElectronicEditions().add(value);
+        }
+    }
+
+    private boolean isRelevant(DBLPRecord record) {
+        if (record.getKey() == null || ("www".equals(record.getType()) && !record.isPerson())) {
+            return false;
+        }
+        for (String author : record.getAuthors()) {
+            if (index.matches(author)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static XMLInputFactory createFactory(final File directory) {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.TRUE);
+        setLimit(factory, "jdk.xml.entityExpansionLimit", ENTITY_EXPANSION_LIMIT);
+        setLimit(factory, "jdk.xml.totalEntitySizeLimit", TOTAL_ENTITY_SIZE_LIMIT);
+        // only the local dblp.dtd is resolved
+        factory.setXMLResolver(new XMLResolver() {
+            @Override
+            public Object resolveEntity(String publicID, String systemID, String baseURI, String namespace) throws XMLStreamException {
+                File file = new File(directory, new File(systemID).getName());
+                try {
+                    return new BufferedInputStream(new FileInputStream(file));
+                } catch (FileNotFoundException e) {
+                    throw new XMLStreamException("the dblp dump needs " + file + " (it is distributed with the dump)", e);
+                }
+            }
+        });
+        return factory;
+    }
+
+    private static void setLimit(XMLInputFactory factory, String property, String limit) {
+        try {
+            factory.setProperty(property, limit);
+        } catch (IllegalArgumentException e) {
+            // not supported by this StAX implementation
+        }
+    }
+
+    /**
+     * @return number of records read
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return number of records reported to the handler
+     */
+    public long getMatches() {
+        return matches;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.dump;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the names of our authors, built before the dump is read, so each
+ * author name of the dump is matched with a single lookup.
+ * <p/>
+ * The same combinations of first and last names that the search API is
+ * queried with are indexed (first name + first last name, first name + both
+ * last names, second name + both last names, all the names), without accents,
+ * in lower case and without the number that dblp adds to homonyms.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class DBLPNameIndex {
+
+    private static final Pattern HOMONYM = Pattern.compile("\\s+\\d{4}$");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern NONLETTERS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    /* name key -> author resources */
+    private final Map<String, Set<String>> names = new HashMap<String, Set<String>>();
+
+    private int authors;
+
+    /**
+     * Read an index from lines of the form
+     * <code>resource TAB first names TAB last names</code>. Empty lines and
+     * lines starting with # are ignored.
+     */
+    public static DBLPNameIndex read(Reader input) throws IOException {
+        DBLPNameIndex index = new DBLPNameIndex();
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields.length == 3) {
+                index.add(fields[0].trim(), fields[1], fields[2]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param authorResource URI of the author in our authors graph
+     * @param firstName first names, separated by spaces
+     * @param lastName last names, separated by spaces
+     */
+    public void add(String authorResource, String firstName, String lastName) {
+        String[] first = key(firstName).split(" ");
+        String[] last = key(lastName).split(" ");
+        if (first[0].isEmpty() || last[0].isEmpty()) {
+            return;
+        }
+        authors++;
+        put(first[0] + " " + last[0], authorResource);
+        if (last.length > 1) {
+            put(first[0] + " " + last[0] + " " + last[1], authorResource);
+            if (first.length > 1) {
+                put(first[1] + " " + last[0] + " " + last[1], authorResource);
+            }
+        }
+        if (first.length > 1) {
+            put(first[0] + " " + first[1] + " " + last[0], authorResource);
+        }
+        put(key(firstName + " " + lastName), authorResource);
+    }
+
+    private void put(String key, String authorResource) {
+        Set<String> resources = names.get(key);
+        if (resources == null) {
+            resources = new LinkedHashSet<String>(1);
+            names.put(key, resources);
+        }
+        resources.add(authorResource);
+    }
+
+    /**
+     * @param name author name as written in dblp
+     * @return our authors with that name, empty if none
+     */
+    public Set<String> lookup(String name) {
+        Set<String> resources = names.get(key(name));
+        return resources == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(resources);
+    }
+
+    public boolean matches(String name) {
+        return names.containsKey(key(name));
+    }
+
+    /**
+     * @return number of authors added
+     */
+    public int size() {
+        return authors;
+    }
+
+    /**
+     * @return the name without homonym number and accents, lower case, words
+     * separated by one space
+     */
+    public static String key(String name) {
+        String plain = HOMONYM.matcher(name.trim()).replaceAll("");
+        plain = DIACRITICS.matcher(Normalizer.normalize(plain, Normalizer.Form.NFD)).replaceAll("");
+        return NONLETTERS.matcher(plain.toLowerCase(Locale.ENGLISH)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.dump;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One record of the dblp.xml dump: a publication (article, inproceedings,
+ * book...) or a person page (www element with a homepages/ key).
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class DBLPRecord {
+
+    private final String type;
+    private final String key;
+    private final List<String> authors = new ArrayList<String>();
+    private final List<String> electronicEditions = new ArrayList<String>();
+    private String title;
+    private String year;
+    private String pages;
+    private String booktitle;
+    private String journal;
+    private String crossref;
+
+    public DBLPRecord(String type, String key) {
+        this.type = type;
+        this.key = key;
+    }
+
+    /**
+     * @return name of the element (article, inproceedings, www...)
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return dblp key, e.g. conf/esws/SaquicelaBC11 or homepages/s/Saquicela
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return true if the record describes a person and not a publication
+     */
+    public boolean isPerson() {
+        return "www".equals(type) && key != null && key.startsWith("homepages/");
+    }
+
+    /**
+     * @return author names in order; the editors when the record has no
+     * authors. For a person the first name is the primary one and the others
+     * are aliases.
+     */
+    public List<String> getAuthors() {
+        return authors;
+    }
+
+    public List<String> getElectronicEditions() {
+        return electronicEditions;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getYear() {
+        return year;
+    }
+
+    public void setYear(String year) {
+        this.year = year;
+    }
+
+    public String getPages() {
+        return pages;
+    }
+
+    public void setPages(String pages) {
+        this.pages = pages;
+    }
+
+    public String getBooktitle() {
+        return booktitle;
+    }
+
+    public void setBooktitle(String booktitle) {
+        this.booktitle = booktitle;
+    }
+
+    public String getJournal() {
+        return journal;
+    }
+
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
+    public String getCrossref() {
+        return crossref;
+    }
+
+    public void setCrossref(String crossref) {
+        this.crossref = crossref;
+    }
+}
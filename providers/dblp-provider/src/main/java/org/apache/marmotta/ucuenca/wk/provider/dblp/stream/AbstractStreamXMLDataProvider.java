@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.stream;
+
+import org.apache.marmotta.ldclient.api.provider.DataProvider;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replacement of AbstractXMLDataProvider that does not build a JDOM document:
+ * the mappings are evaluated with a {@link StreamSelector} while the response
+ * is read, and the triples are added to the model as the values are found.
+ * The triples are the same that the XPath mappings produce on the document.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public abstract class AbstractStreamXMLDataProvider extends AbstractHttpProvider implements DataProvider {
+
+    /**
+     * Parse the response and add the mapped triples for the resource to the
+     * model.
+     *
+     * @return no further resources to retrieve
+     */
+    @Override
+    public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        mapResponse(resource, requestUrl, triples, input);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Evaluate the stream mappings and the types of the resource, without
+     * following any link.
+     */
+    protected void mapResponse(final String resource, String requestUrl, final Model triples, InputStream input) throws DataRetrievalException {
+        final ValueFactory factory = ValueFactoryImpl.getInstance();
+        final URI subject = factory.createURI(resource);
+
+        Map<String, StreamMapping> mappings = getStreamMappings(requestUrl);
+        final List<URI> properties = new ArrayList<URI>(mappings.size());
+        final List<StreamMapping> selected = new ArrayList<StreamMapping>(mappings.size());
+        List<StreamPath> paths = new ArrayList<StreamPath>(mappings.size());
+        for (Map.Entry<String, StreamMapping> mapping : mappings.entrySet()) {
+            properties.add(factory.createURI(mapping.getKey()));
+            selected.add(mapping.getValue());
+            paths.add(mapping.getValue().getPath());
+        }
+
+        try {
+            new StreamSelector(paths).select(input, new StreamSelector.Handler() {
+                @Override
+                public void select(int path, String value) {
+                    for (Value object : selected.get(path).getMapper().map(resource, value, factory)) {
+                        triples.add(subject, properties.get(path), object);
+                    }
+                }
+            });
+        } catch (XMLStreamException e) {
+            throw new DataRetrievalException("could not parse XML response. It is not in proper XML format", e);
+        }
+
+        for (String type : getTypes(subject)) {
+            triples.add(subject, RDF.TYPE, factory.createURI(type));
+        }
+    }
+
+    /**
+     * Return a mapping table from RDF properties to stream mappings. Every
+     * value selected by a mapping is added as value of the property for the
+     * processed resource.
+     *
+     * @param requestUrl
+     * @return
+     */
+    protected abstract Map<String, StreamMapping> getStreamMappings(String requestUrl);
+
+    /**
+     * Return a list of URIs that should be added as types for each processed
+     * resource.
+     *
+     * @param resource
+     * @return
+     */
+    protected abstract List<String> getTypes(URI resource);
+}
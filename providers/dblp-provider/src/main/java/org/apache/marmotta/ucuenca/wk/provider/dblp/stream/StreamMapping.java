@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.stream;
+
+import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
+import org.jdom2.Namespace;
+import org.jdom2.xpath.XPathExpression;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapping of a property evaluated while streaming: the XPath value mapper
+ * used with JDOM, whose expression is read as a {@link StreamPath}, so the
+ * same mappers (literal, DBLP URI, date) turn each selected value into RDF.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public final class StreamMapping {
+
+    private final StreamPath path;
+    private final XPathValueMapper mapper;
+
+    /**
+     * @param mapper converter of the selected values, its XPath must be a
+     * plain path supported by {@link StreamPath}
+     */
+    public StreamMapping(XPathValueMapper mapper) {
+        XPathExpression<Object> compiled = mapper.getCompiled();
+        Map<String, String> namespaces = new HashMap<String, String>();
+        for (Namespace namespace : compiled.getNamespaces()) {
+            namespaces.put(namespace.getPrefix(), namespace.getURI());
+        }
+        this.path = StreamPath.parse(compiled.getExpression(), namespaces);
+        this.mapper = mapper;
+    }
+
+    public StreamPath getPath() {
+        return path;
+    }
+
+    public XPathValueMapper getMapper() {
+        return mapper;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.stream;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Location path that can be matched while the XML is read forward: an
+ * absolute path of child elements, optionally ending in an attribute, e.g.
+ * <code>/rdf:RDF/dblp:Person/dblp:authorOf/@rdf:resource</code>. Those are the
+ * only XPath expressions used by the DBLP mappings.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public final class StreamPath {
+
+    private final String path;
+    private final List<QName> elements;
+    private final QName attribute;
+
+    private StreamPath(String path, List<QName> elements, QName attribute) {
+        this.path = path;
+        this.elements = elements;
+        this.attribute = attribute;
+    }
+
+    /**
+     * @param path absolute location path
+     * @param namespaces prefix to namespace URI, unprefixed names have no
+     * namespace as in XPath
+     * @throws IllegalArgumentException if the expression is not a plain path
+     * of child elements
+     */
+    public static StreamPath parse(String path, Map<String, String> namespaces) {
+        if (path == null || !path.startsWith("/") || path.startsWith("//")) {
+            throw new IllegalArgumentException("Only absolute child paths are supported: " + path);
+        }
+        String[] steps = path.substring(1).split("/", -1);
+        List<QName> elements = new ArrayList<QName>(steps.length);
+        QName attribute = null;
+        for (int i = 0; i < steps.length; i++) {
+            String step = steps[i].trim();
+            if (step.startsWith("@") && i == steps.length - 1) {
+                attribute = name(step.substring(1), namespaces, path);
+            } else {
+                elements.add(name(step, namespaces, path));
+            }
+        }
+        if (elements.isEmpty()) {
+            throw new IllegalArgumentException("Path without elements: " + path);
+        }
+        return new StreamPath(path, Collections.unmodifiableList(elements), attribute);
+    }
+
+    private static QName name(String step, Map<String, String> namespaces, String path) {
+        if (step.isEmpty() || !step.matches("[\\w.\\-]+(:[\\w.\\-]+)?")) {
+            throw new IllegalArgumentException("Unsupported step '" + step + "' in " + path);
+        }
+        int colon = step.indexOf(':');
+        if (colon < 0) {
+            return new QName(step);
+        }
+        String prefix = step.substring(0, colon);
+        String namespace = namespaces == null ? null : namespaces.get(prefix);
+        if (namespace == null) {
+            throw new IllegalArgumentException("Unknown prefix '" + prefix + "' in " + path);
+        }
+        return new QName(namespace, step.substring(colon + 1), prefix);
+    }
+
+    /**
+     * @return element names from the document element down
+     */
+    public List<QName> getElements() {
+        return elements;
+    }
+
+    /**
+     * @return selected attribute, or null if the text of the last element is
+     * selected
+     */
+    public QName getAttribute() {
+        return attribute;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.stream;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates a set of {@link StreamPath} in one forward pass over a StAX
+ * reader. The paths are merged in a tree of element names, so each start tag
+ * is a single map lookup, and only the text of the elements that are selected
+ * is buffered; memory depends on the depth of the document and not on its
+ * size.
+ * <p/>
+ * The selected text of an element is the concatenation of all its
+ * descendant text nodes, the same value that the XPath mappers receive from
+ * JDOM.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public final class StreamSelector {
+
+    /**
+     * Receives the selected values in document order.
+     */
+    public interface Handler {
+
+        /**
+         * @param path position of the path in the list given to the selector
+         * @param value selected text or attribute value
+         */
+        void select(int path, String value);
+    }
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final Node root = new Node();
+
+    public StreamSelector(List<StreamPath> paths) {
+        for (int i = 0; i < paths.size(); i++) {
+            StreamPath path = paths.get(i);
+            Node node = root;
+            for (QName element : path.getElements()) {
+                node = node.child(element);
+            }
+            if (path.getAttribute() == null) {
+                node.text.add(i);
+            } else {
+                node.attributes.add(new Selection(path.getAttribute(), i));
+            }
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Reads the whole input and reports every selected value to the handler.
+     * The input is not closed.
+     */
+    public void select(InputStream input, Handler handler) throws XMLStreamException {
+        XMLStreamReader reader;
+        synchronized (FACTORY) {
+            reader = FACTORY.createXMLStreamReader(input);
+        }
+        try {
+            select(reader, handler);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void select(XMLStreamReader reader, Handler handler) throws XMLStreamException {
+        // matched node of each open element, null when outside of the paths
+        Deque<Node> open = new ArrayDeque<Node>();
+        // text being collected for the open elements that select their text
+        Deque<Capture> captures = new ArrayDeque<Capture>();
+        Node current = root;
+        int depth = 0;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    open.push(current == null ? Node.NONE : current);
+                    current = current == null ? null : current.children.get(reader.getName());
+                    depth++;
+                    if (current != null) {
+                        for (Selection selection : current.attributes) {
+                            String value = reader.getAttributeValue(namespace(selection.name), selection.name.getLocalPart());
+                            if (value != null) {
+                                handler.select(selection.path, value);
+                            }
+                        }
+                        if (!current.text.isEmpty()) {
+                            captures.push(new Capture(depth, current.text));
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (!captures.isEmpty()) {
+                        String text = reader.getText();
+                        for (Capture capture : captures) {
+                            capture.value.append(text);
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (!captures.isEmpty() && captures.peek().depth == depth) {
+                        Capture capture = captures.pop();
+                        String value = capture.value.toString();
+                        for (Integer path : capture.paths) {
+                            handler.select(path, value);
+                        }
+                    }
+                    Node parent = open.pop();
+                    current = parent == Node.NONE ? null : parent;
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static String namespace(QName name) {
+        return name.getNamespaceURI().isEmpty() ? null : name.getNamespaceURI();
+    }
+
+    private static final class Node {
+
+        private static final Node NONE = new Node();
+
+        private final Map<QName, Node> children = new HashMap<QName, Node>();
+        private final List<Integer> text = new ArrayList<Integer>();
+        private final List<Selection> attributes = new ArrayList<Selection>();
+
+        private Node child(QName name) {
+            // QName equality ignores the prefix
+            Node node = children.get(name);
+            if (node == null) {
+                node = new Node();
+                children.put(name, node);
+            }
+            return node;
+        }
+    }
+
+    private static final class Selection {
+
+        private final QName name;
+        private final int path;
+
+        private Selection(QName name, int path) {
+            this.name = name;
+            this.path = path;
+        }
+    }
+
+    private static final class Capture {
+
+        private final int depth;
+        private final List<Integer> paths;
+        private final StringBuilder value = new StringBuilder();
+
+        private Capture(int depth, List<Integer> paths) {
+            this.depth = depth;
+            this.paths = paths;
+        }
+    }
+}
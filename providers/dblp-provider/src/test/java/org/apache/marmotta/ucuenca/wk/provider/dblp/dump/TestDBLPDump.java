@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.dump;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.rio.helpers.StatementCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Ingestion of a small dblp dump (gzip, ISO-8859-1 with the entities of
+ * dblp.dtd) without network access.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestDBLPDump {
+
+    private static final String SAQUICELA = "http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo";
+    private static final String ESPINOZA = "http://190.15.141.102:8080/dspace/contribuidor/autor/Espinoza_Mauricio";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private DBLPNameIndex index;
+
+    @Before
+    public void loadIndex() throws Exception {
+        InputStream input = getClass().getResourceAsStream("authors.tsv");
+        try {
+            index = DBLPNameIndex.read(new InputStreamReader(input, "UTF-8"));
+        } finally {
+            input.close();
+        }
+    }
+
+    @Test
+    public void testNameIndex() {
+        Assert.assertEquals(4, index.size());
+        Assert.assertTrue(index.lookup("Víctor Saquicela").contains(SAQUICELA));
+        Assert.assertTrue(index.lookup("Victor Hugo Saquicela Galarza").contains(SAQUICELA));
+        Assert.assertEquals(2, index.lookup("Wei Wang 0001").size());
+        Assert.assertTrue(index.lookup("Sanjeev Saxena").isEmpty());
+    }
+
+    @Test
+    public void testUrlpt() {
+        Assert.assertEquals("s/Saquicela:V=iacute=ctor", DBLPDumpMapper.urlpt("Víctor Saquicela"));
+        Assert.assertEquals("b/Bl=aacute=zquez:Luis_Manuel_Vilches", DBLPDumpMapper.urlpt("Luis Manuel Vilches Blázquez"));
+        Assert.assertEquals("g/G=oacute=mez=P=eacute=rez:Asunci=oacute=n", DBLPDumpMapper.urlpt("Asunción Gómez-Pérez"));
+        Assert.assertEquals("w/Wang_0001:Wei", DBLPDumpMapper.urlpt("Wei Wang 0001"));
+    }
+
+    @Test
+    public void testDump() throws Exception {
+        Model model = new LinkedHashModel();
+        DBLPDumpMapper mapper = new DBLPDumpMapper(index, new StatementCollector(model));
+        DBLPDumpReader reader = new DBLPDumpReader(index);
+        reader.read(new File(getClass().getResource("sample-dblp.xml.gz").toURI()), mapper);
+
+        // two publications and a person page of Saquicela, one publication of Espinoza
+        Assert.assertEquals(8, reader.getRecords());
+        Assert.assertEquals(4, reader.getMatches());
+
+        URI accented = person("s/Saquicela:V=iacute=ctor");
+        URI plain = person("s/Saquicela:Victor");
+        URI publication = factory.createURI(DBLPDumpMapper.NS_RECORD + "conf/esws/SaquicelaBC11");
+        Assert.assertTrue(model.contains(accented, schema("authorOf"), publication));
+        Assert.assertTrue(model.contains(plain, schema("authorOf"), factory.createURI(DBLPDumpMapper.NS_RECORD + "journals/ijswis/SaquicelaBC12")));
+        Assert.assertTrue(model.contains(factory.createURI(SAQUICELA), OWL.SAMEAS, accented));
+        Assert.assertTrue(model.contains(factory.createURI(SAQUICELA), OWL.SAMEAS, plain));
+        Assert.assertTrue(model.contains(plain, OWL.SAMEAS, accented));
+        Assert.assertTrue(model.contains(factory.createURI(ESPINOZA), OWL.SAMEAS, person("e/Espinoza:Mauricio")));
+
+        // publication properties in the dblp schema
+        Assert.assertEquals("Lightweight Semantic Annotation of Geospatial RESTful Services.",
+                model.filter(publication, schema("title"), null).objectString());
+        Assert.assertTrue(model.contains(publication, schema("authoredBy"), person("c/Corcho:=Oacute=scar")));
+        Assert.assertTrue(model.contains(publication, schema("primaryElectronicEdition"), factory.createURI("https://doi.org/10.1007/978-3-642-21064-8_23")));
+        Assert.assertTrue(model.contains(publication, schema("publishedAsPartOf"), factory.createURI(DBLPDumpMapper.NS_RECORD + "conf/esws/2011-2")));
+
+        // not our authors
+        Assert.assertFalse(model.contains(factory.createURI(DBLPDumpMapper.NS_RECORD + "journals/acta/Saxena96"), null, null));
+        Assert.assertFalse(model.contains(person("c/Corcho:=Oacute=scar"), null, null));
+        // the homonym is shared by two of our authors: no link
+        Assert.assertFalse(model.contains(null, OWL.SAMEAS, person("w/Wang_0001:Wei")));
+        Assert.assertEquals(1, mapper.getAmbiguous());
+    }
+
+    @Test(expected = DBLPDumpException.class)
+    public void testMissingDtd() throws Exception {
+        // the DTD is never downloaded
+        InputStream input = new ByteArrayInputStream("<!DOCTYPE dblp SYSTEM \"http://dblp.org/xml/dblp.dtd\"><dblp/>".getBytes("UTF-8"));
+        new DBLPDumpReader(index).read(input, new File("target/no-such-directory"), null);
+    }
+
+    private URI person(String urlpt) {
+        return factory.createURI(DBLPDumpMapper.NS_PERSON + urlpt);
+    }
+
+    private URI schema(String name) {
+        return factory.createURI(DBLPDumpMapper.NS_SCHEMA + name);
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.dblp.stream;
+
+import org.apache.marmotta.commons.vocabulary.DCTERMS;
+import org.apache.marmotta.commons.vocabulary.FOAF;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
+import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.DBLPAuthorProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.DBLPCandidatesProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.DBLPProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.DBLPRawProvider;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.DBLPResourceProvider;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The streaming mappings must give the same triples as the XPath mappings
+ * evaluated by AbstractXMLDataProvider, on responses saved from DBLP.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestStreamMapping {
+
+    private static final String PUBLICATION = "http://dblp.dagstuhl.de/rec/conf/esws/SaquicelaBC11";
+    private static final String PERSON = "http://dblp.dagstuhl.de/pers/s/Saquicela:Victor";
+    private static final String SEARCH = "http://rdf.dblp.com/ns/search/Saquicela_Victor";
+    private static final String CANDIDATES = "http://rdf.dblp.com/ns/candidates/Saquicela_Victor";
+
+    @Test
+    public void testPublication() throws Exception {
+        Model model = assertSameTriples(new DBLPResourceProvider(), PUBLICATION, "SaquicelaBC11.rdf");
+        URI publication = ValueFactoryImpl.getInstance().createURI(PUBLICATION);
+        Assert.assertEquals(3, model.filter(publication, DCTERMS.contributor, null).size());
+        Assert.assertEquals("Lightweight Semantic Annotation of Geospatial RESTful Services & <their> Mashups.",
+                model.filter(publication, DCTERMS.title, null).objectString());
+    }
+
+    @Test
+    public void testPerson() throws Exception {
+        Model model = assertSameTriples(new DBLPAuthorProvider(), PERSON, "Saquicela_Victor.rdf");
+        URI person = ValueFactoryImpl.getInstance().createURI(PERSON);
+        Assert.assertEquals(7, model.filter(person, FOAF.publications, null).size());
+        Assert.assertEquals(1, model.filter(person, DCTERMS.modified, null).size());
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        Model raw = assertSameTriples(new DBLPRawProvider(), SEARCH, "search-Saquicela_Victor.xml");
+        Assert.assertEquals(2, raw.filter(null, FOAF.member, null).size());
+        Model search = assertSameTriples(new DBLPProvider(), SEARCH, "search-Saquicela_Victor.xml");
+        Assert.assertEquals(2, search.filter(null, FOAF.member, null).size());
+    }
+
+    @Test
+    public void testCandidates() throws Exception {
+        Model model = assertSameTriples(new DBLPCandidatesProvider(), CANDIDATES, "candidates-Saquicela_Victor.xml");
+        Assert.assertEquals(2, model.filter(null, FOAF.member, null).size());
+    }
+
+    @Test
+    public void testMixedContent() throws Exception {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        namespaces.put("a", "urn:a");
+        final StringBuilder selected = new StringBuilder();
+        String xml = "<x:r xmlns:x='urn:a'><x:t>one <b>two</b><!-- no --> <x:t>three</x:t></x:t><t>four</t></x:r>";
+        new StreamSelector(Collections.singletonList(StreamPath.parse("/a:r/a:t", namespaces)))
+                .select(new ByteArrayInputStream(xml.getBytes("UTF-8")), new StreamSelector.Handler() {
+                    @Override
+                    public void select(int path, String value) {
+                        selected.append('[').append(value).append(']');
+                    }
+                });
+        Assert.assertEquals("[one two three]", selected.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedPath() {
+        StreamPath.parse("//dblp:Person[1]/dblp:authorOf", Collections.singletonMap("dblp", "urn:dblp"));
+    }
+
+    /**
+     * Parse the response with the streaming provider and with
+     * AbstractXMLDataProvider using the same mappers; the links are not
+     * followed.
+     *
+     * @return triples of the streaming provider
+     */
+    private Model assertSameTriples(AbstractStreamXMLDataProvider provider, String resource, String file) throws Exception {
+        Model streamed = new LinkedHashModel();
+        InputStream input = getClass().getResourceAsStream(file);
+        try {
+            provider.mapResponse(resource, resource, streamed, input);
+        } finally {
+            input.close();
+        }
+
+        Model expected = new LinkedHashModel();
+        XPathReference reference = new XPathReference(provider.getStreamMappings(resource),
+                provider.getTypes(ValueFactoryImpl.getInstance().createURI(resource)));
+        input = getClass().getResourceAsStream(file);
+        try {
+            reference.parseResponse(resource, resource, expected, input, "text/xml");
+        } finally {
+            input.close();
+        }
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, streamed);
+        return streamed;
+    }
+
+    /**
+     * JDOM implementation of the same mappings.
+     */
+    private static class XPathReference extends AbstractXMLDataProvider {
+
+        private final Map<String, XPathValueMapper> mappings = new HashMap<String, XPathValueMapper>();
+        private final List<String> types;
+
+        XPathReference(Map<String, StreamMapping> streamMappings, List<String> types) {
+            for (Map.Entry<String, StreamMapping> mapping : streamMappings.entrySet()) {
+                mappings.put(mapping.getKey(), mapping.getValue().getMapper());
+            }
+            this.types = types;
+        }
+
+        @Override
+        protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
+            return mappings;
+        }
+
+        @Override
+        protected List<String> getTypes(URI resource) {
+            return types;
+        }
+
+        @Override
+        public String getName() {
+            return "XPath Reference";
+        }
+
+        @Override
+        public String[] listMimeTypes() {
+            return new String[]{"text/xml"};
+        }
+
+        @Override
+        public List<String> buildRequestUrl(String resource, Endpoint endpoint) throws DataRetrievalException {
+            return Collections.singletonList(resource);
+        }
+    }
+}
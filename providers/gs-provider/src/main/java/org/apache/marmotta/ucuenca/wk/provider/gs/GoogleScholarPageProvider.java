@@ -21,18 +21,14 @@ package org.apache.marmotta.ucuenca.wk.provider.gs;
 //import org.apache.marmotta.commons.vocabulary.FOAF;
 //
 //import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 //import org.apache.marmotta.ldclient.model.ClientConfiguration;
 //import org.apache.marmotta.ldclient.model.ClientResponse;
 //import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSXMLHandler;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSresult;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSPageParser;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 //import org.jdom2.Document;
 //import org.jdom2.Element;
 //import org.jdom2.JDOMException;
@@ -42,20 +38,17 @@ import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
 //import org.jdom2.xpath.XPathFactory;
 import org.openrdf.model.Model;
 //import org.openrdf.model.ValueFactory;
-//import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.helpers.StatementCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLReaderFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 //import java.net.URL;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 //import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -65,7 +58,7 @@ import java.util.regex.Pattern;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class GoogleScholarPageProvider extends AbstractHttpProvider{
+public class GoogleScholarPageProvider extends AbstractHttpProvider implements HttpDataProvider {
 	
     public static final String NAME = "Google Scholar Page Provider";
     public static final String API = "http://scholar.google.com/scholar?start=%s&q=%s+article%s&hl=en&as_sdt=1%%2C15&as_vis=1%s";
@@ -133,28 +126,8 @@ public class GoogleScholarPageProvider extends AbstractHttpProvider{
     @Override
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
     	log.debug("Request Successful to {0}", requestUrl);
-    	final GSXMLHandler gsXMLHandler = new GSXMLHandler();
-        gsXMLHandler.clearGSresultList();
         try {
-            XMLReader xr = XMLReaderFactory.createXMLReader("org.ccil.cowan.tagsoup.Parser");
-            xr.setContentHandler(gsXMLHandler);
-            InputSource gsxml = new InputSource(input);
-            gsxml.setEncoding("iso-8859-1");
-            xr.parse(gsxml);
-            
-            final Set<GSresult> gsresultlist = gsXMLHandler.getGSresultList();
-            Gson gson = new Gson();
-            JsonArray json = new JsonArray();
-            for (GSresult d : gsresultlist) {
-                json.add( gson.toJsonTree(d).getAsJsonObject() );
-            }
-            JSONtoRDF parser = new JSONtoRDF(resource, GoogleScholarProvider.MAPPINGSCHEMA, json, triples);
-            try {
-            	parser.parse();
-            }catch(Exception e) {
-            	throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
-            }
-
+            GSPageParser.get().parse(ValueFactoryImpl.getInstance().createURI(resource), input, GoogleScholarProvider.MAPPER, new StatementCollector(triples));
         } catch (SAXException | IOException e) {
         	throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
         }
@@ -19,18 +19,12 @@ package org.apache.marmotta.ucuenca.wk.provider.gs;
 //import org.apache.commons.lang3.StringUtils;
 //import org.apache.marmotta.commons.vocabulary.FOAF;
 //import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSXMLHandler;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSresult;
-import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSPageParser;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSResultMapper;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 //import org.jdom2.Document;
 //import org.jdom2.Element;
 //import org.jdom2.JDOMException;
@@ -40,20 +34,18 @@ import org.apache.marmotta.ucuenca.wk.provider.gs.util.JSONtoRDF;
 //import org.jdom2.xpath.XPathFactory;
 import org.openrdf.model.Model;
 //import org.openrdf.model.ValueFactory;
-//import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.helpers.StatementCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLReaderFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 //import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 //import java.util.logging.Level;
@@ -65,7 +57,7 @@ import java.util.regex.Pattern;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class GoogleScholarProvider extends AbstractHttpProvider {
+public class GoogleScholarProvider extends AbstractHttpProvider implements HttpDataProvider {
 
     public static final String NAME = "Google Scholar Provider";
     public static final String API = "http://scholar.google.com/scholar?start=%s&q=author:%%22%s%%22%s&hl=en&as_sdt=1%%2C15&as_vis=1%s";
@@ -101,6 +93,9 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
 
     }
 
+    /* MAPPINGSCHEMA resolved once for all the pages */
+    static final GSResultMapper MAPPER = new GSResultMapper(MAPPINGSCHEMA);
+
     /**
      * Return the name of this data provider. To be used e.g. in the
      * configuration and in log messages.
@@ -158,48 +153,20 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
 
     @Override
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        Matcher m = Pattern.compile(PATTERN).matcher(requestUrl);
+        if (!m.find()) {
+            // a further page of the results, parsed as GoogleScholarPageProvider does
+            return new GoogleScholarPageProvider().parseResponse(requestUrl, requestUrl, triples, input, contentType);
+        }
         log.debug("Request Successful to {0}", requestUrl);
-        final GSXMLHandler gsXMLHandler = new GSXMLHandler();
-        gsXMLHandler.clearGSresultList();
+        List<String> pages = new ArrayList<>();
         try {
-            XMLReader xr = XMLReaderFactory.createXMLReader("org.ccil.cowan.tagsoup.Parser");
-            xr.setContentHandler(gsXMLHandler);
-            InputSource gsxml = new InputSource(input);
-            gsxml.setEncoding("iso-8859-1");
-            xr.parse(gsxml);
-
-            final Set<GSresult> gsresultlist = gsXMLHandler.getGSresultList();
-            Gson gson = new Gson();
-            JsonArray json = new JsonArray();
-            for (GSresult d : gsresultlist) {
-                json.add(gson.toJsonTree(d).getAsJsonObject());
-            }
-            JSONtoRDF parser = new JSONtoRDF(resource, MAPPINGSCHEMA, json, triples);
-            try {
-                parser.parse();
-            } catch (Exception e) {
-                throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
-            }
-            int numPages = (int) ((double) (gsXMLHandler.getNumResults() / 10)) + 1;
-            int pagesLoaded = 1;
-            Model model = null;
-            while (pagesLoaded < numPages) {
-               
+            int numResults = GSPageParser.get().parse(ValueFactoryImpl.getInstance().createURI(resource), input, MAPPER, new StatementCollector(triples));
+            int numPages = (int) ((double) (numResults / 10)) + 1;
+            for (int pagesLoaded = 1; pagesLoaded < numPages; pagesLoaded++) {
                 String pagenumquery = Integer.toString(pagesLoaded * 10);
-                String moreDataUrl = String.format(API, pagenumquery, stringSearch, authorSearch, advancedSearch);
-                ClientConfiguration conf = new ClientConfiguration();
-                LDClient ldClient = new LDClient(conf);
-                ClientResponse response = ldClient.retrieveResource(moreDataUrl);
-                Model pageModel = response.getData();
-                if (model == null) {
-                    model = pageModel;
-                } else {
-                    model.addAll(pageModel);
-                }
-                pagesLoaded++;
+                pages.add(String.format(API, pagenumquery, m.group(2), m.group(3), m.group(3)));
             }
-            triples.addAll(model);
-
         } catch (SAXException | IOException e) {
             throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
         }
@@ -233,7 +200,7 @@ public class GoogleScholarProvider extends AbstractHttpProvider {
 //        }catch (JDOMException e) {
 //            throw new DataRetrievalException("could not parse XML response. It is not in proper XML format", e);
 //        }
-        return Collections.emptyList();
+        return pages;
     }
 
 //    protected static List<Element> queryElements(Document n, String query) {
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.gs.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.openrdf.model.Resource;
+import org.openrdf.rio.RDFHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * TagSoup reader and {@link GSXMLHandler} of the current thread, created once
+ * and used for every page the thread parses.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public final class GSPageParser {
+
+    private static final ThreadLocal<GSPageParser> PARSERS = new ThreadLocal<>();
+
+    private final XMLReader reader;
+    private final GSXMLHandler handler = new GSXMLHandler();
+
+    private GSPageParser() throws SAXException {
+        reader = XMLReaderFactory.createXMLReader("org.ccil.cowan.tagsoup.Parser");
+        reader.setContentHandler(handler);
+    }
+
+    /**
+     * @return the parser of the current thread
+     */
+    public static GSPageParser get() throws SAXException {
+        GSPageParser parser = PARSERS.get();
+        if (parser == null) {
+            parser = new GSPageParser();
+            PARSERS.set(parser);
+        }
+        return parser;
+    }
+
+    /**
+     * Parse a page of results (ISO-8859-1) and send the statements of each
+     * result to the sink.
+     *
+     * @return total number of results of the search, as shown in the page
+     */
+    public int parse(Resource resource, InputStream input, GSResultMapper mapper, RDFHandler sink) throws SAXException, IOException {
+        handler.start(resource, mapper, sink);
+        InputSource gsxml = new InputSource(input);
+        gsxml.setEncoding("iso-8859-1");
+        try {
+            reader.parse(gsxml);
+            return handler.getNumResults();
+        } finally {
+            // do not keep the sink of this page
+            handler.start(null, null, null);
+        }
+    }
+}
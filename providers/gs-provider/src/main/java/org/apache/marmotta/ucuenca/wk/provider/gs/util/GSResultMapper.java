@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.gs.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+
+/**
+ * Statements of a Google Scholar result. The mapping schema
+ * (entity::type, entity::property:<i>field</i>) is resolved once, the fields
+ * are those of {@link GSresult}.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class GSResultMapper {
+
+    private static final String PROPERTY = "entity::property:";
+    private static final String CREATOR = PROPERTY + "creator";
+    private static final String LINK = PROPERTY + "link";
+    private static final String[] FIELDS = {"title", "author", "text", "link", "pdf", "cites", "fulltextlink", "type"};
+
+    private static final String AUTHOR_SEARCH = "https://scholar.google.com/scholar?start=0&q=author:%22";
+    private static final String AUTHOR_SEARCH_END = "%22&hl=en&as_sdt=1%2C15&as_vis=1";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    private final URI type;
+    private final URI link;
+    private final List<URI> creators = new ArrayList<>();
+    private final List<String> fields = new ArrayList<>();
+    private final List<URI> predicates = new ArrayList<>();
+
+    public GSResultMapper(Map<String, String> schema) {
+        type = uri(schema.get("entity::type"));
+        link = uri(schema.get(LINK));
+        for (Map.Entry<String, String> entry : schema.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(CREATOR)) {
+                creators.add(uri(entry.getValue()));
+            } else if (key.startsWith(PROPERTY)) {
+                String field = key.substring(PROPERTY.length());
+                for (String known : FIELDS) {
+                    if (known.equals(field)) {
+                        fields.add(field);
+                        predicates.add(uri(entry.getValue()));
+                    }
+                }
+            }
+        }
+    }
+
+    private URI uri(String value) {
+        return value == null ? null : factory.createURI(value);
+    }
+
+    /**
+     * Results without link are ignored.
+     *
+     * @param resource the search, linked to each result
+     */
+    public void map(Resource resource, GSresult result, RDFHandler sink) throws RDFHandlerException {
+        if (result.getLink() == null) {
+            return;
+        }
+        URI subject = factory.createURI(result.getLink());
+        if (link != null) {
+            add(sink, resource, link, subject);
+        }
+        if (type != null) {
+            add(sink, subject, RDF.TYPE, type);
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String value = value(result, fields.get(i));
+            if (value != null) {
+                add(sink, subject, predicates.get(i), factory.createLiteral(value));
+            }
+        }
+        if (!creators.isEmpty() && result.getAuthor() != null && !result.getAuthor().isEmpty()) {
+            for (String author : authors(result.getAuthor())) {
+                URI authorSearch = factory.createURI(AUTHOR_SEARCH + author.replace(" ", "+") + AUTHOR_SEARCH_END);
+                for (URI creator : creators) {
+                    add(sink, subject, creator, authorSearch);
+                }
+            }
+        }
+    }
+
+    /**
+     * The author line is "A Author, B Author… - Source, year - publisher".
+     */
+    private static String[] authors(String line) {
+        int end = line.indexOf("… -");
+        if (end < 0) {
+            end = line.indexOf(" - ");
+        }
+        return (end < 0 ? line : line.substring(0, end)).split(",");
+    }
+
+    private static String value(GSresult result, String field) {
+        switch (field) {
+            case "title":
+                return result.getTitle();
+            case "author":
+                return result.getAuthor();
+            case "text":
+                return result.getText();
+            case "link":
+                return result.getLink();
+            case "pdf":
+                return result.getPDF();
+            case "cites":
+                return result.getCites();
+            case "fulltextlink":
+                return result.getFullTextLink();
+            case "type":
+                return Integer.toString(result.getType());
+            default:
+                return null;
+        }
+    }
+
+    private void add(RDFHandler sink, Resource subject, URI predicate, Value object) throws RDFHandlerException {
+        sink.handleStatement(factory.createStatement(subject, predicate, object));
+    }
+}
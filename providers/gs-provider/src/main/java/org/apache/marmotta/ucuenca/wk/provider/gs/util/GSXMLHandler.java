@@ -10,31 +10,39 @@ package org.apache.marmotta.ucuenca.wk.provider.gs.util;
 
 import java.text.NumberFormat;
 import java.text.ParseException;
-import java.util.HashSet;
 import java.util.Locale;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.openrdf.model.Resource;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
 //import android.util.Log;
+/**
+ * Each result is mapped to statements as soon as its block closes. The
+ * handler keeps the state of one page, call {@link #start} before each page
+ * and do not share it between threads.
+ */
 public class GSXMLHandler extends DefaultHandler {
 
-    private static GSresult gsresult;
-    private Set<GSresult> gsresultlist = new HashSet<>();
+    private static final Pattern RESULTTAG = Pattern.compile("[\\w]*\\s?([0-9,]+) results", Pattern.MULTILINE);
+    private static final Pattern CITESTAG = Pattern.compile("Cited by (.*?) .*?", Pattern.MULTILINE);
+
+    private GSresult gsresult;
+
+    private Resource resource;
+    private GSResultMapper mapper;
+    private RDFHandler sink;
 
-    private String builder;
-    private static String currenttext = null;
-    private static int pageresultcount = 0;
-    private static Pattern resulttag;
-    private static Matcher resultmatch;
-    private static Pattern citestag;
-    private static Matcher citesmatch;
-    private static int numresults = 0;
-    private static int level = 0;
+    private StringBuilder builder;
+    private String currenttext = null;
+    private int pageresultcount = 0;
+    private int numresults = 0;
+    private int level = 0;
 
     /**
      * The following variables act as flags to keep track of state during
@@ -77,24 +85,33 @@ public class GSXMLHandler extends DefaultHandler {
     //private boolean D = false;
 
     public GSXMLHandler() {
-        builder = new String();
+        builder = new StringBuilder();
         gsresult = new GSresult();
     }
 
-    //public static GSresultList gsresultlist = null;
-    //private static final String TAG = "MyActivity";
     /**
-     * ArrayList that contains numresults number of results
+     * Reset the state for a new page.
      *
-     * @return
+     * @param resource the search, linked to each result
+     * @param mapper statements of each result
+     * @param sink receives the statements
      */
-    public Set<GSresult> getGSresultList() {
-        return gsresultlist;
+    public void start(Resource resource, GSResultMapper mapper, RDFHandler sink) {
+        this.resource = resource;
+        this.mapper = mapper;
+        this.sink = sink;
+        builder.setLength(0);
+        gsresult = new GSresult();
+        currenttext = null;
+        pageresultcount = 0;
+        numresults = 0;
+        level = 0;
+        isfreepdf = false;
+        isbook = false;
     }
 
-    public void clearGSresultList() {
-        gsresultlist.clear();
-    }
+    //public static GSresultList gsresultlist = null;
+    //private static final String TAG = "MyActivity";
 
     /**
      * Number of results returned at the end of parsing. Usually 10.
@@ -151,7 +168,7 @@ public class GSXMLHandler extends DefaultHandler {
         } //#3
         else if ((level == OUTGSRT) && ("gs_a".equalsIgnoreCase(currenttext))) {
             level = INAUTHOR;
-            builder = new String();
+            builder.setLength(0);
         } //#3
         else {
             ifOneFirst(uri, localName, qName, attributes);
@@ -163,11 +180,11 @@ public class GSXMLHandler extends DefaultHandler {
     public void ifOneFirst(String uri, String localName, String qName, Attributes attributes) {
         if ((level == OUTAUTHOR) && ("gs_rs".equalsIgnoreCase(currenttext))) {
             level = INTEXT;
-            builder = new String();
+            builder.setLength(0);
         } //#3
         else if ((level == OUTTEXT) && ("gs_fl".equalsIgnoreCase(currenttext))) {
             level = INCITE;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
         else if ((level == OUTCHECKPDF) && ("gs_br".equalsIgnoreCase(currenttext))) {
@@ -184,9 +201,8 @@ public class GSXMLHandler extends DefaultHandler {
             /**
              * New Google Scholar shows it on upper left
              */
-            resulttag = Pattern.compile("[\\w]*\\s?([0-9,]+) results", Pattern.MULTILINE);
             //if(D) Log.d(TAG,"\nString="+builder);
-            resultmatch = resulttag.matcher(builder);
+            Matcher resultmatch = RESULTTAG.matcher(builder);
             if (resultmatch.find()) {
                 NumberFormat format = NumberFormat.getInstance(Locale.US);
                 try {
@@ -222,7 +238,7 @@ public class GSXMLHandler extends DefaultHandler {
         else if ((level == INGSRT) || (level == OUTCHECKBOOK)) {
             //if(D) Log.d(TAG,"link="+attributes.getValue("href"));
             gsresult.setLink(attributes.getValue("href"));
-            builder = new String();
+            builder.setLength(0);
             level = INTITLE;
             if ((!isfreepdf) && (!isbook)) {
                 gsresult.setType(ONLYLINK);
@@ -240,12 +256,12 @@ public class GSXMLHandler extends DefaultHandler {
 
         if ((level == INPDF) && div1.equalsIgnoreCase(currenttext)) {
             level = INCHECKPDF;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
         else if ((level == INGSRT) && div2.equalsIgnoreCase(currenttext)) {
             level = INCHECKBOOK;
-            builder = new String();
+            builder.setLength(0);
 
         } //#3
     }
@@ -284,13 +300,13 @@ public class GSXMLHandler extends DefaultHandler {
                 level = OUTPDF;
                 break;
             case INAUTHOR:
-                gsresult.setAuthor(builder);
+                gsresult.setAuthor(builder.toString());
 
                 level = OUTAUTHOR;
                 break;
             case INTEXT:
-                gsresult.setText(builder.replaceAll("\n", " "));
-                builder = new String();
+                gsresult.setText(builder.toString().replace('\n', ' '));
+                builder.setLength(0);
                 level = OUTTEXT;
                 break;
 
@@ -307,8 +323,7 @@ public class GSXMLHandler extends DefaultHandler {
 
             case INCITE:
                 level = OUTCITE;
-                citestag = Pattern.compile("Cited by (.*?) .*?", Pattern.MULTILINE);
-                citesmatch = citestag.matcher(builder);
+                Matcher citesmatch = CITESTAG.matcher(builder);
                 if (citesmatch.find()) {
                     try {
                         //if(D) Log.d(TAG,"Cites="+citesmatch.group(1));
@@ -326,7 +341,11 @@ public class GSXMLHandler extends DefaultHandler {
                 break;
             case OUTGSRI:
                 level = OUTGSR;
-                gsresultlist.add(new GSresult(gsresult));
+                try {
+                    mapper.map(resource, gsresult, sink);
+                } catch (RDFHandlerException e) {
+                    throw new SAXException(e);
+                }
                 pageresultcount = 0;
                 isfreepdf = false;
                 isbook = false;
@@ -353,7 +372,7 @@ public class GSXMLHandler extends DefaultHandler {
         if (level == INTITLE) {
             level = OUTTITLE;
             //if(D) Log.d(TAG,"title="+builder);
-            gsresult.setTitle(builder);
+            gsresult.setTitle(builder.toString());
 
         } //#3
     }
@@ -365,14 +384,14 @@ public class GSXMLHandler extends DefaultHandler {
         else if (level == INCHECKPDF) {
             //if(D) Log.d("MyApp","Type="+builder);
             String axu="[PDF]";
-            if (builder.equalsIgnoreCase(axu)) {
+            if (builder.toString().equalsIgnoreCase(axu)) {
                 isfreepdf = true;
                 gsresult.setType(FREEPDF);
             }
             level = OUTCHECKPDF;
         } //#3
         else if (level == INCHECKBOOK) {
-            if ("[BOOK]".equalsIgnoreCase(builder)) {
+            if ("[BOOK]".equalsIgnoreCase(builder.toString())) {
                 isbook = true;
                 if (isfreepdf) {
                     gsresult.setType(BOOKANDPDF);
@@ -390,8 +409,7 @@ public class GSXMLHandler extends DefaultHandler {
      */
     @Override
     public void characters(char[] ch, int start, int length) throws SAXException {
-        currenttext = new String(ch, start, length);
-        builder = builder + currenttext;
+        builder.append(ch, start, length);
 
     }
 
@@ -0,0 +1,75 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.gs;
+
+import java.io.InputStream;
+import org.apache.marmotta.ucuenca.wk.provider.gs.GoogleScholarProvider;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSPageParser;
+import org.apache.marmotta.ucuenca.wk.provider.gs.util.GSResultMapper;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.helpers.StatementCollector;
+
+/**
+ * Statements of a saved page of results, emitted while the page is parsed.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestGSPageParser {
+
+    private static final String SEARCH = "https://scholar.google.com/scholar?start=0&q=author:%22victor+saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1";
+    private static final String PUBLICATION = "http://link.springer.com/chapter/10.1007/978-3-642-21064-8_23";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+    private final GSResultMapper mapper = new GSResultMapper(GoogleScholarProvider.MAPPINGSCHEMA);
+
+    @Test
+    public void testPage() throws Exception {
+        Model model = new LinkedHashModel();
+        assertEquals(25, parse(model));
+
+        URI publication = factory.createURI(PUBLICATION);
+        assertTrue(model.contains(factory.createURI(SEARCH), uri("http://purl.org/ontology/bibo/uri"), publication));
+        assertTrue(model.contains(factory.createURI(SEARCH), uri("http://purl.org/ontology/bibo/uri"),
+                uri("http://www.igi-global.com/article/adding-semantic-annotations/1")));
+        assertEquals("Lightweight Semantic Annotation of Geospatial RESTful Services",
+                model.filter(publication, uri("http://purl.org/dc/terms/title"), null).objectString());
+        assertEquals("Cited by - 7", model.filter(publication, uri("http://purl.org/ontology/bibo/cites"), null).objectString());
+        assertTrue(model.contains(publication, uri("http://purl.org/dc/elements/1.1/creator"),
+                uri("https://scholar.google.com/scholar?start=0&q=author:%22V+Saquicela%22&hl=en&as_sdt=1%2C15&as_vis=1")));
+        assertTrue(model.contains(publication, uri("http://purl.org/dc/elements/1.1/creator"),
+                uri("https://scholar.google.com/scholar?start=0&q=author:%22+O+Corcho%22&hl=en&as_sdt=1%2C15&as_vis=1")));
+    }
+
+    @Test
+    public void testParserReused() throws Exception {
+        assertSame(GSPageParser.get(), GSPageParser.get());
+
+        Model first = new LinkedHashModel();
+        parse(first);
+        Model second = new LinkedHashModel();
+        parse(second);
+        assertEquals(first, second);
+    }
+
+    private int parse(Model model) throws Exception {
+        InputStream input = getClass().getResourceAsStream("search-saquicela.html");
+        try {
+            return GSPageParser.get().parse(factory.createURI(SEARCH), input, mapper, new StatementCollector(model));
+        } finally {
+            input.close();
+        }
+    }
+
+    private URI uri(String uri) {
+        return factory.createURI(uri);
+    }
+}
@@ -16,10 +16,6 @@
  */
 package org.apache.marmotta.ucuenca.wk.provider.ma;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import java.io.BufferedReader;
-
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
@@ -31,18 +27,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONtoRDF;
-import org.apache.marmotta.ucuenca.wk.provider.ma.util.MapPublications;
-import org.apache.marmotta.ucuenca.wk.provider.ma.util.Publication;
-import org.json.simple.parser.ParseException;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONStreamToRDF;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 
 
 /**
@@ -50,7 +42,7 @@ import org.json.simple.parser.ParseException;
  * <p/>
  * Author: Santiago Gonzalez
  */
-public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
+public class MicrosoftAcademicsProvider extends AbstractHttpProvider implements HttpDataProvider {
 
     public static final String NAME = "Microsoft Academics Provider";
     public static final String API = "http://academic.research.microsoft.com/";
@@ -62,7 +54,6 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
     private static Logger log = LoggerFactory.getLogger(MicrosoftAcademicsProvider.class);
     public String stringSearch = null, authorSearch = null, advancedSearch = null, appId = null;
     public static final ConcurrentMap<String, String> MAPPINGSCHEMA = new ConcurrentHashMap<String, String>();
-    private MapPublications mapPublications = new MapPublications();
 
     static {
         MAPPINGSCHEMA.put("entity::type", "http://purl.org/ontology/bibo/Document");
@@ -86,6 +77,9 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
 
     }
 
+    /* MAPPINGSCHEMA resolved once for all the responses */
+    private static final JSONStreamToRDF.Schema SCHEMA = JSONStreamToRDF.compile(MAPPINGSCHEMA);
+
     /**
      * Return the name of this data provider. To be used e.g. in the
      * configuration and in log messages.
@@ -145,36 +139,11 @@ public class MicrosoftAcademicsProvider extends AbstractHttpProvider {
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
         log.debug("Request Successful to {0}", requestUrl);
 
+        JSONStreamToRDF parser = new JSONStreamToRDF(resource, SCHEMA, triples);
         try {
-            BufferedReader streamReader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
-            StringBuilder responseStrBuilder = new StringBuilder();
-
-            String inputStr=streamReader.readLine();
-            while (inputStr  != null) {
-                responseStrBuilder.append(inputStr);
-                inputStr = streamReader.readLine();
-            }
-            List<Publication> resultOutput = new ArrayList();
-
-            resultOutput = mapPublications.getPublications(responseStrBuilder.toString());
-            Gson gson = new Gson();
-            JsonArray json = new JsonArray();
-            for (Publication d : resultOutput) {
-                json.add(gson.toJsonTree(d).getAsJsonObject());
-            }
-            JSONtoRDF parser = new JSONtoRDF(resource, MAPPINGSCHEMA, json, triples);
-            //Model model2 = new TreeModel();
-
-            try {
-                parser.parse();
-            } catch (Exception e) {
-                throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
-            }
-
+            parser.parse(new InputStreamReader(input, "UTF-8"));
         } catch (IOException e) {
-            //e.printStackTrace();
-        } catch (ParseException ex) {
-            java.util.logging.Logger.getLogger(MicrosoftAcademicsProvider.class.getName()).log(Level.SEVERE, null, ex);
+            throw new DataRetrievalException("I/O exception while retrieving resource: " + requestUrl, e);
         }
 
         return Collections.emptyList();
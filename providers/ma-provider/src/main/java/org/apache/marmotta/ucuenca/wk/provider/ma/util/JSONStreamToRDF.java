@@ -0,0 +1,280 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.ma.util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+/**
+ * Maps a response of the Microsoft Academic search API
+ * (<code>{"d":{"Publication":{"Result":[...]}}}</code>) to RDF while it is
+ * read, with the same triples that {@link MapPublications} and
+ * {@link JSONtoRDF} produce. Only the values of the publication being read are
+ * kept until its ID is known.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public class JSONStreamToRDF {
+
+    public static final String NS_PUBLICATION = "http://academic.research.microsoft.com/Publication/";
+    public static final String NS_AUTHOR = "http://academic.research.microsoft.com/Author/";
+
+    private static final URI FOAF_PUBLICATIONS = ValueFactoryImpl.getInstance().createURI("http://xmlns.com/foaf/0.1/publications");
+
+    /**
+     * Predicates of the schema resolved once, by field of the API response.
+     */
+    public static class Schema {
+
+        private URI type;
+        private URI uri;
+        private URI creator;
+        private URI authorList;
+        private URI quote;
+        private URI fullVersionURL;
+        /* field of the publication -> predicate of its literal value */
+        private final Map<String, URI> literals = new HashMap<>();
+
+        private Schema() {
+        }
+    }
+
+    private static final String[][] LITERAL_FIELDS = {
+        {"entity::property:title", "Title"},
+        {"entity::property:abstract", "Abstract"},
+        {"entity::property:date", "Year"},
+        {"entity::property:doi", "DOI"},
+        {"entity::property:type", "Type"},
+        {"entity::property:citationCount", "CitationCount"},
+        {"entity::property:referenceCount", "ReferenceCount"}
+    };
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+    private final URI resource;
+    private final Schema schema;
+    private final Model model;
+
+    /* values of the current publication */
+    private final List<URI> predicates = new ArrayList<>();
+    private final List<Value> objects = new ArrayList<>();
+    private final StringBuilder authorList = new StringBuilder();
+
+    public JSONStreamToRDF(String resource, Schema schema, Model model) {
+        this.resource = factory.createURI(resource);
+        this.schema = schema;
+        this.model = model;
+    }
+
+    /**
+     * @param mapping entity::type and entity::property:* keys, as in
+     * {@link JSONtoRDF}
+     */
+    public static Schema compile(Map<String, String> mapping) {
+        ValueFactory factory = ValueFactoryImpl.getInstance();
+        Schema schema = new Schema();
+        schema.type = uri(factory, mapping, "entity::type");
+        schema.uri = uri(factory, mapping, "entity::property:uri");
+        schema.creator = uri(factory, mapping, "entity::property:creator");
+        schema.authorList = uri(factory, mapping, "entity::property:authorlist");
+        schema.quote = uri(factory, mapping, "entity::property:quote");
+        schema.fullVersionURL = uri(factory, mapping, "entity::property:fullversionurl");
+        for (String[] field : LITERAL_FIELDS) {
+            URI predicate = uri(factory, mapping, field[0]);
+            if (predicate != null) {
+                schema.literals.put(field[1], predicate);
+            }
+        }
+        return schema;
+    }
+
+    private static URI uri(ValueFactory factory, Map<String, String> mapping, String key) {
+        String value = mapping.get(key);
+        return value == null ? null : factory.createURI(value);
+    }
+
+    /**
+     * @param input response of the API, it is not closed
+     */
+    public void parse(Reader input) throws IOException {
+        if (schema.type != null) {
+            model.add(resource, RDF.TYPE, schema.type);
+        }
+        JsonReader reader = new JsonReader(input);
+        try {
+            if (enter(reader, "d") && enter(reader, "Publication") && enter(reader, "Result")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    publication(reader);
+                }
+                reader.endArray();
+            }
+        } catch (IllegalStateException e) {
+            // unexpected token
+            throw new IOException("unexpected content in the Microsoft Academic response", e);
+        }
+    }
+
+    /**
+     * Read the object of the reader until the value of the given member.
+     *
+     * @return false if the object has no such member
+     */
+    private static boolean enter(JsonReader reader, String name) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (name.equals(reader.nextName())) {
+                return true;
+            }
+            reader.skipValue();
+        }
+        reader.endObject();
+        return false;
+    }
+
+    private void publication(JsonReader reader) throws IOException {
+        predicates.clear();
+        objects.clear();
+        authorList.setLength(0);
+        String id = null;
+        boolean authors = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            URI literal = schema.literals.get(name);
+            if (literal != null) {
+                String value = string(reader);
+                if (value != null) {
+                    add(literal, factory.createLiteral(value));
+                }
+            } else if ("ID".equals(name)) {
+                id = string(reader);
+            } else if ("FullVersionURL".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String url = string(reader);
+                    if (url != null && schema.fullVersionURL != null) {
+                        add(schema.fullVersionURL, factory.createURI(url));
+                    }
+                }
+                reader.endArray();
+            } else if ("Keyword".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String keyword = member(reader, "Name");
+                    if (keyword != null && schema.quote != null) {
+                        add(schema.quote, factory.createLiteral(keyword));
+                    }
+                }
+                reader.endArray();
+            } else if ("Author".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                authors = true;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String author = member(reader, "ID");
+                    if (author != null) {
+                        String authorUri = NS_AUTHOR + author + "/";
+                        authorList.append('<').append(authorUri).append("> ");
+                        if (schema.creator != null) {
+                            add(schema.creator, factory.createURI(authorUri));
+                        }
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (id == null) {
+            return;
+        }
+        URI publication = factory.createURI(NS_PUBLICATION + id + "/");
+        model.add(resource, FOAF_PUBLICATIONS, publication);
+        if (schema.type != null) {
+            model.add(publication, RDF.TYPE, schema.type);
+        }
+        if (schema.uri != null) {
+            model.add(publication, schema.uri, publication);
+        }
+        if (authors && schema.authorList != null) {
+            model.add(publication, schema.authorList, factory.createLiteral("(" + authorList + ")"));
+        }
+        for (int i = 0; i < predicates.size(); i++) {
+            model.add(publication, predicates.get(i), objects.get(i));
+        }
+    }
+
+    private void add(URI predicate, Value object) {
+        predicates.add(predicate);
+        objects.add(object);
+    }
+
+    /**
+     * @return value of a member of the object being read, the others are
+     * skipped
+     */
+    private static String member(JsonReader reader, String name) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (name.equals(reader.nextName())) {
+                value = string(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * @return text of a string, number or boolean; null for other values,
+     * which are skipped
+     */
+    private static String string(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+}
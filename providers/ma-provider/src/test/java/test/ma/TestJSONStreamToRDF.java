@@ -0,0 +1,82 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package test.ma;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.HashSet;
+import org.apache.commons.io.IOUtils;
+import org.apache.marmotta.ucuenca.wk.provider.ma.MicrosoftAcademicsProvider;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONStreamToRDF;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.JSONtoRDF;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.MapPublications;
+import org.apache.marmotta.ucuenca.wk.provider.ma.util.Publication;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * The streaming mapping gives the same triples as the Publication / Gson /
+ * JSONtoRDF path for a recorded search response.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestJSONStreamToRDF {
+
+    private static final String RESOURCE = "http://academic.research.microsoft.com/json.svc/search?AppId=x&AuthorQuery=saquicela&ResultObjects=Publication&PublicationContent=AllInfo&StartIdx=1&EndIdx=100";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+
+    @Test
+    public void testSameTriples() throws Exception {
+        String response = read("search-saquicela.json");
+
+        Model expected = new LinkedHashModel();
+        JsonArray json = new JsonArray();
+        Gson gson = new Gson();
+        for (Publication publication : new MapPublications().getPublications(response)) {
+            json.add(gson.toJsonTree(publication).getAsJsonObject());
+        }
+        new JSONtoRDF(RESOURCE, MicrosoftAcademicsProvider.MAPPINGSCHEMA, json, expected).parse();
+
+        Model model = new LinkedHashModel();
+        new JSONStreamToRDF(RESOURCE, JSONStreamToRDF.compile(MicrosoftAcademicsProvider.MAPPINGSCHEMA), model)
+                .parse(new StringReader(response));
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(model));
+
+        URI publication = factory.createURI(JSONStreamToRDF.NS_PUBLICATION + "48957106/");
+        assertTrue(model.contains(factory.createURI(RESOURCE), factory.createURI("http://xmlns.com/foaf/0.1/publications"), publication));
+        assertTrue(model.contains(publication, factory.createURI("http://purl.org/dc/elements/1.1/creator"),
+                factory.createURI(JSONStreamToRDF.NS_AUTHOR + "1406582/")));
+        assertEquals("2011", model.filter(publication, factory.createURI("http://purl.org/dc/elements/1.1/date"), null).objectString());
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        Model model = new LinkedHashModel();
+        new JSONStreamToRDF(RESOURCE, JSONStreamToRDF.compile(MicrosoftAcademicsProvider.MAPPINGSCHEMA), model)
+                .parse(new StringReader("{\"d\":{\"Author\":null,\"Publication\":{\"Result\":[],\"TotalItem\":0}}}"));
+        // only the type of the search resource
+        assertEquals(1, model.size());
+    }
+
+    private String read(String name) throws Exception {
+        InputStream input = getClass().getResourceAsStream(name);
+        try {
+            return IOUtils.toString(new InputStreamReader(input, "UTF-8"));
+        } finally {
+            input.close();
+        }
+    }
+}
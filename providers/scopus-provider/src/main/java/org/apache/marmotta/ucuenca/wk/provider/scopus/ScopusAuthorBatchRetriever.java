@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.scopus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.DC;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.Rio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Author profiles of a list of Scopus author ids, retrieved with one request
+ * per {@link #MAX_IDS} ids (author?author_id=id1,id2,...). The combined
+ * response is split per author; the ids missing from it, or all the ids of a
+ * batch whose request fails, are requested one by one as in
+ * {@link ScopusAuthorProvider}. The requests are further URLs of the provider
+ * that found the ids, so they are done by its transport.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+public final class ScopusAuthorBatchRetriever {
+
+    public static final String AUTHOR_RETRIEVAL = "http://api.elsevier.com/content/author";
+    public static final int MAX_IDS = 25;
+
+    private static final Pattern BATCH = Pattern.compile("[^?]*/content/author\\?author_id=([^&]*)&apiKey=([^&]*)&.*");
+
+    private static Logger log = LoggerFactory.getLogger(ScopusAuthorBatchRetriever.class);
+
+    private static final ValueFactory FACTORY = ValueFactoryImpl.getInstance();
+
+    private ScopusAuthorBatchRetriever() {
+    }
+
+    /**
+     * @return one request for each group of {@link #MAX_IDS} ids
+     */
+    public static List<String> requestUrls(List<String> ids, String apiKey) {
+        return requestUrls(AUTHOR_RETRIEVAL, ids, apiKey);
+    }
+
+    /**
+     * @param retrievalUrl the author retrieval API, ending in /content/author
+     */
+    public static List<String> requestUrls(String retrievalUrl, List<String> ids, String apiKey) {
+        List<String> urls = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS));
+            urls.add(retrievalUrl + "?author_id=" + StringUtils.join(chunk, ',')
+                    + "&apiKey=" + apiKey + "&view=ENHANCED&httpAccept=application/rdf%2Bxml");
+        }
+        return urls;
+    }
+
+    public static boolean isBatchUrl(String url) {
+        return BATCH.matcher(url).matches();
+    }
+
+    /**
+     * @return the single requests of all the ids of a batch request, to
+     * retrieve them when the batch fails; null if the URL is not a batch
+     * request
+     */
+    public static List<String> fallbackUrls(String requestUrl) {
+        Matcher m = BATCH.matcher(requestUrl);
+        if (!m.matches()) {
+            return null;
+        }
+        List<String> urls = new ArrayList<>();
+        for (String id : m.group(1).split(",")) {
+            urls.add(authorUrl(id, m.group(2)));
+        }
+        return urls;
+    }
+
+    /**
+     * Add the profile of each id of a batch request, with the same statements
+     * as the single request of the id.
+     *
+     * @return the searches of the publications of the profiles, and the
+     * single requests of the ids missing from the response; the single
+     * requests of all the ids if the response cannot be parsed
+     */
+    public static List<String> parseBatch(String requestUrl, InputStream input, Model triples) throws DataRetrievalException {
+        Matcher m = BATCH.matcher(requestUrl);
+        if (!m.matches()) {
+            throw new DataRetrievalException("not a batch request of authors: " + requestUrl);
+        }
+        String apiKey = m.group(2);
+        Model batch;
+        try {
+            batch = Rio.parse(input, requestUrl, RDFFormat.RDFXML);
+        } catch (IOException | RDFParseException e) {
+            log.warn("Batch response {} could not be read, requesting its authors one by one: {}", requestUrl, e.getMessage());
+            return fallbackUrls(requestUrl);
+        }
+        List<String> next = new ArrayList<>();
+        for (String id : Arrays.asList(m.group(1).split(","))) {
+            Model author = split(batch, id, apiKey);
+            if (author == null) {
+                next.add(authorUrl(id, apiKey));
+            } else {
+                triples.addAll(author);
+                next.addAll(ScopusAuthorProvider.searchResultUrls(author.filter(null, ScopusAuthorProvider.SEARCH_RESULTS, null).objects(), apiKey));
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return null if the batch has no profile for the id
+     */
+    private static Model split(Model batch, String id, String apiKey) {
+        Resource subject = null;
+        for (Resource candidate : batch.subjects()) {
+            if (candidate.stringValue().endsWith("author_id/" + id)
+                    || batch.contains(candidate, DC.IDENTIFIER, FACTORY.createLiteral("AUTHOR_ID:" + id))) {
+                subject = candidate;
+                break;
+            }
+        }
+        if (subject == null) {
+            return null;
+        }
+        URI resource = FACTORY.createURI(authorUrl(id, apiKey));
+        Model author = new LinkedHashModel();
+        Set<Value> searchResults = batch.filter(subject, ScopusAuthorProvider.SEARCH_RESULTS, null).objects();
+        for (Value searchResult : searchResults) {
+            author.add(resource, ScopusAuthorProvider.SEARCH_RESULTS, FACTORY.createLiteral(searchResult.stringValue()));
+        }
+        return author;
+    }
+
+    private static String authorUrl(String id, String apiKey) {
+        return ScopusAuthorSearchProvider.URLRESOURCE.replace("AuthorIdParam", id).replace("apiKeyParam", apiKey);
+    }
+}
@@ -2,7 +2,7 @@ package org.apache.marmotta.ucuenca.wk.provider.scopus;
 
 import com.google.common.collect.ImmutableList;
 import java.io.InputStream;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -14,14 +14,10 @@ import java.util.regex.Pattern;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.api.provider.DataProvider;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.provider.xml.AbstractXMLDataProvider;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathLiteralMapper;
 import org.apache.marmotta.ldclient.provider.xml.mapping.XPathValueMapper;
-import org.apache.marmotta.ldclient.services.ldclient.LDClient;
-import org.apache.marmotta.ucuenca.wk.endpoint.scopus.ScopusPublicationSearchEndpoint;
-import org.openrdf.model.Literal;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.model.Resource;
 import org.openrdf.model.URI;
@@ -34,7 +30,7 @@ import org.slf4j.LoggerFactory;
 @Deprecated
 public class ScopusAuthorProvider
         extends AbstractXMLDataProvider
-        implements DataProvider {
+        implements DataProvider, HttpDataProvider {
 
     public static final String NAME = "Scopus Author Provider";
     public static final String API = "http://api.elsevier.com/content/author/author_id/?apiKey=&view=ENHANCED&httpAccept=application/rdf%2Bxml";
@@ -44,6 +40,7 @@ public class ScopusAuthorProvider
     private static String apiKeyParam = "";
     private static ConcurrentMap<String, String> scopusNamespaces = new ConcurrentHashMap<String, String>();
     private static ConcurrentMap<String, XPathValueMapper> mediaOntMappings;
+    static final URI SEARCH_RESULTS = ValueFactoryImpl.getInstance().createURI("http://www.elsevier.com/xml/svapi/rdf/dtd/searchResults");
 
     public String getName() {
         return "Scopus Author Provider";
@@ -64,34 +61,39 @@ public class ScopusAuthorProvider
     }
 
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        Matcher m = Pattern.compile(PATTERN).matcher(requestUrl);
+        boolean profile = m.find();
+        if (!profile) {
+            List<String> next = ScopusFollowUps.parse(requestUrl, triples, input, contentType);
+            if (next != null) {
+                return next;
+            }
+        }
         super.parseResponse(resource, requestUrl, triples, input, contentType);
         log.debug("Request Successful to {0}", (Object) requestUrl);
         ValueFactoryImpl factory = ValueFactoryImpl.getInstance();
-        ClientConfiguration conf = new ClientConfiguration();
-        conf.addEndpoint((Endpoint) new ScopusPublicationSearchEndpoint());
-        LDClient ldClient = new LDClient(conf);
-        Set<Value> resources = triples.filter((Resource) factory.createURI(resource), factory.createURI("http://www.elsevier.com/xml/svapi/rdf/dtd/searchResults"), null, new Resource[0]).objects();
-        if (!resources.isEmpty()) {
-            Model resourceModel = null;
-            for (Value scopusResource : resources) {
-                if (scopusResource.stringValue().isEmpty()) {
-                    continue;
-                }
-                String resourceDoc = ((Literal) scopusResource).stringValue();
-                ClientResponse response = ldClient.retrieveResource(resourceDoc + "&apiKey=" + apiKeyParam + "&httpAccept=application/xml&view=COMPLETE");
-                Model rsModel = response.getData();
-                if (resourceModel == null) {
-                    resourceModel = rsModel;
-                    continue;
-                }
-                resourceModel.addAll((Collection) rsModel);
-            }
-            triples.addAll((Collection) resourceModel);
-        }
+        Set<Value> resources = triples.filter((Resource) factory.createURI(resource), SEARCH_RESULTS, null, new Resource[0]).objects();
         if (!resource.matches(PATTERN)) {
             triples.add((Resource) factory.createURI(resource), OWL.SAMEAS, (Value) factory.createURI(requestUrl), new Resource[0]);
         }
-        return Collections.emptyList();
+        return searchResultUrls(resources, profile ? m.group(2) : apiKeyParam);
+    }
+
+    /**
+     * Searches of the publications of an author profile, parsed by
+     * {@link ScopusPublicationSearchProvider}.
+     *
+     * @param searchResults values of api:searchResults
+     */
+    static List<String> searchResultUrls(Set<Value> searchResults, String apiKey) {
+        List<String> urls = new ArrayList<>();
+        for (Value scopusResource : searchResults) {
+            if (scopusResource.stringValue().isEmpty()) {
+                continue;
+            }
+            urls.add(scopusResource.stringValue() + "&apiKey=" + apiKey + "&httpAccept=application/xml&view=COMPLETE");
+        }
+        return urls;
     }
 
     protected Map<String, XPathValueMapper> getXPathMappings(String requestUrl) {
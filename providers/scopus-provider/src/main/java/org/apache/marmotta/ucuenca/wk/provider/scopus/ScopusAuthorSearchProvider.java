@@ -23,10 +23,8 @@ import com.google.common.base.Preconditions;
 
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.async.FallbackHttpDataProvider;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
@@ -42,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -54,7 +53,7 @@ import org.openrdf.model.vocabulary.FOAF;
  * <p/>
  * Author: Freddy Sumba
  */
-public class ScopusAuthorSearchProvider extends AbstractHttpProvider {
+public class ScopusAuthorSearchProvider extends AbstractHttpProvider implements FallbackHttpDataProvider {
 
     public static final String NAME = "Scopus Provider";
     public static final String API = "http://api.elsevier.com/content/search/author?query=%s&format=xml";
@@ -117,43 +116,41 @@ public class ScopusAuthorSearchProvider extends AbstractHttpProvider {
 
     @Override
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        List<String> next = ScopusFollowUps.parse(requestUrl, triples, input, contentType);
+        if (next != null) {
+            return next;
+        }
         log.debug("Request Successful to {0}", requestUrl);
+        Matcher m = Pattern.compile(PATTERN).matcher(requestUrl);
+        String apiKey = m.find() ? m.group(4) : apiKeyParam;
         try {
             ValueFactory factory = ValueFactoryImpl.getInstance();
             final Document doc = new SAXBuilder(XMLReaders.NONVALIDATING).build(input);
             Element aux = doc.getRootElement();
+            List<String> authorIds = new ArrayList<>();
             for (Element element : aux.getChildren("entry", aux.getNamespace())) {
                 String authorIDParam = element.getChildText("identifier", NAMESPACE_DC);
                 String authorURL = element.getChildText("url", NAMESPACE_PRISM);
-                ClientConfiguration conf = new ClientConfiguration();
-                LDClient ldClient = new LDClient(conf);
-
                 if (authorIDParam != null) {
-                    Model candidateModel = null;
-                    String authorUrlResourceCleaned = URLRESOURCE.replace("AuthorIdParam", authorIDParam).replace("apiKeyParam", apiKeyParam);
                     triples.add(factory.createURI(resource), FOAF.MEMBER, factory.createURI(authorURL));
-
-                    ClientResponse response = ldClient.retrieveResource(authorUrlResourceCleaned);
-                    Model authorModel = response.getData();
-                    if (candidateModel == null) {
-                        candidateModel = authorModel;
-                    } else {
-                        candidateModel.addAll(authorModel);
-                    }
-
-                    triples.addAll(candidateModel);
-
+                    authorIds.add(authorIDParam.replace("AUTHOR_ID:", ""));
                 }
-
             }
-
+            // one request per group of authors instead of one per author
+            return ScopusAuthorBatchRetriever.requestUrls(authorIds, apiKey);
         } catch (IOException e) {
             throw new DataRetrievalException("I/O error while parsing HTML response", e);
         } catch (JDOMException e) {
             throw new DataRetrievalException("could not parse XML response. It is not in proper XML format", e);
         }
+    }
 
-        return Collections.emptyList();
+    /**
+     * A failed batch of authors is requested one author at a time.
+     */
+    @Override
+    public List<String> fallbackUrls(String resource, String requestUrl) {
+        return ScopusAuthorBatchRetriever.fallbackUrls(requestUrl);
     }
 
     protected static List<Element> queryElements(Document n, String query) {
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.scopus;
+
+import java.io.InputStream;
+import java.util.List;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.openrdf.model.Model;
+
+/**
+ * Further requests of the Scopus providers. An author search returns the
+ * batch requests of its authors, an author profile the searches of its
+ * publications, and a publication search the abstracts of the publications.
+ * They are done by the transport of the first request, and each response is
+ * parsed here as the provider of its URL would parse it.
+ * <p/>
+ * Author: Santiago Gonzalez
+ */
+final class ScopusFollowUps {
+
+    static final String PUBLICATION_SEARCH = "http://api.elsevier.com/content/search/scopus?";
+    static final String ABSTRACT = "http://api.elsevier.com/content/abstract/doi/";
+
+    private ScopusFollowUps() {
+    }
+
+    /**
+     * @return the further URLs of the response, or null if the URL is not a
+     * further request
+     */
+    static List<String> parse(String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        if (ScopusAuthorBatchRetriever.isBatchUrl(requestUrl)) {
+            return ScopusAuthorBatchRetriever.parseBatch(requestUrl, input, triples);
+        }
+        if (requestUrl.matches(ScopusAuthorProvider.PATTERN)) {
+            return new ScopusAuthorProvider().parseResponse(requestUrl, requestUrl, triples, input, contentType);
+        }
+        if (requestUrl.startsWith(PUBLICATION_SEARCH)) {
+            return new ScopusPublicationSearchProvider().parseResponse(requestUrl, requestUrl, triples, input, contentType);
+        }
+        if (requestUrl.startsWith(ABSTRACT)) {
+            return new ScopusPublicationProvider().parseResponse(requestUrl, requestUrl, triples, input, contentType);
+        }
+        return null;
+    }
+}
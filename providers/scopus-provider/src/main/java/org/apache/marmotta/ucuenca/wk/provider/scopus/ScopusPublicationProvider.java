@@ -11,6 +11,7 @@ import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.openrdf.model.Model;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFParseException;
@@ -19,7 +20,7 @@ import org.slf4j.LoggerFactory;
 
 @Deprecated
 public class ScopusPublicationProvider
-        extends AbstractHttpProvider {
+        extends AbstractHttpProvider implements HttpDataProvider {
 
     public static final String NAME = "Scopus Publication Provider";
     public static final String API = "http://api.elsevier.com/content/abstract/doi/?apiKey=&httpAccept=application/rdf%2Bxml";
@@ -19,10 +19,8 @@ package org.apache.marmotta.ucuenca.wk.provider.scopus;
 //import org.apache.marmotta.ucuenca.wk.provider.dblp.*;
 import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
-import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
-import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.ldclient.services.provider.AbstractHttpProvider;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
@@ -51,7 +49,7 @@ import org.openrdf.model.vocabulary.FOAF;
  * <p/>
  * @author Freddy Sumba
  */
-public class ScopusPublicationSearchProvider extends AbstractHttpProvider {
+public class ScopusPublicationSearchProvider extends AbstractHttpProvider implements HttpDataProvider {
 
     public static final String NAME = "Scopus  Search Publication Provider";
     public static final String API = "http://api.elsevier.com/content/search/scopus?query=&apiKey=";
@@ -114,7 +112,18 @@ public class ScopusPublicationSearchProvider extends AbstractHttpProvider {
 
     @Override
     public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+        if (!requestUrl.startsWith(ScopusFollowUps.PUBLICATION_SEARCH)) {
+            List<String> next = ScopusFollowUps.parse(requestUrl, triples, input, contentType);
+            if (next != null) {
+                return next;
+            }
+        }
         log.debug("Request Successful to {0}", requestUrl);
+        Matcher m = Pattern.compile(PATTERN, Pattern.CASE_INSENSITIVE).matcher(requestUrl);
+        boolean search = m.find();
+        String authorId = search ? m.group(1) : authorIdParam;
+        String apiKey = search ? m.group(2) : apiKeyParam;
+        List<String> abstracts = new ArrayList<>();
         try {
             final Document doc = new SAXBuilder(XMLReaders.NONVALIDATING).build(input);
             Element aux = doc.getRootElement();
@@ -129,15 +138,11 @@ public class ScopusPublicationSearchProvider extends AbstractHttpProvider {
                     creatorsList.add(author.getChildText("author-url",NAMESPACE_ATOM));
                 }
 
-                ClientConfiguration conf = new ClientConfiguration();
-                LDClient ldClient = new LDClient(conf);
                 if (abstractDoiParam != null) {
-                    Model candidateModel = null;
-                    String authorUrlResourceCleaned = URL_RESOURCE_PUBLICATION.replace("DOIParam", abstractDoiParam).replace("apiKeyParam", apiKeyParam);
-
-                    ClientResponse response = ldClient.retrieveResource(authorUrlResourceCleaned);
+                    // the abstract is parsed by ScopusPublicationProvider
+                    abstracts.add(URL_RESOURCE_PUBLICATION.replace("DOIParam", abstractDoiParam).replace("apiKeyParam", apiKey));
                     ValueFactory factory = ValueFactoryImpl.getInstance();
-                    triples.add(factory.createURI("http://api.elsevier.com/content/author/author_id/" + authorIdParam), FOAF.PUBLICATIONS, factory.createURI(abstractURLParam));
+                    triples.add(factory.createURI("http://api.elsevier.com/content/author/author_id/" + authorId), FOAF.PUBLICATIONS, factory.createURI(abstractURLParam));
                     if (abstractAbstractParam != null) {
                         triples.add(factory.createStatement(factory.createURI(abstractURLParam),
                             factory.createURI("http://purl.org/ontology/bibo/abstract"), factory.createLiteral(abstractAbstractParam)));
@@ -147,14 +152,6 @@ public class ScopusPublicationSearchProvider extends AbstractHttpProvider {
                                 factory.createURI("http://purl.org/dc/terms/contributor"), factory.createURI(uriCreator)));
 
                     }
-                    Model authorModel = response.getData();
-                    if (candidateModel == null) {
-                        candidateModel = authorModel;
-                    } else {
-                        candidateModel.addAll(authorModel);
-                    }
-                    triples.addAll(candidateModel);
-
                 }
 
             }
@@ -164,7 +161,7 @@ public class ScopusPublicationSearchProvider extends AbstractHttpProvider {
         } catch (JDOMException e) {
             throw new DataRetrievalException("could not parse XML response. It is not in proper XML format", e);
         }
-        return Collections.emptyList();
+        return abstracts;
     }
 
     protected static List<Element> queryElements(Document n, String query) {
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.marmotta.ucuenca.wk.provider.test.scopus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.api.ldclient.LDClientService;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ucuenca.wk.provider.async.AsyncHttpTransport;
+import org.apache.marmotta.ucuenca.wk.provider.async.FallbackHttpDataProvider;
+import org.apache.marmotta.ucuenca.wk.provider.scopus.ScopusAuthorBatchRetriever;
+import org.apache.marmotta.ucuenca.wk.provider.scopus.ScopusAuthorProvider;
+import org.apache.marmotta.ucuenca.wk.provider.scopus.ScopusAuthorSearchProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.openrdf.model.Model;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Batched author retrieval through the transport, against a local stand-in
+ * of the Scopus author retrieval API: the split of a batch response, the ids
+ * missing from it, and the single requests of all the ids of a failed batch.
+ *
+ * @author Santiago Gonzalez
+ */
+public class TestScopusAuthorBatchRetriever {
+
+    private static final String SAQUICELA = "55909902400";
+    private static final String ESPINOZA = "35087431900";
+    private static final String MISSING = "7004213587";
+    private static final String SEARCH_RESULTS = "http://www.elsevier.com/xml/svapi/rdf/dtd/searchResults";
+
+    private final ValueFactory factory = ValueFactoryImpl.getInstance();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> singles = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> searches = Collections.synchronizedList(new ArrayList<String>());
+    private HttpServer server;
+    private AsyncHttpTransport transport;
+    private volatile int status = 200;
+    private volatile boolean broken;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/content/author", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.add(exchange.getRequestURI().getQuery());
+                byte[] body = status != 200 ? new byte[0]
+                        : broken ? "<rdf:RDF".getBytes("UTF-8")
+                        : IOUtils.toByteArray(getClass().getResourceAsStream("authors-batch.rdf"));
+                exchange.getResponseHeaders().set("Content-Type", "application/rdf+xml");
+                exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+                OutputStream output = exchange.getResponseBody();
+                output.write(body);
+                output.close();
+            }
+        });
+        server.start();
+        transport = new AsyncHttpTransport(2, 10, 10);
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        List<String> urls = ScopusAuthorBatchRetriever.requestUrls(Arrays.asList(SAQUICELA, ESPINOZA), "key");
+        assertEquals(1, urls.size());
+        assertTrue(urls.get(0).startsWith(ScopusAuthorBatchRetriever.AUTHOR_RETRIEVAL + "?author_id=" + SAQUICELA + "," + ESPINOZA + "&apiKey=key"));
+        assertTrue(ScopusAuthorBatchRetriever.isBatchUrl(urls.get(0)));
+
+        Model triples = retrieve(SAQUICELA, ESPINOZA);
+
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).startsWith("author_id=" + SAQUICELA + "," + ESPINOZA + "&apiKey=key"));
+        assertTrue(singles.isEmpty());
+        assertEquals(2, triples.size());
+        assertEquals("http://api.elsevier.com/content/search/scopus?query=AU-ID%28" + SAQUICELA + "%29",
+                triples.filter(factory.createURI(authorUrl(SAQUICELA)), factory.createURI(SEARCH_RESULTS), null).objectString());
+        assertTrue(triples.filter(factory.createURI(authorUrl(ESPINOZA)), factory.createURI(SEARCH_RESULTS), null).objectString().contains(ESPINOZA));
+        // the searches of the publications are requested next
+        assertEquals(2, searches.size());
+        assertTrue(searches.contains("http://api.elsevier.com/content/search/scopus?query=AU-ID%28" + SAQUICELA + "%29&apiKey=key&httpAccept=application/xml&view=COMPLETE"));
+    }
+
+    @Test
+    public void testMissingAuthor() throws Exception {
+        Model triples = retrieve(SAQUICELA, MISSING);
+
+        assertEquals(1, requests.size());
+        assertEquals(1, triples.size());
+        assertEquals(Arrays.asList(MISSING), singles);
+        assertEquals(1, searches.size());
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        status = 500;
+        Model triples = retrieve(SAQUICELA, ESPINOZA);
+
+        // the resource is not failed, its authors are requested one by one
+        assertEquals(1, requests.size());
+        assertTrue(triples.isEmpty());
+        assertEquals(Arrays.asList(SAQUICELA, ESPINOZA), singles);
+
+        String batch = ScopusAuthorBatchRetriever.requestUrls(Arrays.asList(SAQUICELA, ESPINOZA), "key").get(0);
+        assertEquals(Arrays.asList(authorUrl(SAQUICELA), authorUrl(ESPINOZA)), new ScopusAuthorSearchProvider().fallbackUrls(batch, batch));
+        assertNull(new ScopusAuthorSearchProvider().fallbackUrls(authorUrl(SAQUICELA), authorUrl(SAQUICELA)));
+    }
+
+    @Test
+    public void testUnparsableBatch() throws Exception {
+        broken = true;
+        Model triples = retrieve(SAQUICELA, ESPINOZA);
+
+        assertEquals(1, requests.size());
+        assertTrue(triples.isEmpty());
+        assertEquals(Arrays.asList(SAQUICELA, ESPINOZA), singles);
+    }
+
+    @Test
+    public void testGroups() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ScopusAuthorBatchRetriever.MAX_IDS + 1; i++) {
+            ids.add(Integer.toString(1000 + i));
+        }
+        Model triples = retrieve(ids.toArray(new String[ids.size()]));
+
+        assertEquals(2, requests.size());
+        assertTrue(requests.contains("author_id=" + (1000 + ScopusAuthorBatchRetriever.MAX_IDS) + "&apiKey=key&view=ENHANCED&httpAccept=application/rdf+xml"));
+        // none is in the response, so all are requested one by one
+        assertTrue(triples.isEmpty());
+        List<String> requested = new ArrayList<>(singles);
+        Collections.sort(requested);
+        assertEquals(ids, requested);
+    }
+
+    private Model retrieve(String... ids) throws Exception {
+        ClientResponse response = transport.retrieve(new LocalScopus(), Arrays.toString(ids), null).get();
+        return response.getData();
+    }
+
+    private static String authorUrl(String id) {
+        return ScopusAuthorSearchProvider.URLRESOURCE.replace("AuthorIdParam", id).replace("apiKeyParam", "key");
+    }
+
+    /**
+     * Batches of the ids of the resource to the local server. The further
+     * requests, to Scopus itself, are recorded instead of requested.
+     */
+    private class LocalScopus implements FallbackHttpDataProvider {
+
+        private final Pattern single = Pattern.compile(ScopusAuthorProvider.PATTERN);
+
+        @Override
+        public String getName() {
+            return "Local Scopus";
+        }
+
+        @Override
+        public String[] listMimeTypes() {
+            return new String[]{"application/rdf+xml"};
+        }
+
+        @Override
+        public ClientResponse retrieveResource(String resource, LDClientService client, Endpoint endpoint) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> buildRequestUrl(String resource, Endpoint endpoint) {
+            List<String> ids = Arrays.asList(resource.substring(1, resource.length() - 1).split(", "));
+            return ScopusAuthorBatchRetriever.requestUrls("http://localhost:" + server.getAddress().getPort() + "/content/author", ids, "key");
+        }
+
+        @Override
+        public List<String> parseResponse(String resource, String requestUrl, Model triples, InputStream input, String contentType) throws DataRetrievalException {
+            record(ScopusAuthorBatchRetriever.parseBatch(requestUrl, input, triples));
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> fallbackUrls(String resource, String requestUrl) {
+            List<String> urls = ScopusAuthorBatchRetriever.fallbackUrls(requestUrl);
+            if (urls == null) {
+                return null;
+            }
+            record(urls);
+            return Collections.emptyList();
+        }
+
+        private void record(List<String> urls) {
+            for (String url : urls) {
+                Matcher m = single.matcher(url);
+                if (m.matches()) {
+                    singles.add(m.group(1));
+                } else {
+                    searches.add(url);
+                }
+            }
+        }
+    }
+}
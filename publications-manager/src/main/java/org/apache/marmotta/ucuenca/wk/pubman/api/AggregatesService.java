@@ -0,0 +1,29 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import java.util.Collection;
+
+/**
+ * Aggregates of the dashboards (keywords, provenances, keywords by
+ * provenance, provinces and years) materialized in their own graph, so the
+ * dashboards read them instead of counting the central graph.
+ *
+ * @author Satellite
+ */
+public interface AggregatesService {
+
+    /**
+     * Compute all the aggregates again.
+     */
+    String materializeAll();
+
+    /**
+     * Compute again the aggregates of the keywords, provenances and years of
+     * some publications of the central graph, after they were loaded.
+     */
+    String refresh(Collection<String> publications);
+}
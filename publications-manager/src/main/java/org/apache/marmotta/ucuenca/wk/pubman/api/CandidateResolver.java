@@ -0,0 +1,97 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+
+/**
+ * Search of an author with all its name variants at the same time. The
+ * variants are given by priority, and the winner is the variant with the
+ * highest priority whose search finds exactly one author.
+ *
+ * @author Satellite
+ */
+public interface CandidateResolver {
+
+    /**
+     * Retrieve the search resources of the name variants concurrently, within
+     * the rate limit of the provider. The searches of lower priority than a
+     * search that found exactly one author are cancelled.
+     *
+     * @param provider name of the provider, for the rate limit
+     * @param resources search resources of the name variants, by priority
+     * @throws DataRetrievalException if a search failed, or returned 503,
+     * before the winner was certain
+     */
+    Resolution resolve(String provider, LDClient ldClient, List<String> resources) throws DataRetrievalException;
+
+    /**
+     * Search of a name variant that was completed.
+     */
+    class Candidate {
+
+        private final String resource;
+
+        private final ClientResponse response;
+
+        private final int members;
+
+        public Candidate(String resource, ClientResponse response, int members) {
+            this.resource = resource;
+            this.response = response;
+            this.members = members;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        public ClientResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the authors found by the search
+         */
+        public int getMembers() {
+            return members;
+        }
+    }
+
+    /**
+     * Searches completed until the winner was certain.
+     */
+    class Resolution {
+
+        private final List<Candidate> candidates;
+
+        private final Candidate winner;
+
+        public Resolution(List<Candidate> candidates, Candidate winner) {
+            this.candidates = Collections.unmodifiableList(candidates);
+            this.winner = winner;
+        }
+
+        /**
+         * @return the searches of higher priority than the winner, and the
+         * winner, by priority; all the searches if there is no winner
+         */
+        public List<Candidate> getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * @return the search that found exactly one author, or null
+         */
+        public Candidate getWinner() {
+            return winner;
+        }
+    }
+}
@@ -8,7 +8,9 @@ package org.apache.marmotta.ucuenca.wk.pubman.api;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -22,8 +24,16 @@ public interface CommonService {
 
     String CountPublications();
 
+    String MaterializeAggregates();
+
+    String RollbackGraph(String graph);
+
+    String TranslateStoredKeywords();
+
     String GetDataFromProvidersServiceDBLP();
 
+    String GetDataFromDBLPDump(String dumpFile);
+
     String GetDataFromProvidersServiceMicrosoftAcademics();
 
     String GetDataFromProvidersServiceGoogleScholar();
@@ -31,5 +41,11 @@ public interface CommonService {
     JsonArray searchAuthor(String uri);
     
     String createReport(String hostname, String realPath, String name, String type, List<String> params);
+
+    String submitReport(String realPath, String name, String type, List<String> params);
+
+    Map<String, String> getReportStatus(String id);
+
+    File getReportFile(String id);
     
 }
@@ -18,6 +18,7 @@
 package org.apache.marmotta.ucuenca.wk.pubman.api;
 
 import com.google.gson.JsonArray;
+import java.io.File;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
@@ -47,6 +48,23 @@ public interface DBLPProviderService {
      * @return 
      */
     JsonArray SearchAuthorTaskImpl(String url);
+
+    /**
+     * Load the publications of our authors from a local copy of the dblp
+     * dump (dblp.xml or dblp.xml.gz, with dblp.dtd in the same directory)
+     * into the DBLP provider graph, without requests to dblp.org
+     * @param dumpFile name of the dump, relative to the dump directory
+     * @return 
+     */
+    String runDumpTaskImpl(String dumpFile);
+
+    /**
+     * Resolve a dump name inside the configured dump directory
+     * (pubman.dblp.dump_dir)
+     * @param dumpFile name of the dump, relative to the dump directory
+     * @return the dump, or null when it is not a file of the dump directory
+     */
+    File getDumpFile(String dumpFile);
     
     
 }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+/**
+ * Versions of a graph rebuilt as a whole. The rebuild writes a staging graph
+ * while the readers keep the live one; publishing moves the live graph to
+ * the previous version and the staging graph to the live one in a single
+ * transaction, so a reader sees the old graph or the new one, never a half
+ * built one.
+ *
+ * @author Satellite
+ */
+public interface GraphVersions {
+
+    /**
+     * Empty the staging graph of a graph, to start a rebuild.
+     *
+     * @param copy start from a copy of the live graph, for a rebuild that
+     * only adds to it
+     * @return the staging graph to write
+     */
+    String stage(String graph, boolean copy);
+
+    /**
+     * Replace the live graph with its staging graph, keeping the live one as
+     * the previous version.
+     */
+    String publish(String graph);
+
+    /**
+     * Replace the live graph with its previous version, keeping the live one
+     * as the previous version, so a second rollback undoes the first.
+     */
+    String rollback(String graph);
+
+    /**
+     * Drop the staging graph of a rebuild that failed. It does not fail
+     * itself, so it can be called while handling the error of the rebuild.
+     */
+    void discard(String graph);
+
+    String getStagingGraph(String graph);
+
+    String getPreviousGraph(String graph);
+}
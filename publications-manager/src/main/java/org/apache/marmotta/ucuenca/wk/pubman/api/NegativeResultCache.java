@@ -0,0 +1,39 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+/**
+ * Author searches of the providers that found no author or more than one,
+ * kept for some days so the next harvests do not repeat them. Searches are
+ * identified by the provider and the name variant, so a new name of the
+ * author is searched again.
+ *
+ * @author Satellite
+ */
+public interface NegativeResultCache {
+
+    String DBLP = "DBLP";
+
+    String SCOPUS = "Scopus";
+
+    /**
+     * @return true if the search found no author, or more than one, and has
+     * not expired
+     */
+    boolean isNegative(String provider, String nameVariant);
+
+    /**
+     * Record the number of members found by a search. Searches with exactly
+     * one member are removed from the cache.
+     */
+    void record(String provider, String nameVariant, int members);
+
+    /**
+     * Save the cache, without the expired searches.
+     */
+    void flush();
+
+}
@@ -0,0 +1,98 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import java.util.Map;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+/**
+ * Immutable mapping of a provider, compiled from its
+ * &lt;ProviderName&gt;.properties file.
+ *
+ * Entries whose key is an URI (written with ".." instead of ":" in the file)
+ * map a predicate of the provider graph to the predicate of the central
+ * graph. The other entries (title, publicationProperty, ...) are kept as
+ * named properties.
+ *
+ * @author Satellite
+ */
+public class ProviderMapping {
+
+    private final String provider;
+
+    private final Map<Value, URI> predicates;
+
+    private final Map<String, String> properties;
+
+    private final URI titleSource;
+
+    private final URI titleTarget;
+
+    private final int version;
+
+    public ProviderMapping(String provider, Map<Value, URI> predicates, Map<String, String> properties, URI titleSource, URI titleTarget, int version) {
+        this.provider = provider;
+        this.predicates = predicates;
+        this.properties = properties;
+        this.titleSource = titleSource;
+        this.titleTarget = titleTarget;
+        this.version = version;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * @param sourcePredicate predicate used in the provider graph
+     * @return predicate to use in the central graph, or null if the predicate
+     * is not mapped
+     */
+    public URI getTarget(Value sourcePredicate) {
+        return predicates.get(sourcePredicate);
+    }
+
+    /**
+     * @return unmodifiable map of source predicate to target predicate
+     */
+    public Map<Value, URI> getPredicates() {
+        return predicates;
+    }
+
+    /**
+     * @param name name of the property (title, uri, publicationProperty...)
+     * @return value of the named property, or null
+     */
+    public String getProperty(String name) {
+        return properties.get(name);
+    }
+
+    /**
+     * @return source predicate of the title, or null
+     */
+    public URI getTitleSource() {
+        return titleSource;
+    }
+
+    /**
+     * @return target predicate of the title, or null
+     */
+    public URI getTitleTarget() {
+        return titleTarget;
+    }
+
+    /**
+     * @return version of the file this mapping was compiled from
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return predicates.isEmpty() && properties.isEmpty();
+    }
+}
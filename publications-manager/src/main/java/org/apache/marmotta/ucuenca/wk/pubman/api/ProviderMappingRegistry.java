@@ -0,0 +1,23 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+/**
+ * Mappings of the providers, loaded at startup and reloaded when the
+ * properties file changes.
+ *
+ * @author Satellite
+ */
+public interface ProviderMappingRegistry {
+
+    /**
+     * @param provider local name of the provider graph or name of the
+     * endpoint, spaces are ignored (e.g. DBLPRawProvider, Scopus Provider)
+     * @return the mapping of the provider, empty if it has no properties file
+     */
+    ProviderMapping getMapping(String provider);
+
+}
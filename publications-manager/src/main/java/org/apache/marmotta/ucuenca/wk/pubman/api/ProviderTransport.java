@@ -0,0 +1,34 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+
+/**
+ * Retrieval of the resources of the data providers during the harvest. The
+ * resources of the HTTP data providers are retrieved by the non-blocking
+ * transport, with one deadline for all the requests of a resource; the
+ * resources of other providers are retrieved by the LDClient.
+ *
+ * @author Satellite
+ */
+public interface ProviderTransport {
+
+    /**
+     * Start the retrieval of a resource, with the endpoints and providers of
+     * the LDClient. The future fails with a DataRetrievalException.
+     */
+    ListenableFuture<ClientResponse> retrieveAsync(LDClient ldClient, String resource);
+
+    /**
+     * Retrieve a resource and wait for it; if the waiting thread is
+     * interrupted, the requests in flight are cancelled.
+     */
+    ClientResponse retrieve(LDClient ldClient, String resource) throws DataRetrievalException;
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import java.util.Map;
+
+/**
+ * Counters of publications and authors of the central and provider graphs,
+ * kept in the counters graph. They are updated from the statements added and
+ * removed by each committed transaction, and counted again from the graphs
+ * by a periodic reconciliation.
+ *
+ * @author Satellite
+ */
+public interface PublicationCounters {
+
+    /**
+     * Count again every counter from the graphs, and store them.
+     *
+     * @return a message for the caller
+     */
+    String reconcile();
+
+    /**
+     * @return the current value of each counter, by its IRI
+     */
+    Map<String, Long> getTotals();
+}
@@ -8,7 +8,9 @@ package org.apache.marmotta.ucuenca.wk.pubman.api;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -17,5 +19,23 @@ import java.util.List;
 public interface ReportsService {
     
      String createReport(String hostname, String realPath, String name, String type, List<String> params); 
+
+    /**
+     * Queue a report to be rendered.
+     *
+     * @return id of the report, or null when too many reports are waiting
+     */
+    String submitReport(String realPath, String name, String type, List<String> params);
+
+    /**
+     * @return id, status (queued, running, done or failed) and, when done,
+     * the relative online path of a report, or null when it is unknown
+     */
+    Map<String, String> getReportStatus(String id);
+
+    /**
+     * @return the file of a report rendered, or null
+     */
+    File getReportFile(String id);
     
 }
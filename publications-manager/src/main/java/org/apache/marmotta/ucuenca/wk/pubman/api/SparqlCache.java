@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.api;
+
+import java.util.Map;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.openrdf.query.MalformedQueryException;
+
+/**
+ * Results of the read queries of the front-end, serialized once and kept
+ * until a transaction writes a graph they read, or they expire.
+ *
+ * @author Satellite
+ */
+public interface SparqlCache {
+
+    /**
+     * A query result serialized in one format, with the entity tag of its
+     * content.
+     */
+    class Result {
+
+        private final byte[] body;
+        private final String contentType;
+        private final String tag;
+
+        public Result(byte[] body, String contentType, String tag) {
+            this.body = body;
+            this.contentType = contentType;
+            this.tag = tag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Evaluate a SELECT, CONSTRUCT, DESCRIBE or ASK query, or take its
+     * result from the cache.
+     *
+     * @param accept Accept header of the client, to choose the format
+     */
+    Result select(String query, String accept) throws MarmottaException, MalformedQueryException;
+
+    /**
+     * @return entries, size, hits, misses, hit rate, evictions and
+     * invalidations of the cache
+     */
+    Map<String, Object> getStatistics();
+
+    void invalidateAll();
+}
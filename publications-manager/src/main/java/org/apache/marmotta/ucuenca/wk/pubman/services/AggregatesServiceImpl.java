@@ -0,0 +1,288 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
+import org.apache.marmotta.platform.core.events.SystemStartupEvent;
+import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
+import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.AggregatesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.GraphVersions;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.UpdateExecutionException;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.ntriples.NTriplesUtil;
+import org.slf4j.Logger;
+
+/**
+ * Each aggregate is a node of the aggregates graph with a type, the values
+ * of its key and its counts, named by the MD5 of its key:
+ * <pre>
+ * &lt;aggregates/keyword/md5&gt; a uc:KeywordAggregate; rdfs:label "key"; uc:total 12; uc:authors 5.
+ * </pre>
+ * A refresh deletes the nodes of the keys and inserts them again from the
+ * central graph, a few keys at a time, each time in one transaction. They are
+ * all materialized on startup if the aggregates graph is empty.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class AggregatesServiceImpl implements AggregatesService, Runnable {
+
+    private static final String UC = ConstantService.UCPREFIX;
+    private static final String LABEL = "http://www.w3.org/2000/01/rdf-schema#label";
+    private static final String TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+    private static final String DEFAULT_YEAR_PROPERTY = "http://prismstandard.org/namespaces/basic/2.0/coverDate";
+
+    /* keys or publications in the VALUES of a query */
+    private static final int CHUNK = 100;
+
+    /* property of each variable of the aggregate queries */
+    private static final Map<String, String> PROPERTIES = new HashMap<>();
+
+    static {
+        PROPERTIES.put("key", LABEL);
+        PROPERTIES.put("provenance", UC + "provenance");
+        PROPERTIES.put("year", UC + "year");
+        PROPERTIES.put("total", UC + "total");
+        PROPERTIES.put("authors", UC + "authors");
+        PROPERTIES.put("name", UC + "name");
+        PROPERTIES.put("latitude", UC + "latitude");
+        PROPERTIES.put("longitude", UC + "longitude");
+        PROPERTIES.put("province", UC + "province");
+        PROPERTIES.put("city", UC + "city");
+        PROPERTIES.put("fullname", UC + "fullName");
+    }
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private QueriesService queriesService;
+
+    @Inject
+    private ConstantService constantService;
+
+    @Inject
+    private CommonsServices commonsServices;
+
+    @Inject
+    private SparqlService sparqlService;
+
+    @Inject
+    private SesameService sesameService;
+
+    @Inject
+    private GraphVersions graphVersions;
+
+    /**
+     * Materialize the aggregates in the background if there are none, as
+     * before the first load or after the graph was dropped.
+     */
+    public void onStartup(@Observes SystemStartupEvent event) {
+        try {
+            if (sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskGraphQuery(constantService.getAggregatesGraph()))) {
+                return;
+            }
+        } catch (MarmottaException ex) {
+            log.error("Aggregates graph could not be checked on startup", ex);
+            return;
+        }
+        log.info("Aggregates graph is empty, materializing the aggregates");
+        new Thread(this).start();
+    }
+
+    /**
+     * The aggregates are computed in the staging graph and published when
+     * all of them are there, so the dashboards never read a part of them.
+     */
+    @Override
+    public synchronized String materializeAll() {
+        List<String> all = Collections.emptyList();
+        String aggregates = constantService.getAggregatesGraph();
+        boolean published = false;
+        try {
+            String staging = graphVersions.stage(aggregates, false);
+            refreshKeywords(staging, all);
+            refreshProvenances(staging, all);
+            refreshYears(staging, all);
+            refreshProvinces(staging);
+            graphVersions.publish(aggregates);
+            published = true;
+        } catch (MarmottaException | InvalidArgumentException | IllegalStateException ex) {
+            log.error("Aggregates were not materialized", ex);
+            return "error:  " + ex;
+        } finally {
+            if (!published) {
+                graphVersions.discard(aggregates);
+            }
+        }
+        return "Aggregates of the dashboards materialized in " + aggregates;
+    }
+
+    @Override
+    public synchronized String refresh(Collection<String> publications) {
+        String aggregates = constantService.getAggregatesGraph();
+        Set<String> keywords = new LinkedHashSet<>();
+        Set<String> provenances = new LinkedHashSet<>();
+        Set<String> years = new LinkedHashSet<>();
+        try {
+            for (List<String> chunk : Iterables.partition(publications, CHUNK)) {
+                List<String> uris = new ArrayList<>();
+                for (String publication : chunk) {
+                    uris.add(NTriplesUtil.toNTriplesString(new URIImpl(publication)));
+                }
+                String keysQuery = queriesService.getAggregateKeysQuery(constantService.getWkhuskaGraph(), getYearProperty(), uris);
+                for (Map<String, Value> keys : sparqlService.query(QueryLanguage.SPARQL, keysQuery)) {
+                    addTerm(keywords, keys.get("key"));
+                    addTerm(provenances, keys.get("provenance"));
+                    addTerm(years, keys.get("year"));
+                }
+            }
+            for (List<String> chunk : Iterables.partition(keywords, CHUNK)) {
+                refreshKeywords(aggregates, chunk);
+            }
+            for (List<String> chunk : Iterables.partition(provenances, CHUNK)) {
+                refreshProvenances(aggregates, chunk);
+            }
+            for (List<String> chunk : Iterables.partition(years, CHUNK)) {
+                refreshYears(aggregates, chunk);
+            }
+            if (!provenances.isEmpty()) {
+                refreshProvinces(aggregates);
+            }
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Aggregates were not refreshed", ex);
+            return "error:  " + ex;
+        }
+        log.info("Aggregates refreshed for " + publications.size() + " publications: " + keywords.size() + " keywords, "
+                + provenances.size() + " provenances and " + years.size() + " years");
+        return "Aggregates of " + publications.size() + " publications refreshed";
+    }
+
+    @Override
+    public void run() {
+        materializeAll();
+    }
+
+    private void refreshKeywords(String graph, List<String> keywords) throws MarmottaException, InvalidArgumentException {
+        String central = constantService.getWkhuskaGraph();
+        replace(graph, "keyword", UC + "KeywordAggregate", LABEL, keywords,
+                queriesService.getKeywordAggregatesQuery(central, keywords), "key");
+        replace(graph, "keyword-provenance", UC + "KeywordProvenanceAggregate", LABEL, keywords,
+                queriesService.getKeywordProvenanceAggregatesQuery(central, keywords), "key", "provenance");
+    }
+
+    private void refreshProvenances(String graph, List<String> provenances) throws MarmottaException, InvalidArgumentException {
+        replace(graph, "provenance", UC + "ProvenanceAggregate", UC + "provenance", provenances,
+                queriesService.getProvenanceAggregatesQuery(constantService.getWkhuskaGraph(), constantService.getEndpointsGraph(), provenances), "provenance");
+    }
+
+    private void refreshYears(String graph, List<String> years) throws MarmottaException, InvalidArgumentException {
+        replace(graph, "year", UC + "YearAggregate", UC + "year", years,
+                queriesService.getYearAggregatesQuery(constantService.getWkhuskaGraph(), getYearProperty(), years), "year");
+    }
+
+    /**
+     * The provinces are summed from the provenance aggregates, so they are
+     * all computed again after any provenance.
+     */
+    private void refreshProvinces(String graph) throws MarmottaException, InvalidArgumentException {
+        List<String> all = Collections.emptyList();
+        replace(graph, "province", UC + "ProvinceAggregate", UC + "province", all,
+                queriesService.getProvinceAggregatesQuery(graph), "province");
+    }
+
+    /**
+     * Delete the nodes of a type with the given keys, or all of them, and
+     * insert the rows of the aggregate query as new nodes, in one
+     * transaction, so the dashboards never see the keys without their nodes.
+     * The nodes are named after the live aggregates graph, whichever graph
+     * they are written to.
+     *
+     * @param graph the aggregates graph or its staging graph
+     * @param keyVariables variables of the query whose values name a node
+     */
+    private void replace(String graph, String family, String type, String keyProperty, List<String> keys, String aggregateQuery, String... keyVariables)
+            throws MarmottaException, InvalidArgumentException {
+        List<Map<String, Value>> rows = sparqlService.query(QueryLanguage.SPARQL, aggregateQuery);
+        try {
+            RepositoryConnection conn = sesameService.getConnection();
+            try {
+                conn.begin();
+                conn.prepareUpdate(QueryLanguage.SPARQL, queriesService.getDeleteAggregatesQuery(graph, type, keyProperty, keys)).execute();
+                ValueFactory factory = conn.getValueFactory();
+                URI context = factory.createURI(graph);
+                for (Map<String, Value> row : rows) {
+                    StringBuilder key = new StringBuilder();
+                    for (String variable : keyVariables) {
+                        if (row.get(variable) == null) {
+                            key = null;
+                            break;
+                        }
+                        key.append(NTriplesUtil.toNTriplesString(row.get(variable)));
+                    }
+                    if (key == null) {
+                        continue;
+                    }
+                    URI node = factory.createURI(constantService.getAggregatesGraph() + "/" + family + "/" + commonsServices.getMD5(key.toString()));
+                    conn.add(node, factory.createURI(TYPE), factory.createURI(type), context);
+                    for (Map.Entry<String, Value> binding : row.entrySet()) {
+                        String property = PROPERTIES.get(binding.getKey());
+                        if (property != null && binding.getValue() != null) {
+                            conn.add(node, factory.createURI(property), binding.getValue(), context);
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (RepositoryException | MalformedQueryException | UpdateExecutionException ex) {
+                conn.rollback();
+                throw new MarmottaException("Aggregates of " + type + " were not replaced", ex);
+            } finally {
+                conn.close();
+            }
+        } catch (RepositoryException ex) {
+            throw new MarmottaException("Aggregates of " + type + " were not replaced", ex);
+        }
+    }
+
+    private static void addTerm(Set<String> terms, Value value) {
+        if (value != null) {
+            terms.add(NTriplesUtil.toNTriplesString(value));
+        }
+    }
+
+    /**
+     * The central graph has no year property of its own, so the year is
+     * taken from a date property, prism:coverDate unless configured.
+     */
+    private String getYearProperty() {
+        String property = commonsServices.readPropertyFromFile("parameters.properties", "aggregatesYearProperty");
+        return property == null || property.trim().isEmpty() ? DEFAULT_YEAR_PROPERTY : property.trim();
+    }
+}
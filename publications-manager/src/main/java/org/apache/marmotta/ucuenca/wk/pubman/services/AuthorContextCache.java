@@ -0,0 +1,118 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.openrdf.model.Value;
+import org.openrdf.query.QueryLanguage;
+
+/**
+ * Author data used while the publications of the providers are loaded into
+ * the central graph. It lives for one run of Data2GlobalGraph: names and
+ * the persons already in the central graph are read with a few bulk queries at the beginning, and the central URI assigned to each
+ * provider author is remembered, so the number of queries depends on the
+ * number of authors and not on the number of publications.
+ *
+ * @author Satellite
+ */
+public class AuthorContextCache {
+
+    private final SparqlService sparqlService;
+
+    private final QueriesService queriesService;
+
+    private final String wkhuskaGraph;
+
+    private final String authorsGraph;
+
+    /* author resource -> {firstName, lastName} */
+    private final Map<String, String[]> names = new HashMap<>();
+
+    /* persons already stored in the central graph */
+    private final Set<String> centralAuthors = new HashSet<>();
+
+    /* provider author resource -> central author resource */
+    private final Map<String, String> centralUris = new HashMap<>();
+
+    /* central author resource -> processed names (see getFirstAndLastNameAuthor) */
+    private final Map<String, List<String>> centralNames = new HashMap<>();
+
+    /* author resource -> keywords */
+    private final Map<String, List<String>> keywords = new HashMap<>();
+
+    public AuthorContextCache(SparqlService sparqlService, QueriesService queriesService, String wkhuskaGraph, String authorsGraph) {
+        this.sparqlService = sparqlService;
+        this.queriesService = queriesService;
+        this.wkhuskaGraph = wkhuskaGraph;
+        this.authorsGraph = authorsGraph;
+    }
+
+    /**
+     * Bulk load of names and central persons.
+     */
+    public void load() throws MarmottaException {
+        for (Map<String, Value> row : sparqlService.query(QueryLanguage.SPARQL, queriesService.getFirstNameLastNameAuthors(authorsGraph))) {
+            String subject = row.get("subject").stringValue();
+            if (!names.containsKey(subject)) {
+                names.put(subject, new String[]{row.get("fname").stringValue(), row.get("lname").stringValue()});
+            }
+        }
+        for (Map<String, Value> row : sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorsQuery(wkhuskaGraph))) {
+            centralAuthors.add(row.get("s").stringValue());
+        }
+    }
+
+    /**
+     * @return {firstName, lastName} of the author in the authors graph, or
+     * null
+     */
+    public String[] getNames(String authorResource) {
+        return names.get(authorResource);
+    }
+
+    public boolean isCentralAuthor(String centralResource) {
+        return centralAuthors.contains(centralResource);
+    }
+
+    public void addCentralAuthor(String centralResource) {
+        centralAuthors.add(centralResource);
+    }
+
+    public String getCentralUri(String authorResource) {
+        return centralUris.get(authorResource);
+    }
+
+    public void putCentralUri(String authorResource, String centralResource) {
+        centralUris.put(authorResource, centralResource);
+    }
+
+    public List<String> getCentralNames(String centralResource) {
+        return centralNames.get(centralResource);
+    }
+
+    public void putCentralNames(String centralResource, List<String> processedNames) {
+        centralNames.put(centralResource, processedNames);
+    }
+
+    public List<String> getKeywords(String authorResource) {
+        return keywords.get(authorResource);
+    }
+
+    public void putKeywords(String authorResource, List<String> authorKeywords) {
+        keywords.put(authorResource, authorKeywords);
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
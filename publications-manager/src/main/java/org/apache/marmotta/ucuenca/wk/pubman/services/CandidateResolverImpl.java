@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.CandidateResolver;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderTransport;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link CandidateResolver}. The searches are
+ * started by a pool shared by the providers, once the provider's limit of
+ * searches per second allows it, and are retrieved by the
+ * {@link ProviderTransport}.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class CandidateResolverImpl implements CandidateResolver {
+
+    /* threads that wait for the rate limits and start the searches of all the providers */
+    private static final String THREADS = "pubman.candidates.threads";
+
+    private static final int DEFAULT_THREADS = 8;
+
+    /* searches started per second, for each provider */
+    private static final String RATE = "pubman.candidates.requests_per_second";
+
+    private static final double DEFAULT_RATE = 4.0;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private ConfigurationService configurationService;
+
+    @Inject
+    private ProviderTransport providerTransport;
+
+    private ListeningExecutorService executor;
+
+    private final ConcurrentMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(
+                configurationService.getIntConfiguration(THREADS, DEFAULT_THREADS),
+                new ThreadFactoryBuilder().setNameFormat("pubman-candidates-%d").setDaemon(true).build()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Resolution resolve(final String provider, final LDClient ldClient, List<String> resources) throws DataRetrievalException {
+        final RateLimiter limiter = getLimiter(provider);
+        final List<ListenableFuture<Candidate>> searches = new ArrayList<>();
+        for (final String resource : resources) {
+            ListenableFuture<ListenableFuture<ClientResponse>> started = executor.submit(new Callable<ListenableFuture<ClientResponse>>() {
+                @Override
+                public ListenableFuture<ClientResponse> call() throws Exception {
+                    limiter.acquire();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("search of " + resource + " cancelled");
+                    }
+                    return providerTransport.retrieveAsync(ldClient, resource);
+                }
+            });
+            searches.add(Futures.transform(Futures.dereference(started), new AsyncFunction<ClientResponse, Candidate>() {
+                @Override
+                public ListenableFuture<Candidate> apply(ClientResponse response) throws Exception {
+                    if (response.getHttpStatus() == 503) {
+                        throw new DataRetrievalException(provider + " returned 503 for " + resource);
+                    }
+                    int members = new ResponseModel(response.getData()).getObjects(ResponseModel.FOAFMEMBER).size();
+                    return Futures.immediateFuture(new Candidate(resource, response, members));
+                }
+            }));
+        }
+        // a search that finds one author makes the searches of lower priority useless
+        for (int i = 0; i < searches.size(); i++) {
+            final List<ListenableFuture<Candidate>> lower = searches.subList(i + 1, searches.size());
+            Futures.addCallback(searches.get(i), new FutureCallback<Candidate>() {
+                @Override
+                public void onSuccess(Candidate candidate) {
+                    if (candidate.getMembers() == 1) {
+                        cancel(lower);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    // reported when the winner is resolved
+                }
+            });
+        }
+        // the winner is certain once the searches of higher priority are completed
+        List<Candidate> candidates = new ArrayList<>();
+        try {
+            for (int i = 0; i < searches.size(); i++) {
+                Candidate candidate;
+                try {
+                    candidate = searches.get(i).get();
+                } catch (ExecutionException e) {
+                    cancel(searches);
+                    if (e.getCause() instanceof DataRetrievalException) {
+                        throw (DataRetrievalException) e.getCause();
+                    }
+                    throw new DataRetrievalException("search of " + resources.get(i) + " failed", e.getCause());
+                }
+                candidates.add(candidate);
+                if (candidate.getMembers() == 1) {
+                    cancel(searches);
+                    log.debug("{} found one author with variant {} of {}", provider, i + 1, searches.size());
+                    return new Resolution(candidates, candidate);
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(searches);
+            Thread.currentThread().interrupt();
+            throw new DataRetrievalException("interrupted while searching in " + provider, e);
+        }
+        return new Resolution(candidates, null);
+    }
+
+    private RateLimiter getLimiter(String provider) {
+        RateLimiter limiter = limiters.get(provider);
+        if (limiter == null) {
+            double rate = configurationService.getDoubleConfiguration(RATE + "." + provider,
+                    configurationService.getDoubleConfiguration(RATE, DEFAULT_RATE));
+            RateLimiter created = RateLimiter.create(rate);
+            limiter = limiters.putIfAbsent(provider, created);
+            if (limiter == null) {
+                limiter = created;
+            }
+        }
+        return limiter;
+    }
+
+    private static void cancel(List<? extends Future<?>> searches) {
+        for (Future<?> search : searches) {
+            search.cancel(true);
+        }
+    }
+}
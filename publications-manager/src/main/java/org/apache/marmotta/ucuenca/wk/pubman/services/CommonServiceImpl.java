@@ -6,11 +6,16 @@
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
 import com.google.gson.JsonArray;
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
+import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.CommonService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.DBLPProviderService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.GoogleScholarProviderService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.GraphVersions;
 import org.apache.marmotta.ucuenca.wk.pubman.api.ScopusProviderService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.ReportsService;
 import org.apache.marmotta.ucuenca.wk.pubman.services.ReportsImpl;
@@ -43,6 +48,18 @@ public class CommonServiceImpl implements CommonService {
     @Inject
     CountPublicationsServiceImpl countPublicationsService;
 
+    @Inject
+    AggregatesServiceImpl aggregatesService;
+
+    @Inject
+    GraphVersions graphVersions;
+
+    @Inject
+    ConstantService constantService;
+
+    @Inject
+    KeywordsService keywordsService;
+
 //
     @Inject
     DBLPProviderService dblpProviderServiceInt;
@@ -75,6 +92,21 @@ public class CommonServiceImpl implements CommonService {
         return "Data Provider DBLP are extracted in background.   Please review main.log file for details";
     }
 
+    @Override
+    public String GetDataFromDBLPDump(final String dumpFile) {
+        if (dblpProviderService.getDumpFile(dumpFile) == null) {
+            throw new IllegalArgumentException("The DBLP dump " + dumpFile + " is not a file of the dump directory");
+        }
+        Thread DblpDump = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dblpProviderService.runDumpTaskImpl(dumpFile);
+            }
+        });
+        DblpDump.start();
+        return "Data of the DBLP dump are loaded in background.   Please review main.log file for details";
+    }
+
     @Override
     public String GetDataFromProvidersServiceMicrosoftAcademics() {
         Thread MicrosofProvider = new Thread(microsoftAcadProviderService);
@@ -104,6 +136,45 @@ public class CommonServiceImpl implements CommonService {
         return "Count Publications from Providers and  Global Graph. Task run in background.   Please review main.log file for details";
     }
 
+    @Override
+    public String MaterializeAggregates() {
+        Thread aggregatesTask = new Thread(aggregatesService);
+        aggregatesTask.start();
+        return "Materialize the aggregates of the dashboards from the Global Graph. Task run in background.   Please review main.log file for details";
+    }
+
+    @Override
+    public String TranslateStoredKeywords() {
+        Thread translationTask = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                keywordsService.translateStoredKeywords();
+            }
+        });
+        translationTask.start();
+        return "Translate the keywords already loaded for the semantic comparisons. Task run in background.   Please review main.log file for details";
+    }
+
+    @Override
+    public String RollbackGraph(String graph) {
+        // only the graphs rebuilt as a whole have versions
+        if (!constantService.getWkhuskaGraph().equals(graph) && !constantService.getAggregatesGraph().equals(graph)) {
+            return "error:  " + graph + " has no versions";
+        }
+        String result;
+        try {
+            result = graphVersions.rollback(graph);
+        } catch (IllegalStateException ex) {
+            return "error:  " + ex;
+        }
+        if (constantService.getWkhuskaGraph().equals(graph)) {
+            // the aggregates follow the central graph they were computed from
+            new Thread(aggregatesService).start();
+            result += ". Aggregates materialized again in background";
+        }
+        return result;
+    }
+
     @Override
     public JsonArray searchAuthor(String uri) {
 
@@ -114,4 +185,19 @@ public class CommonServiceImpl implements CommonService {
     public String createReport(String hostname, String realPath, String name, String type, List<String> params) {
         return reportService.createReport(hostname, realPath, name, type, params);
     }
+
+    @Override
+    public String submitReport(String realPath, String name, String type, List<String> params) {
+        return reportService.submitReport(realPath, name, type, params);
+    }
+
+    @Override
+    public Map<String, String> getReportStatus(String id) {
+        return reportService.getReportStatus(id);
+    }
+
+    @Override
+    public File getReportFile(String id) {
+        return reportService.getReportFile(id);
+    }
 }
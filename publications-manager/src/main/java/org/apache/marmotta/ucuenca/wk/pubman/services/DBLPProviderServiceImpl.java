@@ -19,6 +19,7 @@ package org.apache.marmotta.ucuenca.wk.pubman.services;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -40,9 +41,13 @@ import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
 import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
 import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.function.RetryScheduler;
+import org.apache.marmotta.ucuenca.wk.commons.service.AuthorCursor;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 
@@ -51,21 +56,27 @@ import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
 import org.apache.marmotta.ucuenca.wk.commons.impl.ConstantServiceImpl;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.CandidateResolver;
 import org.apache.marmotta.ucuenca.wk.pubman.api.DBLPProviderService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.NegativeResultCache;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMapping;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMappingRegistry;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.GetAuthorsGraphData;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.dump.DBLPDumpException;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.dump.DBLPDumpMapper;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.dump.DBLPDumpReader;
+import org.apache.marmotta.ucuenca.wk.provider.dblp.dump.DBLPNameIndex;
 
 import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
-import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.QueryLanguage;
 import org.openrdf.query.QueryResults;
 
-import org.openrdf.query.TupleQuery;
-import org.openrdf.query.TupleQueryResult;
 import org.openrdf.query.GraphQueryResult;
 
 import org.openrdf.repository.RepositoryConnection;
@@ -74,6 +85,8 @@ import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.query.UpdateExecutionException;
 import org.semarglproject.vocab.OWL;
@@ -111,11 +124,32 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
     @Inject
     private KeywordsService kservice;
 
+    @Inject
+    private ProviderMappingRegistry providerMappingRegistry;
+
+    @Inject
+    private NegativeResultCache negativeResults;
+
+    @Inject
+    private CandidateResolver candidateResolver;
+
     private int processpercent = 0;
 
+    /* statements written to the repository in each transaction of the dump load */
+    private static final int DUMP_BATCH = 5000;
+
+    /* directory the dumps are read from, by default dblp under the Marmotta home */
+    private static final String DUMP_DIR = "pubman.dblp.dump_dir";
+
+    @Inject
+    private ConfigurationService configurationService;
+
     @Inject
     private SparqlService sparqlService;
 
+    @Inject
+    private SesameService sesameService;
+
     @Override
     @Deprecated
     public String runPublicationsTaskImpl(String param) {
@@ -134,34 +168,7 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
 
                 if (providerGraph.contains("provider")) {
 
-                    Properties propiedades = new Properties();
-                    InputStream entrada = null;
-                    Map<String, String> mapping = new HashMap<String, String>();
-                    try {
-                        ClassLoader classLoader = getClass().getClassLoader();
-                        //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-
-                        entrada = classLoader.getResourceAsStream(providerGraphResource.getLocalName() + ".properties");
-                        // cargamos el archivo de propiedades
-                        propiedades.load(entrada);
-
-                        for (String source : propiedades.stringPropertyNames()) {
-                            String target = propiedades.getProperty(source);
-                            mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-                        }
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    } finally {
-                        if (entrada != null) {
-                            try {
-                                entrada.close();
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
+                    ProviderMapping mapping = providerMappingRegistry.getMapping(providerGraphResource.getLocalName());
 
                     List<Map<String, Value>> resultPublications = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsQuery(providerGraph));
                     for (Map<String, Value> pubresource : resultPublications) {
@@ -186,10 +193,10 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
 
                         List<Map<String, Value>> resultPubProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsPropertiesQuery(providerGraph, publicationResource));
                         for (Map<String, Value> pubproperty : resultPubProperties) {
-                            String nativeProperty = pubproperty.get("publicationProperties").toString();
-                            if (mapping.get(nativeProperty) != null) {
+                            URI mappedProperty = mapping.getTarget(pubproperty.get("publicationProperties"));
+                            if (mappedProperty != null) {
 
-                                String newPublicationProperty = mapping.get(nativeProperty);
+                                String newPublicationProperty = mappedProperty.stringValue();
                                 String publicacionPropertyValue = pubproperty.get("publicationPropertyValue").toString();
                                 String insertPublicationPropertyQuery = buildInsertQuery(constantService.getAuthorsGraph(), publicationResource, newPublicationProperty, publicacionPropertyValue);
 
@@ -228,21 +235,15 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
             //conf.addEndpoint(new DBLPEndpoint());
             LDClient ldClient = new LDClient(conf);
 
-            int allMembers = 0;
+            RetryScheduler retries = new RetryScheduler();
 
             // TupleQueryResult result = sparqlService.query(QueryLanguage.SPARQL, getAuthors);
-            String nameToFind = "";
             String authorResource = "";
-            int priorityToFind = 0;
-            List<Map<String, Value>> resultAllAuthors = getauthorsData.getListOfAuthors();
+            AuthorCursor authors = getauthorsData.openAuthorCursor();
             /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
+            int allPersons = getauthorsData.countAuthors();
             int processedPersons = 0;
 
-            String NS_DBLP = "http://rdf.dblp.com/ns/search/";
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
-
             Properties propiedades = new Properties();
             InputStream entrada = null;
             Map<String, String> mapping = new HashMap<String, String>();
@@ -271,200 +272,50 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
             boolean proccesAllAuthors = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
             boolean semanticAnalizer = Boolean.parseBoolean(mapping.get("semanticAnalizer").toString());
 
-            for (Map<String, Value> map : resultAllAuthors) {
-                processedPersons++;
-                log.info("Autores procesados con DBLP: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                priorityToFind = 1;
-                boolean ask = false;
-                if (!proccesAllAuthors) {
-                    String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getDBLPGraph(), authorResource);
+            try {
+                while (authors.hasNext()) {
+                    Map<String, Value> map = authors.next();
+                    processedPersons++;
+                    log.info("Autores procesados con DBLP: " + processedPersons + " de " + allPersons);
+                    authorResource = map.get("subject").stringValue();
+                    String firstName = map.get("fname").stringValue();
+                    String lastName = map.get("lname").stringValue();
+                    boolean ask = false;
+                    if (!proccesAllAuthors) {
+                        String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getDBLPGraph(), authorResource);
+
+                        try {
+                            ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
+                            if (ask) {
+                                continue;
+                            }
+                        } catch (MarmottaException ex) {
+                            log.info("Marmotta Exception: Special Characters while ask triplet: " + askTripletQuery);
 
-                    try {
-                        ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                        if (ask) {
-                            continue;
-                        }
-                    } catch (MarmottaException ex) {
-                        log.info("Marmotta Exception: Special Characters while ask triplet: " + askTripletQuery);
+                        } catch (Exception e) {
+                            log.info("Special Characters while ask triplet: " + askTripletQuery);
 
-                    } catch (Exception e) {
-                        log.info("Special Characters while ask triplet: " + askTripletQuery);
+                        }
 
                     }
-
-                }
-                do {
                     try {
-                        boolean existNativeAuthor = false;
-                        allMembers = 0;
-                        nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName));
-
-                        boolean dataretrievee = false;//( Data Retrieve Exception )
-
-                        if (!proccesAllAuthors) {
-                            try {
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskQuery(constantService.getDBLPGraph(), NS_DBLP + nameToFind, "http://www.w3.org/2002/07/owl#oneOf", authorResource));
-                            } catch (Exception e) {
-                                log.info("ERROR line 305" + constantService.getDBLPGraph() + NS_DBLP + nameToFind + "Exception" + e.getMessage());
-                                log.info("ERROR line 305" + existNativeAuthor);
-                            }
-                        }
-                        if (!existNativeAuthor) {
-
-                            try {
-                                response = ldClient.retrieveResource(NS_DBLP + nameToFind);
-                                dataretrievee = true;
-                            } catch (DataRetrievalException e) {
-                                log.error("Data Retrieval Exception: " + e);
-                                dataretrievee = false;
-                            }
-                            if (response.getHttpStatus() == 503) {
-                                log.error("ErrorCode: " + response.getHttpStatus());
-                            }
-                        }
-                        String nameEndpointofPublications = ldClient.getEndpoint(NS_DBLP + nameToFind).getName();
-                        String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
-                        if (dataretrievee)//if the resource data were recovered
-                        {
-//                            Model model = response.getData();
-//                            FileOutputStream out = new FileOutputStream("C:\\Users\\Satellite\\Desktop\\" + nameToFind.replace("?", "_") + "_test.ttl");
-//                            RDFWriter writer = Rio.createWriter(RDFFormat.TURTLE, out);
-//                            try {
-//                                writer.startRDF();
-//                                for (Statement st : model) {
-//                                    writer.handleStatement(st);
-//                                }
-//                                writer.endRDF();
-//                            } catch (RDFHandlerException e) {
-//                                // oh no, do something!
-//                            }
-                            //Save register of serach
-                            String InsertQueryOneOf = buildInsertQuery(providerGraph, NS_DBLP + nameToFind, OWL.ONE_OF, authorResource);
-                            updatePub(InsertQueryOneOf);
-
-                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                            conUri.begin();
-                            String authorNativeResource = null;
-                            //verifying the number of persons retrieved. if it has recovered more than one persons then the filter is changed and search anew,
-                            String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
-                            TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
-                            //  allMembers = Iterations.asList(membersResult).size();
-                            String dblpfullname = "";
-                            String localfullname = "";
-                            while (membersResult.hasNext()) {
-                                allMembers++;
-                                BindingSet bindingCount = membersResult.next();
-                                authorNativeResource = bindingCount.getValue("object").toString();
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
-                                dblpfullname = authorNativeResource.substring(authorNativeResource.lastIndexOf('/') + 1);
-                                localfullname = lastName + ":" + firstName;
-                            }
-                            //the author data was already loaded into the repository, only a sameAs property is associated 
-                            if (allMembers == 1 && existNativeAuthor) {
-                                //insert sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                updatePub(sameAsInsertQuery);
-                            }
-                            /**
-                             * Exception to avoid authorNativeResource equal to
-                             */
-
-                            try {
-                                if (allMembers == 1 && !existNativeAuthor
-                                        && distance.syntacticComparisonNames("local", localfullname, "dblp", dblpfullname)) {
-
-                                    priorityToFind = 5;
-
-                                    List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
-                                    List<String> listB = new ArrayList<String>();//desde la fuente de pub
-                                    String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dct:title");
-                                    TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
-                                    TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                                    while (abstractResult.hasNext()) {
-                                        BindingSet abstractResource = abstractResult.next();
-                                        // String abstracttext = abstractResource.getValue("abstract").toString();
-                                        String publication = abstractResource.getValue("subject").toString();
-
-                                        String titletext = abstractResource.getValue("object").toString();
-                                        listB = kservice.getKeywords(titletext);
-                                        int cero = 0;
-
-                                        if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
-                                            //SPARQL obtain all publications of author
-                                            String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                            TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                            while (tripletasResult.hasNext()) {
-                                                BindingSet tripletsResource = tripletasResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String publicationProperty = tripletsResource.getValue("property").toString();
-                                                String publicationObject = tripletsResource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                                updatePub(publicationInsertQuery);
-
-                                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
-                                                updatePub(contributorInsertQuery);
-
-                                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                                updatePub(sameAsInsertQuery);
-                                            }
-
-                                        }//end if semanticComparison
-                                        else if (!semanticAnalizer) {//In this case: No semantic Analizer
-                                            //SPARQL obtain all publications of author
-                                            String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                            TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                            TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                            while (tripletasResult.hasNext()) {
-                                                BindingSet tripletsResource = tripletasResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String publicationProperty = tripletsResource.getValue("property").toString();
-                                                String publicationObject = tripletsResource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                                updatePub(publicationInsertQuery);
-
-                                                // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
-                                                updatePub(contributorInsertQuery);
-
-                                                // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
-                                                updatePub(sameAsInsertQuery);
-                                            }
-                                        }
-                                    }
-                                }//end if numMembers=1
-                                conUri.commit();
-
-                            } catch (Exception e) {
-                                log.info("ERROR in full name:" + authorNativeResource);
-                            } finally {
-                                if (conUri != null) {
-
-                                    conUri.close();
-                                }
-                            }
-                        }
-                    } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
-                        log.error("Evaluation Exception: " + ex);
-                    } catch (Exception e) {
-                        log.error("ioexception " + e.toString());
+                        searchAuthor(ldClient, authorResource, firstName, lastName, proccesAllAuthors, semanticAnalizer);
+                    } catch (DataRetrievalException e) {
+                        retries.defer(NegativeResultCache.DBLP, authorResource,
+                                new AuthorSearch(ldClient, authorResource, firstName, lastName, proccesAllAuthors, semanticAnalizer), e);
                     }
-                    priorityToFind++;
-                } while (allMembers != 1 && priorityToFind < 5);//end do while
-                //** end View Data
-                printPercentProcess(processedPersons, allPersons, "DBLP");
+                    // searches deferred by earlier failures, while the other authors go on
+                    retries.runDue();
+                    //** end View Data
+                    printPercentProcess(processedPersons, allPersons, "DBLP");
+                }
+            } finally {
+                authors.close();
+            }
+            for (RetryScheduler.Failure failure : retries.drain()) {
+                log.error("Author not searched in DBLP: " + failure);
             }
+            negativeResults.flush();
             return "True for publications";
         } catch (Exception ex) {
             log.error("Exception: " + ex);
@@ -472,6 +323,143 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
         return "fail";
     }
 
+    /**
+     * Search the author in DBLP with all the name variants at the same time,
+     * and load the publications of the author found by the variant of highest
+     * priority that finds a single author.
+     *
+     * @throws DataRetrievalException if DBLP could not be reached or returned
+     * 503, so the search can be retried later
+     */
+    private void searchAuthor(LDClient ldClient, String authorResource, String firstName, String lastName,
+            boolean proccesAllAuthors, boolean semanticAnalizer) throws DataRetrievalException {
+        String NS_DBLP = "http://rdf.dblp.com/ns/search/";
+        // the name variants are searched at the same time, by priority
+        List<String> resources = new ArrayList<String>();
+        for (int priorityToFind = 1; priorityToFind < 5; priorityToFind++) {
+            String nameToFind = commonsServices.removeAccents(priorityFindQueryBuilding(priorityToFind, firstName, lastName));
+            boolean existNativeAuthor = false;
+            if (!proccesAllAuthors) {
+                try {
+                    existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskQuery(constantService.getDBLPGraph(), NS_DBLP + nameToFind, "http://www.w3.org/2002/07/owl#oneOf", authorResource));
+                } catch (Exception e) {
+                    log.info("ERROR line 305" + constantService.getDBLPGraph() + NS_DBLP + nameToFind + "Exception" + e.getMessage());
+                    log.info("ERROR line 305" + existNativeAuthor);
+                }
+            }
+            // variants with no author or several authors in a previous run are not searched again
+            if (!existNativeAuthor && !negativeResults.isNegative(NegativeResultCache.DBLP, nameToFind)
+                    && !resources.contains(NS_DBLP + nameToFind)) {
+                resources.add(NS_DBLP + nameToFind);
+            }
+        }
+        if (resources.isEmpty()) {
+            return;
+        }
+        CandidateResolver.Resolution resolution;
+        try {
+            resolution = candidateResolver.resolve(NegativeResultCache.DBLP, ldClient, resources);
+        } catch (DataRetrievalException e) {
+            log.error("Data Retrieval Exception: " + e);
+            throw e;
+        }
+        String authorNativeResource = null;
+        try {
+            String nameEndpointofPublications = ldClient.getEndpoint(resources.get(0)).getName();
+            String providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
+            for (CandidateResolver.Candidate candidate : resolution.getCandidates()) {
+                //Save register of serach
+                String InsertQueryOneOf = buildInsertQuery(providerGraph, candidate.getResource(), OWL.ONE_OF, authorResource);
+                updatePub(InsertQueryOneOf);
+                if (candidate.getResponse().getHttpStatus() == 200) {
+                    negativeResults.record(NegativeResultCache.DBLP, candidate.getResource().substring(NS_DBLP.length()), candidate.getMembers());
+                }
+            }
+            //the variant of highest priority that found only one person
+            CandidateResolver.Candidate winner = resolution.getWinner();
+            if (winner == null) {
+                return;
+            }
+            ResponseModel responseModel = new ResponseModel(winner.getResponse().getData());
+            authorNativeResource = responseModel.getObjects(ResponseModel.FOAFMEMBER).iterator().next().toString();
+            boolean existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(providerGraph, authorNativeResource));
+            String dblpfullname = authorNativeResource.substring(authorNativeResource.lastIndexOf('/') + 1);
+            String localfullname = lastName + ":" + firstName;
+            //the author data was already loaded into the repository, only a sameAs property is associated 
+            if (existNativeAuthor) {
+                //insert sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
+                updatePub(sameAsInsertQuery);
+            } else if (distance.syntacticComparisonNames("local", localfullname, "dblp", dblpfullname)) {
+                List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
+                List<String> listB = new ArrayList<String>();//desde la fuente de pub
+                for (Statement titleStatement : responseModel.getStatements(ResponseModel.DCTTITLE)) {
+                    Resource publicationResource = titleStatement.getSubject();
+                    String publication = publicationResource.toString();
+
+                    String titletext = titleStatement.getObject().toString();
+                    listB = kservice.getKeywords(titletext);
+                    if (semanticAnalizer) {
+                        kservice.translateKeywords(listB);
+                    }
+                    int cero = 0;
+
+                    if (!semanticAnalizer || (listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB))) {
+                        //obtain all properties of the publication
+                        for (Statement property : responseModel.getProperties(publicationResource)) {
+                            String publicationProperty = property.getPredicate().toString();
+                            String publicationObject = property.getObject().toString();
+                            ///insert sparql query, 
+                            String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
+                            updatePub(publicationInsertQuery);
+
+                            // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                            String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", authorNativeResource);
+                            updatePub(contributorInsertQuery);
+
+                            // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                            String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", authorNativeResource);
+                            updatePub(sameAsInsertQuery);
+                        }
+                    }
+                }
+            }
+        } catch (MarmottaException ex) {
+            log.error("Evaluation Exception: " + ex);
+        } catch (Exception e) {
+            log.error("ERROR in full name:" + authorNativeResource + " " + e);
+        }
+    }
+
+    /**
+     * Deferred search of an author, after DBLP failed.
+     */
+    private class AuthorSearch implements RetryScheduler.Task {
+
+        private final LDClient ldClient;
+        private final String authorResource;
+        private final String firstName;
+        private final String lastName;
+        private final boolean proccesAllAuthors;
+        private final boolean semanticAnalizer;
+
+        AuthorSearch(LDClient ldClient, String authorResource, String firstName, String lastName,
+                boolean proccesAllAuthors, boolean semanticAnalizer) {
+            this.ldClient = ldClient;
+            this.authorResource = authorResource;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.proccesAllAuthors = proccesAllAuthors;
+            this.semanticAnalizer = semanticAnalizer;
+        }
+
+        @Override
+        public void run() throws DataRetrievalException {
+            log.info("Retrying the DBLP search of " + authorResource);
+            searchAuthor(ldClient, authorResource, firstName, lastName, proccesAllAuthors, semanticAnalizer);
+        }
+    }
+
     @Override
     public JsonArray SearchAuthorTaskImpl(String uri
     ) {
@@ -493,18 +481,7 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
             }
 
             String providerName = ldClient.getEndpoint(uri).getName();
-            Properties propiedades = new Properties();
-            InputStream entrada = null;
-            Map<String, String> mapping = new HashMap<String, String>();
-            ClassLoader classLoader = getClass().getClassLoader();
-            //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-            entrada = classLoader.getResourceAsStream(providerName.replace(" ", "") + ".properties");
-            // cargamos el archivo de propiedades
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-                mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-            }
+            ProviderMapping mapping = providerMappingRegistry.getMapping(providerName);
             RepositoryConnection conUri = null;
             ClientResponse response = null;
             log.info("Buscando Informacion de: " + uri);
@@ -533,15 +510,15 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
                         + " } "
                         + " WHERE "
                         + " { "
-                        + " <" + nativeauthor + ">  <" + mapping.get("publicationProperty") + "> ?publication. "
-                        + " ?publication <" + mapping.get("title") + "> ?title. "
-                        + " OPTIONAL { ?publication <" + mapping.get("uri") + "> ?uri. } "
-                        + " OPTIONAL { ?publication <" + mapping.get("abstract") + ">  ?abstract. }"
-                        + " OPTIONAL { ?publication <" + mapping.get("keyword") + ">  ?keyword. }"
-                        + " OPTIONAL { ?publication <" + mapping.get("contributor") + "> ?coauthor. }"
-                        + " OPTIONAL { ?publication <" + mapping.get("numPages") + "> ?numPages. }"
-                        + " OPTIONAL { ?publication <" + mapping.get("isPartOf") + "> ?isPartOf. }"
-                        + " OPTIONAL { ?publication <" + mapping.get("publisher") + "> ?publisher. }"
+                        + " <" + nativeauthor + ">  <" + mapping.getProperty("publicationProperty") + "> ?publication. "
+                        + " ?publication <" + mapping.getProperty("title") + "> ?title. "
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("uri") + "> ?uri. } "
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("abstract") + ">  ?abstract. }"
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("keyword") + ">  ?keyword. }"
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("contributor") + "> ?coauthor. }"
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("numPages") + "> ?numPages. }"
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("isPartOf") + "> ?isPartOf. }"
+                        + " OPTIONAL { ?publication <" + mapping.getProperty("publisher") + "> ?publisher. }"
                         + " BIND (REPLACE(?title,\" \", \"_\",\"i\") as ?newtitle) "
                         + " BIND (IRI(CONCAT(\"http://ucuenca.edu.ec/wkhuska/publication/\",?newtitle)) as ?uripub) "
                         + " } LIMIT 170 ";
@@ -580,6 +557,122 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
         return parser.parse(" [{\"Fail\":\"Any Data\"}]").getAsJsonArray();
     }
 
+    @Override
+    public File getDumpFile(String dumpFile) {
+        File directory = new File(configurationService.getStringConfiguration(DUMP_DIR,
+                new File(configurationService.getHome(), "dblp").getPath()));
+        try {
+            File dump = new File(directory, dumpFile).getCanonicalFile();
+            if (dump.isFile() && dump.getParentFile().equals(directory.getCanonicalFile())) {
+                return dump;
+            }
+        } catch (IOException e) {
+            log.error("DBLP dump " + dumpFile + " could not be resolved: " + e);
+        }
+        return null;
+    }
+
+    @Override
+    public String runDumpTaskImpl(String dumpFile) {
+        File dump = getDumpFile(dumpFile);
+        if (dump == null) {
+            log.error("DBLP dump not found in the dump directory: " + dumpFile);
+            return "fail";
+        }
+        DBLPNameIndex index = new DBLPNameIndex();
+        try (AuthorCursor authors = getauthorsData.openAuthorCursor()) {
+            while (authors.hasNext()) {
+                Map<String, Value> map = authors.next();
+                index.add(map.get("subject").stringValue(), map.get("fname").stringValue(), map.get("lname").stringValue());
+            }
+        } catch (MarmottaException e) {
+            log.error("Authors for the DBLP dump could not be read: " + e);
+            return "fail";
+        }
+        log.info("Reading DBLP dump " + dump + " for " + index.size() + " authors");
+        try {
+            RepositoryConnection connection = sesameService.getConnection();
+            try {
+                RepositoryBatchHandler output = new RepositoryBatchHandler(connection,
+                        connection.getValueFactory().createURI(constantService.getDBLPGraph()));
+                DBLPDumpMapper mapper = new DBLPDumpMapper(index, output);
+                DBLPDumpReader reader = new DBLPDumpReader(index);
+                output.startRDF();
+                reader.read(dump, mapper);
+                output.endRDF();
+                log.info("DBLP dump: " + reader.getRecords() + " records read, " + reader.getMatches() + " of our authors, "
+                        + mapper.getPersons() + " persons, " + mapper.getLinks() + " authors linked, "
+                        + mapper.getAmbiguous() + " names shared by several authors, " + output.getWritten() + " triples");
+            } finally {
+                connection.close();
+            }
+            return "True for publications";
+        } catch (DBLPDumpException ex) {
+            log.error("DBLP dump: " + ex.getMessage(), ex);
+        } catch (RDFHandlerException ex) {
+            log.error("DBLP dump: could not write the last triples", ex);
+        } catch (IOException ex) {
+            log.error("DBLP dump: could not read " + dump, ex);
+        } catch (RepositoryException ex) {
+            log.error("DBLP dump: " + ex);
+        }
+        return "fail";
+    }
+
+    /**
+     * Adds the triples of the dump to the provider graph in transactions of
+     * {@link #DUMP_BATCH} statements, instead of one SPARQL update each.
+     */
+    private static class RepositoryBatchHandler extends RDFHandlerBase {
+
+        private final RepositoryConnection connection;
+        private final Resource graph;
+        private final List<Statement> batch = new ArrayList<>(DUMP_BATCH);
+        private long written;
+
+        RepositoryBatchHandler(RepositoryConnection connection, Resource graph) {
+            this.connection = connection;
+            this.graph = graph;
+        }
+
+        @Override
+        public void handleStatement(Statement st) throws RDFHandlerException {
+            batch.add(st);
+            if (batch.size() >= DUMP_BATCH) {
+                flush();
+            }
+        }
+
+        @Override
+        public void endRDF() throws RDFHandlerException {
+            flush();
+        }
+
+        private void flush() throws RDFHandlerException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                connection.begin();
+                connection.add(batch, graph);
+                connection.commit();
+            } catch (RepositoryException ex) {
+                try {
+                    connection.rollback();
+                } catch (RepositoryException e) {
+                    // the original exception is reported
+                }
+                throw new RDFHandlerException(ex);
+            }
+            written += batch.size();
+            batch.clear();
+        }
+
+        long getWritten() {
+            return written;
+        }
+    }
+
     public String priorityFindQueryBuilding(int priority, String firstName, String lastName) {
         String[] fnamelname = {"", "", "", "", ""};
         /**
@@ -653,6 +746,9 @@ public class DBLPProviderServiceImpl implements DBLPProviderService, Runnable {
      * @param endpointName 
      */
     public void printPercentProcess(int processedPersons, int allPersons, String provider) {
+        if (allPersons <= 0) {
+            return;
+        }
 
         if ((processedPersons * 100 / allPersons) != processpercent) {
             processpercent = processedPersons * 100 / allPersons;
@@ -5,13 +5,11 @@
  */
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -24,22 +22,21 @@ import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.AggregatesService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.Data2GlobalGraph;
+import org.apache.marmotta.ucuenca.wk.pubman.api.GraphVersions;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMapping;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMappingRegistry;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
+import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryLanguage;
 import org.openrdf.query.UpdateExecutionException;
 import org.semarglproject.vocab.OWL;
 import org.semarglproject.vocab.RDF;
-import org.simmetrics.StringMetric;
-import static org.simmetrics.StringMetricBuilder.with;
-import org.simmetrics.metrics.CosineSimilarity;
-import org.simmetrics.metrics.Levenshtein;
-import org.simmetrics.simplifiers.Simplifiers;
-import org.simmetrics.tokenizers.Tokenizers;
 import org.slf4j.Logger;
 
 /**
@@ -67,8 +64,18 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private ProviderMappingRegistry providerMappingRegistry;
+
+    @Inject
+    private AggregatesService aggregatesService;
+
+    @Inject
+    private GraphVersions graphVersions;
+
     private String namespaceGraph = "http://ucuenca.edu.ec/";
-    private String wkhuskaGraph = namespaceGraph + "wkhuska";
+    /* the live central graph; each load writes its own staging graph */
+    private final String wkhuskaGraph = namespaceGraph + "wkhuska";
     private String uriPublication = "http://ucuenca.edu.ec/wkhuska/publication/";
     private String bibloTitle = "http://purl.org/dc/terms/title";
     private String publicationOntology = "http://purl.org/ontology/bibo/Article";
@@ -87,6 +94,9 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
 
     private int processpercent = 0;
     private boolean comparacionSemantica = false;
+    private AuthorContextCache authorContext;
+    /* publications of the central graph changed by the load, to refresh their aggregates */
+    private Set<String> loadedPublications = new LinkedHashSet<>();
 
 
     /* graphByProvider
@@ -102,9 +112,17 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
     @Override
 
     public String LoadData2GlobalGraph() {
+        /* the load writes a copy of the central graph, published at the end */
+        String liveGraph = wkhuskaGraph;
+        boolean published = false;
         try {
+            String stagingGraph = graphVersions.stage(liveGraph, true);
 
             String providerGraph = "";
+            authorContext = new AuthorContextCache(sparqlService, queriesService, stagingGraph, authorsGraph);
+            authorContext.load();
+            loadedPublications.clear();
+            log.info("Authors loaded for the integration process: " + authorContext.size());
             //String getAuthorsQuery = queriesService.getAuthorsQuery();
             String getGraphsListQuery = queriesService.getGraphsQuery();
             List<Map<String, Value>> resultGraph = sparqlService.query(QueryLanguage.SPARQL, getGraphsListQuery);
@@ -115,41 +133,9 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                 KiWiUriResource providerGraphResource = new KiWiUriResource(providerGraph);
 
                 if (providerGraph.contains("provider")) {
-                    String prefixTitleSource = "";
-                    String prefixTitleTarget = "";
-
-                    Properties propiedades = new Properties();
-                    InputStream entrada = null;
-                    Map<String, String> mapping = new HashMap<String, String>();
-                    try {
-                        ClassLoader classLoader = getClass().getClassLoader();
-                        //File file = new File(classLoader.getResource("DBLPProvider.properties").getFile());
-                        entrada = classLoader.getResourceAsStream(providerGraphResource.getLocalName() + ".properties");
-                        // cargamos el archivo de propiedades
-                        propiedades.load(entrada);
-                        for (String source : propiedades.stringPropertyNames()) {
-                            String target = propiedades.getProperty(source);
-                            if (target.contains("title")) {
-                                prefixTitleSource = source.replace("..", ":");
-                                prefixTitleTarget = target.replace("..", ":");
-
-                            }
-                            mapping.put(source.replace("..", ":"), target.replace("..", ":"));
-
-                        }
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    } finally {
-                        if (entrada != null) {
-                            try {
-                                entrada.close();
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
+                    ProviderMapping mapping = providerMappingRegistry.getMapping(providerGraphResource.getLocalName());
+                    String prefixTitleSource = mapping.getTitleSource() == null ? "" : mapping.getTitleSource().stringValue();
+                    String prefixTitleTarget = mapping.getTitleTarget() == null ? "" : mapping.getTitleTarget().stringValue();
                     List<Map<String, Value>> auxPublications = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, prefixTitleSource));
                     List<Map<String, Value>> resultPublications = auxPublications.isEmpty() ? sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsTitleScopusQuery(providerGraph, prefixTitleTarget)) : auxPublications;
                     results.add(providerGraph + " :size :" + resultPublications.size());
@@ -164,7 +150,7 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                         totalPublications += 1;
 
                         // asint SameAs between newUri publication and Uri of provider graph
-                        String insertPublicationPropertySameAs = buildInsertQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, OWL.SAME_AS, publicationResource);
+                        String insertPublicationPropertySameAs = buildInsertQuery(stagingGraph, uriPublication + publicationTitleCleaned, OWL.SAME_AS, publicationResource);
                         try {
                             sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertySameAs);
 
@@ -177,8 +163,8 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                         }
 
                         //verificar existencia de la publicacion y su author sobre el grafo general, y que la nueva uri este asignada la pub. al autor
-                        String newUriAuthorCentral = buildNewUri(authorResource);//adds the new author to the central graph if it is not already there
-                        String askTripletQuery = queriesService.getAskQuery(wkhuskaGraph, newUriAuthorCentral, publicationProperty, uriPublication + publicationTitleCleaned);
+                        String newUriAuthorCentral = buildNewUri(stagingGraph, authorResource);//adds the new author to the central graph if it is not already there
+                        String askTripletQuery = queriesService.getAskQuery(stagingGraph, newUriAuthorCentral, publicationProperty, uriPublication + publicationTitleCleaned);
                         boolean ask = false;
                         try {
                             //asks if the new author has the publication in the central graph
@@ -192,13 +178,13 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                         }
 
                         if (!ask) {//Si no se encuentra el autor con esa publicacion, busca la publicacion actual del autor en el grafo central
-                            List<Map<String, Value>> resultPublicationsAuthor = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQuery(wkhuskaGraph, newUriAuthorCentral, "http://purl.org/dc/terms/title", getQuerySearchTextAuthor(publicationTitle)));
+                            List<Map<String, Value>> resultPublicationsAuthor = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQuery(stagingGraph, newUriAuthorCentral, "http://purl.org/dc/terms/title", getQuerySearchTextAuthor(publicationTitle)));
                             List<Map<String, Value>> auxResultPublicationsAuthorOfProvider = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleSource, getQuerySearchTextAuthor(publicationTitle)));
                             List<Map<String, Value>> resultPublicationsAuthorOfProvider = auxResultPublicationsAuthorOfProvider.isEmpty() ? sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationsQueryFromProvider(providerGraph, authorResource, prefixTitleTarget, getQuerySearchTextAuthor(publicationTitle))) : auxResultPublicationsAuthorOfProvider;
                             boolean flagPublicationAlreadyExist = false;
-                            String authorResourceBuilding = searchAuthorOfpublication(resultPublicationsAuthorOfProvider, authorResource, newUriAuthorCentral);
+                            String authorResourceBuilding = searchAuthorOfpublication(stagingGraph, resultPublicationsAuthorOfProvider, authorResource, newUriAuthorCentral);
                             String authorResourceCentral = authorResourceBuilding == null ? newUriAuthorCentral : authorResourceBuilding;
-                            String sameAsInsertQuery = buildInsertQuery(wkhuskaGraph, newUriAuthorCentral, OWL.SAME_AS, authorResource);
+                            String sameAsInsertQuery = buildInsertQuery(stagingGraph, newUriAuthorCentral, OWL.SAME_AS, authorResource);
                             try {
                                 sparqlService.update(QueryLanguage.SPARQL, sameAsInsertQuery);
                             } catch (MalformedQueryException ex) {
@@ -211,7 +197,7 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                                 if (compareTitlePublicationWithSimmetrics(publicationTitleCleaned, cleanStringUri(publicacion.get("title").stringValue()))) {
                                     flagPublicationAlreadyExist = true;
                                     bufferTitle = publicacion.get("publicationResource").stringValue();
-                                    String insertPublicationPropertyQuery = buildInsertQuery(wkhuskaGraph, bufferTitle, "http://purl.org/dc/terms/contributor", authorResourceCentral);
+                                    String insertPublicationPropertyQuery = buildInsertQuery(stagingGraph, bufferTitle, "http://purl.org/dc/terms/contributor", authorResourceCentral);
                                     try {
                                         sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertyQuery);
 
@@ -228,17 +214,9 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                             }
                             if (!flagPublicationAlreadyExist || resultPublicationsAuthor.isEmpty()) {
                                 //semanticComparison 
-                                insertPublicationToCentralGraph(authorResourceCentral, publicationProperty, uriPublication + publicationTitleCleaned);
-                                String queryKeysAut = "PREFIX dct: <http://purl.org/dc/terms/> "
-                                        + "SELECT DISTINCT ?value WHERE {"
-                                        + "  Graph <http://ucuenca.edu.ec/wkhuska/authors>"
-                                        + "  { <" + authorResource + ">  dct:subject ?value }"
-                                        + "} Limit 10 ";
-                                List<Map<String, Value>> keywordsAut = sparqlService.query(QueryLanguage.SPARQL, queryKeysAut);
-                                List<String> keyAut = new ArrayList<>();
-                                for (Map<String, Value> key : keywordsAut) {
-                                    keyAut.add(key.get("value").stringValue());
-                                }
+                                insertPublicationToCentralGraph(stagingGraph, authorResourceCentral, publicationProperty, uriPublication + publicationTitleCleaned);
+                                loadedPublications.add(uriPublication + publicationTitleCleaned);
+                                List<String> keyAut = getKeywordsAuthor(authorResource);
                                 String queryKeyPub = " SELECT DISTINCT ?publicationPropertyValue " +
                                 "WHERE {  " +
                                 "  GRAPH <http://ucuenca.edu.ec/wkhuska/provider/ScopusProvider>  { " +
@@ -255,7 +233,7 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                                     semanticComp = distanceService.semanticComparison(keyAut, keyPub);
                                 }
                                 if(semanticComp){
-                                    String insertSourceOfPublication = buildInsertQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
+                                    String insertSourceOfPublication = buildInsertQuery(stagingGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
                                     try {
                                         sparqlService.update(QueryLanguage.SPARQL, insertSourceOfPublication);
                                     } catch (MalformedQueryException ex) {
@@ -271,7 +249,7 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
 
                         }
                         //Pregunta si la publicacion fue extraida del provider que se esta usando actualmente (Scopus, DBLP)
-                        String askTripletProcessPublicationQuery = queriesService.getAskQuery(wkhuskaGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
+                        String askTripletProcessPublicationQuery = queriesService.getAskQuery(stagingGraph, uriPublication + publicationTitleCleaned, "http://xmlns.com/foaf/0.1/Organization", getNameOfProvider(providerGraph));
                         boolean askPublication = false;
                         try {
 
@@ -279,12 +257,13 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                             if (!askPublication || newInsert) {
                                 List<Map<String, Value>> resultPubProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.getPublicationsPropertiesQuery(providerGraph, publicationResource));
                                 resultPubProperties = resultPubProperties.size() > 150 ? resultPubProperties.subList(0, 150) : resultPubProperties;
+                                loadedPublications.add(newInsert ? (uriPublication + publicationTitleCleaned) : bufferTitle == null ? (uriPublication + publicationTitleCleaned) : bufferTitle);
                                 for (Map<String, Value> pubproperty : resultPubProperties) {
-                                    String nativeProperty = pubproperty.get("publicationProperties").toString();
-                                    if (mapping.get(nativeProperty) != null) {
-                                        String newPublicationProperty = mapping.get(nativeProperty);
+                                    URI mappedProperty = mapping.getTarget(pubproperty.get("publicationProperties"));
+                                    if (mappedProperty != null) {
+                                        String newPublicationProperty = mappedProperty.stringValue();
                                         String publicacionPropertyValue = pubproperty.get("publicationPropertyValue").toString();
-                                        String insertPublicationPropertyQuery = buildInsertQuery(wkhuskaGraph, newInsert ? (uriPublication + publicationTitleCleaned) : bufferTitle == null ? (uriPublication + publicationTitleCleaned) : bufferTitle, newPublicationProperty, publicacionPropertyValue);
+                                        String insertPublicationPropertyQuery = buildInsertQuery(stagingGraph, newInsert ? (uriPublication + publicationTitleCleaned) : bufferTitle == null ? (uriPublication + publicationTitleCleaned) : bufferTitle, newPublicationProperty, publicacionPropertyValue);
 
                                         try {
                                             sparqlService.update(QueryLanguage.SPARQL, insertPublicationPropertyQuery);
@@ -326,12 +305,20 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
             log.info("Publication total Recognized: " + totalPublicationRecognized);
             log.info("Publication total Not Recognized: " + totalPublicationNotRecognized);
             log.info("Publication total ASK ignored: " + countPublicationAskIngnored);
+            authorContext = null;
+            graphVersions.publish(liveGraph);
+            published = true;
+            aggregatesService.refresh(loadedPublications);
 
             return "Los datos de las publicaciones se han cargado exitosamente.";
         } catch (InvalidArgumentException ex) {
             return "error:  " + ex;
         } catch (MarmottaException ex) {
             return "error:  " + ex;
+        } finally {
+            if (!published) {
+                graphVersions.discard(liveGraph);
+            }
         }
     }
 
@@ -349,8 +336,8 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
         LoadData2GlobalGraph();
     }
 
-    public void insertPublicationToCentralGraph(String authorResource, String publicationProperty, String publicationResource) {
-        String insertPubQuery = buildInsertQuery(wkhuskaGraph, authorResource, publicationProperty, publicationResource);
+    public void insertPublicationToCentralGraph(String graph, String authorResource, String publicationProperty, String publicationResource) {
+        String insertPubQuery = buildInsertQuery(graph, authorResource, publicationProperty, publicationResource);
         try {
             sparqlService.update(QueryLanguage.SPARQL, insertPubQuery);
         } catch (MalformedQueryException ex) {
@@ -364,34 +351,16 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
 
     private boolean compareTitlePublicationWithSimmetrics(String publicationResourceOne, String publicationResourceTwo) {
 
-        String a = publicationResourceOne;
-        String b = publicationResourceTwo;
-
-        StringMetric metric
-                = with(new CosineSimilarity<String>())
-                .simplify(Simplifiers.toLowerCase())
-                .simplify(Simplifiers.removeNonWord()).simplifierCache()
-                .tokenize(Tokenizers.qGram(3)).tokenizerCache().build();
-        float compare = metric.compare(a, b);
-
-        StringMetric metric2
-                = with(new Levenshtein())
-                .simplify(Simplifiers.removeDiacritics())
-                .simplify(Simplifiers.toLowerCase()).build();
-
-        float compare2 = metric2.compare(a, b);
+        boolean recognized = distanceService.syntacticComparisonTitles(publicationResourceOne, publicationResourceTwo);
 
         total += 1;
 
-        float similarity = (float) ((compare + compare2) / 2.0);
-        //log.info("Titulos " + publicationResourceOne + "," + publicationResourceTwo + ": similaridad " + similarity * 100 + "%");
-
-        if (similarity > 0.9) {
+        if (recognized) {
             totalPublicationRecognized += 1;
         } else {
             totalPublicationNotRecognized += 1;
         }
-        return similarity > 0.9; // 0.8131
+        return recognized;
     }
 
     public String cleanStringUri(String uri) {
@@ -446,10 +415,10 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
         return new String(array);
     }
 
-    public String searchAuthorOfpublication(List<Map<String, Value>> publications, String authorNativeResource, String newUriAuthorCentral) {
+    public String searchAuthorOfpublication(String graph, List<Map<String, Value>> publications, String authorNativeResource, String newUriAuthorCentral) {
         try {
-            List<String> authorName = getFirstAndLastNameAuthor(newUriAuthorCentral);
-            List<Map<String, Value>> resultPublicationsTitle = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationFilter(wkhuskaGraph, authorName.isEmpty() ? "noThing" : authorName.get(0), authorName.isEmpty() ? "noThing" : authorName.get(1)));
+            List<String> authorName = getFirstAndLastNameAuthor(graph, newUriAuthorCentral);
+            List<Map<String, Value>> resultPublicationsTitle = sparqlService.query(QueryLanguage.SPARQL, queriesService.getAuthorPublicationFilter(graph, authorName.isEmpty() ? "noThing" : authorName.get(0), authorName.isEmpty() ? "noThing" : authorName.get(1)));
             for (Map<String, Value> publicacion : resultPublicationsTitle) {
                 String authorResource = publicacion.get("authorResource").stringValue();
                 String publicationResource = publicacion.get("publicationResource").stringValue();
@@ -473,48 +442,24 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
 
     }
 
-    private String buildNewUri(String authorResource) {
-        /*String institucion = "";
-        String[] anArray = authorResource.split("/");
-        for (int i = 0; i < anArray.length; i++) {
-            if (anArray[i].contains("authors_")) {
-                institucion = anArray[i].replace("authors_", "");
-                break;
-            }
+    private String buildNewUri(String graph, String authorResource) {
+        String centralUri = authorContext.getCentralUri(authorResource);
+        if (centralUri != null) {
+            return centralUri;
         }
-        if (!institucion.equals("epn")) {
-            System.out.println(institucion);
-        }
-        
-        
-        */
-        List<Map<String, Value>> resultProvenance;
-        List<Map<String, Value>> auxResultProvenance;
-        String provenance = "";
-        try {
-            auxResultProvenance = sparqlService.query(QueryLanguage.SPARQL, queriesService.authorGetProvenance(wkhuskaGraph, authorResource));
-            resultProvenance = auxResultProvenance.isEmpty() ? sparqlService.query(QueryLanguage.SPARQL, queriesService.authorGetProvenance(authorsGraph, authorResource)) : auxResultProvenance;
-            for (Map<String, Value> prov : resultProvenance) {
-                provenance = prov.get("name").stringValue();
-            }
-        } catch (MarmottaException ex) {
-            java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
-        }
-        
-        try {
-            List<Map<String, Value>> resultAuthorName = sparqlService.query(QueryLanguage.SPARQL, queriesService.getFirstNameLastNameAuhor(authorsGraph, authorResource));
-            for (Map<String, Value> publicacion : resultAuthorName) {
-                String fisrtName = publicacion.get("fname").stringValue();
-                String lastName = publicacion.get("lname").stringValue();
-
-                String newuri = uriNewAuthor + cleanStringUriAuthor(( fisrtName + " " + lastName).replace(".", ""));
-                String askTripletQuery = queriesService.getAskQuery(wkhuskaGraph, newuri, RDF.TYPE, FOAF.NAMESPACE + "Person");
-                boolean askNewAuthor = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                if (!askNewAuthor) {
-                    //If the author is not already added, get the properties of the author from the provider graph and add them to the new author in the central graph
+        centralUri = authorResource;
+        String[] authorNames = authorContext.getNames(authorResource);
+        if (authorNames != null) {
+            String fisrtName = authorNames[0];
+            String lastName = authorNames[1];
+
+            String newuri = uriNewAuthor + cleanStringUriAuthor((fisrtName + " " + lastName).replace(".", ""));
+            if (!authorContext.isCentralAuthor(newuri)) {
+                //If the author is not already added, get the properties of the author from the provider graph and add them to the new author in the central graph
+                try {
                     List<Map<String, Value>> resultAuthorProperties = sparqlService.query(QueryLanguage.SPARQL, queriesService.authorDetailsOfProvenance(authorsGraph, authorResource));
                     for (Map<String, Value> property : resultAuthorProperties) {
-                        String insertPubQuery = buildInsertQuery(wkhuskaGraph, newuri, property.get("property").stringValue(), commonsServices.isURI(property.get("hasValue").stringValue()) ? property.get("hasValue").stringValue() : " " + property.get("hasValue").stringValue() + " ");
+                        String insertPubQuery = buildInsertQuery(graph, newuri, property.get("property").stringValue(), commonsServices.isURI(property.get("hasValue").stringValue()) ? property.get("hasValue").stringValue() : " " + property.get("hasValue").stringValue() + " ");
                         try {
                             sparqlService.update(QueryLanguage.SPARQL, insertPubQuery);
                         } catch (MalformedQueryException ex) {
@@ -525,22 +470,43 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                             log.error("Marmotta Exception:  " + insertPubQuery);
                         }
                     }
+                    authorContext.addCentralAuthor(newuri);
+                } catch (MarmottaException ex) {
+                    java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
                 }
-                return newuri;
-
             }
-
-        } catch (MarmottaException ex) {
-            java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
+            centralUri = newuri;
         }
+        authorContext.putCentralUri(authorResource, centralUri);
+        return centralUri;
+    }
 
-        return authorResource;
+    private List<String> getKeywordsAuthor(String authorResource) throws MarmottaException {
+        List<String> keyAut = authorContext.getKeywords(authorResource);
+        if (keyAut == null) {
+            String queryKeysAut = "PREFIX dct: <http://purl.org/dc/terms/> "
+                    + "SELECT DISTINCT ?value WHERE {"
+                    + "  Graph <http://ucuenca.edu.ec/wkhuska/authors>"
+                    + "  { <" + authorResource + ">  dct:subject ?value }"
+                    + "} Limit 10 ";
+            List<Map<String, Value>> keywordsAut = sparqlService.query(QueryLanguage.SPARQL, queryKeysAut);
+            keyAut = new ArrayList<>();
+            for (Map<String, Value> key : keywordsAut) {
+                keyAut.add(key.get("value").stringValue());
+            }
+            authorContext.putKeywords(authorResource, keyAut);
+        }
+        return keyAut;
     }
 
-    public List<String> getFirstAndLastNameAuthor(String authorResource) {
-        List<String> names = new ArrayList<>();
+    public List<String> getFirstAndLastNameAuthor(String graph, String authorResource) {
+        List<String> names = authorContext != null ? authorContext.getCentralNames(authorResource) : null;
+        if (names != null) {
+            return names;
+        }
+        names = new ArrayList<>();
         try {
-            List<Map<String, Value>> resultAuthorName = sparqlService.query(QueryLanguage.SPARQL, queriesService.getFirstNameLastNameAuhor(wkhuskaGraph, authorResource));
+            List<Map<String, Value>> resultAuthorName = sparqlService.query(QueryLanguage.SPARQL, queriesService.getFirstNameLastNameAuhor(graph, authorResource));
             for (Map<String, Value> publicacion : resultAuthorName) {
                 String fisrtName = publicacion.get("fname").stringValue();
                 String lastName = publicacion.get("lname").stringValue();
@@ -563,6 +529,9 @@ public class Data2GlobalGraphImpl implements Data2GlobalGraph, Runnable {
                 }
                 names.add(lastNameProcessed);
             }
+            if (authorContext != null) {
+                authorContext.putCentralNames(authorResource, names);
+            }
         } catch (MarmottaException ex) {
             java.util.logging.Logger.getLogger(Data2GlobalGraphImpl.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -33,7 +33,6 @@ import org.slf4j.Logger;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
@@ -47,25 +46,18 @@ import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
 import org.apache.marmotta.ucuenca.wk.pubman.api.GoogleScholarProviderService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderTransport;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 
-import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
-//import org.openrdf.query.QueryEvaluationException;
-import org.openrdf.query.QueryLanguage;
-import org.openrdf.query.TupleQuery;
-import org.openrdf.query.TupleQueryResult;
-import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
 import org.openrdf.model.Value;
-import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.UpdateExecutionException;
-import org.openrdf.repository.RepositoryException;
 
 //import org.openrdf.query.impl.TupleQueryResultImpl;
-//import org.openrdf.repository.RepositoryException;
-//import org.openrdf.rio.RDFFormat;
 //import org.openrdf.rio.RDFHandlerException;
 //import org.openrdf.rio.RDFWriter;
 //import org.openrdf.rio.Rio;
@@ -102,6 +94,9 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private ProviderTransport providerTransport;
+
     private String namespaceGraph = "http://ucuenca.edu.ec/wkhuska/";
     private String authorGraph = namespaceGraph + "authors";
     private String endpointsGraph = namespaceGraph + "endpoints";
@@ -243,7 +238,6 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
             int allPersons = resultAllAuthors.size();
             int processedPersons = 0;
 
-            RepositoryConnection conUri = null;
             ClientResponse response = null;
             for (Map<String, Value> map : resultAllAuthors) {
                 processedPersons++;
@@ -272,7 +266,7 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
                                     Thread.currentThread().interrupt();
                                 }
                                 try {
-                                    response = ldClient.retrieveResource(URL_TO_FIND);
+                                    response = providerTransport.retrieve(ldClient, URL_TO_FIND);
                                     dataretrieve = true;
                                 } catch (DataRetrievalException e) {
                                     //do {
@@ -305,8 +299,7 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
 //                                } catch (RDFHandlerException e) {
 //                                    // oh no, do something!
 //                                }
-                                conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                                conUri.begin();
+                                ResponseModel responseModel = new ResponseModel(response.getData());
                                 String authorNativeResource = null;
 
                                 //THIS DRIVER NO RETURN MEMBERS OF A SEARCH, ALL DATA IS RELATED WITH A AUTHOR
@@ -322,14 +315,10 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
                                      * some keywords of NameToFind author is
                                      * contained into a retrieve publication
                                      */
-                                    String getPublicationsFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:creator");
-                                    TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                    TupleQueryResult gsPublicationsResult = pubquery.evaluate();
-
-                                    while (gsPublicationsResult.hasNext()) {
-                                        BindingSet gsResource = gsPublicationsResult.next();
-                                        String publication = gsResource.getValue("subject").toString();
-                                        String authorfromGS = gsResource.getValue("object").toString();
+                                    for (Statement creatorStatement : responseModel.getStatements(ResponseModel.DCCREATOR)) {
+                                        Resource publicationResource = creatorStatement.getSubject();
+                                        String publication = publicationResource.toString();
+                                        String authorfromGS = creatorStatement.getObject().toString();
                                         /**
                                          * Getting and formating full name from
                                          * google scholar Example ->
@@ -366,28 +355,18 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
 
                                             List<String> listA = kservice.getKeywordsOfAuthor(authorResource);
                                             List<String> listB = new ArrayList<String>();
-                                            String getAbstractAndTitleFromProviderQuery = queriesService.getAbstractAndTitleQuery(publication);
-                                            TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractAndTitleFromProviderQuery); //
-                                            TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                                            if (abstractResult.hasNext()) {
-                                                BindingSet abstractResource = abstractResult.next();
-                                                String abstracttext = abstractResource.getValue("abstract").toString();
-                                                String titletext = abstractResource.getValue("title").toString();
+                                            Value title = responseModel.getObject(publicationResource, ResponseModel.DCTTITLE);
+                                            if (title != null) {
+                                                String titletext = title.toString();
                                                 listB = kservice.getKeywords(titletext);
-
+                                                kservice.translateKeywords(listB);
                                             }
                                             int cero = 0;
                                             if (listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
                                                 //SPARQL obtain all data publications of author from Google Scholar Provider
-                                                String getPublicationDataFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                                TupleQuery dataquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationDataFromProviderQuery); //
-                                                TupleQueryResult tripletasResult = dataquery.evaluate();
-
-                                                while (tripletasResult.hasNext()) {
-                                                    BindingSet tripletsResource = tripletasResult.next();
-                                                    String predicate = tripletsResource.getValue("property").toString();
-                                                    String object = tripletsResource.getValue("value").toString();
+                                                for (Statement property : responseModel.getProperties(publicationResource)) {
+                                                    String predicate = property.getPredicate().toString();
+                                                    String object = property.getObject().toString();
 
                                                     //String publicationProperty = tripletsResource.getValue("publicationProperty").toString();
                                                     ///insert sparql query, 
@@ -408,8 +387,6 @@ public class GoogleScholarProviderServiceImpl implements GoogleScholarProviderSe
                                         }//end if syntactic comparison
                                     }
                                 }//end if existNativeAuthor
-                                conUri.commit();
-                                conUri.close();
                             }//fin   if (dataretrieve)
                         } catch (Exception e) {
                             log.error("ioexception " + e.toString());
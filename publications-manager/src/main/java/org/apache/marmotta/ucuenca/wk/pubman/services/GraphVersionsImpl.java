@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.GraphVersions;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.UpdateExecutionException;
+import org.slf4j.Logger;
+
+/**
+ * The versions of a graph are named graphs next to it: the staging graph
+ * of the rebuild and the previous version. The readers query the live graph
+ * by its name, so publishing moves the graphs instead of pointing the
+ * readers to a new one; each SPARQL update runs in one transaction of the
+ * triple store, which is what makes the moves atomic.
+ *
+ * As one transaction, a copy or move of a whole graph is held in memory by
+ * the triple store until it commits, statement by statement, for its
+ * transaction listeners; the live counters do not look at such commits and
+ * count all again instead (see PublicationCountersImpl). The heap must fit
+ * the largest graph moved.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class GraphVersionsImpl implements GraphVersions {
+
+    private static final String STAGING = "/staging";
+    private static final String PREVIOUS = "/previous";
+    private static final String SWAP = "/swap";
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private QueriesService queriesService;
+
+    @Inject
+    private SparqlService sparqlService;
+
+    @Override
+    public synchronized String stage(String graph, boolean copy) {
+        String staging = getStagingGraph(graph);
+        update(copy ? queriesService.getCopyGraphQuery(graph, staging) : queriesService.getDropGraphQuery(staging));
+        log.info("Staging graph " + staging + (copy ? " copied from " + graph : " emptied"));
+        return staging;
+    }
+
+    @Override
+    public synchronized String publish(String graph) {
+        update(queriesService.getPublishGraphQuery(graph, getStagingGraph(graph), getPreviousGraph(graph)));
+        log.info("Graph " + graph + " published, previous version kept in " + getPreviousGraph(graph));
+        return "Graph " + graph + " published";
+    }
+
+    @Override
+    public synchronized String rollback(String graph) {
+        try {
+            // a move from a missing graph would leave the live one empty
+            if (!sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskGraphQuery(getPreviousGraph(graph)))) {
+                return "Graph " + graph + " has no previous version";
+            }
+        } catch (MarmottaException ex) {
+            throw new IllegalStateException("Previous version of " + graph + " not found", ex);
+        }
+        update(queriesService.getSwapGraphQuery(graph, getPreviousGraph(graph), graph + SWAP));
+        log.info("Graph " + graph + " rolled back to " + getPreviousGraph(graph));
+        return "Graph " + graph + " rolled back to its previous version";
+    }
+
+    /**
+     * Called after the error of a rebuild, so its own error is only logged;
+     * the staging graph is emptied again by the next rebuild.
+     */
+    @Override
+    public synchronized void discard(String graph) {
+        try {
+            update(queriesService.getDropGraphQuery(getStagingGraph(graph)));
+            log.info("Staging graph of " + graph + " discarded");
+        } catch (IllegalStateException ex) {
+            log.error("Staging graph of " + graph + " was not discarded", ex);
+        }
+    }
+
+    @Override
+    public String getStagingGraph(String graph) {
+        return graph + STAGING;
+    }
+
+    @Override
+    public String getPreviousGraph(String graph) {
+        return graph + PREVIOUS;
+    }
+
+    /**
+     * A failed move leaves the graphs as they were, since the update is one
+     * transaction, so the error is raised to stop the rebuild.
+     */
+    private void update(String query) {
+        try {
+            sparqlService.update(QueryLanguage.SPARQL, query);
+        } catch (MarmottaException | InvalidArgumentException | MalformedQueryException | UpdateExecutionException ex) {
+            throw new IllegalStateException("Graph versions update failed: " + query, ex);
+        }
+    }
+}
@@ -27,7 +27,6 @@ import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.kiwi.model.rdf.KiWiUriResource;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
@@ -45,16 +44,12 @@ import org.apache.marmotta.ucuenca.wk.pubman.api.MicrosoftAcadProviderService;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 
 import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
-import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.QueryLanguage;
-import org.openrdf.query.TupleQuery;
-import org.openrdf.query.TupleQueryResult;
-import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
 import org.openrdf.model.Value;
-import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.UpdateExecutionException;
-import org.openrdf.repository.RepositoryException;
 import org.semarglproject.vocab.OWL;
 
 /**
@@ -216,7 +211,6 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             //String NS_DBLP = "http://rdf.dblp.com/ns/search/";
             String URL_Academics = "http://academic.research.microsoft.com/json.svc/search?AppId=d4d1924a-5da9-4e8b-a515-093e8a2d1748&AuthorQuery=&ResultObjects=Publication&PublicationContent=AllInfo&StartIdx=1&EndIdx=100";
 
-            RepositoryConnection conUri = null;
             ClientResponse response = null;
 
             Properties propiedades = new Properties();
@@ -320,8 +314,7 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
 //                        }
                         if (dataretrievee)//if the resource data were recovered
                         {
-                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                            conUri.begin();
+                            ResponseModel responseModel = new ResponseModel(response.getData());
                             String authorNativeResource = null;
 
                             //THIS DRIVER NO RETURN MEMBERS OF A SEARCH, ALL DATA IS RELATED WITH 1 AUTHOR
@@ -352,16 +345,11 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                             if (!existNativeAuthor) {
                                 //SPARQL obtain all publications of author
                                 priorityToFind = 5;
-                                String getPublicationsFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("foaf:publications");
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-                                while (tripletasResult.hasNext()) {
+                                for (Statement publicationStatement : responseModel.getStatements(ResponseModel.FOAFPUBLICATIONS)) {
                                     AuthorDataisLoad = true;
 
-                                    BindingSet tripletsResource = tripletasResult.next();
-                                    authorNativeResource = tripletsResource.getValue("subject").toString();
-                                    String publicationResource = tripletsResource.getValue("object").toString();
-                                    //String publicationProperty = tripletsResource.getValue("publicationProperty").toString();
+                                    authorNativeResource = publicationStatement.getSubject().toString();
+                                    String publicationResource = publicationStatement.getObject().toString();
                                     ///insert sparql query, 
                                     String publicationInsertQuery = buildInsertQuery(providerGraph, authorNativeResource, "http://xmlns.com/foaf/0.1/publications", publicationResource);
                                     updatePub(publicationInsertQuery);
@@ -372,24 +360,23 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
 
                                 }
 
-                                // SPARQL to obtain all data of a publication
-                                String getPublicationPropertiesQuery = queriesService.getPublicationPropertiesQuery("foaf:publications");
-                                TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationPropertiesQuery); //
-                                tripletasResult = resourcequery.evaluate();
-                                while (tripletasResult.hasNext()) {
-                                    BindingSet tripletsResource = tripletasResult.next();
-                                    String publicationResource = tripletsResource.getValue("publicationResource").toString();
-                                    String publicationProperties = tripletsResource.getValue("publicationProperties").toString();
-                                    String publicationPropertiesValue = tripletsResource.getValue("publicationPropertiesValue").toString();
-                                    ///insert sparql query, 
-                                    String publicationPropertiesInsertQuery = buildInsertQuery(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
-                                    //load values publications to publications resource
-                                    updatePub(publicationPropertiesInsertQuery);
+                                // obtain all data of a publication
+                                for (Value publication : responseModel.getObjects(ResponseModel.FOAFPUBLICATIONS)) {
+                                    if (!(publication instanceof Resource)) {
+                                        continue;
+                                    }
+                                    for (Statement property : responseModel.getProperties((Resource) publication)) {
+                                        String publicationResource = publication.toString();
+                                        String publicationProperties = property.getPredicate().toString();
+                                        String publicationPropertiesValue = property.getObject().toString();
+                                        ///insert sparql query, 
+                                        String publicationPropertiesInsertQuery = buildInsertQuery(providerGraph, publicationResource, publicationProperties, publicationPropertiesValue);
+                                        //load values publications to publications resource
+                                        updatePub(publicationPropertiesInsertQuery);
+                                    }
                                 }
 
                             }//end if numMembers=1
-                            conUri.commit();
-                            conUri.close();
                         }//end IF DATARETRIEVE
                     } catch (Exception e) {
                         log.error("ioexception " + e.toString());
@@ -427,7 +414,6 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
             int allTitles = resultAllTitles.size();
             int processedTitles = 0;
 
-            RepositoryConnection conUri = null;
             ClientResponse response = null;
 
             Properties propiedades = new Properties();
@@ -500,17 +486,12 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                     }
 
                     if (dataretrievee) {
-                        conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                        conUri.begin();
-                        String publicationNativeResource = null;
+                        ResponseModel responseModel = new ResponseModel(response.getData());
+                        Value publicationNativeResource = null;
                         //verifying the number of publications retrieved. if it has recovered more than one publications  then not continue,
-                        String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:publications");
-                        TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
-                        //  allMembers = Iterations.asList(membersResult).size();
-                        while (membersResult.hasNext()) {
+                        for (Value member : responseModel.getObjects(ResponseModel.FOAFPUBLICATIONS)) {
                             allMembers++;
-                            BindingSet bindingCount = membersResult.next();
-                            publicationNativeResource = bindingCount.getValue("object").toString();
+                            publicationNativeResource = member;
                         }
 
                         /**
@@ -518,80 +499,26 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
                          */
                         try {
                             if (allMembers == 1) {
-                                //SPARQL to Retrieve and Insert the abstract from MA
-                                String getAbstractQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:abstract");
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                while (tripletasResult.hasNext()) {
-                                    BindingSet tripletsResource = tripletasResult.next();
-                                    String abstractLiteral = tripletsResource.getValue("object").toString();
-                                    // insert sparql query, 
-                                    String abstractInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
-                                    updatePub(abstractInsertQuery);
-                                }
-                                // SPARQL to Retrieve and Insert keywords ( bibo:Quote) from MA
-                                String getKeywordsQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:Quote");
-                                TupleQuery keywordsquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getKeywordsQuery); //
-                                TupleQueryResult keywordsResult = keywordsquery.evaluate();
-                                while (keywordsResult.hasNext()) {
-                                    BindingSet keywordsBs = keywordsResult.next();
-                                    String keywordLiteral = keywordsBs.getValue("object").toString();
-                                    // insert sparql query, 
-                                    String keywordInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
-                                    updatePub(keywordInsertQuery);
-                                }
+                                insertAbstractAndKeywords(responseModel, publicationNativeResource, publicationResource);
                             }//end if numMembers=1
                             else if (allMembers > 1) {
-                                //SPARQL to Retrieve all publications and titles from MA
-                                String getTitlesQuery = queriesService.getSubjectAndObjectByPropertyQuery("dct:title");
-                                TupleQuery titlesquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getTitlesQuery); //
-                                TupleQueryResult titlesResult = titlesquery.evaluate();
-
-                                while (titlesResult.hasNext()) {
-                                    BindingSet titleResource = titlesResult.next();
-                                    String titlefromMA = titleResource.getBinding("object").getValue().stringValue();;
-                                    publicationNativeResource = titleResource.getValue("subject").toString();
+                                //Retrieve all publications and titles from MA
+                                for (Statement titleStatement : responseModel.getStatements(ResponseModel.DCTTITLE)) {
+                                    String titlefromMA = titleStatement.getObject().stringValue();
+                                    publicationNativeResource = titleStatement.getSubject();
                                     titlefromMA = titlefromMA.replace(".", "").replace("-", "");
                                     titleToFind = titleToFind.replace(".", "").replace("-", "");
 
                                     if (titleToFind.compareTo(titlefromMA) == 0) {
-                                        //SPARQL to Retrieve and Insert the abstract from MA
-                                        String getAbstractQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:abstract");
-                                        TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getAbstractQuery); //
-                                        TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                        while (tripletasResult.hasNext()) {
-                                            BindingSet tripletsResource = tripletasResult.next();
-                                            String abstractLiteral = tripletsResource.getValue("object").toString();
-                                            // insert sparql query, 
-                                            String abstractInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractLiteral);
-                                            updatePub(abstractInsertQuery);
-                                        }
-                                        // SPARQL to Retrieve and Insert keywords ( bibo:Quote) from MA
-                                        String getKeywordsQuery = queriesService.getObjectByPropertyQuery(publicationNativeResource, "bibo:Quote");
-                                        TupleQuery keywordsquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getKeywordsQuery); //
-                                        TupleQueryResult keywordsResult = keywordsquery.evaluate();
-                                        while (keywordsResult.hasNext()) {
-                                            BindingSet keywordsBs = keywordsResult.next();
-                                            String keywordLiteral = keywordsBs.getValue("object").toString();
-                                            // insert sparql query, 
-                                            String keywordInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keywordLiteral);
-                                            updatePub(keywordInsertQuery);
-                                        }
+                                        insertAbstractAndKeywords(responseModel, publicationNativeResource, publicationResource);
                                         break;
                                     }
                                 }// end title.compareto==0
                             }// end else if (allMembers > 1 ) {
                         } catch (Exception e) {
                             log.info("ERROR in full name:" + publicationNativeResource);
-                        } finally {
-                            conUri.commit();
-                            conUri.close();
                         }
                     }
-                } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
-                    log.error("Evaluation Exception: " + ex);
                 } catch (Exception e) {
                     log.error("ioexception " + e.toString());
                 }
@@ -604,6 +531,25 @@ public class MicrosoftAcadProviderServiceImpl implements MicrosoftAcadProviderSe
         return "fail";
     }
 
+    /**
+     * Insert the abstract and keywords (bibo:Quote) of a publication found in
+     * MA into the central publication.
+     */
+    private void insertAbstractAndKeywords(ResponseModel responseModel, Value publicationNativeResource, String publicationResource) {
+        if (!(publicationNativeResource instanceof Resource)) {
+            return;
+        }
+        Resource publicationNative = (Resource) publicationNativeResource;
+        for (Value abstractValue : responseModel.getObjects(publicationNative, ResponseModel.BIBOABSTRACT)) {
+            String abstractInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:abstract", abstractValue.toString());
+            updatePub(abstractInsertQuery);
+        }
+        for (Value keyword : responseModel.getObjects(publicationNative, ResponseModel.BIBOQUOTE)) {
+            String keywordInsertQuery = buildInsertQuery(constantService.getWkhuskaGraph(), publicationResource, "bibo:Quote", keyword.toString());
+            updatePub(keywordInsertQuery);
+        }
+    }
+
     public String priorityFindQueryBuilding(int priority, String firstName, String lastName) {
         try {
             switch (priority) {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.NegativeResultCache;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link NegativeResultCache}. The searches are
+ * kept in a file of the Marmotta home, one per line: provider, name variant,
+ * outcome and expiration time, separated by tabs.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class NegativeResultCacheImpl implements NegativeResultCache {
+
+    /* days a search with no author or more than one is not repeated */
+    private static final String TTL_DAYS = "pubman.negative_results.ttl_days";
+
+    private static final int DEFAULT_TTL_DAYS = 30;
+
+    private static final String FILE = "negativeResults.tsv";
+
+    private static final String NONE = "none";
+
+    private static final String AMBIGUOUS = "ambiguous";
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private ConfigurationService configurationService;
+
+    /* provider + tab + normalized name variant -> outcome and expiration */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        File file = getFile();
+        if (!file.isFile()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4 && Long.parseLong(fields[3]) > now) {
+                    entries.put(fields[0] + "\t" + fields[1], new Entry(fields[2], Long.parseLong(fields[3])));
+                }
+            }
+            log.info(entries.size() + " negative author searches loaded from " + file);
+        } catch (IOException | NumberFormatException e) {
+            log.error("Negative author searches could not be loaded from " + file + ": " + e);
+        }
+    }
+
+    @Override
+    public boolean isNegative(String provider, String nameVariant) {
+        String key = key(provider, nameVariant);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.expires <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void record(String provider, String nameVariant, int members) {
+        String key = key(provider, nameVariant);
+        if (members == 1) {
+            entries.remove(key);
+        } else {
+            long ttl = TimeUnit.DAYS.toMillis(configurationService.getIntConfiguration(TTL_DAYS, DEFAULT_TTL_DAYS));
+            entries.put(key, new Entry(members == 0 ? NONE : AMBIGUOUS, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    @Override
+    public void flush() {
+        File file = getFile();
+        long now = System.currentTimeMillis();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().expires > now) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue().outcome + "\t" + entry.getValue().expires);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Negative author searches could not be saved in " + file + ": " + e);
+        }
+    }
+
+    private File getFile() {
+        return new File(configurationService.getHome(), FILE);
+    }
+
+    /**
+     * Name variants are compared without accents, case and repeated spaces.
+     */
+    private static String key(String provider, String nameVariant) {
+        String name = Normalizer.normalize(nameVariant, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return provider + "\t" + name.toLowerCase(Locale.ENGLISH).trim().replaceAll("\\s+", " ");
+    }
+
+    private static class Entry {
+
+        private final String outcome;
+
+        private final long expires;
+
+        Entry(String outcome, long expires) {
+            this.outcome = outcome;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ucuenca.wk.commons.impl.ResourceProperties;
+import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMapping;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderMappingRegistry;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link ProviderMappingRegistry}
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class ProviderMappingRegistryImpl implements ProviderMappingRegistry {
+
+    /* mapping files distributed with this module */
+    private static final String[] PROVIDERS = {"DBLPRawProvider", "ScopusProvider", "ScopusAuthorProvider",
+        "MicrosoftAcademicsProvider", "MicrosoftAcademicsAuthorProvider", "GoogleScholarProvider"};
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private CommonsServices commonsServices;
+
+    private final ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+
+    private final ConcurrentMap<String, ProviderMapping> mappings = new ConcurrentHashMap<>();
+
+    /* one instance of each predicate for all providers */
+    private final ConcurrentMap<String, URI> predicates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        for (String provider : PROVIDERS) {
+            ProviderMapping mapping = getMapping(provider);
+            log.info("Mapping of " + provider + " loaded with " + mapping.getPredicates().size() + " predicates");
+        }
+    }
+
+    @Override
+    public ProviderMapping getMapping(String provider) {
+        String name = provider.replace(" ", "");
+        ResourceProperties file = ResourceProperties.get(getClass().getClassLoader(), name + ".properties");
+        ProviderMapping mapping = mappings.get(name);
+        if (mapping == null || mapping.getVersion() != file.getVersion()) {
+            if (mapping != null) {
+                log.info("Mapping of " + name + " changed, reloading");
+            }
+            mapping = compile(name, file);
+            mappings.put(name, mapping);
+        }
+        return mapping;
+    }
+
+    private ProviderMapping compile(String provider, ResourceProperties file) {
+        int version = file.getVersion();
+        Map<Value, URI> predicateMapping = new HashMap<>();
+        Map<String, String> properties = new HashMap<>();
+        URI titleSource = null;
+        URI titleTarget = null;
+        for (Map.Entry<String, String> entry : file.asMap().entrySet()) {
+            String source = entry.getKey().replace("..", ":");
+            String target = entry.getValue().replace("..", ":");
+            if (commonsServices.isURI(source) && commonsServices.isURI(target)) {
+                URI sourceUri = intern(source);
+                URI targetUri = intern(target);
+                predicateMapping.put(sourceUri, targetUri);
+                if (target.contains("title") && (titleSource == null || titleSource.equals(titleTarget))) {
+                    titleSource = sourceUri;
+                    titleTarget = targetUri;
+                }
+            } else {
+                properties.put(entry.getKey(), target);
+            }
+        }
+        return new ProviderMapping(provider, Collections.unmodifiableMap(predicateMapping),
+                Collections.unmodifiableMap(properties), titleSource, titleTarget, version);
+    }
+
+    private URI intern(String uri) {
+        URI value = predicates.get(uri);
+        if (value == null) {
+            value = valueFactory.createURI(uri);
+            URI previous = predicates.putIfAbsent(uri, value);
+            if (previous != null) {
+                value = previous;
+            }
+        }
+        return value;
+    }
+}
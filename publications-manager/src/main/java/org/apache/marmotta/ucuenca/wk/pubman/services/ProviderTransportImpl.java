@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.ldclient.api.endpoint.Endpoint;
+import org.apache.marmotta.ldclient.api.provider.DataProvider;
+import org.apache.marmotta.ldclient.exception.DataRetrievalException;
+import org.apache.marmotta.ldclient.model.ClientResponse;
+import org.apache.marmotta.ldclient.services.ldclient.LDClient;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.ucuenca.wk.provider.async.AsyncHttpTransport;
+import org.apache.marmotta.ucuenca.wk.provider.async.HttpDataProvider;
+import org.apache.marmotta.ucuenca.wk.pubman.api.ProviderTransport;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link ProviderTransport}, with one
+ * {@link AsyncHttpTransport} for all the providers. The further requests of
+ * a resource (pages, batches of authors, publications) are returned by its
+ * provider and done by the transport, so no parser thread waits for them.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class ProviderTransportImpl implements ProviderTransport {
+
+    /* time for all the requests of a resource */
+    private static final String DEADLINE = "pubman.transport.deadline_seconds";
+
+    private static final int DEFAULT_DEADLINE = 60;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private ConfigurationService configurationService;
+
+    private AsyncHttpTransport transport;
+
+    @PostConstruct
+    public void initialize() {
+        transport = new AsyncHttpTransport();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            transport.close();
+        } catch (IOException e) {
+            log.warn("The provider transport could not be closed: " + e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<ClientResponse> retrieveAsync(LDClient ldClient, String resource) {
+        Endpoint endpoint = ldClient.getEndpoint(resource);
+        HttpDataProvider provider = endpoint == null ? null : getProvider(ldClient, endpoint);
+        if (provider != null) {
+            long deadline = TimeUnit.SECONDS.toMillis(configurationService.getIntConfiguration(DEADLINE, DEFAULT_DEADLINE));
+            return transport.retrieve(provider, resource, endpoint, deadline);
+        }
+        try {
+            return Futures.immediateFuture(ldClient.retrieveResource(resource));
+        } catch (DataRetrievalException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    @Override
+    public ClientResponse retrieve(LDClient ldClient, String resource) throws DataRetrievalException {
+        ListenableFuture<ClientResponse> response = retrieveAsync(ldClient, resource);
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataRetrievalException) {
+                throw (DataRetrievalException) e.getCause();
+            }
+            throw new DataRetrievalException("retrieval of " + resource + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DataRetrievalException("interrupted while retrieving " + resource, e);
+        }
+    }
+
+    private static HttpDataProvider getProvider(LDClient ldClient, Endpoint endpoint) {
+        for (DataProvider provider : ldClient.getDataProviders()) {
+            if (provider instanceof HttpDataProvider && provider.getName().equals(endpoint.getType())) {
+                return (HttpDataProvider) provider;
+            }
+        }
+        return null;
+    }
+}
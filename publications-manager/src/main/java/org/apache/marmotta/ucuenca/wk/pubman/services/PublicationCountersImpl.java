@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.marmotta.commons.sesame.transactions.api.TransactionListener;
+import org.apache.marmotta.commons.sesame.transactions.api.TransactionalSail;
+import org.apache.marmotta.commons.sesame.transactions.model.TransactionData;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
+import org.apache.marmotta.platform.core.api.triplestore.TransactionalSailProvider;
+import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
+import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
+import org.apache.marmotta.ucuenca.wk.pubman.api.PublicationCounters;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.UpdateExecutionException;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link PublicationCounters}. It is a
+ * {@link TransactionalSailProvider} that leaves the sail as it is and only
+ * listens to its commits.
+ *
+ * Each counter is the number of distinct subjects, or objects, of a
+ * predicate in a graph. After a commit, only the terms of the added and
+ * removed statements are looked up: a term is counted when its first
+ * statement is added, and discounted when its last one is removed. The
+ * counters are written to the counters graph every few seconds, replacing
+ * their values, so the readers never see them empty. On startup they are
+ * loaded from that graph, trying again until it can be read; if a commit
+ * arrives before, they are all counted again.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class PublicationCountersImpl implements PublicationCounters, TransactionalSailProvider {
+
+    private static final String ENABLED = "pubman.counters.live";
+
+    /* hours between two reconciliations */
+    private static final String RECONCILE_HOURS = "pubman.counters.reconcile_hours";
+
+    private static final int DEFAULT_RECONCILE_HOURS = 24;
+
+    /* seconds between two writes of the changed counters */
+    private static final String FLUSH_SECONDS = "pubman.counters.flush_seconds";
+
+    private static final int DEFAULT_FLUSH_SECONDS = 10;
+
+    /* terms of a commit above which the counters are counted again, as after a graph is published */
+    private static final int MAX_LINKS = 10000;
+
+    /* statements of a commit, as a copy or move of a whole graph, above which they are not even read */
+    private static final int MAX_STATEMENTS = 100000;
+
+    /* seconds before retrying to load the counters, doubled up to the maximum */
+    private static final long LOAD_RETRY_SECONDS = 5;
+
+    private static final long MAX_LOAD_RETRY_SECONDS = 300;
+
+    private static final String COUNTERS_GRAPH = "http://ucuenca.edu.ec/wkhuska/counters";
+
+    private static final URI PUBLICATIONS = new URIImpl("http://xmlns.com/foaf/0.1/publications");
+
+    private static final URI CONTRIBUTOR = new URIImpl("http://purl.org/dc/terms/contributor");
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private ConfigurationService configurationService;
+
+    @Inject
+    private ConstantService constantService;
+
+    @Inject
+    private QueriesService queriesService;
+
+    @Inject
+    private SparqlService sparqlService;
+
+    @Inject
+    private SesameService sesameService;
+
+    /* counter IRI -> total */
+    private final ConcurrentMap<String, AtomicLong> totals = new ConcurrentHashMap<>();
+
+    private final Set<String> changed = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /* the commits are not counted until the stored counters are loaded */
+    private volatile boolean loaded;
+
+    /* a commit arrived before the counters were loaded, so they are all counted then */
+    private boolean missed;
+
+    private final Object loading = new Object();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void initialize() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("pubman-counters-%d").setDaemon(true).build());
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                load(LOAD_RETRY_SECONDS);
+            }
+        });
+        int flush = configurationService.getIntConfiguration(FLUSH_SECONDS, DEFAULT_FLUSH_SECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, flush, flush, TimeUnit.SECONDS);
+        int reconcile = configurationService.getIntConfiguration(RECONCILE_HOURS, DEFAULT_RECONCILE_HOURS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                reconcile();
+            }
+        }, reconcile, reconcile, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    @Override
+    public String getName() {
+        return "Publication Counters";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanConfiguration(ENABLED, true);
+    }
+
+    @Override
+    public TransactionalSail createSail(TransactionalSail parent) {
+        parent.addTransactionListener(new TransactionListener() {
+            @Override
+            public void beforeCommit(TransactionData data) {
+                // the counters are looked up once the statements are committed
+            }
+
+            @Override
+            public void afterCommit(TransactionData data) {
+                if (counting()) {
+                    apply(data.getAddedTriples(), data.getRemovedTriples());
+                }
+            }
+
+            @Override
+            public void rollback(TransactionData data) {
+                // nothing was counted
+            }
+        });
+        return parent;
+    }
+
+    @Override
+    public synchronized String reconcile() {
+        markLoaded();
+        try {
+            countAll();
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Counters were not reconciled", ex);
+            return "error:  " + ex;
+        }
+        return "Sucessfull publications count: " + totals.size() + " counters reconciled";
+    }
+
+    @Override
+    public Map<String, Long> getTotals() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> total : totals.entrySet()) {
+            values.put(total.getKey(), total.getValue().get());
+        }
+        return values;
+    }
+
+    /**
+     * Load the counters stored by a previous run, or count them all if there
+     * are none or some commits were not counted. It is tried again, waiting
+     * twice as long each time, until it succeeds.
+     */
+    private void load(final long delay) {
+        try {
+            if (!loaded) {
+                for (Map<String, Value> counter : sparqlService.query(QueryLanguage.SPARQL, queriesService.getCountersQuery(COUNTERS_GRAPH))) {
+                    getTotal(counter.get("counter").stringValue()).set(Long.parseLong(counter.get("total").stringValue()));
+                }
+                if (!markLoaded() && !totals.isEmpty()) {
+                    log.info(totals.size() + " counters loaded from " + COUNTERS_GRAPH);
+                    return;
+                }
+            }
+            synchronized (this) {
+                countAll();
+            }
+            log.info(totals.size() + " counters counted");
+        } catch (MarmottaException | InvalidArgumentException | NumberFormatException ex) {
+            log.error("Counters could not be loaded, trying again in " + delay + " seconds", ex);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    load(Math.min(delay * 2, MAX_LOAD_RETRY_SECONDS));
+                }
+            }, delay, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @return true if the commits are counted; if not, the commit is
+     * remembered so the counters are counted again once they are loaded
+     */
+    private boolean counting() {
+        if (loaded) {
+            return true;
+        }
+        synchronized (loading) {
+            if (loaded) {
+                return true;
+            }
+            missed = true;
+            return false;
+        }
+    }
+
+    /**
+     * Count the next commits.
+     *
+     * @return true if some commits were not counted before
+     */
+    private boolean markLoaded() {
+        synchronized (loading) {
+            loaded = true;
+            boolean wasMissed = missed;
+            missed = false;
+            return wasMissed;
+        }
+    }
+
+    private void countAll() throws MarmottaException, InvalidArgumentException {
+        for (Map<String, Value> graph : sparqlService.query(QueryLanguage.SPARQL, queriesService.getGraphsQuery())) {
+            String graphUri = graph.get("grafo").stringValue();
+            for (Counter counter : getCounters(graphUri)) {
+                String query = queriesService.getDistinctCountQuery(graphUri, counter.predicate.stringValue(), counter.subjects);
+                List<Map<String, Value>> count = sparqlService.query(QueryLanguage.SPARQL, query);
+                long total = count.isEmpty() ? 0 : Long.parseLong(count.get(0).get("total").stringValue());
+                String key = graphUri + "/" + counter.name;
+                getTotal(key).set(total);
+                changed.add(key);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Update the counters with the statements of a commit.
+     */
+    private void apply(Model added, Model removed) {
+        if (size(added) + size(removed) > MAX_STATEMENTS) {
+            scheduleReconcile();
+            return;
+        }
+        Map<Link, int[]> links = new HashMap<>();
+        collect(added, 0, links);
+        collect(removed, 1, links);
+        if (links.isEmpty()) {
+            return;
+        }
+        if (links.size() > MAX_LINKS) {
+            scheduleReconcile();
+            return;
+        }
+        try {
+            RepositoryConnection conn = sesameService.getConnection();
+            try {
+                conn.begin();
+                for (Map.Entry<Link, int[]> entry : links.entrySet()) {
+                    Link link = entry.getKey();
+                    int addedLinks = entry.getValue()[0];
+                    int removedLinks = entry.getValue()[1];
+                    // no more than the added statements and one are needed to know if there were others
+                    long now = count(conn, link, addedLinks + 1);
+                    long before = now - addedLinks + removedLinks;
+                    if (before <= 0 && now > 0) {
+                        getTotal(link.key).incrementAndGet();
+                        changed.add(link.key);
+                    } else if (before > 0 && now == 0) {
+                        getTotal(link.key).decrementAndGet();
+                        changed.add(link.key);
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+        } catch (RepositoryException ex) {
+            log.error("Counters were not updated after a commit, they are fixed by the next reconciliation", ex);
+        }
+    }
+
+    private void scheduleReconcile() {
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                reconcile();
+            }
+        });
+    }
+
+    private static long size(Model statements) {
+        return statements == null ? 0 : statements.size();
+    }
+
+    private void collect(Model statements, int side, Map<Link, int[]> links) {
+        if (statements == null) {
+            return;
+        }
+        for (Statement statement : statements) {
+            if (statement.getContext() == null) {
+                continue;
+            }
+            String graph = statement.getContext().stringValue();
+            for (Counter counter : getCounters(graph)) {
+                if (counter.predicate.equals(statement.getPredicate())) {
+                    Value term = counter.subjects ? statement.getSubject() : statement.getObject();
+                    Link link = new Link(graph + "/" + counter.name, statement.getContext(), counter, term);
+                    int[] changes = links.get(link);
+                    if (changes == null) {
+                        changes = new int[2];
+                        links.put(link, changes);
+                    }
+                    changes[side]++;
+                }
+            }
+        }
+    }
+
+    private long count(RepositoryConnection conn, Link link, int limit) throws RepositoryException {
+        RepositoryResult<Statement> statements = link.counter.subjects
+                ? conn.getStatements((Resource) link.term, link.counter.predicate, null, false, link.graph)
+                : conn.getStatements(null, link.counter.predicate, link.term, false, link.graph);
+        try {
+            long count = 0;
+            while (count < limit && statements.hasNext()) {
+                statements.next();
+                count++;
+            }
+            return count;
+        } finally {
+            statements.close();
+        }
+    }
+
+    /**
+     * Write the counters changed since the last write.
+     */
+    private void flush() {
+        for (String key : new ArrayList<>(changed)) {
+            changed.remove(key);
+            String query = queriesService.getUpsertCounterQuery(COUNTERS_GRAPH, key, getTotal(key).get());
+            try {
+                sparqlService.update(QueryLanguage.SPARQL, query);
+            } catch (MarmottaException | InvalidArgumentException | MalformedQueryException | UpdateExecutionException ex) {
+                changed.add(key);
+                log.error("Counter " + key + " was not written", ex);
+            }
+        }
+    }
+
+    private AtomicLong getTotal(String key) {
+        AtomicLong total = totals.get(key);
+        if (total == null) {
+            total = new AtomicLong();
+            AtomicLong previous = totals.putIfAbsent(key, total);
+            if (previous != null) {
+                total = previous;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The central graph counts its publications and the authors with
+     * publications, and each provider graph the publications with a
+     * contributor.
+     */
+    private List<Counter> getCounters(String graph) {
+        String central = constantService.getWkhuskaGraph();
+        List<Counter> counters = new ArrayList<>();
+        if (graph.equals(central)) {
+            counters.add(new Counter("publications", PUBLICATIONS, false));
+            counters.add(new Counter("authors", PUBLICATIONS, true));
+        } else if (graph.startsWith(constantService.getProviderNsGraph() + "/")) {
+            counters.add(new Counter("publications", CONTRIBUTOR, true));
+        }
+        return counters;
+    }
+
+    private static class Counter {
+
+        private final String name;
+        private final URI predicate;
+        /* distinct subjects, or else distinct objects */
+        private final boolean subjects;
+
+        Counter(String name, URI predicate, boolean subjects) {
+            this.name = name;
+            this.predicate = predicate;
+            this.subjects = subjects;
+        }
+    }
+
+    /**
+     * The statements of a counter with one term, the subject or the object.
+     */
+    private static class Link {
+
+        private final String key;
+        private final Resource graph;
+        private final Counter counter;
+        private final Value term;
+
+        Link(String key, Resource graph, Counter counter, Value term) {
+            this.key = key;
+            this.graph = graph;
+            this.counter = counter;
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Link && key.equals(((Link) other).key) && term.equals(((Link) other).term);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() * 31 + term.hashCode();
+        }
+    }
+}
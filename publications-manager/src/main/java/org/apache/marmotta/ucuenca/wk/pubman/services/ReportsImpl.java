@@ -18,21 +18,34 @@
 package org.apache.marmotta.ucuenca.wk.pubman.services;
 
 import ar.com.fdvs.dj.domain.constants.Font;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
@@ -42,6 +55,9 @@ import net.sf.jasperreports.engine.data.JsonDataSource;
 import net.sf.jasperreports.engine.export.JRXlsExporter;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.platform.core.exception.InvalidArgumentException;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
@@ -53,17 +69,10 @@ import org.apache.marmotta.ucuenca.wk.commons.impl.ConstantServiceImpl;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import org.openrdf.model.Value;
 import org.openrdf.query.QueryLanguage;
-import org.openrdf.query.TupleQueryResult;
 
-import org.openrdf.repository.RepositoryConnection;
-import org.openrdf.repository.RepositoryException;
 import org.apache.marmotta.ucuenca.wk.pubman.api.ReportsService;
-import org.openrdf.query.BindingSet;
-import org.openrdf.query.MalformedQueryException;
-import org.openrdf.query.QueryEvaluationException;
-import org.openrdf.repository.Repository;
-import org.openrdf.repository.sparql.SPARQLRepository;
 
 /**
  *
@@ -83,124 +92,277 @@ public class ReportsImpl implements ReportsService {
     private SparqlFunctionsService sparqlFunctionsService;
     @Inject
     private SparqlService sparqlService;
+    @Inject
+    private ConfigurationService configurationService;
+
+    /* renders at the same time */
+    private static final String THREADS = "pubman.reports.threads";
+
+    private static final int DEFAULT_THREADS = 2;
+
+    /* reports waiting for a render thread, more are rejected */
+    private static final String QUEUE = "pubman.reports.queue";
+
+    private static final int DEFAULT_QUEUE = 20;
+
+    /* seconds a rendered report is served again to the same request */
+    private static final String RESULT_TTL = "pubman.reports.result_ttl_seconds";
+
+    private static final int DEFAULT_RESULT_TTL = 300;
+
+    /* seconds the synchronous service waits for its report */
+    private static final String WAIT_SECONDS = "pubman.reports.wait_seconds";
+
+    private static final int DEFAULT_WAIT_SECONDS = 120;
+
+    private static final String QUEUED = "queued";
+    private static final String RUNNING = "running";
+    private static final String DONE = "done";
+    private static final String FAILED = "failed";
 
-    protected String TEMP_PATH = "./../research_webapps/ROOT/tmp";
-    protected String REPORTS_FOLDER = "./../research_webapps/ROOT/reports/";
     protected ConstantServiceImpl constant = new ConstantServiceImpl();
 
+    /* jrxml file -> template compiled from its last modification */
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    /* id -> report */
+    private final ConcurrentMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    /* report, type and parameters -> last report rendered or rendering for them */
+    private final ConcurrentMap<String, ReportJob> results = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor renderPool;
+
+    @PostConstruct
+    public void initialize() {
+        int threads = configurationService.getIntConfiguration(THREADS, DEFAULT_THREADS);
+        renderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(configurationService.getIntConfiguration(QUEUE, DEFAULT_QUEUE)),
+                new ThreadFactoryBuilder().setNameFormat("pubman-reports-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Render a report and wait for it, for the clients that do not poll. The
+     * queries of the reports are evaluated by the {@link SparqlService} of
+     * this server, so the hostname is not used to reach it anymore.
+     */
     @Override
     public String createReport(String hostname, String realPath, String name, String type, List<String> params) {
-        
-        TEMP_PATH = realPath + "/tmp";
-        REPORTS_FOLDER = realPath + "/reports/";
-        // Make sure the output directory exists.
-        File outDir = new File(TEMP_PATH);
-        outDir.mkdirs();
-        //Name of the file
-        SimpleDateFormat format = new SimpleDateFormat("ddMMyyyy_HHmmss");
-        String nameFile = name + "_" + format.format(new Date());
-        String pathFile = TEMP_PATH + "/" + nameFile + "." + type;
+        String id = submitReport(realPath, name, type, params);
+        if (id == null) {
+            return "";
+        }
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            return "";
+        }
         try {
-            // Compile jrxml file.
-            JasperReport jasperReport = JasperCompileManager
-                    .compileReport(REPORTS_FOLDER + name + ".jrxml");
-            //String array with the json string and other parameters required for the report
-            String[] json = null;
-            //Datasource
-            JsonDataSource dataSource = null;
-            // Parameters for report
-            Map<String, Object> parameters = new HashMap<String, Object>();
-            parameters.put("rutalogo", realPath + "/wkhome/images/logo_wk.png");
-            InputStream stream;
-
-            //Parameters for each report
-            switch (name) {
-                case "ReportAuthor":
-                    // Get the Json with the list of publications, the name of the researcher and the number of publications.
-                    json = getJSONAuthor(params.get(0), hostname);
-                    
-                    parameters.put("name", json[1]);
-                    parameters.put("numero", json[2]);
-                    break;
-                case "ReportAuthorCluster":
-                    // Get the Json with the list of publications, the name of the researcher and the number of publications.
-                    json = getJSONAuthorsCluster(params.get(0), hostname);
-                    
-                    parameters.put("name", json[1]);
-                    parameters.put("numero", json[2]);
-                    break;
-                case "ReportStatistics":
-                case "ReportStatisticsPub":
-                case "ReportStatisticsRes":    
-                    // Get the Json with the list of publications, the number of researchers and the number of publications.
-                    json = getJSONStatistics(hostname);                    
-                    break;
-                case "ReportStatisticsTopResU":
-                    // Get the Json with the top researchers per university (considering the number of publications).
-                    json = getJSONTopResearchersUnis(hostname);
-                    
-                    break;
-                case "ReportPublicationsByKeyword":
-                    // Get the Json with the publications related to a keyword.
-                    json = getJSONPublicationsByKeyword(params.get(0), hostname);
-                    
-                    parameters.put("keyword", json[1]);
-                    parameters.put("numero", json[2]);
-                    
-                    break;
-                case "ReportPublicationsByAuthor":
-                    // Get the Json with the Authors by Area.
-                    json = getJSONReportPublicationsByAuthor(params.get(0), hostname);
-                    
-                    parameters.put("name", json[1]);
-                    parameters.put("numero", json[2]);
-                    
-                    break;
-            }
-            //Always the first element of the array has the json stream
-            stream = new ByteArrayInputStream(json[0].getBytes("UTF-8"));
-            dataSource = new JsonDataSource(stream);
-
-            if (dataSource != null) {
-                JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
-
-                if (type.equals("pdf")) {
-                    // 1 - Export to pdf 
-                    if (jasperPrint != null) {
-                        JasperExportManager.exportReportToPdfFile(jasperPrint, pathFile);
-                    }
+            job.future.get(configurationService.getIntConfiguration(WAIT_SECONDS, DEFAULT_WAIT_SECONDS), TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "";
+        } catch (ExecutionException | TimeoutException ex) {
+            log.error("Report " + name + " was not rendered in time", ex);
+            return "";
+        }
+        return DONE.equals(job.status) ? job.path : "";
+    }
 
-                } else if (type.equals("xls")) {
-                    // 2- Export to Excel sheet
-                    JRXlsExporter exporter = new JRXlsExporter();
+    /**
+     * The same report, type and parameters within the TTL get the report
+     * already rendered, or still rendering.
+     */
+    @Override
+    public synchronized String submitReport(final String realPath, final String name, final String type, List<String> params) {
+        expire();
+        final List<String> values = params == null ? new ArrayList<String>() : new ArrayList<>(params);
+        String key = name + "|" + type + "|" + values;
+        ReportJob cached = results.get(key);
+        if (cached != null && !FAILED.equals(cached.status)) {
+            return cached.id;
+        }
+        final ReportJob job = new ReportJob(UUID.randomUUID().toString(), key);
+        try {
+            job.future = renderPool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    render(job, realPath, name, type, values);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("Report " + name + " rejected, " + renderPool.getQueue().size() + " reports waiting");
+            return null;
+        }
+        jobs.put(job.id, job);
+        results.put(key, job);
+        return job.id;
+    }
 
-                    List<JasperPrint> jasperPrintList = new ArrayList<>();
-                    jasperPrintList.add(jasperPrint);
+    @Override
+    public Map<String, String> getReportStatus(String id) {
+        expire();
+        ReportJob job = id == null ? null : jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        Map<String, String> status = new LinkedHashMap<>();
+        status.put("id", job.id);
+        status.put("status", job.status);
+        if (DONE.equals(job.status)) {
+            status.put("path", job.path);
+        }
+        return status;
+    }
 
-                    exporter.setExporterInput(SimpleExporterInput.getInstance(jasperPrintList));
-                    exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(pathFile));
+    @Override
+    public File getReportFile(String id) {
+        ReportJob job = id == null ? null : jobs.get(id);
+        return job != null && DONE.equals(job.status) ? job.file : null;
+    }
 
-                    exporter.exportReport();
+    private void render(ReportJob job, String realPath, String name, String type, List<String> params) {
+        job.status = RUNNING;
+        try {
+            job.file = renderFile(job.id, realPath, name, type, params);
+            // the relative online path for the report
+            job.path = "/tmp/" + job.file.getName();
+            job.status = DONE;
+        } catch (Exception e) {
+            log.error("Report " + name + " was not rendered", e);
+            job.status = FAILED;
+        } finally {
+            job.finished = System.currentTimeMillis();
+        }
+    }
 
+    /**
+     * Forget the reports finished before the TTL, and delete their files.
+     */
+    private void expire() {
+        long limit = System.currentTimeMillis() - configurationService.getIntConfiguration(RESULT_TTL, DEFAULT_RESULT_TTL) * 1000L;
+        for (ReportJob job : jobs.values()) {
+            if (job.finished > 0 && job.finished < limit && jobs.remove(job.id, job)) {
+                results.remove(job.key, job);
+                if (job.file != null && job.file.exists() && !job.file.delete()) {
+                    log.warn("Report file " + job.file + " could not be deleted");
                 }
-                // Return the relative online path for the report
-                return "/tmp/" + nameFile + "." + type;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
         }
+    }
 
-        return "";
+    private File renderFile(String id, String realPath, String name, String type, List<String> params) throws Exception {
+        String tempPath = realPath + "/tmp";
+        String reportsFolder = realPath + "/reports/";
+        // Make sure the output directory exists.
+        File outDir = new File(tempPath);
+        outDir.mkdirs();
+        //Name of the file, with the start of its id for the reports of the same second
+        SimpleDateFormat format = new SimpleDateFormat("ddMMyyyy_HHmmss");
+        String nameFile = name + "_" + format.format(new Date()) + "_" + id.substring(0, 8);
+        String pathFile = tempPath + "/" + nameFile + "." + type;
+        JasperReport jasperReport = getTemplate(reportsFolder + name + ".jrxml");
+        //String array with the json string and other parameters required for the report
+        String[] json = null;
+        // Parameters for report
+        Map<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put("rutalogo", realPath + "/wkhome/images/logo_wk.png");
+
+        //Parameters for each report
+        switch (name) {
+            case "ReportAuthor":
+                // Get the Json with the list of publications, the name of the researcher and the number of publications.
+                json = getJSONAuthor(params.get(0));
+
+                parameters.put("name", json[1]);
+                parameters.put("numero", json[2]);
+                break;
+            case "ReportAuthorCluster":
+                // Get the Json with the list of publications, the name of the researcher and the number of publications.
+                json = getJSONAuthorsCluster(params.get(0));
+
+                parameters.put("name", json[1]);
+                parameters.put("numero", json[2]);
+                break;
+            case "ReportStatistics":
+            case "ReportStatisticsPub":
+            case "ReportStatisticsRes":
+                // Get the Json with the list of publications, the number of researchers and the number of publications.
+                json = getJSONStatistics();
+                break;
+            case "ReportStatisticsTopResU":
+                // Get the Json with the top researchers per university (considering the number of publications).
+                json = getJSONTopResearchersUnis();
+
+                break;
+            case "ReportPublicationsByKeyword":
+                // Get the Json with the publications related to a keyword.
+                json = getJSONPublicationsByKeyword(params.get(0));
+
+                parameters.put("keyword", json[1]);
+                parameters.put("numero", json[2]);
+
+                break;
+            case "ReportPublicationsByAuthor":
+                // Get the Json with the Authors by Area.
+                json = getJSONReportPublicationsByAuthor(params.get(0));
+
+                parameters.put("name", json[1]);
+                parameters.put("numero", json[2]);
+
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown report " + name);
+        }
+        //Always the first element of the array has the json stream
+        JsonDataSource dataSource = new JsonDataSource(new ByteArrayInputStream(json[0].getBytes("UTF-8")));
+        JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+
+        if (type.equals("pdf")) {
+            // 1 - Export to pdf
+            JasperExportManager.exportReportToPdfFile(jasperPrint, pathFile);
+        } else if (type.equals("xls")) {
+            // 2- Export to Excel sheet
+            JRXlsExporter exporter = new JRXlsExporter();
+
+            List<JasperPrint> jasperPrintList = new ArrayList<>();
+            jasperPrintList.add(jasperPrint);
+
+            exporter.setExporterInput(SimpleExporterInput.getInstance(jasperPrintList));
+            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(pathFile));
+
+            exporter.exportReport();
+        } else {
+            throw new IllegalArgumentException("Unknown report type " + type);
+        }
+        return new File(pathFile);
     }
-    
+
+    /**
+     * @return the template compiled from the jrxml file, compiled again when
+     * the file changes
+     */
+    private JasperReport getTemplate(String jrxml) throws JRException {
+        long modified = new File(jrxml).lastModified();
+        Template template = templates.get(jrxml);
+        if (template == null || template.modified != modified) {
+            template = new Template(JasperCompileManager.compileReport(jrxml), modified);
+            templates.put(jrxml, template);
+            log.info("Report template compiled: " + jrxml);
+        }
+        return template.report;
+    }
+
     /**
      * Extract Json with publications of an author
      * @param author Author id
-     * @param hostname
      * @return 
      */
-    public String[] getJSONAuthor(String author, String hostname) {
+    public String[] getJSONAuthor(String author) {
         String getQuery = "";
         try {
             //Variables to return with name and number of publications
@@ -218,57 +380,38 @@ public class ReportsImpl implements ReportsService {
                     + "}";
 
             log.info("Buscando Informacion de: " + author);
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-            try {
-                // perform operations on the connection
-                TupleQueryResult resulta = con.prepareTupleQuery(QueryLanguage.SPARQL, getQuery).evaluate();
-
-                //JSONObject authorJson = new JSONObject();
-                Map<String, JSONObject> pubMap = new HashMap<String, JSONObject>();
-                Map<String, JSONArray> coautMap = new HashMap<String, JSONArray>();
-                JSONArray publications = new JSONArray();
-
-                JSONObject coauthors = new JSONObject();
-                while (resulta.hasNext()) {
-                    BindingSet binding = resulta.next();
-                    name = String.valueOf(binding.getValue("name")).replace("\"", "").replace("^^", "").split("<")[0];
-                    //authorJson.put("name", name);
-                    String pubTitle = String.valueOf(binding.getValue("title")).replace("\"", "").replace("^^", "").split("<")[0];
-                    if (!pubMap.containsKey(pubTitle)) {
-                        pubMap.put(pubTitle, new JSONObject());
-                        pubMap.get(pubTitle).put("title", pubTitle);
-                        cont++;
-                        if (binding.getValue("abstract") != null) {
-                            pubMap.get(pubTitle).put("abstract", String.valueOf(binding.getValue("abstract")).replace("\"", "").replace("^^", "").split("<")[0]);
-                        }
-                        //Coauthors
-                        coautMap.put(pubTitle, new JSONArray());
-                        coautMap.get(pubTitle).add(String.valueOf(binding.getValue("authorsName")).replace("\"", "").replace("^^", "").split("<")[0]);
-                        //pubMap.get(pubTitle).put("title", pubTitle);
-                    } else {
-                        coautMap.get(pubTitle).add(String.valueOf(binding.getValue("authorsName")).replace("\"", "").replace("^^", "").split("<")[0]);
+            List<Map<String, Value>> resulta = sparqlService.query(QueryLanguage.SPARQL, getQuery);
+
+            //JSONObject authorJson = new JSONObject();
+            Map<String, JSONObject> pubMap = new HashMap<String, JSONObject>();
+            Map<String, JSONArray> coautMap = new HashMap<String, JSONArray>();
+            JSONArray publications = new JSONArray();
+
+            for (Map<String, Value> binding : resulta) {
+                name = text(binding.get("name"));
+                //authorJson.put("name", name);
+                String pubTitle = text(binding.get("title"));
+                if (!pubMap.containsKey(pubTitle)) {
+                    pubMap.put(pubTitle, new JSONObject());
+                    pubMap.get(pubTitle).put("title", pubTitle);
+                    cont++;
+                    if (binding.get("abstract") != null) {
+                        pubMap.get(pubTitle).put("abstract", text(binding.get("abstract")));
                     }
+                    //Coauthors
+                    coautMap.put(pubTitle, new JSONArray());
                 }
-
-                for (Map.Entry<String, JSONObject> pub : pubMap.entrySet()) {
-                    pub.getValue().put("coauthors", coautMap.get(pub.getKey()));
-                    publications.add(pub.getValue());
-                }
-                //authorJson.put("publications", publications);
-                con.close();
-                //return new String[] {authorJson.toJSONString(), publications.toString(), authorJson.get("name").toString(), cont.toString()};
-                return new String[]{publications.toString(), name, cont.toString()};
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
+                coautMap.get(pubTitle).add(text(binding.get("authorsName")));
             }
 
-            return new String[]{"", ""};
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            for (Map.Entry<String, JSONObject> pub : pubMap.entrySet()) {
+                pub.getValue().put("coauthors", coautMap.get(pub.getKey()));
+                publications.add(pub.getValue());
+            }
+            //return new String[] {authorJson.toJSONString(), publications.toString(), authorJson.get("name").toString(), cont.toString()};
+            return new String[]{publications.toString(), name, cont.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + getQuery, ex);
         }
         return new String[]{"", ""};
     }
@@ -276,10 +419,9 @@ public class ReportsImpl implements ReportsService {
     /**
      * Extract Json with authors related through a cluster
      * @param clusterId Id of the cluster
-     * @param hostname Hostname
      * @return Array of strings
      */
-    public String[] getJSONAuthorsCluster(String clusterId, String hostname) {
+    public String[] getJSONAuthorsCluster(String clusterId) {
         String getQuery = "";
         try {
             //Variables to return with name and number of publications
@@ -310,65 +452,42 @@ public class ReportsImpl implements ReportsService {
                     + "  }" 
                     + "}";
 
-            
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-            try {
-                // perform operations on the connection
-                TupleQueryResult resulta = con.prepareTupleQuery(QueryLanguage.SPARQL, getQuery).evaluate();
-
-                //JSONObject authorJson = new JSONObject();
-                Map<String, JSONObject> autMap = new HashMap<String, JSONObject>();
-                Map<String, JSONArray> keyMap = new HashMap<String, JSONArray>();
-                JSONArray authors = new JSONArray();
-
-                JSONObject coauthors = new JSONObject();
-                while (resulta.hasNext()) {
-                    BindingSet binding = resulta.next();
-                    name = String.valueOf(binding.getValue("cluster")).replace("\"", "").replace("^^", "").split("<")[0];
-                    String authorName = String.valueOf(binding.getValue("author")).replace("\"", "").replace("^^", "").split("<")[0];
-                    if (!autMap.containsKey(authorName)) {
-                        autMap.put(authorName, new JSONObject());
-                        autMap.get(authorName).put("author", authorName);
-                        if (binding.getValue("keywords") != null) {
-                            autMap.get(authorName).put("keywords", String.valueOf(binding.getValue("keywords")).replace("\"", ""));
-                        }
-                        //Keywords
-                        keyMap.put(authorName, new JSONArray());
-                        keyMap.get(authorName).add(String.valueOf(binding.getValue("keywords")).replace("\"", "").replace("^^", ""));
-                    } else {
-                        keyMap.get(authorName).add(String.valueOf(binding.getValue("keywords")).replace("\"", "").replace("^^", ""));
-                    }
-                }
+            List<Map<String, Value>> resulta = sparqlService.query(QueryLanguage.SPARQL, getQuery);
 
-                for (Map.Entry<String, JSONObject> aut: autMap.entrySet()) {
-                    aut.getValue().put("keywords", keyMap.get(aut.getKey()));
-                    authors.add(aut.getValue());
+            Map<String, JSONObject> autMap = new HashMap<String, JSONObject>();
+            Map<String, JSONArray> keyMap = new HashMap<String, JSONArray>();
+            JSONArray authors = new JSONArray();
+
+            for (Map<String, Value> binding : resulta) {
+                name = text(binding.get("cluster"));
+                String authorName = text(binding.get("author"));
+                if (!autMap.containsKey(authorName)) {
+                    autMap.put(authorName, new JSONObject());
+                    autMap.get(authorName).put("author", authorName);
+                    //Keywords
+                    keyMap.put(authorName, new JSONArray());
                 }
-                con.close();
-                //Number of authors
-                cont = autMap.size();
-                return new String[]{authors.toString(), name, cont.toString()};
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
+                keyMap.get(authorName).add(text(binding.get("keywords")));
             }
 
-            return new String[]{"", ""};
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            for (Map.Entry<String, JSONObject> aut: autMap.entrySet()) {
+                aut.getValue().put("keywords", keyMap.get(aut.getKey()));
+                authors.add(aut.getValue());
+            }
+            //Number of authors
+            cont = autMap.size();
+            return new String[]{authors.toString(), name, cont.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + getQuery, ex);
         }
         return new String[]{"", ""};
     }
     
     /**
      * Retrieve Json with statistics about universities, their authors and publications
-     * @param hostname Hostname
      * @return Array of strings
      */
-    public String[] getJSONStatistics(String hostname) {
+    public String[] getJSONStatistics() {
         String getQuery = "";
         try {
             
@@ -392,47 +511,28 @@ public class ReportsImpl implements ReportsService {
                 "    	} " +
                 "  	} GROUP BY ?provenance ?name ";
 
-            
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-            try {
-                // perform operations on the connection
-                TupleQueryResult resulta = con.prepareTupleQuery(QueryLanguage.SPARQL, getQuery).evaluate();
-                
-                JSONObject uni;
-                JSONArray universities = new JSONArray();
-            
-                while (resulta.hasNext()) {
-                    BindingSet binding = resulta.next();
-                    uni = new JSONObject();
-                    String uniName = String.valueOf(binding.getValue("name")).replace("\"", "").replace("^^", "").split("<")[0];
-                    String totalAuthors = String.valueOf(binding.getValue("total")).replace("\"", "").replace("^^", "").split("<")[0];
-                    String totalPubs = String.valueOf(binding.getValue("totalp")).replace("\"", "").replace("^^", "").split("<")[0];
-                    uni.put("university", uniName);
-                    uni.put("authors", totalAuthors);
-                    uni.put("pubs", totalPubs);
-                    
-                    universities.add(uni);
-                }
-                
-                con.close();
-                
-                return new String[]{universities.toString()};
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
+            List<Map<String, Value>> resulta = sparqlService.query(QueryLanguage.SPARQL, getQuery);
+
+            JSONObject uni;
+            JSONArray universities = new JSONArray();
+
+            for (Map<String, Value> binding : resulta) {
+                uni = new JSONObject();
+                uni.put("university", text(binding.get("name")));
+                uni.put("authors", text(binding.get("total")));
+                uni.put("pubs", text(binding.get("totalp")));
+
+                universities.add(uni);
             }
 
-            return new String[]{"", ""};
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            return new String[]{universities.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + getQuery, ex);
         }
         return new String[]{"", ""};
     }
     
-    public String[] getJSONTopResearchersUnis(String hostname) {
+    public String[] getJSONTopResearchersUnis() {
         String query1, query2 = "";
         
         try {
@@ -446,69 +546,47 @@ public class ReportsImpl implements ReportsService {
                     + "  }"
                     + "} ORDER BY ?uni";
 
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-
-            try {
-                // perform operations on the connection
-                TupleQueryResult resultUnis = con.prepareTupleQuery(QueryLanguage.SPARQL, query1).evaluate();
-                JSONArray authors = new JSONArray();
-                //Check authors of each university
-                while (resultUnis.hasNext()) {
-                    BindingSet binding = resultUnis.next();
-                    String uniId = String.valueOf(binding.getValue("provenance")).replace("\"", "").replace("^^", "").split("<")[0];
-                    String uniName = String.valueOf(binding.getValue("uni")).replace("\"", "").replace("^^", "").split("<")[0];
-                    
-                    
-                    query2 = ConstantServiceImpl.PREFIX + 
-                        "SELECT ?researcher (count(DISTINCT ?pub) as ?totalp) " +
-                        "WHERE " +
-                        "{ " +
-                        "  GRAPH <" + constant.getWkhuskaGraph() + "> " +
-                        "        { " +
-                        "          ?s a foaf:Person. " +
-                        "          ?s foaf:name ?researcher. " +
-                        "          ?s foaf:publications ?pub . " +
-                        "          ?s dct:provenance <" + uniId + "> " +
-                        "        } " +
-                        "} GROUP BY ?researcher ORDER BY DESC(?totalp) LIMIT 5";
-                    
-                    JSONObject author;
-                    // CONSULTA PARA OBTENER LOS CINCO INVESTIGADORES DE CADA U
-                    TupleQueryResult resultAuthors = con.prepareTupleQuery(QueryLanguage.SPARQL, query2).evaluate();
-                    Integer contPub = 0;
-                    while (resultAuthors.hasNext()) {
-                        BindingSet bind2 = resultAuthors.next();
-                        contPub++;
-                        //Form the Json object
-                        author = new JSONObject();
-                        String researcherName = String.valueOf(bind2.getValue("researcher")).replace("\"", "").replace("^^", "").split("<")[0];
-                        String totalPubs = String.valueOf(bind2.getValue("totalp")).replace("\"", "").replace("^^", "").split("<")[0];
-                        author.put("universityName", uniName);
-                        author.put("numberResearcher", contPub);
-                        author.put("name", researcherName);
-                        author.put("numberPublications", totalPubs);
-
-                        authors.add(author);
-                    }
-                    
-                }
-                
-                con.close();
+            List<Map<String, Value>> resultUnis = sparqlService.query(QueryLanguage.SPARQL, query1);
+            JSONArray authors = new JSONArray();
+            //Check authors of each university
+            for (Map<String, Value> binding : resultUnis) {
+                String uniId = text(binding.get("provenance"));
+                String uniName = text(binding.get("uni"));
+
+                query2 = ConstantServiceImpl.PREFIX + 
+                    "SELECT ?researcher (count(DISTINCT ?pub) as ?totalp) " +
+                    "WHERE " +
+                    "{ " +
+                    "  GRAPH <" + constant.getWkhuskaGraph() + "> " +
+                    "        { " +
+                    "          ?s a foaf:Person. " +
+                    "          ?s foaf:name ?researcher. " +
+                    "          ?s foaf:publications ?pub . " +
+                    "          ?s dct:provenance <" + uniId + "> " +
+                    "        } " +
+                    "} GROUP BY ?researcher ORDER BY DESC(?totalp) LIMIT 5";
+
+                JSONObject author;
+                // CONSULTA PARA OBTENER LOS CINCO INVESTIGADORES DE CADA U
+                List<Map<String, Value>> resultAuthors = sparqlService.query(QueryLanguage.SPARQL, query2);
+                Integer contPub = 0;
+                for (Map<String, Value> bind2 : resultAuthors) {
+                    contPub++;
+                    //Form the Json object
+                    author = new JSONObject();
+                    author.put("universityName", uniName);
+                    author.put("numberResearcher", contPub);
+                    author.put("name", text(bind2.get("researcher")));
+                    author.put("numberPublications", text(bind2.get("totalp")));
 
-                return new String[]{authors.toString()};
+                    authors.add(author);
+                }
 
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
             }
 
-            return new String[]{"", ""};
-
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            return new String[]{authors.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + query2, ex);
         }
         return new String[]{"", ""};
     }
@@ -516,18 +594,11 @@ public class ReportsImpl implements ReportsService {
     /**
      * Extract Json with publications related by cluster
      * @param keyword Keyword to search
-     * @param hostname Hostname
      * @return Array of strings
      */
-    public String[] getJSONPublicationsByKeyword(String keyword, String hostname) {
+    public String[] getJSONPublicationsByKeyword(String keyword) {
         String getQuery = "";
         try {
-            //Variables to return with name and number of publications
-            String id = "";
-            String authors = "";
-            String title = "";
-            String abst = "";
-            String uri = "";
             Integer cont = 0;
             //Query
             getQuery = ConstantServiceImpl.PREFIX
@@ -548,69 +619,28 @@ public class ReportsImpl implements ReportsService {
                     + "  } "
                     + "} group by ?publicationUri ?title ?abstract ?uri ";
 
-            
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-            try {
-                // perform operations on the connection
-                TupleQueryResult resulta = con.prepareTupleQuery(QueryLanguage.SPARQL, getQuery).evaluate();
-
-                JSONArray publications = new JSONArray();
-                JSONObject publication = new JSONObject();
-                
-                while (resulta.hasNext()) {
-                    BindingSet binding = resulta.next();
-                    //Form the Json object
-                    publication = new JSONObject();
-                        
-                    id = String.valueOf(binding.getValue("publicationUri")).replace("\"", "").replace("^^", "").split("<")[0];
-                    authors = String.valueOf(binding.getValue("names")).replace("\"", "").replace("^^", "").split("<")[0];
-                    title = String.valueOf(binding.getValue("title")).replace("\"", "").replace("^^", "").split("<")[0];
-                    abst = String.valueOf(binding.getValue("abstract")).replace("\"", "").replace("^^", "").split("<")[0];
-                    uri = String.valueOf(binding.getValue("uri")).replace("\"", "").replace("^^", "").split("<")[0];
-                    
-                    publication.put("id", id);
-                    publication.put("authors", authors);
-                    publication.put("title", title);
-                    publication.put("abstract", abst);
-                    publication.put("uri", (uri==null || uri=="" || uri=="null") ? null : uri);
-                    
-                    publications.add(publication);
-                    
-                    /*name = String.valueOf(binding.getValue("publicationUri")).replace("\"", "").replace("^^", "").split("<")[0];
-                    String authorName = String.valueOf(binding.getValue("author")).replace("\"", "").replace("^^", "").split("<")[0];
-                    if (!autMap.containsKey(authorName)) {
-                        autMap.put(authorName, new JSONObject());
-                        autMap.get(authorName).put("author", authorName);
-                        if (binding.getValue("keywords") != null) {
-                            autMap.get(authorName).put("keywords", String.valueOf(binding.getValue("keywords")).replace("\"", ""));
-                        }
-                        //Keywords
-                        keyMap.put(authorName, new JSONArray());
-                        keyMap.get(authorName).add(String.valueOf(binding.getValue("keywords")).replace("\"", "").replace("^^", ""));
-                    } else {
-                        keyMap.get(authorName).add(String.valueOf(binding.getValue("keywords")).replace("\"", "").replace("^^", ""));
-                    }*/
-                }
+            List<Map<String, Value>> resulta = sparqlService.query(QueryLanguage.SPARQL, getQuery);
+
+            JSONArray publications = new JSONArray();
+            JSONObject publication;
 
-                /*for (Map.Entry<String, JSONObject> aut: autMap.entrySet()) {
-                    aut.getValue().put("keywords", keyMap.get(aut.getKey()));
-                    authors.add(aut.getValue());
-                }*/
-                con.close();
-                //Number of authors
-                cont = publications.size();
-                return new String[]{publications.toString(), keyword, cont.toString()};
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
+            for (Map<String, Value> binding : resulta) {
+                //Form the Json object
+                publication = new JSONObject();
+                publication.put("id", text(binding.get("publicationUri")));
+                publication.put("authors", text(binding.get("names")));
+                publication.put("title", text(binding.get("title")));
+                publication.put("abstract", text(binding.get("abstract")));
+                publication.put("uri", text(binding.get("uri")));
+
+                publications.add(publication);
             }
 
-            return new String[]{"", ""};
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            //Number of publications
+            cont = publications.size();
+            return new String[]{publications.toString(), keyword, cont.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + getQuery, ex);
         }
         return new String[]{"", ""};
     }
@@ -618,19 +648,13 @@ public class ReportsImpl implements ReportsService {
     /**
      * Extract Json with publications by author
      * @param author Author to search
-     * @param hostname Hostname
      * @return Array of strings
      */
-    public String[] getJSONReportPublicationsByAuthor(String author, String hostname) {
+    public String[] getJSONReportPublicationsByAuthor(String author) {
         String getQuery = "";
         try {
             //Variables to return with name and number of publications
-            String id = "";
             String authorName = "";
-            String title = "";
-            String abst = "";
-            String uri = "";
-            String keywords = "";
             Integer cont = 0;
             //Query
             getQuery = ConstantServiceImpl.PREFIX 
@@ -648,53 +672,70 @@ public class ReportsImpl implements ReportsService {
                     + "      OPTIONAL{?publicationUri bibo:Quote ?quote.} "
                     + "  }"
                     + "} group by ?publicationUri ?title ?abstract ?uri ?name";
-            Repository repo = new SPARQLRepository(hostname + "/sparql/select");
-            repo.initialize();
-            RepositoryConnection con = repo.getConnection();
-            try {
-                // perform operations on the connection
-                TupleQueryResult resulta = con.prepareTupleQuery(QueryLanguage.SPARQL, getQuery).evaluate();
-
-                JSONArray publications = new JSONArray();
-                JSONObject publication = new JSONObject();
-                
-                while (resulta.hasNext()) {
-                    BindingSet binding = resulta.next();
-                    //Form the Json object
-                    publication = new JSONObject();
-                        
-                    id = String.valueOf(binding.getValue("publicationUri")).replace("\"", "").replace("^^", "").split("<")[0];
-                    authorName = String.valueOf(binding.getValue("name")).replace("\"", "").replace("^^", "").split("<")[0];
-                    title = String.valueOf(binding.getValue("title")).replace("\"", "").replace("^^", "").split("<")[0];
-                    abst = String.valueOf(binding.getValue("abstract")).replace("\"", "").replace("^^", "").split("<")[0];
-                    uri = String.valueOf(binding.getValue("uri")).replace("\"", "").replace("^^", "").split("<")[0];
-                    keywords = String.valueOf(binding.getValue("keywords")).replace("\"", "").replace("^^", "").split("<")[0];
-                    
-                    publication.put("id", id);
-                    publication.put("title", title);
-                    publication.put("abstract", (abst==null || abst=="" || abst=="null") ? null : abst);
-                    publication.put("uri", (uri==null || uri=="" || uri=="null") ? null : uri);
-                    publication.put("keywords", (keywords==null || keywords=="" || keywords=="null") ? null : keywords);
-                    
-                    publications.add(publication);
-                    
-                }
-                
-                con.close();
-                //Number of publications
-                cont = publications.size();
-                return new String[]{publications.toString(), authorName, cont.toString()};
-            } catch (RepositoryException ex) {
-                java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-                con.close();
+            List<Map<String, Value>> resulta = sparqlService.query(QueryLanguage.SPARQL, getQuery);
+
+            JSONArray publications = new JSONArray();
+            JSONObject publication;
+
+            for (Map<String, Value> binding : resulta) {
+                //Form the Json object
+                publication = new JSONObject();
+                authorName = text(binding.get("name"));
+                String keywords = text(binding.get("keywords"));
+
+                publication.put("id", text(binding.get("publicationUri")));
+                publication.put("title", text(binding.get("title")));
+                publication.put("abstract", text(binding.get("abstract")));
+                publication.put("uri", text(binding.get("uri")));
+                // an empty GROUP_CONCAT when the publication has no keywords
+                publication.put("keywords", keywords == null || keywords.isEmpty() ? null : keywords);
+
+                publications.add(publication);
             }
 
-            return new String[]{"", ""};
-        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
-            java.util.logging.Logger.getLogger(ReportsImpl.class.getName()).log(Level.SEVERE, null, ex);
-            ex.printStackTrace();
+            //Number of publications
+            cont = publications.size();
+            return new String[]{publications.toString(), authorName, cont.toString()};
+        } catch (MarmottaException | InvalidArgumentException ex) {
+            log.error("Report query failed: " + getQuery, ex);
         }
         return new String[]{"", ""};
     }
+
+    /**
+     * @return the lexical form of a literal or the IRI of a resource, or null
+     * when the variable is not bound
+     */
+    private static String text(Value value) {
+        return value == null ? null : value.stringValue();
+    }
+
+    private static class Template {
+
+        private final JasperReport report;
+        private final long modified;
+
+        Template(JasperReport report, long modified) {
+            this.report = report;
+            this.modified = modified;
+        }
+    }
+
+    private static class ReportJob {
+
+        private final String id;
+        private final String key;
+        private volatile Future<?> future;
+        private volatile String status = QUEUED;
+        private volatile File file;
+        private volatile String path;
+        /* 0 while it is queued or running */
+        private volatile long finished;
+
+        ReportJob(String id, String key) {
+            this.id = id;
+            this.key = key;
+        }
+    }
     
 }
@@ -0,0 +1,97 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import java.util.Set;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.TreeModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+/**
+ * Read access to the data returned by LDClient for one resource.
+ *
+ * The providers only ask a few fixed questions to a response (members of a
+ * search, titles of the publications, properties of a publication), so they
+ * are answered with the indexes of the Model instead of loading the response
+ * in a memory repository and evaluating SPARQL on it.
+ *
+ * @author Satellite
+ */
+public class ResponseModel {
+
+    private static final ValueFactory VF = ValueFactoryImpl.getInstance();
+
+    public static final URI FOAFMEMBER = VF.createURI("http://xmlns.com/foaf/0.1/member");
+    public static final URI FOAFPUBLICATIONS = VF.createURI("http://xmlns.com/foaf/0.1/publications");
+    public static final URI DCTTITLE = VF.createURI("http://purl.org/dc/terms/title");
+    public static final URI DCTITLE = VF.createURI("http://purl.org/dc/elements/1.1/title");
+    public static final URI DCCREATOR = VF.createURI("http://purl.org/dc/elements/1.1/creator");
+    public static final URI BIBOABSTRACT = VF.createURI("http://purl.org/ontology/bibo/abstract");
+    public static final URI BIBOQUOTE = VF.createURI("http://purl.org/ontology/bibo/Quote");
+
+    private final Model model;
+
+    public ResponseModel(Model data) {
+        this.model = data instanceof LinkedHashModel || data instanceof TreeModel ? data : new LinkedHashModel(data);
+    }
+
+    /**
+     * Same as getObjectByPropertyQuery(property)
+     *
+     * @return distinct objects of the property for any subject
+     */
+    public Set<Value> getObjects(URI property) {
+        return model.filter(null, property, null).objects();
+    }
+
+    /**
+     * Same as getObjectByPropertyQuery(subject, property)
+     *
+     * @return distinct objects of the property for the subject
+     */
+    public Set<Value> getObjects(Resource subject, URI property) {
+        return model.filter(subject, property, null).objects();
+    }
+
+    /**
+     * @return one object of the property for the subject, or null
+     */
+    public Value getObject(Resource subject, URI property) {
+        for (Value object : getObjects(subject, property)) {
+            return object;
+        }
+        return null;
+    }
+
+    /**
+     * Same as getSubjectAndObjectByPropertyQuery(property), each statement
+     * gives the subject and the object.
+     */
+    public Model getStatements(URI property) {
+        return model.filter(null, property, null);
+    }
+
+    /**
+     * Same as getPublicationsPropertiesQuery(resource), each statement gives
+     * the property and the value.
+     */
+    public Model getProperties(Resource subject) {
+        return model.filter(subject, null, null);
+    }
+
+    public URI createURI(String uri) {
+        return VF.createURI(uri);
+    }
+
+    public Model getModel() {
+        return model;
+    }
+}
@@ -33,14 +33,13 @@ import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import org.apache.marmotta.commons.sesame.model.ModelCommons;
 import org.apache.marmotta.ldclient.exception.DataRetrievalException;
 import org.apache.marmotta.ldclient.model.ClientConfiguration;
-import org.apache.marmotta.ldclient.model.ClientResponse;
 import org.apache.marmotta.ldclient.services.ldclient.LDClient;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
 import org.apache.marmotta.ucuenca.wk.commons.impl.ConstantServiceImpl;
+import org.apache.marmotta.ucuenca.wk.commons.service.AuthorCursor;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
@@ -48,12 +47,16 @@ import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.GetAuthorsGraphData;
 
+import org.apache.marmotta.ucuenca.wk.pubman.api.CandidateResolver;
 import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlFunctionsService;
 
 import org.apache.marmotta.ucuenca.wk.pubman.exceptions.PubException;
+import org.apache.marmotta.ucuenca.wk.pubman.api.NegativeResultCache;
 import org.apache.marmotta.ucuenca.wk.pubman.api.ScopusProviderService;
 //import org.openrdf.model.Model;
-//import org.openrdf.model.Statement;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
 
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.MalformedQueryException;
@@ -66,6 +69,7 @@ import org.openrdf.query.TupleQueryResult;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
 import org.openrdf.model.Value;
+import org.openrdf.model.impl.ValueFactoryImpl;
 //import org.openrdf.rio.RDFFormat;
 //import org.openrdf.rio.RDFHandlerException;
 //import org.openrdf.rio.RDFWriter;
@@ -104,8 +108,18 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
     @Inject
     private SparqlFunctionsService sparqlFunctionsService;
 
+    @Inject
+    private NegativeResultCache negativeResults;
+
+    @Inject
+    private CandidateResolver candidateResolver;
+
     private int processpercent = 0;
 
+    private static final URI SCOPUSGIVENNAME = ValueFactoryImpl.getInstance().createURI("http://www.elsevier.com/xml/svapi/rdf/dtd/givenName");
+
+    private static final URI SCOPUSSURNAME = ValueFactoryImpl.getInstance().createURI("http://www.elsevier.com/xml/svapi/rdf/dtd/surname");
+
     private String URLSEARCHSCOPUS = "http://api.elsevier.com/content/search/author?query=authfirst%28FIRSTNAME%29authlast%28LASTNAME%29+AND+affil%28PAIS%29&apiKey=a3b64e9d82a8f7b14967b9b9ce8d513d&httpAccept=application/xml";
     @Inject
     private SparqlService sparqlService;
@@ -126,14 +140,13 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
             String authorResource = "";
             int priorityToFind = 0;
 
-            List<Map<String, Value>> resultAllAuthors = getauthorsData.getListOfAuthors();
+            AuthorCursor authors = getauthorsData.openAuthorCursor();
 
             /*To Obtain Processed Percent*/
-            int allPersons = resultAllAuthors.size();
+            int allPersons = getauthorsData.countAuthors();
             int processedPersons = 0;
 
-            RepositoryConnection conUri = null;
-            ClientResponse response = null;
+            ResponseModel responseModel = null;
 
             Properties propiedades = new Properties();
             InputStream entrada = null;
@@ -164,57 +177,66 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
             boolean proccesAllAuthors = Boolean.parseBoolean(mapping.get("proccesAllAuthors").toString());
             boolean semanticAnalizer = Boolean.parseBoolean(mapping.get("semanticAnalizer").toString());
 
-            for (Map<String, Value> map : resultAllAuthors) {
-                processedPersons++;
-                log.info("Autores procesados con Scopus: " + processedPersons + " de " + allPersons);
-                authorResource = map.get("subject").stringValue();
-                String firstName = map.get("fname").stringValue();
-                String lastName = map.get("lname").stringValue();
-                boolean ask = false;
-                if (!proccesAllAuthors) {
-                    String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getScopusGraph(), authorResource);
-                    try {
-
-                        ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
-                        if (ask) {
-                            continue;
+            try {
+                while (authors.hasNext()) {
+                    Map<String, Value> map = authors.next();
+                    processedPersons++;
+                    log.info("Autores procesados con Scopus: " + processedPersons + " de " + allPersons);
+                    authorResource = map.get("subject").stringValue();
+                    String firstName = map.get("fname").stringValue();
+                    String lastName = map.get("lname").stringValue();
+                    boolean ask = false;
+                    if (!proccesAllAuthors) {
+                        String askTripletQuery = queriesService.getAskProcessAlreadyAuthorProvider(constantService.getScopusGraph(), authorResource);
+                        try {
+
+                            ask = sparqlService.ask(QueryLanguage.SPARQL, askTripletQuery);
+                            if (ask) {
+                                continue;
+                            }
+                        } catch (Exception ex) {
+                            log.error("Marmotta Exception:  " + askTripletQuery);
                         }
-                    } catch (Exception ex) {
-                        log.error("Marmotta Exception:  " + askTripletQuery);
                     }
-                }
-                priorityToFind = 1;
-                try {
-                    List<String> uri_search = new ArrayList<>();
-                    membersSearchResult = 0;
-                    String authorNativeResource = null;
-                    String firstNameSearch = firstName.split(" ").length > 1 ? firstName.split(" ")[0] : firstName;
-                    String lastNameSearch = lastName.split(" ").length > 1 ? lastName.split(" ")[0] : lastName;
-                    String lastNameSearch2 = lastName.split(" ").length > 1 ? lastName.split(" ")[1] : "";
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("PAIS", "Ecuador"));
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 1 ? lastNameSearch + "%20" + lastNameSearch2 : lastName).replace("PAIS", "all"));
-                    uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("PAIS", "all"));
-                    String scopusfirstName = "";
-                    String scopuslastName = "";
-                    String scopusAuthorUri = "";
-                    String providerGraph = "";
+                    priorityToFind = 1;
                     try {
-
-                        for (String uri_searchIterator : uri_search) {
-                            boolean existNativeAuthor = false;
-                            nameToFind = uri_searchIterator;
-//                            nameToFind = URLSEARCHSCOPUS.replace("FIRSTNAME", "Mauricio").replace("LASTNAME", "Espinoza").replace("PAIS", "all");
-                            membersSearchResult = 0;
-
-                            if (!proccesAllAuthors) {
-                                existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(constantService.getScopusGraph(), nameToFind.replace(" ", "")));
+                        List<String> uri_search = new ArrayList<>();
+                        membersSearchResult = 0;
+                        String authorNativeResource = null;
+                        String firstNameSearch = firstName.split(" ").length > 1 ? firstName.split(" ")[0] : firstName;
+                        String lastNameSearch = lastName.split(" ").length > 1 ? lastName.split(" ")[0] : lastName;
+                        String lastNameSearch2 = lastName.split(" ").length > 1 ? lastName.split(" ")[1] : "";
+                        uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("PAIS", "Ecuador"));
+                        uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 1 ? lastNameSearch + "%20" + lastNameSearch2 : lastName).replace("PAIS", "all"));
+                        uri_search.add(URLSEARCHSCOPUS.replace("FIRSTNAME", firstNameSearch.length() > 0 ? firstNameSearch : firstName).replace("LASTNAME", lastNameSearch.length() > 0 ? lastNameSearch : lastName).replace("PAIS", "all"));
+                        String scopusfirstName = "";
+                        String scopuslastName = "";
+                        String scopusAuthorUri = "";
+                        String providerGraph = "";
+                        try {
+                            // the searches are done at the same time, by priority
+                            List<String> resources = new ArrayList<>();
+                            for (String uri_searchIterator : uri_search) {
+                                boolean existNativeAuthor = false;
+                                nameToFind = uri_searchIterator;
+    //                            nameToFind = URLSEARCHSCOPUS.replace("FIRSTNAME", "Mauricio").replace("LASTNAME", "Espinoza").replace("PAIS", "all");
+
+                                if (!proccesAllAuthors) {
+                                    existNativeAuthor = sparqlService.ask(QueryLanguage.SPARQL, queriesService.getAskResourceQuery(constantService.getScopusGraph(), nameToFind.replace(" ", "")));
+                                }
+                                // the search without the api key identifies the name variant
+                                String nameVariant = nameToFind.replaceAll("&apiKey=[^&]*", "");
+                                if ((nameToFind.compareTo("") != 0) && !existNativeAuthor && !negativeResults.isNegative(NegativeResultCache.SCOPUS, nameVariant)
+                                        && !resources.contains(nameToFind)) {
+                                    resources.add(nameToFind);
+                                }
                             }
-                            if ((nameToFind.compareTo("") != 0) && !existNativeAuthor) {
-                                response = ldClient.retrieveResource(nameToFind);
-
+                            CandidateResolver.Resolution resolution = candidateResolver.resolve(NegativeResultCache.SCOPUS, ldClient, resources);
+                            for (CandidateResolver.Candidate candidate : resolution.getCandidates()) {
+                                nameToFind = candidate.getResource();
                                 /**
-                                 * Se inserta la tripleta que muestra el intento
-                                 * de búsqueda (Esta tripleta NO ofrece sentido
+                                 * Se inserta la tripleta que muestra el intento de
+                                 * búsqueda (Esta tripleta NO ofrece sentido
                                  * semantico). Aqui porque el intento debe ser
                                  * plasmado cuando el proveedor no de error al
                                  * buscar el recurso.
@@ -223,177 +245,104 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
                                 providerGraph = constantService.getProviderNsGraph() + "/" + nameEndpointofPublications.replace(" ", "");
                                 String InsertQueryOneOf = buildInsertQuery(providerGraph, nameToFind.replace(" ", ""), OWL.ONE_OF, authorResource);
                                 updatePub(InsertQueryOneOf);
-                            } else {
-                                continue;
-                            }
-                            String getMembersQuery = queriesService.getObjectByPropertyQuery("foaf:member");
-                            conUri = ModelCommons.asRepository(response.getData()).getConnection();
-                            conUri.begin();
-                            TupleQueryResult membersResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getMembersQuery).evaluate();
-
-                            while (membersResult.hasNext()) {
-                                BindingSet bindingname = membersResult.next();
-                                scopusAuthorUri = bindingname.getValue("object").toString();
-                                membersSearchResult++;
+                                if (candidate.getResponse().getHttpStatus() == 200) {
+                                    negativeResults.record(NegativeResultCache.SCOPUS, nameToFind.replaceAll("&apiKey=[^&]*", ""), candidate.getMembers());
+                                }
+                                if (candidate.getMembers() != 1) {
+                                    log.error("Error de getStatus o Error de mas de un author como resultado de " + nameToFind);
+                                }
                             }
-                            if (membersSearchResult == 1) {
+                            CandidateResolver.Candidate winner = resolution.getWinner();
+                            if (winner != null) {
+                                membersSearchResult = 1;
+                                responseModel = new ResponseModel(winner.getResponse().getData());
+                                scopusAuthorUri = responseModel.getObjects(ResponseModel.FOAFMEMBER).iterator().next().toString();
                                 /**
                                  * Getting contributor name to compare using
                                  * comparisonNames.syntacticComparison function
-                                 * - move this query to Queries Service
                                  */
-                                String getScopusAuthorName = "SELECT ?firstName ?lastName "
-                                        + " WHERE { "
-                                        + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/givenName> ?firstName. "
-                                        + " <" + scopusAuthorUri + ">  <http://www.elsevier.com/xml/svapi/rdf/dtd/surname> ?lastName. "
-                                        + " }";
-                                TupleQueryResult nameResult = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getScopusAuthorName).evaluate();
-                                while (nameResult.hasNext()) {
-                                    BindingSet binding = nameResult.next();
-                                    scopusfirstName = binding.getValue("firstName").stringValue();
-                                    scopuslastName = binding.getValue("lastName").stringValue();
+                                URI scopusAuthor = responseModel.createURI(scopusAuthorUri);
+                                Value givenName = responseModel.getObject(scopusAuthor, SCOPUSGIVENNAME);
+                                Value surname = responseModel.getObject(scopusAuthor, SCOPUSSURNAME);
+                                if (givenName != null && surname != null) {
+                                    scopusfirstName = givenName.stringValue();
+                                    scopuslastName = surname.stringValue();
                                 }
-                                break;
-                            }
-                            if (response.getHttpStatus() == 503 || membersSearchResult != 1) {
-                                log.error("Error de getStatus o Error de mas de un author como resultado de " + nameToFind);
-                                continue;
                             }
+                        } catch (DataRetrievalException e) {
+                            log.error("Data Retrieval Exception: " + e);
                         }
-                    } catch (DataRetrievalException e) {
-                        log.error("Data Retrieval Exception: " + e);
-                    }
 
-                    String scopusfullname = scopuslastName + ":" + scopusfirstName;
-                    String localfullname = lastName + ":" + firstName;
-
-//                    if (localfullname.toUpperCase().contains("PIEDRA")) {
-//                        localfullname = localfullname.replace(".", "");
-//                    }
-                    if (membersSearchResult == 1 && distance.syntacticComparisonNames("local", localfullname, "scopus", scopusfullname)) {
-
-                        List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
-                        List<String> listB = new ArrayList<String>();//desde la fuente de pub
-                        String getPublicationsAndTitleFromProviderQuery = queriesService.getSubjectAndObjectByPropertyQuery("dc:title");
-                        TupleQuery abstracttitlequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsAndTitleFromProviderQuery); //
-                        TupleQueryResult abstractResult = abstracttitlequery.evaluate();
-
-                        while (abstractResult.hasNext()) {
-                            BindingSet abstractResource = abstractResult.next();
-                            // String abstracttext = abstractResource.getValue("abstract").toString();
-                            String publication = abstractResource.getValue("subject").toString();
-
-                            String titletext = abstractResource.getValue("object").toString();
-                            listB = kservice.getKeywords(titletext);
-                            int cero = 0;
-                            if (semanticAnalizer && listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB)) {
-
-                                String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                while (tripletasResult.hasNext()) {
-                                    try {
-                                        BindingSet tripletsResource = tripletasResult.next();
-                                        //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                        String publicationProperty = tripletsResource.getValue("property").toString();
-                                        String publicationObject = tripletsResource.getValue("value").toString();
-                                        ///insert sparql query, 
-                                        String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                        updatePub(publicationInsertQuery);
-
-                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
-                                        updatePub(contributorInsertQuery);
-
-                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
-                                        updatePub(sameAsInsertQuery);
-
-                                        //if value is an uri then search and insert values of this value
-                                        if (commonsServices.isURI(publicationObject)) {
-
-                                            String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
-                                            TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
-                                            TupleQueryResult resourceResult = resourcequery.evaluate();
-
-                                            while (resourceResult.hasNext()) {
-                                                BindingSet resource = resourceResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String resourceProperty = resource.getValue("property").toString();
-                                                String resourceObject = resource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String resourceInsertQuery = buildInsertQuery(providerGraph, publicationObject, resourceProperty, resourceObject);
-                                                updatePub(resourceInsertQuery);
-                                            }
-                                        }
-                                    } catch (Exception e) {
-                                        log.error("ioexception " + e.toString());
-                                    }
+                        String scopusfullname = scopuslastName + ":" + scopusfirstName;
+                        String localfullname = lastName + ":" + firstName;
 
-                                }
+    //                    if (localfullname.toUpperCase().contains("PIEDRA")) {
+    //                        localfullname = localfullname.replace(".", "");
+    //                    }
+                        if (membersSearchResult == 1 && distance.syntacticComparisonNames("local", localfullname, "scopus", scopusfullname)) {
 
-                            }//end IF semantic distance
-                            else if (!semanticAnalizer){
-                                String getPublicationsFromProviderQuery = queriesService.getPublicationsPropertiesQuery(publication);
-                                TupleQuery pubquery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getPublicationsFromProviderQuery); //
-                                TupleQueryResult tripletasResult = pubquery.evaluate();
-
-                                while (tripletasResult.hasNext()) {
-                                    try {
-                                        BindingSet tripletsResource = tripletasResult.next();
-                                        //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                        String publicationProperty = tripletsResource.getValue("property").toString();
-                                        String publicationObject = tripletsResource.getValue("value").toString();
-                                        ///insert sparql query, 
-                                        String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
-                                        updatePub(publicationInsertQuery);
-
-                                        // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
-                                        updatePub(contributorInsertQuery);
-
-                                        // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
-                                        String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
-                                        updatePub(sameAsInsertQuery);
-
-                                        //if value is an uri then search and insert values of this value
-                                        if (commonsServices.isURI(publicationObject)) {
-
-                                            String getResourcesQuery = queriesService.getPublicationsPropertiesQuery(publicationObject);
-                                            TupleQuery resourcequery = conUri.prepareTupleQuery(QueryLanguage.SPARQL, getResourcesQuery); //
-                                            TupleQueryResult resourceResult = resourcequery.evaluate();
-
-                                            while (resourceResult.hasNext()) {
-                                                BindingSet resource = resourceResult.next();
-                                                //authorNativeResource = tripletsResource.getValue("authorResource").toString();
-                                                String resourceProperty = resource.getValue("property").toString();
-                                                String resourceObject = resource.getValue("value").toString();
-                                                ///insert sparql query, 
-                                                String resourceInsertQuery = buildInsertQuery(providerGraph, publicationObject, resourceProperty, resourceObject);
-                                                updatePub(resourceInsertQuery);
+                            List<String> listA = kservice.getKeywordsOfAuthor(authorResource);//dspace
+                            List<String> listB = new ArrayList<String>();//desde la fuente de pub
+                            for (Statement titleStatement : responseModel.getStatements(ResponseModel.DCTITLE)) {
+                                Resource publicationResource = titleStatement.getSubject();
+                                String publication = publicationResource.toString();
+
+                                String titletext = titleStatement.getObject().toString();
+                                listB = kservice.getKeywords(titletext);
+                                if (semanticAnalizer) {
+                                    kservice.translateKeywords(listB);
+                                }
+                                int cero = 0;
+                                if (!semanticAnalizer || (listB.size() != cero && listA.size() != cero && distance.semanticComparison(listA, listB))) {
+
+                                    for (Statement property : responseModel.getProperties(publicationResource)) {
+                                        try {
+                                            String publicationProperty = property.getPredicate().toString();
+                                            String publicationObject = property.getObject().toString();
+                                            ///insert sparql query, 
+                                            String publicationInsertQuery = buildInsertQuery(providerGraph, publication, publicationProperty, publicationObject);
+                                            updatePub(publicationInsertQuery);
+
+                                            // insert dct:contributor      <> dct:contributor <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                            String contributorInsertQuery = buildInsertQuery(providerGraph, publication, "http://purl.org/dc/terms/contributor", scopusAuthorUri);
+                                            updatePub(contributorInsertQuery);
+
+                                            // sameAs triplet    <http://190.15.141.102:8080/dspace/contribuidor/autor/SaquicelaGalarza_VictorHugo> owl:sameAs <http://dblp.org/pers/xr/s/Saquicela:Victor> 
+                                            String sameAsInsertQuery = buildInsertQuery(providerGraph, authorResource, "http://www.w3.org/2002/07/owl#sameAs", scopusAuthorUri);
+                                            updatePub(sameAsInsertQuery);
+
+                                            //if value is an uri then search and insert values of this value
+                                            if (property.getObject() instanceof Resource && commonsServices.isURI(publicationObject)) {
+                                                for (Statement resource : responseModel.getProperties((Resource) property.getObject())) {
+                                                    String resourceProperty = resource.getPredicate().toString();
+                                                    String resourceObject = resource.getObject().toString();
+                                                    ///insert sparql query, 
+                                                    String resourceInsertQuery = buildInsertQuery(providerGraph, publicationObject, resourceProperty, resourceObject);
+                                                    updatePub(resourceInsertQuery);
+                                                }
                                             }
+                                        } catch (Exception e) {
+                                            log.error("ioexception " + e.toString());
                                         }
-                                    } catch (Exception e) {
-                                        log.error("ioexception " + e.toString());
-                                    }
 
+                                    }
                                 }
-                            }//end else if NO semantic Analizer
 
+                            }
                         }
-                        conUri.commit();
-                        conUri.close();
-                    }
                   
-                } catch (QueryEvaluationException | MalformedQueryException | RepositoryException ex) {
-                    log.error("Evaluation Exception: " + ex);
-                } catch (Exception e) {
-                    log.error("ioexception " + e.toString());
+                    } catch (MarmottaException ex) {
+                        log.error("Evaluation Exception: " + ex);
+                    } catch (Exception e) {
+                        log.error("ioexception " + e.toString());
+                    }
+                    //** end View Data
+                    printPercentProcess(processedPersons, allPersons, "SCOPUS");
                 }
-                //** end View Data
-                printPercentProcess(processedPersons, allPersons, "SCOPUS");
+            } finally {
+                authors.close();
             }
+            negativeResults.flush();
             return "True for publications";
         } catch (Exception ex) {
             log.error("Exception: " + ex);
@@ -430,6 +379,9 @@ public class ScopusProviderServiceImpl implements ScopusProviderService, Runnabl
      * @param endpointName 
      */
     public void printPercentProcess(int processedPersons, int allPersons, String provider) {
+        if (allPersons <= 0) {
+            return;
+        }
 
         if ((processedPersons * 100 / allPersons) != processpercent) {
             processpercent = processedPersons * 100 / allPersons;
@@ -0,0 +1,460 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import info.aduna.lang.FileFormat;
+import info.aduna.lang.service.FileFormatServiceRegistry;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.marmotta.commons.sesame.transactions.api.TransactionListener;
+import org.apache.marmotta.commons.sesame.transactions.api.TransactionalSail;
+import org.apache.marmotta.commons.sesame.transactions.model.TransactionData;
+import org.apache.marmotta.platform.core.api.config.ConfigurationService;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
+import org.apache.marmotta.platform.core.api.triplestore.TransactionalSailProvider;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlCache;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.query.BooleanQuery;
+import org.openrdf.query.Dataset;
+import org.openrdf.query.GraphQuery;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.Query;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.QueryResultHandlerException;
+import org.openrdf.query.TupleQuery;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.helpers.QueryModelVisitorBase;
+import org.openrdf.query.parser.ParsedQuery;
+import org.openrdf.query.parser.QueryParserUtil;
+import org.openrdf.query.resultio.BooleanQueryResultFormat;
+import org.openrdf.query.resultio.BooleanQueryResultWriterRegistry;
+import org.openrdf.query.resultio.QueryResultIO;
+import org.openrdf.query.resultio.TupleQueryResultFormat;
+import org.openrdf.query.resultio.TupleQueryResultWriterRegistry;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFWriterRegistry;
+import org.openrdf.rio.Rio;
+import org.slf4j.Logger;
+
+/**
+ * Default Implementation of {@link SparqlCache}. It is a
+ * {@link TransactionalSailProvider} that leaves the sail as it is and only
+ * listens to its commits, like {@link PublicationCountersImpl}.
+ *
+ * The key of a result is the hash of the query, with its whitespace and
+ * comments normalized, and of the Accept header. Each entry keeps the graphs
+ * its query reads, taken from the GRAPH and FROM clauses; a query with a
+ * pattern on the default graph reads every graph. The keys are indexed by
+ * the graphs they read, so a commit invalidates the entries that read one of
+ * the graphs it wrote without looking at the others. The entries are also
+ * bounded by their total size, least recently used first, and by their age.
+ *
+ * @author Satellite
+ */
+@ApplicationScoped
+public class SparqlCacheImpl implements SparqlCache, TransactionalSailProvider {
+
+    private static final String ENABLED = "pubman.sparql_cache.enabled";
+
+    private static final String MAX_MB = "pubman.sparql_cache.max_mb";
+
+    private static final int DEFAULT_MAX_MB = 64;
+
+    private static final String TTL_SECONDS = "pubman.sparql_cache.ttl_seconds";
+
+    private static final int DEFAULT_TTL_SECONDS = 600;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private ConfigurationService configurationService;
+
+    @Inject
+    private SesameService sesameService;
+
+    private Cache<String, Entry> cache;
+
+    /* graph -> keys of the entries that read it */
+    private final ConcurrentMap<String, Set<String>> readers = new ConcurrentHashMap<>();
+
+    /* keys of the entries that read all the graphs */
+    private final Set<String> readersOfAll = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /* incremented by each commit that writes a graph, so a result evaluated
+     while a commit invalidated the cache is not kept */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        long maxBytes = configurationService.getIntConfiguration(MAX_MB, DEFAULT_MAX_MB) * 1024L * 1024L;
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(new Weigher<String, Entry>() {
+                    @Override
+                    public int weigh(String key, Entry entry) {
+                        return key.length() + entry.result.getBody().length;
+                    }
+                })
+                .expireAfterWrite(configurationService.getIntConfiguration(TTL_SECONDS, DEFAULT_TTL_SECONDS), TimeUnit.SECONDS)
+                .removalListener(new RemovalListener<String, Entry>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, Entry> removed) {
+                        // a replaced entry reads the same graphs, its key stays indexed
+                        if (removed.getCause() != RemovalCause.REPLACED && !cache.asMap().containsKey(removed.getKey())) {
+                            unindex(removed.getKey(), removed.getValue());
+                        }
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "SPARQL Cache";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanConfiguration(ENABLED, true);
+    }
+
+    @Override
+    public TransactionalSail createSail(TransactionalSail parent) {
+        parent.addTransactionListener(new TransactionListener() {
+            @Override
+            public void beforeCommit(TransactionData data) {
+                // the results are invalidated once the statements are committed
+            }
+
+            @Override
+            public void afterCommit(TransactionData data) {
+                Set<Resource> written = new HashSet<>();
+                addContexts(data.getAddedTriples(), written);
+                addContexts(data.getRemovedTriples(), written);
+                invalidate(written);
+            }
+
+            @Override
+            public void rollback(TransactionData data) {
+                // nothing was written
+            }
+        });
+        return parent;
+    }
+
+    @Override
+    public Result select(String query, String accept) throws MarmottaException, MalformedQueryException {
+        String normalized = normalize(query);
+        // without the listener of the sail the results would never be invalidated
+        if (!isEnabled()) {
+            return evaluate(normalized, accept).result;
+        }
+        String key = DigestUtils.sha1Hex(accept + "\n" + normalized);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            long start = generation.get();
+            entry = evaluate(normalized, accept);
+            index(key, entry);
+            cache.put(key, entry);
+            // a commit between the evaluation and the put may have missed the
+            // key, so the entry is stored first and dropped if one landed
+            if (generation.get() != start) {
+                cache.asMap().remove(key, entry);
+            }
+        }
+        return entry.result;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        long bytes = 0;
+        for (Entry entry : cache.asMap().values()) {
+            bytes += entry.result.getBody().length;
+        }
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", isEnabled());
+        statistics.put("entries", cache.size());
+        statistics.put("bytes", bytes);
+        statistics.put("hits", stats.hitCount());
+        statistics.put("misses", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictions", stats.evictionCount());
+        statistics.put("invalidations", invalidations.get());
+        return statistics;
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(cache.size());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidate the entries that read one of the written graphs. A
+     * statement without a graph invalidates all of them.
+     */
+    private void invalidate(Set<Resource> written) {
+        if (written.isEmpty()) {
+            return;
+        }
+        if (written.contains(null)) {
+            invalidateAll();
+            return;
+        }
+        generation.incrementAndGet();
+        Set<String> keys = new HashSet<>(readersOfAll);
+        for (Resource graph : written) {
+            Set<String> graphReaders = readers.get(graph.stringValue());
+            if (graphReaders != null) {
+                keys.addAll(graphReaders);
+            }
+        }
+        for (String key : keys) {
+            if (cache.asMap().remove(key) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private void index(String key, Entry entry) {
+        if (entry.graphs == null) {
+            readersOfAll.add(key);
+            return;
+        }
+        for (String graph : entry.graphs) {
+            Set<String> graphReaders = readers.get(graph);
+            if (graphReaders == null) {
+                graphReaders = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                Set<String> previous = readers.putIfAbsent(graph, graphReaders);
+                if (previous != null) {
+                    graphReaders = previous;
+                }
+            }
+            graphReaders.add(key);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (entry.graphs == null) {
+            readersOfAll.remove(key);
+            return;
+        }
+        for (String graph : entry.graphs) {
+            Set<String> graphReaders = readers.get(graph);
+            if (graphReaders != null) {
+                graphReaders.remove(key);
+            }
+        }
+    }
+
+    private static void addContexts(Model statements, Set<Resource> contexts) {
+        if (statements != null) {
+            contexts.addAll(statements.contexts());
+        }
+    }
+
+    private Entry evaluate(String query, String accept) throws MarmottaException, MalformedQueryException {
+        Set<String> graphs = getGraphs(QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FileFormat format;
+        try {
+            RepositoryConnection conn = sesameService.getConnection();
+            try {
+                conn.begin();
+                Query prepared = conn.prepareQuery(QueryLanguage.SPARQL, query);
+                if (prepared instanceof GraphQuery) {
+                    RDFFormat rdfFormat = negotiate(accept, RDFWriterRegistry.getInstance(), RDFFormat.JSONLD);
+                    ((GraphQuery) prepared).evaluate(Rio.createWriter(rdfFormat, out));
+                    format = rdfFormat;
+                } else if (prepared instanceof TupleQuery) {
+                    TupleQueryResultFormat tupleFormat = negotiate(accept, TupleQueryResultWriterRegistry.getInstance(), TupleQueryResultFormat.JSON);
+                    ((TupleQuery) prepared).evaluate(QueryResultIO.createWriter(tupleFormat, out));
+                    format = tupleFormat;
+                } else {
+                    BooleanQueryResultFormat booleanFormat = negotiate(accept, BooleanQueryResultWriterRegistry.getInstance(), BooleanQueryResultFormat.JSON);
+                    QueryResultIO.createWriter(booleanFormat, out).handleBoolean(((BooleanQuery) prepared).evaluate());
+                    format = booleanFormat;
+                }
+                conn.commit();
+            } finally {
+                conn.close();
+            }
+        } catch (RepositoryException | QueryEvaluationException | RDFHandlerException | QueryResultHandlerException ex) {
+            throw new MarmottaException("Query could not be evaluated", ex);
+        }
+        byte[] body = out.toByteArray();
+        String contentType = format.getDefaultMIMEType() + (format.hasCharset() ? "; charset=" + format.getCharset().name() : "");
+        return new Entry(new Result(body, contentType, "\"" + DigestUtils.sha1Hex(body) + "\""), graphs);
+    }
+
+    /**
+     * @return the first format of the Accept header with a writer, or the
+     * default one
+     */
+    private static <F extends FileFormat> F negotiate(String accept, FileFormatServiceRegistry<F, ?> registry, F fallback) {
+        if (accept != null) {
+            for (String range : accept.split(",")) {
+                F format = registry.getFileFormatForMIMEType(range.split(";")[0].trim());
+                if (format != null) {
+                    return format;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * @return the graphs read by a query, or null when it reads the default
+     * graph, that is all of them
+     */
+    private static Set<String> getGraphs(ParsedQuery parsed) {
+        final Dataset dataset = parsed.getDataset();
+        final Set<String> graphs = new HashSet<>();
+        final boolean[] all = {false};
+        parsed.getTupleExpr().visit(new QueryModelVisitorBase<RuntimeException>() {
+            @Override
+            public void meet(StatementPattern pattern) {
+                Var context = pattern.getContextVar();
+                if (context != null && context.hasValue()) {
+                    graphs.add(context.getValue().stringValue());
+                } else if (dataset == null) {
+                    all[0] = true;
+                } else if (pattern.getScope() == StatementPattern.Scope.NAMED_CONTEXTS) {
+                    all[0] |= dataset.getNamedGraphs().isEmpty();
+                } else {
+                    all[0] |= dataset.getDefaultGraphs().isEmpty();
+                }
+            }
+        });
+        if (all[0]) {
+            return null;
+        }
+        if (dataset != null) {
+            for (URI graph : dataset.getDefaultGraphs()) {
+                graphs.add(graph.stringValue());
+            }
+            for (URI graph : dataset.getNamedGraphs()) {
+                graphs.add(graph.stringValue());
+            }
+        }
+        return graphs;
+    }
+
+    /**
+     * Collapse the whitespace and drop the comments out of the literals and
+     * IRIs, so the same query written in another way has the same key.
+     */
+    static String normalize(String query) {
+        StringBuilder normalized = new StringBuilder(query.length());
+        int i = 0;
+        int n = query.length();
+        while (i < n) {
+            char c = query.charAt(i);
+            if (c == '"' || c == '\'') {
+                int end = i + 1;
+                while (end < n && query.charAt(end) != c) {
+                    end += query.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, n);
+                normalized.append(query, i, end);
+                i = end;
+            } else if (c == '<' && isIri(query, i)) {
+                int end = query.indexOf('>', i) + 1;
+                normalized.append(query, i, end);
+                i = end;
+            } else if (c == '#') {
+                while (i < n && query.charAt(i) != '\n' && query.charAt(i) != '\r') {
+                    i++;
+                }
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(query.charAt(i))) {
+                    i++;
+                }
+                if (normalized.length() > 0 && i < n && normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            } else {
+                normalized.append(c);
+                i++;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /* an IRI goes up to the next '>' without whitespace, a comparison does not */
+    private static boolean isIri(String query, int start) {
+        for (int i = start + 1; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '>') {
+                return i > start + 1;
+            }
+            if (Character.isWhitespace(c) || c == '<' || c == '"' || c == '=') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static class Entry {
+
+        private final Result result;
+        /* null when the query reads all the graphs */
+        private final Set<String> graphs;
+
+        Entry(Result result, Set<String> graphs) {
+            this.result = result;
+            this.graphs = graphs;
+        }
+    }
+}
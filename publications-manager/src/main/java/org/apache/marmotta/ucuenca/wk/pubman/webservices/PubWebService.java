@@ -20,6 +20,7 @@ package org.apache.marmotta.ucuenca.wk.pubman.webservices;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.io.File;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -62,10 +63,14 @@ public class PubWebService {
     public static final String GET_PUBLICATIONS = "/publications";
     public static final String GET_PUBLICATIONS_GOOGLE = "/publications_google";
     public static final String GET_PUBLICATIONS_DBLP = "/publications_dblp";
+    public static final String GET_PUBLICATIONS_DBLP_DUMP = "/publications_dblp_dump";
     public static final String GET_PUBLICATIONS_MA = "/publications_ma";
     public static final String LOAD_PUBLICATIONS = "/publications_provider_graph";
     public static final String GET_AUTHOR_DATA = "/pubsearch";
     public static final String GET_REPORT = "/report";
+    public static final String SUBMIT_REPORT = "/report/submit";
+    public static final String REPORT_STATUS = "/report/status";
+    public static final String REPORT_DOWNLOAD = "/report/download";
     public static final String TRANSLATE = "/translate";
     /*
      * Get Publications Data from Source and Load into Provider Graph
@@ -103,6 +108,24 @@ public class PubWebService {
         return Response.ok().entity(result).build();
     }
 
+    /*
+     * Load Publications Data from a local DBLP dump into Provider Graph
+     */
+    @POST
+    @Path(GET_PUBLICATIONS_DBLP_DUMP)
+    public Response readPublicationsPostDBLPDump(@QueryParam("file") String dumpFile) {
+        log.debug("Publications Task DBLP dump {}", dumpFile);
+        if (dumpFile == null || dumpFile.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Required parameter: file").build();
+        }
+        try {
+            String result = commonService.GetDataFromDBLPDump(dumpFile);
+            return Response.ok().entity(result).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+    }
+
     /*
      * Get Publications Data from Source and Load into Provider Graph
      */
@@ -175,6 +198,57 @@ public class PubWebService {
         String result = commonService.CountPublications();
         return Response.ok().entity(result).build();
     }
+    public static final String MATERIALIZE_AGGREGATES = "/materialize_aggregates";
+
+    /**
+     * Service that computes again all the aggregates of the dashboards in
+     * the aggregates graph. After each load to the central graph they are
+     * refreshed only for the loaded publications.
+     *
+     * @param request
+     * @return
+     */
+    @POST
+    @Path(MATERIALIZE_AGGREGATES)
+    public Response materializeAggregatesPost(@Context HttpServletRequest request) {
+        log.debug("Aggregates Task");
+        String result = commonService.MaterializeAggregates();
+        return Response.ok().entity(result).build();
+    }
+
+    public static final String TRANSLATE_KEYWORDS = "/translate_keywords";
+
+    /**
+     * Service that translates, once, the keywords loaded before their
+     * translations were stored, so the semantic comparisons can read them
+     * with semanticPretranslated.
+     *
+     * @return
+     */
+    @POST
+    @Path(TRANSLATE_KEYWORDS)
+    public Response translateKeywordsPost() {
+        log.debug("Keywords Translation Task");
+        String result = commonService.TranslateStoredKeywords();
+        return Response.ok().entity(result).build();
+    }
+
+    public static final String ROLLBACK_GRAPH = "/rollback_graph";
+
+    /**
+     * Service that puts back the previous version of the central graph or of
+     * the aggregates graph, after a rebuild published a wrong one.
+     *
+     * @param graph graph to roll back
+     * @return
+     */
+    @POST
+    @Path(ROLLBACK_GRAPH)
+    public Response rollbackGraphPost(@QueryParam("graph") String graph) {
+        log.debug("Rollback Task");
+        String result = commonService.RollbackGraph(graph);
+        return Response.ok().entity(result).build();
+    }
 
     /**
      * @Author Jose Luis Cullcay. Service used to create reports
@@ -194,6 +268,65 @@ public class PubWebService {
         return Response.ok().entity(result).build();
     }
 
+    /**
+     * Service that queues a report to be rendered in background
+     *
+     * @param report Name of the report
+     * @param type Type of the report, pdf or xls
+     * @param param1 Parameter
+     * @param request
+     * @return Json with the id of the report, to poll its status
+     */
+    @POST
+    @Path(SUBMIT_REPORT)
+    public Response submitReport(@FormParam("report") String report, @FormParam("type") String type, @FormParam("param1") List<String> param1, @Context HttpServletRequest request) {
+        ServletContext context = request.getServletContext();
+        String realContextPath = context.getRealPath(request.getContextPath());
+        String id = commonService.submitReport(realContextPath, report, type, param1);
+        if (id == null) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Too many reports waiting, try again later").build();
+        }
+        return reportStatus(id);
+    }
+
+    /**
+     * Service that returns the status of a report and, when it is done, its
+     * path
+     *
+     * @param id Id of the report
+     * @return Json with id, status and path
+     */
+    @GET
+    @Path(REPORT_STATUS)
+    public Response reportStatus(@QueryParam("id") String id) {
+        Map<String, String> status = commonService.getReportStatus(id);
+        if (status == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Unknown report " + id).build();
+        }
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, String> entry : status.entrySet()) {
+            json.addProperty(entry.getKey(), entry.getValue());
+        }
+        return Response.ok().entity(json.toString()).type("application/json").build();
+    }
+
+    /**
+     * Service that downloads a report rendered
+     *
+     * @param id Id of the report
+     * @return File of the report
+     */
+    @GET
+    @Path(REPORT_DOWNLOAD)
+    public Response downloadReport(@QueryParam("id") String id) {
+        File file = commonService.getReportFile(id);
+        if (file == null || !file.isFile()) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Report " + id + " is not rendered").build();
+        }
+        String mediaType = file.getName().endsWith(".pdf") ? "application/pdf" : "application/vnd.ms-excel";
+        return Response.ok(file, mediaType).header("Content-Disposition", "attachment; filename=\"" + file.getName() + "\"").build();
+    }
+
     /**
      *
      */
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.marmotta.ucuenca.wk.pubman.webservices;
+
+import com.google.gson.Gson;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.ucuenca.wk.pubman.api.SparqlCache;
+import org.openrdf.query.MalformedQueryException;
+import org.slf4j.Logger;
+
+/**
+ * Read only SPARQL endpoint of the front-end, with the results cached by
+ * {@link SparqlCache}. A client that sends the entity tag of its copy in
+ * If-None-Match gets a 304 while the result does not change; the browsers
+ * only do it for GET, so the front-end sends its queries by GET, and by POST
+ * only the ones too long for a URL.
+ *
+ * @author Satellite
+ */
+@Path("/pubman/sparql")
+@ApplicationScoped
+public class SparqlCacheWebService {
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private SparqlCache sparqlCache;
+
+    public static final String SELECT = "/select";
+    public static final String STATISTICS = "/statistics";
+
+    @GET
+    @Path(SELECT)
+    public Response selectGet(@QueryParam("query") String query, @HeaderParam("Accept") String accept,
+            @HeaderParam("If-None-Match") String ifNoneMatch) {
+        return select(query, accept, ifNoneMatch);
+    }
+
+    @POST
+    @Path(SELECT)
+    public Response selectPost(@FormParam("query") String query, @HeaderParam("Accept") String accept,
+            @HeaderParam("If-None-Match") String ifNoneMatch) {
+        return select(query, accept, ifNoneMatch);
+    }
+
+    /**
+     * Entries, hits, misses and hit rate of the cache.
+     */
+    @GET
+    @Path(STATISTICS)
+    @Produces("application/json")
+    public Response statistics() {
+        return Response.ok().entity(new Gson().toJson(sparqlCache.getStatistics())).build();
+    }
+
+    private Response select(String query, String accept, String ifNoneMatch) {
+        if (StringUtils.isBlank(query)) {
+            return Response.status(Status.BAD_REQUEST).entity("Missing Parameter 'query'").build();
+        }
+        SparqlCache.Result result;
+        try {
+            result = sparqlCache.select(query, accept);
+        } catch (MalformedQueryException ex) {
+            return Response.status(Status.BAD_REQUEST).entity("Malformed query: " + ex.getMessage()).build();
+        } catch (MarmottaException ex) {
+            log.error("Query failed: " + query, ex);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(ex.getMessage()).build();
+        }
+        // the clients keep their copy but ask again each time
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        EntityTag tag = new EntityTag(result.getTag().replace("\"", ""));
+        if (matches(ifNoneMatch, result.getTag())) {
+            return Response.notModified(tag).cacheControl(cacheControl).header("Vary", "Accept").build();
+        }
+        return Response.ok(result.getBody(), result.getContentType()).tag(tag).cacheControl(cacheControl).header("Vary", "Accept").build();
+    }
+
+    /* the POST queries are safe too, so If-None-Match is compared for both methods */
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || tag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -237,3 +237,24 @@ function runPublicationsCount(options) {
     });
 
 }
+
+/**
+ * Method to compute again all the aggregates of the dashboards in the aggregates graph.
+ * @param {options} options
+ */
+function runAggregatesMaterialization(options) {
+    var settings = {
+        host: options
+    }
+    $.ajax({
+        type: "POST",
+        dataType: "text", //result data type
+        url: settings.host + "pubman/materialize_aggregates",
+        success: function (Result) {
+            alert(Result);
+        },
+        error: function (data) {
+            alert("Error" + data.responseText);
+        }
+    });
+}
@@ -0,0 +1,424 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.Normalizer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Local {@link HitCounter}: a positional inverted index of a text corpus, as
+ * the abstracts of our graphs or a Wikipedia dump, built once by
+ * {@link CorpusIndexBuilder}.
+ *
+ * The dictionary (term, offset of its postings, documents) is loaded in
+ * memory, and the postings are read from memory-mapped segments of the
+ * postings file. The postings of a term start with a skip entry every
+ * {@link #SKIP} documents (the last document before the entry and the offset
+ * of the entry), followed by the documents where the term appears, as
+ * variable length deltas, each one followed by the number of positions of
+ * the term in the document, their length in bytes and the positions, also as
+ * deltas.
+ *
+ * A phrase is counted by intersecting the documents of its words, driven by
+ * the rarest one: the other words skip to its documents, and the positions
+ * are only read in the documents with all the words. As the sloppy phrase
+ * queries of Lucene (and so the Wikipedia search), the words are matched at
+ * their place in the phrase: a word out of place by n positions takes n of
+ * the slop, so two swapped words need a slop of 2. A repeated word of the
+ * phrase is matched once, at its first place.
+ *
+ * An index stays mapped until it is closed, and an index rebuilt in the same
+ * directory is opened again by the next caller.
+ *
+ * @author FernandoBac
+ */
+public final class CorpusIndex implements HitCounter, Closeable {
+
+    static final String DICTIONARY = "dictionary.bin";
+    static final String POSTINGS = "postings.bin";
+    static final int MAGIC = 0x4e474432;
+    /* the postings of a term never cross a segment */
+    static final long SEGMENT = 1L << 30;
+    /* documents between the skip entries of a term */
+    static final int SKIP = 64;
+
+    private static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final ConcurrentMap<String, CorpusIndex> OPEN = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final long modified;
+    private final int documents;
+    private final Map<String, Term> terms;
+    private final MappedByteBuffer[] segments;
+    /* the counts read the segments, closing unmaps them */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    private CorpusIndex(String key, long modified, int documents, Map<String, Term> terms, MappedByteBuffer[] segments) {
+        this.key = key;
+        this.modified = modified;
+        this.documents = documents;
+        this.terms = terms;
+        this.segments = segments;
+    }
+
+    /**
+     * Open the index of a directory, once for all the callers. If the index
+     * was rebuilt since it was opened, it is opened again and the previous
+     * one is closed.
+     */
+    public static CorpusIndex open(File directory) throws IOException {
+        String key = directory.getCanonicalPath();
+        long modified = new File(directory, DICTIONARY).lastModified();
+        CorpusIndex index = OPEN.get(key);
+        while (index == null || index.modified != modified) {
+            CorpusIndex loaded = load(key, modified, directory);
+            boolean replaced = index == null ? OPEN.putIfAbsent(key, loaded) == null : OPEN.replace(key, index, loaded);
+            if (replaced) {
+                if (index != null) {
+                    index.close();
+                }
+                return loaded;
+            }
+            loaded.close();
+            index = OPEN.get(key);
+        }
+        return index;
+    }
+
+    private static CorpusIndex load(String key, long modified, File directory) throws IOException {
+        int documents;
+        Map<String, Term> terms;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(new File(directory, DICTIONARY))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a corpus index, or built by a previous version (rebuild it): " + directory);
+            }
+            documents = in.readInt();
+            int size = in.readInt();
+            terms = new HashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                String term = in.readUTF();
+                terms.put(term, new Term(in.readLong(), in.readInt()));
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, POSTINGS), "r")) {
+            FileChannel channel = file.getChannel();
+            long length = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT - 1) / SEGMENT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT, length - start));
+            }
+            return new CorpusIndex(key, modified, documents, terms, segments);
+        }
+    }
+
+    /**
+     * Unmap the postings; the next {@link #open} of the directory loads the
+     * index again, and the counts of this one fail.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            OPEN.remove(key, this);
+            for (MappedByteBuffer segment : segments) {
+                unmap(segment);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Release a mapping now instead of when the buffer is collected; without
+     * the cleaner of the JVM it is left to the collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Object clean = cleaner.invoke(buffer);
+            if (clean != null) {
+                clean.getClass().getMethod("clean").invoke(clean);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // unmapped when collected
+        }
+    }
+
+    /**
+     * Words of a text as they are indexed: without diacritics, lower case,
+     * split at anything but letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(plain.toLowerCase(Locale.ENGLISH))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public double getDocuments() {
+        return documents;
+    }
+
+    /**
+     * @return the number of terms of the dictionary
+     */
+    public int getTerms() {
+        return terms.size();
+    }
+
+    @Override
+    public double count(String phrase, int slop) throws IOException {
+        // the place of each word in the phrase
+        Map<String, Integer> places = new LinkedHashMap<>();
+        List<String> tokens = tokenize(phrase);
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!places.containsKey(tokens.get(i))) {
+                places.put(tokens.get(i), i);
+            }
+        }
+        if (places.isEmpty()) {
+            return 0;
+        }
+        final Term[] found = new Term[places.size()];
+        Integer[] words = new Integer[found.length];
+        int[] offsets = new int[found.length];
+        int w = 0;
+        for (Map.Entry<String, Integer> place : places.entrySet()) {
+            found[w] = terms.get(place.getKey());
+            if (found[w] == null) {
+                return 0;
+            }
+            words[w] = w;
+            offsets[w] = place.getValue();
+            w++;
+        }
+        if (found.length == 1) {
+            return found[0].documents;
+        }
+        // the rarest word drives the intersection
+        Arrays.sort(words, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Integer.compare(found[a].documents, found[b].documents);
+            }
+        });
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IOException("The corpus index is closed: " + key);
+            }
+            Cursor[] cursors = new Cursor[found.length];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = new Cursor(found[words[i]]);
+            }
+            int[][] positions = new int[cursors.length][];
+            int count = 0;
+            int doc = cursors[0].nextDoc();
+            while (doc != NO_MORE_DOCS) {
+                int next = doc;
+                for (int i = 1; i < cursors.length && next == doc; i++) {
+                    next = cursors[i].advance(doc);
+                }
+                if (next == NO_MORE_DOCS) {
+                    break;
+                }
+                if (next == doc) {
+                    for (int i = 0; i < cursors.length; i++) {
+                        positions[i] = cursors[i].positions(offsets[words[i]]);
+                    }
+                    if (withinWindow(positions, slop)) {
+                        count++;
+                    }
+                    doc = cursors[0].nextDoc();
+                } else {
+                    doc = cursors[0].advance(next);
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if there is one position of each list with all of them in
+     * a span of at most window positions
+     */
+    static boolean withinWindow(int[][] positions, int window) {
+        int[] at = new int[positions.length];
+        while (true) {
+            int min = 0;
+            int max = 0;
+            for (int i = 1; i < positions.length; i++) {
+                if (positions[i][at[i]] < positions[min][at[min]]) {
+                    min = i;
+                }
+                if (positions[i][at[i]] > positions[max][at[max]]) {
+                    max = i;
+                }
+            }
+            if (positions[max][at[max]] - positions[min][at[min]] <= window) {
+                return true;
+            }
+            if (++at[min] == positions[min].length) {
+                return false;
+            }
+        }
+    }
+
+    static int readVInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static class Term {
+
+        private final long offset;
+        private final int documents;
+
+        Term(long offset, int documents) {
+            this.offset = offset;
+            this.documents = documents;
+        }
+    }
+
+    /**
+     * Reader of the postings of a term, one document at a time; the
+     * positions are only decoded when asked for.
+     */
+    private final class Cursor {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int documents;
+        private final int[] skipDocs;
+        private final int[] skipOffsets;
+        private int skip;
+        private int read;
+        private int doc;
+        private int next;
+        private int frequency;
+        private int positionsAt;
+
+        Cursor(Term term) {
+            buffer = segments[(int) (term.offset / SEGMENT)].duplicate();
+            buffer.position((int) (term.offset % SEGMENT));
+            documents = term.documents;
+            skipDocs = new int[readVInt(buffer)];
+            skipOffsets = new int[skipDocs.length];
+            int skipDoc = 0;
+            int skipOffset = 0;
+            for (int i = 0; i < skipDocs.length; i++) {
+                skipDoc += readVInt(buffer);
+                skipOffset += readVInt(buffer);
+                skipDocs[i] = skipDoc;
+                skipOffsets[i] = skipOffset;
+            }
+            start = buffer.position();
+            next = start;
+        }
+
+        int nextDoc() {
+            if (read == documents) {
+                return doc = NO_MORE_DOCS;
+            }
+            buffer.position(next);
+            doc += readVInt(buffer);
+            read++;
+            frequency = readVInt(buffer);
+            int length = readVInt(buffer);
+            positionsAt = buffer.position();
+            next = positionsAt + length;
+            return doc;
+        }
+
+        /**
+         * @return the first document from the target on
+         */
+        int advance(int target) {
+            if (read > 0 && doc >= target) {
+                return doc;
+            }
+            int to = -1;
+            while (skip < skipDocs.length && skipDocs[skip] < target) {
+                if ((skip + 1) * SKIP > read) {
+                    to = skip;
+                }
+                skip++;
+            }
+            if (to >= 0) {
+                doc = skipDocs[to];
+                read = (to + 1) * SKIP;
+                next = start + skipOffsets[to];
+            }
+            while (nextDoc() < target) {
+                // next document
+            }
+            return doc;
+        }
+
+        /**
+         * @return the positions of the term in the current document, minus
+         * its place in the phrase
+         */
+        int[] positions(int place) {
+            buffer.position(positionsAt);
+            int[] at = new int[frequency];
+            int position = 0;
+            for (int i = 0; i < at.length; i++) {
+                position += readVInt(buffer);
+                at[i] = position - place;
+            }
+            return at;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder of a {@link CorpusIndex}. The documents are added one by one, and
+ * the postings of each term are kept compressed in memory until the index
+ * is written.
+ *
+ * It can be run on a text file with one document per line, as the abstracts
+ * exported from our graphs or the articles of a Wikipedia dump:
+ * <pre>
+ * java ... CorpusIndexBuilder corpus.txt index-directory
+ * </pre>
+ *
+ * @author FernandoBac
+ */
+public class CorpusIndexBuilder {
+
+    private final Map<String, TermPostings> terms = new HashMap<>();
+    private int documents;
+
+    /**
+     * Add the next document of the corpus.
+     */
+    public void add(String text) {
+        List<String> words = CorpusIndex.tokenize(text);
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            List<Integer> at = positions.get(words.get(i));
+            if (at == null) {
+                at = new ArrayList<>();
+                positions.put(words.get(i), at);
+            }
+            at.add(i);
+        }
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            TermPostings postings = terms.get(entry.getKey());
+            if (postings == null) {
+                postings = new TermPostings();
+                terms.put(entry.getKey(), postings);
+            }
+            postings.add(documents, entry.getValue());
+        }
+        documents++;
+    }
+
+    public int getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Write the dictionary and the postings files in a directory.
+     */
+    public void write(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the index directory " + directory);
+        }
+        List<String> sorted = new ArrayList<>(terms.keySet());
+        Collections.sort(sorted);
+        long[] offsets = new long[sorted.size()];
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(directory, CorpusIndex.POSTINGS)))) {
+            long offset = 0;
+            for (int i = 0; i < sorted.size(); i++) {
+                TermPostings postings = terms.get(sorted.get(i));
+                byte[] skips = postings.skips();
+                long size = (long) skips.length + postings.size;
+                if (size > CorpusIndex.SEGMENT) {
+                    throw new IOException("Postings of " + sorted.get(i) + " larger than a segment");
+                }
+                long free = CorpusIndex.SEGMENT - offset % CorpusIndex.SEGMENT;
+                if (size > free) {
+                    for (long j = 0; j < free; j++) {
+                        out.write(0);
+                    }
+                    offset += free;
+                }
+                offsets[i] = offset;
+                out.write(skips);
+                out.write(postings.bytes, 0, postings.size);
+                offset += size;
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, CorpusIndex.DICTIONARY))))) {
+            out.writeInt(CorpusIndex.MAGIC);
+            out.writeInt(documents);
+            out.writeInt(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                out.writeUTF(sorted.get(i));
+                out.writeLong(offsets[i]);
+                out.writeInt(terms.get(sorted.get(i)).documents);
+            }
+        }
+    }
+
+    /**
+     * @param args the corpus file, one document per line, and the index
+     * directory
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CorpusIndexBuilder <corpus file> <index directory>");
+            return;
+        }
+        CorpusIndexBuilder builder = new CorpusIndexBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(args[0]), "UTF-8"))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                builder.add(line);
+            }
+        }
+        builder.write(new File(args[1]));
+        System.out.println(builder.getDocuments() + " documents and " + builder.terms.size() + " terms indexed in " + args[1]);
+    }
+
+    /**
+     * Compressed postings of a term: document delta, number of positions,
+     * length in bytes of the positions and position deltas, as variable
+     * length integers; and a skip entry every {@link CorpusIndex#SKIP}
+     * documents.
+     */
+    private static class TermPostings {
+
+        private byte[] bytes = new byte[16];
+        private int size;
+        private int documents;
+        private int lastDocument;
+        private int[] skipDocs = new int[0];
+        private int[] skipOffsets = new int[0];
+        private int skips;
+
+        void add(int document, List<Integer> positions) {
+            if (documents > 0 && documents % CorpusIndex.SKIP == 0) {
+                if (skips == skipDocs.length) {
+                    skipDocs = Arrays.copyOf(skipDocs, skips * 2 + 1);
+                    skipOffsets = Arrays.copyOf(skipOffsets, skips * 2 + 1);
+                }
+                skipDocs[skips] = lastDocument;
+                skipOffsets[skips] = size;
+                skips++;
+            }
+            int length = 0;
+            int last = 0;
+            for (int position : positions) {
+                length += vIntLength(position - last);
+                last = position;
+            }
+            writeVInt(document - lastDocument);
+            lastDocument = document;
+            documents++;
+            writeVInt(positions.size());
+            writeVInt(length);
+            last = 0;
+            for (int position : positions) {
+                writeVInt(position - last);
+                last = position;
+            }
+        }
+
+        /**
+         * @return the number of skip entries and the entries, as deltas of
+         * the previous one
+         */
+        byte[] skips() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeVInt(out, skips);
+            for (int i = 0; i < skips; i++) {
+                writeVInt(out, skipDocs[i] - (i == 0 ? 0 : skipDocs[i - 1]));
+                writeVInt(out, skipOffsets[i] - (i == 0 ? 0 : skipOffsets[i - 1]));
+            }
+            return out.toByteArray();
+        }
+
+        private void writeVInt(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7f) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private static void writeVInt(ByteArrayOutputStream out, int value) {
+            while ((value & ~0x7f) != 0) {
+                out.write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        private static int vIntLength(int value) {
+            int length = 1;
+            while ((value & ~0x7f) != 0) {
+                value >>>= 7;
+                length++;
+            }
+            return length;
+        }
+    }
+}
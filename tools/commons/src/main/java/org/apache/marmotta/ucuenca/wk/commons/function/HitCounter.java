@@ -0,0 +1,31 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.IOException;
+
+/**
+ * Source of the hit counts of the Normalized Google Distance: the number of
+ * documents of a corpus where a term, or a pair of terms, appears.
+ *
+ * @author FernandoBac
+ */
+public interface HitCounter {
+
+    /**
+     * @return the number of documents of the corpus
+     */
+    double getDocuments();
+
+    /**
+     * @param phrase words to find in the same document
+     * @param slop how far the words can be from their places in the phrase,
+     * in total, as the slop of a sloppy phrase query
+     * @return the number of documents with all the words of the phrase
+     * within the slop
+     */
+    double count(String phrase, int slop) throws IOException;
+}
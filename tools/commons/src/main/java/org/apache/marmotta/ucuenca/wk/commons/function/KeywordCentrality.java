@@ -0,0 +1,215 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selection of the T most central keywords of an author: the ones with the
+ * lowest mean distance to the other keywords.
+ *
+ * The pairs are evaluated in rounds of a round robin, where each keyword
+ * meets one more keyword per round, in a random order. The sampled selection
+ * races the keywords: after some rounds, a keyword is out when its mean is,
+ * with the given confidence, farther than the means of T other keywords, and
+ * the pairs of two keywords out are not evaluated anymore. It stops when only
+ * T keywords are left. The exact selection plays all the rounds, that is
+ * every pair once.
+ *
+ * @author FernandoBac
+ */
+public class KeywordCentrality {
+
+    /**
+     * Distance between two keywords, as the NGD.
+     */
+    public interface Distance {
+
+        double get(String a, String b) throws IOException, SQLException;
+    }
+
+    /* rounds before the first keyword is out */
+    private static final int MIN_ROUNDS = 3;
+
+    private static long audits;
+    private static double agreements;
+
+    private final Distance distance;
+    private final Random random;
+    private int evaluations;
+
+    public KeywordCentrality(Distance distance, Random random) {
+        this.distance = distance;
+        this.random = random;
+    }
+
+    /**
+     * @return the T keywords with the lowest mean distance, evaluating every
+     * pair
+     */
+    public List<String> exact(List<String> terms, int t) throws IOException, SQLException {
+        return select(terms, t, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param confidence standard errors between the mean of a keyword and the
+     * top T to leave it out
+     * @return the T keywords with the lowest mean distance in the pairs
+     * evaluated until the others are out
+     */
+    public List<String> sampled(List<String> terms, int t, double confidence) throws IOException, SQLException {
+        return select(terms, t, confidence);
+    }
+
+    /**
+     * @return the distances computed by the last selection
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    private List<String> select(List<String> terms, int t, double confidence) throws IOException, SQLException {
+        evaluations = 0;
+        int n = terms.size();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        if (n % 2 == 1) {
+            // the keyword paired with the bye rests in that round
+            order.add(-1);
+        }
+        int size = order.size();
+        double[] sums = new double[n];
+        double[] squares = new double[n];
+        int[] counts = new int[n];
+        boolean[] out = new boolean[n];
+        int left = n;
+        for (int round = 0; round < size - 1 && left > t; round++) {
+            for (int k = 0; k < size / 2; k++) {
+                int a = order.get(k);
+                int b = order.get(size - 1 - k);
+                if (a >= 0 && b >= 0 && !(out[a] && out[b])) {
+                    double v = distance.get(terms.get(a), terms.get(b));
+                    evaluations++;
+                    sums[a] += v;
+                    sums[b] += v;
+                    squares[a] += v * v;
+                    squares[b] += v * v;
+                    counts[a]++;
+                    counts[b]++;
+                }
+            }
+            // the first keyword stays, the rest turn one place
+            order.add(1, order.remove(size - 1));
+            if (round + 1 >= MIN_ROUNDS && !Double.isInfinite(confidence)) {
+                left -= race(sums, squares, counts, out, t, confidence);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (out[i]) {
+                counts[i] = 0;
+            }
+        }
+        return rank(terms, sums, counts, t);
+    }
+
+    /**
+     * Leave out the keywords whose lower bound is above the upper bounds of
+     * T keywords still in.
+     *
+     * @return the keywords left out
+     */
+    private static int race(double[] sums, double[] squares, int[] counts, boolean[] out, int t, double confidence) {
+        double[] lower = new double[sums.length];
+        List<Double> upper = new ArrayList<>();
+        for (int i = 0; i < sums.length; i++) {
+            if (!out[i] && counts[i] > 0) {
+                double mean = sums[i] / counts[i];
+                double variance = Math.max(0, squares[i] / counts[i] - mean * mean);
+                double error = confidence * Math.sqrt(variance / counts[i]);
+                lower[i] = mean - error;
+                upper.add(mean + error);
+            }
+        }
+        if (upper.size() <= t) {
+            return 0;
+        }
+        Collections.sort(upper);
+        double bound = upper.get(t - 1);
+        int removed = 0;
+        for (int i = 0; i < sums.length; i++) {
+            if (!out[i] && counts[i] > 0 && lower[i] > bound) {
+                out[i] = true;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static List<String> rank(List<String> terms, double[] sums, int[] counts, int t) {
+        final double[] means = new double[sums.length];
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < sums.length; i++) {
+            means[i] = counts[i] == 0 ? Double.MAX_VALUE : sums[i] / counts[i];
+            indexes.add(i);
+        }
+        Collections.sort(indexes, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int c = Double.compare(means[a], means[b]);
+                return c != 0 ? c : a.compareTo(b);
+            }
+        });
+        List<String> top = new ArrayList<>();
+        for (int i = 0; i < indexes.size() && top.size() < t; i++) {
+            String term = terms.get(indexes.get(i));
+            if (!top.contains(term)) {
+                top.add(term);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * @return the fraction of the exact top T found by an approximate one
+     */
+    public static double agreement(List<String> approximate, List<String> exact) {
+        if (exact.isEmpty()) {
+            return 1;
+        }
+        int found = 0;
+        for (String term : exact) {
+            if (approximate.contains(term)) {
+                found++;
+            }
+        }
+        return (double) found / exact.size();
+    }
+
+    /**
+     * Record the agreement of a sampled selection audited against the exact
+     * one.
+     *
+     * @return the mean agreement of all the audits
+     */
+    public static synchronized double audit(double agreement) {
+        audits++;
+        agreements += agreement;
+        return agreements / audits;
+    }
+
+    public static synchronized long getAudits() {
+        return audits;
+    }
+}
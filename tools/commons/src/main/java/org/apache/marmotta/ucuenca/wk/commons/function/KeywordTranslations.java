@@ -0,0 +1,183 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * English terms of the keywords, translated once when the keywords are
+ * loaded, in a table of the cache database keyed by the normalized keyword.
+ * The semantic distance reads the terms from this table instead of calling
+ * the translator on each comparison. The original text of a keyword is
+ * translated, so the responses cached by the translator are reused. The
+ * keywords loaded before the table existed are translated by a separate task,
+ * KeywordsService.translateStoredKeywords, never by a lookup.
+ *
+ * @author FernandoBac
+ */
+public class KeywordTranslations {
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS keyword_translation (keyword varchar PRIMARY KEY, term varchar NOT NULL)";
+
+    private String dburl = "";
+    private String user = "";
+    private String pass = "";
+
+    private int misses;
+
+    public KeywordTranslations() throws IOException, ClassNotFoundException {
+        JsonParser parser = new JsonParser();
+        InputStream resourceAsStream = this.getClass().getResourceAsStream("/config.cnf");
+        String theString = IOUtils.toString(resourceAsStream, Charset.defaultCharset().toString());
+        JsonObject config = parser.parse(theString).getAsJsonObject();
+        dburl = dburl + config.get("dbServer").getAsString() + "/" + config.get("dbSchema").getAsString();
+        user = config.get("dbUser").getAsString();
+        pass = config.get("dbPassword").getAsString();
+        Class.forName("org.postgresql.Driver");
+    }
+
+    /**
+     * Key of a keyword in the table: trimmed, lower case, single spaces.
+     */
+    public static String normalize(String keyword) {
+        return keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Translate and store the keywords that are not in the table yet. To be
+     * called when the keywords are loaded.
+     *
+     * @return the number of keywords translated
+     */
+    public int store(Collection<String> keywords) throws SQLException, IOException, ClassNotFoundException {
+        Map<String, String> originals = originals(keywords);
+        if (originals.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DriverManager.getConnection(dburl, user, pass)) {
+            originals.keySet().removeAll(find(conn, originals.keySet()).keySet());
+            return translate(conn, originals).size();
+        }
+    }
+
+    /**
+     * English terms of the keywords, read from the table; the translator is
+     * never called. A keyword that was never stored is used as it is, and
+     * counted in {@link #getMisses()}.
+     */
+    public List<String> lookup(List<String> keywords) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        for (String keyword : keywords) {
+            keys.add(normalize(keyword));
+        }
+        Map<String, String> found;
+        try (Connection conn = DriverManager.getConnection(dburl, user, pass)) {
+            found = find(conn, keys);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String key : keys) {
+            String term = found.get(key);
+            if (term == null) {
+                misses++;
+                term = key;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * @return the keywords not found by the lookups of this instance
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the first original text of each normalized keyword
+     */
+    private static Map<String, String> originals(Collection<String> keywords) {
+        Map<String, String> originals = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            String key = normalize(keyword);
+            if (!key.isEmpty() && !originals.containsKey(key)) {
+                originals.put(key, keyword.trim());
+            }
+        }
+        return originals;
+    }
+
+    /**
+     * Translate the original texts, as the comparisons did before, and store
+     * the terms under the normalized keywords.
+     *
+     * @return the terms of the normalized keywords
+     */
+    private Map<String, String> translate(Connection conn, Map<String, String> originals) throws SQLException, IOException, ClassNotFoundException {
+        Map<String, String> terms = new HashMap<>();
+        if (originals.isEmpty()) {
+            return terms;
+        }
+        List<String> keys = new ArrayList<>(originals.keySet());
+        List<String> translated = new TranslateForSemanticDistance().traductor(new ArrayList<>(originals.values()));
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE);
+        }
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO keyword_translation (keyword, term) "
+                + "SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM keyword_translation WHERE keyword = ?)")) {
+            for (int i = 0; i < keys.size(); i++) {
+                terms.put(keys.get(i), translated.get(i));
+                insert.setString(1, keys.get(i));
+                insert.setString(2, translated.get(i));
+                insert.setString(3, keys.get(i));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        return terms;
+    }
+
+    private Map<String, String> find(Connection conn, Collection<String> keys) throws SQLException {
+        Map<String, String> found = new HashMap<>();
+        Array array = conn.createArrayOf("varchar", keys.toArray());
+        try (PreparedStatement select = conn.prepareStatement("SELECT keyword, term FROM keyword_translation WHERE keyword = ANY (?)")) {
+            select.setArray(1, array);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    found.put(rs.getString("keyword"), rs.getString("term"));
+                }
+            }
+        } catch (SQLException ex) {
+            // the table is created by the first store
+            if ("42P01".equals(ex.getSQLState())) {
+                return found;
+            }
+            throw ex;
+        } finally {
+            array.free();
+        }
+        return found;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deferred retries of the lookups that failed for a transient reason, as a
+ * 503 of a provider. A failed lookup is put in a delay queue with an
+ * exponential backoff and full jitter, and the job keeps working on other
+ * authors, calling {@link #runDue()} now and then to run the retries that
+ * are due. Each provider has a budget of retries for the job, and the
+ * lookups that are still failing at the end are returned by
+ * {@link #drain()} as the failure report of the job.
+ *
+ * The scheduler is used by one job, and runs the retries in the thread of
+ * the job.
+ *
+ * @author FernandoBac
+ */
+public class RetryScheduler {
+
+    public static final long DEFAULT_INITIAL_DELAY = 2000L;
+    public static final long DEFAULT_MAX_DELAY = 300000L;
+    public static final int DEFAULT_MAX_ATTEMPTS = 6;
+    public static final int DEFAULT_BUDGET = 500;
+
+    private static final Random RANDOM = new Random();
+
+    private final long initialDelay;
+    private final long maxDelay;
+    private final int maxAttempts;
+    private final int budget;
+
+    private final DelayQueue<Retry> queue = new DelayQueue<>();
+    private final Map<String, Integer> retriesByProvider = new HashMap<>();
+    private final List<Failure> failures = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RetryScheduler() {
+        this(DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY, DEFAULT_MAX_ATTEMPTS, DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param initialDelay milliseconds of the backoff of the first retry
+     * @param maxDelay largest backoff, in milliseconds
+     * @param maxAttempts retries of a lookup before it is reported as failed
+     * @param budget retries of each provider during the job
+     */
+    public RetryScheduler(long initialDelay, long maxDelay, int maxAttempts, int budget) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.maxAttempts = maxAttempts;
+        this.budget = budget;
+    }
+
+    /**
+     * Lookup to retry; it throws an exception when it fails again.
+     */
+    public interface Task {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Retry a failed lookup later.
+     *
+     * @param provider name of the provider, for the budget and the report
+     * @param key what was looked up, as the author resource
+     * @param cause the failure of the lookup
+     * @return false if the budget of the provider is spent, and the lookup is
+     * reported as failed
+     */
+    public synchronized boolean defer(String provider, String key, Task task, Exception cause) {
+        return schedule(new Retry(provider, key, task, 0, cause));
+    }
+
+    /**
+     * Run the retries that are due, without waiting for the others.
+     *
+     * @return the number of retries that were run
+     */
+    public int runDue() {
+        int run = 0;
+        for (Retry retry = queue.poll(); retry != null; retry = queue.poll()) {
+            execute(retry);
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Run the retries left, waiting for each to be due, until all succeed or
+     * fail for good.
+     *
+     * @return the lookups that failed for good, in the order they failed
+     */
+    public List<Failure> drain() throws InterruptedException {
+        while (!queue.isEmpty()) {
+            execute(queue.take());
+        }
+        synchronized (this) {
+            return Collections.unmodifiableList(new ArrayList<>(failures));
+        }
+    }
+
+    /**
+     * @return the retries waiting in the queue
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay between zero and
+     * initialDelay * 2^attempt, at most maxDelay.
+     *
+     * @param attempt zero for the first retry
+     * @return the delay in milliseconds
+     */
+    public static long backoff(long initialDelay, long maxDelay, int attempt) {
+        long ceiling = initialDelay << Math.min(attempt, 30);
+        if (ceiling <= 0 || ceiling > maxDelay) {
+            ceiling = maxDelay;
+        }
+        return (long) (RANDOM.nextDouble() * ceiling);
+    }
+
+    /**
+     * Sleep the backoff of an attempt, for the callers that must retry in
+     * place.
+     */
+    public static void sleep(long initialDelay, long maxDelay, int attempt) throws InterruptedException {
+        Thread.sleep(backoff(initialDelay, maxDelay, attempt));
+    }
+
+    /**
+     * @return the delay of a retry, the backoff of its attempt
+     */
+    protected long delay(String provider, String key, int attempt) {
+        return backoff(initialDelay, maxDelay, attempt);
+    }
+
+    private void execute(Retry retry) {
+        try {
+            retry.task.run();
+        } catch (Exception e) {
+            synchronized (this) {
+                schedule(new Retry(retry.provider, retry.key, retry.task, retry.attempt + 1, e));
+            }
+        }
+    }
+
+    private boolean schedule(Retry retry) {
+        Integer used = retriesByProvider.get(retry.provider);
+        used = used == null ? 0 : used;
+        if (retry.attempt >= maxAttempts || used >= budget) {
+            failures.add(new Failure(retry.provider, retry.key, retry.attempt, retry.cause));
+            return false;
+        }
+        retriesByProvider.put(retry.provider, used + 1);
+        queue.add(retry);
+        return true;
+    }
+
+    /**
+     * Lookup that could not be done after the retries.
+     */
+    public static class Failure {
+
+        private final String provider;
+        private final String key;
+        private final int attempts;
+        private final Exception cause;
+
+        Failure(String provider, String key, int attempts, Exception cause) {
+            this.provider = provider;
+            this.key = key;
+            this.attempts = attempts;
+            this.cause = cause;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the retries done, zero if the budget was already spent
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public Exception getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return provider + " " + key + " after " + attempts + " retries: " + cause;
+        }
+    }
+
+    private class Retry implements Delayed {
+
+        private final String provider;
+        private final String key;
+        private final Task task;
+        private final int attempt;
+        private final Exception cause;
+        private final long due;
+        private final long order = sequence.getAndIncrement();
+
+        Retry(String provider, String key, Task task, int attempt, Exception cause) {
+            this.provider = provider;
+            this.key = key;
+            this.task = task;
+            this.attempt = attempt;
+            this.cause = cause;
+            this.due = System.currentTimeMillis() + delay(provider, key, attempt);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(due - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Retry retry = (Retry) other;
+            if (due != retry.due) {
+                return due < retry.due ? -1 : 1;
+            }
+            return order < retry.order ? -1 : order == retry.order ? 0 : 1;
+        }
+    }
+}
@@ -7,6 +7,7 @@ package org.apache.marmotta.ucuenca.wk.commons.function;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -24,14 +25,15 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Scanner;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import org.apache.commons.io.IOUtils;
 
 import org.apache.marmotta.ucuenca.wk.commons.impl.CommonsServicesImpl;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
@@ -39,6 +41,13 @@ import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
  */
 public class SemanticDistance {
 
+    private static final Logger log = LoggerFactory.getLogger(SemanticDistance.class);
+
+    /* lookups of a hit count, with exponential backoff between them */
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long INITIAL_BACKOFF = 1000L;
+    private static final long MAX_BACKOFF = 60000L;
+
     // JDBC driver name and database URL
     private String dburl = "";
     //  Database credentials
@@ -49,6 +58,18 @@ public class SemanticDistance {
     private Connection conn = null;
     //Statement stmt = null;
 
+    /* hit counts of the terms, from Wikipedia or from a local corpus index */
+    private HitCounter counter;
+
+    /* English terms read from the keyword translations stored at load time */
+    private boolean pretranslated;
+
+    /* selection of the central keywords: exact, or racing them on sampled pairs */
+    private boolean sampledTopT;
+    private double topTConfidence;
+    private double topTAudit;
+    private final Random random = new Random();
+
     public SemanticDistance() throws IOException, ClassNotFoundException {
         JsonObject config = null;
         JsonParser parser = new JsonParser();
@@ -60,6 +81,17 @@ public class SemanticDistance {
         user = config.get("dbUser").getAsString();
         pass = config.get("dbPassword").getAsString();
 
+        if ("local".equalsIgnoreCase(commonservices.readPropertyFromFile("parameters.properties", "semanticHitCounter"))) {
+            counter = CorpusIndex.open(new File(commonservices.readPropertyFromFile("parameters.properties", "semanticCorpusIndex")));
+        } else {
+            counter = new WikipediaHitCounter();
+        }
+        pretranslated = Boolean.parseBoolean(commonservices.readPropertyFromFile("parameters.properties", "semanticPretranslated").trim());
+        sampledTopT = "sampled".equalsIgnoreCase(commonservices.readPropertyFromFile("parameters.properties", "semanticTopT"));
+        if (sampledTopT) {
+            topTConfidence = Double.parseDouble(commonservices.readPropertyFromFile("parameters.properties", "semanticTopTConfidence").trim());
+            topTAudit = Double.parseDouble(commonservices.readPropertyFromFile("parameters.properties", "semanticTopTAudit").trim());
+        }
     }
 
     public void close() throws SQLException {
@@ -153,7 +185,16 @@ public class SemanticDistance {
 
     private List<String> formatList(List<String> a) throws SQLException, IOException, ClassNotFoundException {
         TranslateForSemanticDistance trans = new TranslateForSemanticDistance();
-        a = trans.traductor(a);//new LinkedList<String>(java.util.Arrays.asList(t1_.split("\\s\\|\\s")));
+        if (pretranslated) {
+            // translated when the keywords were loaded
+            KeywordTranslations translations = new KeywordTranslations();
+            a = translations.lookup(a);
+            if (translations.getMisses() > 0) {
+                log.info("{} of {} keywords had no stored translation and were used as they are", translations.getMisses(), a.size());
+            }
+        } else {
+            a = trans.traductor(a);//new LinkedList<String>(java.util.Arrays.asList(t1_.split("\\s\\|\\s")));
+        }
         a = trans.clean(a);
         a = topT(a, (int) (2.0 * Math.log(a.size())));
         return a;
@@ -165,6 +206,9 @@ public class SemanticDistance {
         if (m.size() == value1) {
             m.add(m.get(0));
         }
+        if (sampledTopT) {
+            return sampledTopT(m, n);
+        }
         ConcurrentHashMap<String, Double> mapa = new ConcurrentHashMap();
         for (int i = 0; i < m.size(); i++) {
             for (int j = i + 1; j < m.size(); j++) {
@@ -196,6 +240,30 @@ public class SemanticDistance {
         return ls;
     }
 
+    /**
+     * Top T estimated from the pairs evaluated until the other keywords are
+     * out of it with the configured confidence. Some of the selections, as
+     * many as semanticTopTAudit, are also made exactly to report how much both
+     * agree.
+     */
+    private List<String> sampledTopT(List<String> m, int n) throws IOException, SQLException {
+        KeywordCentrality centrality = new KeywordCentrality(new KeywordCentrality.Distance() {
+            @Override
+            public double get(String a, String b) throws IOException, SQLException {
+                return ngd(a, b);
+            }
+        }, random);
+        List<String> top = centrality.sampled(m, n, topTConfidence);
+        if (random.nextDouble() < topTAudit) {
+            int sampled = centrality.getEvaluations();
+            double agreement = KeywordCentrality.agreement(top, centrality.exact(m, n));
+            double mean = KeywordCentrality.audit(agreement);
+            log.info("Top {} of {} keywords sampled with {} of {} distances, agreement with the exact one {} (mean {} in {} audits)",
+                    n, m.size(), sampled, centrality.getEvaluations(), agreement, mean, KeywordCentrality.getAudits());
+        }
+        return top;
+    }
+
     private double ngd(String a, String b) throws IOException, SQLException {
         int min = 0;
         int min2 = 1;
@@ -209,12 +277,10 @@ public class SemanticDistance {
         //double n0 = getResultsCount(""+a+"");
         //double n1 = getResultsCount(""+b+"");
         //String c = ""+a+" "+b+"";
-        double n0 = getResultsCount("\"" + a + "\"~10");
-        double n1 = getResultsCount("\"" + b + "\"~10");
-        String c = "\"" + a + " " + b + "\"~50";
-
-        double n2 = getResultsCount(c);
-        double m = 5029469;
+        double n0 = counter.count(a, 10);
+        double n1 = counter.count(b, 10);
+        double n2 = counter.count(a + " " + b, 50);
+        double m = counter.getDocuments();
         double distance = 0;
         int measure = 0;
         double l1 = Math.max(Math.log10(n0), Math.log10(n1)) - Math.log10(n2);
@@ -232,6 +298,27 @@ public class SemanticDistance {
         return distance;
     }
 
+    /**
+     * Hit counts of the Wikipedia search API, kept in the cache of the
+     * database.
+     */
+    private class WikipediaHitCounter implements HitCounter {
+
+        @Override
+        public double getDocuments() {
+            return 5029469;
+        }
+
+        @Override
+        public double count(String phrase, int slop) throws IOException {
+            try {
+                return getResultsCount("\"" + phrase + "\"~" + slop);
+            } catch (SQLException ex) {
+                throw new IOException("Hit count cache not available: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
     private double getResultsCount(String query) throws IOException, SQLException {
         double c = 0;
         c = getResultsCount1(query);
@@ -241,22 +328,25 @@ public class SemanticDistance {
     private double getResultsCount1(final String query) throws IOException, SQLException {
 
         String url = "https://en.wikipedia.org/w/api.php?action=query&list=search&format=json&srsearch=" + URLEncoder.encode(query, "UTF-8");
-        double v = -1;
-        do {
+        // Wikipedia may be unavailable for a while, but not for ever
+        for (int attempt = 0;; attempt++) {
             try {
                 String s = http(url);
                 JsonParser parser = new JsonParser();
                 JsonObject parse = parser.parse(s).getAsJsonObject();
-                v = parse.get("query").getAsJsonObject().get("searchinfo").getAsJsonObject().get("totalhits").getAsNumber().doubleValue();
+                return parse.get("query").getAsJsonObject().get("searchinfo").getAsJsonObject().get("totalhits").getAsNumber().doubleValue();
             } catch (Exception e) {
+                if (attempt + 1 >= MAX_ATTEMPTS) {
+                    throw new IOException("No hit count for " + query + " after " + MAX_ATTEMPTS + " attempts", e);
+                }
                 try {
-                    Thread.sleep(1000);
+                    RetryScheduler.sleep(INITIAL_BACKOFF, MAX_BACKOFF, attempt);
                 } catch (InterruptedException ex) {
-                    Logger.getLogger(SemanticDistance.class.getName()).log(Level.SEVERE, null, ex);
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while counting the hits of " + query, ex);
                 }
             }
-        } while (v == -1);
-        return v;
+        }
     }
 
     private <K, V extends Comparable<? super V>> Map<K, V>
@@ -0,0 +1,230 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Title matcher used to recognize the same publication in different graphs.
+ *
+ * The similarity is the average of a cosine similarity over 3-gram
+ * frequencies (lower case, non word characters removed) and a normalized
+ * Levenshtein similarity (diacritics removed, lower case), the same measures
+ * that were built with Simmetrics on every comparison. The q-gram profile of
+ * each title is computed once and kept as sorted primitive arrays, and the
+ * Levenshtein distance is bounded by the largest distance that can still
+ * reach the threshold, so hopeless pairs stop early.
+ *
+ * @author FernandoBac
+ */
+public final class TitleSimilarity {
+
+    private static final int Q = 3;
+    private static final int MAXCACHEDPROFILES = 50000;
+    private static final double THRESHOLD = 0.9;
+    private static final Pattern NONWORD = Pattern.compile("\\W+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private final ConcurrentMap<String, TitleProfile> profiles = new ConcurrentHashMap<>();
+
+    private TitleSimilarity() {
+    }
+
+    private static class Holder {
+
+        private static final TitleSimilarity INSTANCE = new TitleSimilarity();
+    }
+
+    public static TitleSimilarity getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @param title title of the publication to recognize
+     * @param centralTitle title already stored in the central graph
+     * @return true if the similarity of both titles is over the threshold
+     */
+    public boolean matches(String title, String centralTitle) {
+        TitleProfile a = profile(title);
+        TitleProfile b = profile(centralTitle);
+        double cosine = cosine(a, b);
+        int maxLength = Math.max(a.simplified.length(), b.simplified.length());
+        if (maxLength == 0) {
+            return (cosine + 1) / 2 > THRESHOLD;
+        }
+        // levenshtein similarity must be over 2*threshold - cosine
+        double bound = (1 - 2 * THRESHOLD + cosine) * maxLength;
+        int maxDistance = (int) Math.ceil(bound) - 1;
+        if (maxDistance < 0) {
+            return false;
+        }
+        int distance = boundedLevenshtein(a.simplified, b.simplified, maxDistance);
+        if (distance > maxDistance) {
+            return false;
+        }
+        return (cosine + 1 - (double) distance / maxLength) / 2 > THRESHOLD;
+    }
+
+    /**
+     * @return similarity value in the range [0,1]
+     */
+    public double similarity(String title, String centralTitle) {
+        TitleProfile a = profile(title);
+        TitleProfile b = profile(centralTitle);
+        int maxLength = Math.max(a.simplified.length(), b.simplified.length());
+        double levenshtein = maxLength == 0 ? 1
+                : 1 - (double) boundedLevenshtein(a.simplified, b.simplified, maxLength) / maxLength;
+        return (cosine(a, b) + levenshtein) / 2;
+    }
+
+    private TitleProfile profile(String title) {
+        TitleProfile profile = profiles.get(title);
+        if (profile == null) {
+            if (profiles.size() >= MAXCACHEDPROFILES) {
+                profiles.clear();
+            }
+            profile = new TitleProfile(title);
+            TitleProfile previous = profiles.putIfAbsent(title, profile);
+            if (previous != null) {
+                profile = previous;
+            }
+        }
+        return profile;
+    }
+
+    private static double cosine(TitleProfile a, TitleProfile b) {
+        if (a.grams.length == 0 && b.grams.length == 0) {
+            return 1;
+        }
+        if (a.grams.length == 0 || b.grams.length == 0) {
+            return 0;
+        }
+        long dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.grams.length && j < b.grams.length) {
+            if (a.grams[i] == b.grams[j]) {
+                dot += (long) a.counts[i++] * b.counts[j++];
+            } else if (a.grams[i] < b.grams[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dot / (a.norm * b.norm);
+    }
+
+    /**
+     * Levenshtein distance restricted to a diagonal band of width
+     * maxDistance.
+     *
+     * @return the distance, or maxDistance + 1 if it is greater than
+     * maxDistance
+     */
+    static int boundedLevenshtein(String a, String b, int maxDistance) {
+        int n = a.length();
+        int m = b.length();
+        int over = maxDistance + 1;
+        if (Math.abs(n - m) > maxDistance) {
+            return over;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= maxDistance ? j : over;
+        }
+        for (int i = 1; i <= n; i++) {
+            Arrays.fill(current, over);
+            current[0] = i <= maxDistance ? i : over;
+            int rowMin = current[0];
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = value > over ? over : value;
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m] > maxDistance ? over : previous[m];
+    }
+
+    /**
+     * Immutable profile of a title: its 3-gram frequencies as sorted parallel
+     * arrays and the simplified text used for the edit distance.
+     */
+    private static final class TitleProfile {
+
+        private final long[] grams;
+        private final int[] counts;
+        private final double norm;
+        private final String simplified;
+
+        TitleProfile(String title) {
+            String tokens = NONWORD.matcher(title.toLowerCase(Locale.ENGLISH)).replaceAll("");
+            long[] all = qGrams(tokens);
+            Arrays.sort(all);
+            long[] distinct = new long[all.length];
+            int[] frequency = new int[all.length];
+            int size = 0;
+            for (long gram : all) {
+                if (size > 0 && distinct[size - 1] == gram) {
+                    frequency[size - 1]++;
+                } else {
+                    distinct[size] = gram;
+                    frequency[size++] = 1;
+                }
+            }
+            long squares = 0;
+            for (int i = 0; i < size; i++) {
+                squares += (long) frequency[i] * frequency[i];
+            }
+            this.grams = Arrays.copyOf(distinct, size);
+            this.counts = Arrays.copyOf(frequency, size);
+            this.norm = Math.sqrt(squares);
+            this.simplified = DIACRITICS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD))
+                    .replaceAll("").toLowerCase(Locale.ENGLISH);
+        }
+
+        /**
+         * Each gram is packed in a long (16 bits per char). Inputs not longer
+         * than Q are a single token, marked over bit 48 by their length.
+         */
+        private static long[] qGrams(String value) {
+            int length = value.length();
+            if (length == 0) {
+                return new long[0];
+            }
+            if (length <= Q) {
+                long packed = 0;
+                for (int i = 0; i < length; i++) {
+                    packed = (packed << 16) | value.charAt(i);
+                }
+                return new long[]{length == Q ? packed : ((long) length << 48) | packed};
+            }
+            long[] result = new long[length - Q + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.function;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pretrained word vectors in the binary format of word2vec: a header line
+ * with the number of words and the dimension, and each word followed by a
+ * space and its vector as little endian floats. The words are read once into
+ * a map to the offset of their vectors, and the vectors are read from
+ * memory-mapped segments of the file when they are needed.
+ *
+ * A keyword is the average of the unit vectors of its words, and a list of
+ * keywords the average of the vectors of its keywords, so two lists are
+ * compared with one cosine similarity.
+ *
+ * @author FernandoBac
+ */
+public final class WordEmbeddings {
+
+    private static final long SEGMENT = 1L << 30;
+
+    private static final ConcurrentMap<String, WordEmbeddings> OPEN = new ConcurrentHashMap<>();
+
+    private final int dimension;
+    private final Map<String, Long> offsets;
+    private final MappedByteBuffer[] segments;
+
+    private WordEmbeddings(int dimension, Map<String, Long> offsets, MappedByteBuffer[] segments) {
+        this.dimension = dimension;
+        this.offsets = offsets;
+        this.segments = segments;
+    }
+
+    /**
+     * Open the vectors of a file, once for all the callers.
+     */
+    public static WordEmbeddings open(File file) throws IOException {
+        String key = file.getCanonicalPath();
+        WordEmbeddings embeddings = OPEN.get(key);
+        if (embeddings == null) {
+            embeddings = load(file);
+            WordEmbeddings previous = OPEN.putIfAbsent(key, embeddings);
+            if (previous != null) {
+                embeddings = previous;
+            }
+        }
+        return embeddings;
+    }
+
+    private static WordEmbeddings load(File file) throws IOException {
+        int words;
+        int dimension;
+        Map<String, Long> offsets;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            long[] offset = {0};
+            String[] header = readToken(in, offset, '\n').trim().split(" ");
+            if (header.length != 2) {
+                throw new IOException("Not a word2vec binary file: " + file);
+            }
+            words = Integer.parseInt(header[0]);
+            dimension = Integer.parseInt(header[1]);
+            offsets = new HashMap<>(words * 4 / 3 + 1);
+            int bytes = dimension * 4;
+            for (int i = 0; i < words; i++) {
+                String word = readToken(in, offset, ' ').trim();
+                offsets.put(word.toLowerCase(Locale.ENGLISH), offset[0]);
+                long skipped = 0;
+                while (skipped < bytes) {
+                    long n = in.skip(bytes - skipped);
+                    if (n <= 0) {
+                        throw new IOException("Truncated vectors in " + file);
+                    }
+                    skipped += n;
+                }
+                offset[0] += bytes;
+            }
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            // each segment overlaps the next by a vector, so a vector is always in the segment where it starts
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT - 1) / SEGMENT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT + dimension * 4, length - start));
+            }
+            return new WordEmbeddings(dimension, offsets, segments);
+        }
+    }
+
+    /**
+     * Read up to a delimiter, skipping the line breaks left after a vector.
+     */
+    private static String readToken(InputStream in, long[] offset, char delimiter) throws IOException {
+        ByteArrayOutputStream token = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            offset[0]++;
+            if (b == delimiter) {
+                break;
+            }
+            if (b != '\n' || delimiter == '\n') {
+                token.write(b);
+            }
+        }
+        return token.toString("UTF-8");
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getWords() {
+        return offsets.size();
+    }
+
+    /**
+     * @return the vector of a word, or null if it is unknown
+     */
+    public float[] word(String word) {
+        Long offset = offsets.get(word.toLowerCase(Locale.ENGLISH));
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer buffer = segments[(int) (offset / SEGMENT)].duplicate();
+        buffer.position((int) (offset % SEGMENT));
+        float[] vector = new float[dimension];
+        buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * @return the average of the unit vectors of the known words of a
+     * keyword, or null if none is known
+     */
+    public float[] keyword(String keyword) {
+        float[] sum = new float[dimension];
+        int known = 0;
+        for (String word : keyword.trim().split("[\\s_\\-]+")) {
+            float[] vector = word(word);
+            if (vector != null) {
+                addScaled(sum, vector, (float) (1 / norm(vector)));
+                known++;
+            }
+        }
+        return known == 0 ? null : scale(sum, 1f / known);
+    }
+
+    /**
+     * @return the average of the unit vectors of the known keywords of a
+     * list, or null if none is known
+     */
+    public float[] average(List<String> keywords) {
+        float[] sum = new float[dimension];
+        int known = 0;
+        for (String keyword : keywords) {
+            float[] vector = keyword(keyword);
+            if (vector != null) {
+                addScaled(sum, vector, (float) (1 / norm(vector)));
+                known++;
+            }
+        }
+        return known == 0 ? null : scale(sum, 1f / known);
+    }
+
+    /*
+     * The loops below are plain loops over float arrays, without branches
+     * or calls, so the JIT compiler can vectorize them.
+     */
+    public static double cosine(float[] a, float[] b) {
+        float dot = 0;
+        float na = 0;
+        float nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return na == 0 || nb == 0 ? 0 : dot / Math.sqrt((double) na * nb);
+    }
+
+    private static double norm(float[] a) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * a[i];
+        }
+        return sum == 0 ? 1 : Math.sqrt(sum);
+    }
+
+    private static void addScaled(float[] sum, float[] a, float factor) {
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += a[i] * factor;
+        }
+    }
+
+    private static float[] scale(float[] a, float factor) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] *= factor;
+        }
+        return a;
+    }
+
+    /**
+     * Threshold of similarity that best separates the pairs of keyword lists
+     * known to be of the same author from the pairs known to be of
+     * different authors, to calibrate the semanticSimilarity properties.
+     *
+     * @param same similarities of pairs of the same author
+     * @param different similarities of pairs of different authors
+     * @return the threshold with most pairs on the right side
+     */
+    public static double calibrate(double[] same, double[] different) {
+        double[] candidates = new double[same.length + different.length];
+        System.arraycopy(same, 0, candidates, 0, same.length);
+        System.arraycopy(different, 0, candidates, same.length, different.length);
+        Arrays.sort(candidates);
+        double best = 1;
+        int bestCorrect = -1;
+        for (double threshold : candidates) {
+            int correct = 0;
+            for (double s : same) {
+                correct += s >= threshold ? 1 : 0;
+            }
+            for (double d : different) {
+                correct += d < threshold ? 1 : 0;
+            }
+            if (correct > bestCorrect) {
+                bestCorrect = correct;
+                best = threshold;
+            }
+        }
+        return best;
+    }
+}
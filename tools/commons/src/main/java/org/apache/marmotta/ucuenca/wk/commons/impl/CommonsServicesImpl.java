@@ -6,14 +6,10 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import org.slf4j.Logger;
-import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigInteger;
 import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -81,32 +77,11 @@ public class CommonsServicesImpl implements CommonsServices {
         }
     }
 
+    /**
+     * The file is read once and cached, see {@link ResourceProperties}
+     */
     @Override
     public String readPropertyFromFile(String file,String property) {
-        Properties propiedades = new Properties();
-        InputStream entrada = null;
-        ConcurrentHashMap<String, String> mapping = new ConcurrentHashMap<String, String>();
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            entrada = classLoader.getResourceAsStream(file);
-            propiedades.load(entrada);
-            for (String source : propiedades.stringPropertyNames()) {
-                String target = propiedades.getProperty(source);
-                mapping.put(source, target);
-            }
-        } catch (IOException ex) {
-            log.error("IOException in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } catch (Exception ex) {
-            log.error("Exception in getReadPropertyFromFile CommonsServiceImpl " + ex);
-        } finally {
-            if (entrada != null) {
-                try {
-                    entrada.close();
-                } catch (IOException e) {
-                    log.error("IOException un getReadPropertyFromFile line 106" + e);
-                }
-            }
-        }
-        return mapping.get(property);
+        return ResourceProperties.get(getClass().getClassLoader(), file).getProperty(property);
     }
 }
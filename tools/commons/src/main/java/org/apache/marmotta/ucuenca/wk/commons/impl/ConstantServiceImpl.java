@@ -92,6 +92,11 @@ public class ConstantServiceImpl implements ConstantService {
         return getWkhuskaGraph() + getSelectedGraph("provider");
     }
 
+    @Override
+    public String getAggregatesGraph() {
+        return getWkhuskaGraph() + getSelectedGraph("aggregates");
+    }
+
     @Override
     public String getLimit(String limit) {
         return " Limit " + limit;
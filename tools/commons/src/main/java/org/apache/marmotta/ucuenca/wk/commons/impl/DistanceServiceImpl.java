@@ -7,6 +7,9 @@ package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import org.apache.marmotta.ucuenca.wk.commons.function.SyntacticDistance;
 import org.apache.marmotta.ucuenca.wk.commons.function.SemanticDistance;
+import org.apache.marmotta.ucuenca.wk.commons.function.TitleSimilarity;
+import org.apache.marmotta.ucuenca.wk.commons.function.WordEmbeddings;
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -30,6 +33,9 @@ public class DistanceServiceImpl implements DistanceService {
 
     @Override
     public boolean semanticComparison(List<String> listA, List<String> listB) {
+        if (isEmbeddingsBackend()) {
+            return embeddingsComparison(listA, listB, "semanticSimilarityListAListB");
+        }
         try {
             SemanticDistance dist = new SemanticDistance();
             double value = dist.semanticKeywordsDistance(listA, listB);
@@ -47,9 +53,12 @@ public class DistanceServiceImpl implements DistanceService {
 
     @Override
     public boolean semanticComparison(String word, List<String> listB) {
+        List<String> listA = new ArrayList<>();
+        listA.add(word);
+        if (isEmbeddingsBackend()) {
+            return embeddingsComparison(listA, listB, "semanticSimilarityWordListB");
+        }
         try {
-            List<String> listA = new ArrayList<>();
-            listA.add(word);
             SemanticDistance dist = new SemanticDistance();
 
             double value = dist.semanticKeywordsDistance(listA, listB);
@@ -64,6 +73,31 @@ public class DistanceServiceImpl implements DistanceService {
         return false;
     }
 
+    private boolean isEmbeddingsBackend() {
+        return "embeddings".equalsIgnoreCase(commonService.readPropertyFromFile("parameters.properties", "semanticBackend"));
+    }
+
+    /**
+     * Compare the average word vectors of both lists, without the translations
+     * and the hit counts of the NGD. The cosine similarity is compared with its
+     * own threshold, calibrated with WordEmbeddings.calibrate.
+     */
+    private boolean embeddingsComparison(List<String> listA, List<String> listB, String thresholdProperty) {
+        try {
+            WordEmbeddings embeddings = WordEmbeddings.open(new File(commonService.readPropertyFromFile("parameters.properties", "semanticEmbeddingsFile")));
+            float[] vectorA = embeddings.average(listA);
+            float[] vectorB = embeddings.average(listB);
+            if (vectorA == null || vectorB == null) {
+                return false;
+            }
+            double simthreshold = Double.parseDouble(commonService.readPropertyFromFile("parameters.properties", thresholdProperty));
+            return WordEmbeddings.cosine(vectorA, vectorB) >= simthreshold;
+        } catch (IOException ex) {
+            log.error("ERROR IN WordEmbeddings:" + ex);
+        }
+        return false;
+    }
+
     @Override
     public boolean syntacticComparisonNames(String... args) {
 
@@ -85,4 +119,12 @@ public class DistanceServiceImpl implements DistanceService {
         return false;
     }
 
+    @Override
+    public boolean syntacticComparisonTitles(String title, String centralTitle) {
+        if (title == null || centralTitle == null) {
+            return false;
+        }
+        return TitleSimilarity.getInstance().matches(title, centralTitle);
+    }
+
 }
@@ -6,23 +6,32 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import javax.inject.Inject;
+import org.apache.marmotta.platform.core.api.triplestore.SesameService;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
+import org.apache.marmotta.ucuenca.wk.commons.service.AuthorCursor;
 import org.apache.marmotta.ucuenca.wk.commons.service.CommonsServices;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
 import org.apache.marmotta.ucuenca.wk.commons.service.DistanceService;
 import org.apache.marmotta.ucuenca.wk.commons.service.GetAuthorsGraphData;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.openrdf.model.Value;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
 
 /**
  *
@@ -41,6 +50,9 @@ public class GetAuthorsGraphDataImpl implements GetAuthorsGraphData {
     @Inject
     private SparqlService sparqlService;
 
+    @Inject
+    private SesameService sesameService;
+
     @Inject
     private Logger log;
 
@@ -125,6 +137,105 @@ public class GetAuthorsGraphDataImpl implements GetAuthorsGraphData {
         return resultAllAuthors;
     }
 
+    @Override
+    public AuthorCursor openAuthorCursor() throws MarmottaException {
+        return openAuthorCursor(null, 0, 1);
+    }
+
+    /**
+     * The query has no ORDER BY, which would make the store sort all the
+     * authors before returning the first one.
+     */
+    @Override
+    public AuthorCursor openAuthorCursor(AuthorCursor.Filter filter, int partition, int partitions) throws MarmottaException {
+        String query = queriesService.getAuthorsDataQuery(constantService.getAuthorsGraph(), constantService.getEndpointsGraph());
+        return openCursor(query, filter, partition, partitions);
+    }
+
+    @Override
+    public AuthorCursor openOrderedAuthorCursor(AuthorCursor.Filter filter, int partition, int partitions, String afterSubject) throws MarmottaException {
+        String query = queriesService.getAuthorsDataQuery(constantService.getAuthorsGraph(), constantService.getEndpointsGraph(), afterSubject);
+        return openCursor(query, filter, partition, partitions);
+    }
+
+    /**
+     * The authors are read with a tuple query on a connection of the triple
+     * store, so only the current row is in memory, and the names of the
+     * filterByList file are compared with each author as it is read.
+     */
+    private AuthorCursor openCursor(String query, final AuthorCursor.Filter filter, int partition, int partitions) throws MarmottaException {
+        AuthorCursor.Filter selection = filter;
+        final List<String> fileNames = getFilterNames();
+        if (fileNames != null) {
+            selection = new AuthorCursor.Filter() {
+                @Override
+                public boolean accept(Map<String, Value> author) {
+                    if (filter != null && !filter.accept(author)) {
+                        return false;
+                    }
+                    String dspaceName = author.get("lname").stringValue() + ":" + author.get("fname").stringValue();
+                    for (String fileName : fileNames) {
+                        if (distanceService.syntacticComparisonNames("local", fileName, "local", dspaceName)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+        try {
+            RepositoryConnection connection = sesameService.getConnection();
+            try {
+                connection.begin();
+                TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate();
+                return new SesameAuthorCursor(connection, result, selection, partition, partitions);
+            } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
+                connection.close();
+                throw ex;
+            }
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException ex) {
+            throw new MarmottaException("Authors could not be read: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public int countAuthors() {
+        String query = queriesService.getCountAuthorsDataQuery(constantService.getAuthorsGraph(), constantService.getEndpointsGraph());
+        try {
+            List<Map<String, Value>> result = sparqlService.query(QueryLanguage.SPARQL, query);
+            if (!result.isEmpty() && result.get(0).get("count") != null) {
+                return Integer.parseInt(result.get(0).get("count").stringValue());
+            }
+        } catch (MarmottaException | NumberFormatException ex) {
+            log.error("Authors could not be counted: " + ex);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the names of the filterByList file, as fullLastName:fullFirstName,
+     * or null if the authors are not filtered by list
+     */
+    private List<String> getFilterNames() throws MarmottaException {
+        if (!Boolean.parseBoolean(commonService.readPropertyFromFile("parameters.properties", "filterByList"))) {
+            return null;
+        }
+        String fichero = commonService.readPropertyFromFile("parameters.properties", "fileToFilter");
+        InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream(fichero);
+        if (inputStream == null) {
+            throw new MarmottaException("filterByList file not found: " + fichero);
+        }
+        List<String> fileNames = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                fileNames.add(getNameFromString(line, 1));
+            }
+        } catch (IOException ex) {
+            throw new MarmottaException("Exception reading file " + fichero + ": " + ex.getMessage(), ex);
+        }
+        return fileNames;
+    }
+
     /**
      *
      * Format 1: {1LastName 1FirstName}. Example Perez Juan | Format 2:
@@ -6,6 +6,7 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.inject.Inject;
 import org.apache.marmotta.platform.core.exception.MarmottaException;
+import org.apache.marmotta.ucuenca.wk.commons.function.KeywordTranslations;
 import org.apache.marmotta.ucuenca.wk.commons.service.KeywordsService;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.platform.sparql.api.sparql.SparqlService;
@@ -36,6 +38,9 @@ public class KeywordsServiceImpl implements KeywordsService {
 
     private final static int MAXKEYWORDS = 10; //maximo retorna 10 keywords desde el texto ( primeras )
 
+    /* keywords given to the translator at once */
+    private final static int TRANSLATION_BATCH = 500;
+
     @Override
     public List<String> getKeywords(String abstracttext, String titletext) throws IOException, ClassNotFoundException {
 
@@ -133,6 +138,40 @@ public class KeywordsServiceImpl implements KeywordsService {
         return keywords;
     }
 
+    @Override
+    public void translateKeywords(List<String> keywords) {
+        String pretranslated = commonService.readPropertyFromFile("parameters.properties", "semanticPretranslated");
+        if (pretranslated == null || !Boolean.parseBoolean(pretranslated.trim())) {
+            // the comparisons translate the keywords themselves
+            return;
+        }
+        try {
+            new KeywordTranslations().store(keywords);
+        } catch (IOException | ClassNotFoundException | SQLException ex) {
+            Logger.getLogger(KeywordsServiceImpl.class.getName()).log(Level.SEVERE, "Keywords not translated", ex);
+        }
+    }
+
+    @Override
+    public int translateStoredKeywords() {
+        int translated = 0;
+        try {
+            List<Map<String, Value>> rows = sparqlService.query(QueryLanguage.SPARQL, queriesService.getSubjectKeywordsQuery());
+            List<String> keywords = new ArrayList<>();
+            for (Map<String, Value> row : rows) {
+                keywords.add(row.get("keyword").stringValue());
+            }
+            KeywordTranslations translations = new KeywordTranslations();
+            for (int from = 0; from < keywords.size(); from += TRANSLATION_BATCH) {
+                translated += translations.store(keywords.subList(from, Math.min(keywords.size(), from + TRANSLATION_BATCH)));
+            }
+            Logger.getLogger(KeywordsServiceImpl.class.getName()).log(Level.INFO, "{0} of {1} stored keywords translated", new Object[]{translated, keywords.size()});
+        } catch (MarmottaException | IOException | ClassNotFoundException | SQLException ex) {
+            Logger.getLogger(KeywordsServiceImpl.class.getName()).log(Level.SEVERE, "Stored keywords not translated", ex);
+        }
+        return translated;
+    }
+
     @Override
     public boolean isValidKeyword(String keyword){
         if (isNumber(keyword))
@@ -1,5 +1,7 @@
 package org.apache.marmotta.ucuenca.wk.commons.impl;
 
+import java.util.Collection;
+import java.util.Map;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.marmotta.ucuenca.wk.commons.service.QueriesService;
 import org.apache.marmotta.ucuenca.wk.commons.service.ConstantService;
@@ -203,10 +205,31 @@ public class QueriesServiceImpl implements QueriesService {
                 + " SELECT ?x ?y ?z WHERE { ?x dct:subject ?z. ?x ?y ?z. }";
     }
 
+    @Override
+    public String getSubjectKeywordsQuery() {
+        return " PREFIX dct: <http://purl.org/dc/terms/>  "
+                + " SELECT DISTINCT ?keyword WHERE { ?x dct:subject ?keyword. FILTER (isLiteral(?keyword)) }";
+    }
+
     @Override
     public String getAuthorsDataQuery(String graph, String endpointsgraph) {
+        return getAuthorsDataQuery(" SELECT *", graph, endpointsgraph, "");
+    }
+
+    @Override
+    public String getAuthorsDataQuery(String graph, String endpointsgraph, String afterSubject) {
+        String after = afterSubject == null ? "" : " filter (str(?subject) > \"" + StringEscapeUtils.escapeJava(afterSubject) + "\") ";
+        return getAuthorsDataQuery(" SELECT *", graph, endpointsgraph, after) + " ORDER BY ?subject";
+    }
+
+    @Override
+    public String getCountAuthorsDataQuery(String graph, String endpointsgraph) {
+        return getAuthorsDataQuery(" SELECT (COUNT(*) AS ?count)", graph, endpointsgraph, "");
+    }
+
+    private String getAuthorsDataQuery(String select, String graph, String endpointsgraph, String filter) {
         return PREFIXES
-                + " SELECT *"
+                + select
                 + " WHERE { " + getGraphString(graph) + " { "
                 //+ " WHERE { graph <http://ucuenca.edu.ec/wkhuska/authorsaux> {"
                 + " ?subject a foaf:Person. "
@@ -243,6 +266,7 @@ public class QueriesServiceImpl implements QueriesService {
                 + "     where { " + getGraphString(endpointsgraph) + " {"
                 + "     ?provenance <http://ucuenca.edu.ec/ontology#status> ?status "
                 + " }}} filter (regex(?status,\"true\")) "
+                + filter
                 + "                }} ";
 
     }
@@ -373,11 +397,105 @@ public class QueriesServiceImpl implements QueriesService {
  
     @Override
     public String getAuthorsKeywordsQuery(String resource) {
-        return PREFIXES + " SELECT DISTINCT ?keyword FROM <http://ucuenca.edu.ec/wkhuska/authors> "
-                + " WHERE { <" + resource + "> dct:subject ?keyword. } limit 50";
+        return PREFIXES + " PREFIX uc: <" + ConstantService.UCPREFIX + "> PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> "
+                + " SELECT DISTINCT ?keyword FROM <http://ucuenca.edu.ec/wkhuska/authors> "
+                + " WHERE { <" + resource + "> dct:subject ?keyword. "
+                + " OPTIONAL { <" + resource + "> uc:keyword ?node. ?node rdfs:label ?keyword; uc:occurrences ?occurrences. } } "
+                + " ORDER BY DESC(?occurrences) limit 50";
+    }
+
+    @Override
+    public String getInsertKeywordCountsQuery(String graph, String author, Map<String, Integer> counts) {
+        StringBuilder data = new StringBuilder();
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            String keyword = "\"" + StringEscapeUtils.escapeJava(count.getKey()) + "\"^^xsd:string";
+            String node = "<" + author + "/keyword/" + commonsServices.getMD5(count.getKey()) + ">";
+            data.append(" <").append(author).append("> dct:subject ").append(keyword).append("; uc:keyword ").append(node).append(". ")
+                    .append(node).append(" rdfs:label ").append(keyword).append("; uc:occurrences ").append(count.getValue()).append(". ");
+        }
+        return ConstantService.PREFIX + " PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
+                + INSERTDATA + getGraphString(graph) + " {" + data + "}}";
     }
     
 
+    private static final String AGGREGATEPREFIXES = PREFIXES + " PREFIX uc: <" + ConstantService.UCPREFIX + "> PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> ";
+
+    private String values(String variable, Collection<String> values) {
+        if (values.isEmpty()) {
+            return "";
+        }
+        StringBuilder terms = new StringBuilder();
+        for (String value : values) {
+            terms.append(value).append(" ");
+        }
+        return " VALUES ?" + variable + " { " + terms + "} ";
+    }
+
+    @Override
+    public String getKeywordAggregatesQuery(String graph, Collection<String> keywords) {
+        return AGGREGATEPREFIXES
+                + " SELECT ?key (COUNT(?pub) AS ?total) (COUNT(DISTINCT ?s) AS ?authors) "
+                + " WHERE { " + getGraphString(graph) + " { ?s foaf:publications ?pub. ?pub bibo:Quote ?key. } "
+                + values("key", keywords) + "} GROUP BY ?key";
+    }
+
+    @Override
+    public String getProvenanceAggregatesQuery(String graph, String endpointsGraph, Collection<String> provenances) {
+        return AGGREGATEPREFIXES
+                + " SELECT ?provenance (SAMPLE(?sourcename) AS ?name) (SAMPLE(?lat) AS ?latitude) (SAMPLE(?long) AS ?longitude) "
+                + " (SAMPLE(?prov) AS ?province) (SAMPLE(?cit) AS ?city) (SAMPLE(?full) AS ?fullname) "
+                + " (COUNT(DISTINCT ?pub) AS ?total) (COUNT(DISTINCT ?s) AS ?authors) "
+                + " WHERE { " + getGraphString(graph) + " { ?s foaf:publications ?pub; dct:provenance ?provenance. } "
+                + " OPTIONAL { " + getGraphString(endpointsGraph) + " { ?provenance uc:name ?sourcename. } } "
+                + " OPTIONAL { " + getGraphString(endpointsGraph) + " { ?provenance uc:latitude ?lat; uc:longitude ?long; "
+                + " uc:province ?prov; uc:city ?cit; uc:fullName ?full. } } "
+                + values("provenance", provenances) + "} GROUP BY ?provenance";
+    }
+
+    @Override
+    public String getKeywordProvenanceAggregatesQuery(String graph, Collection<String> keywords) {
+        return AGGREGATEPREFIXES
+                + " SELECT ?key ?provenance (COUNT(DISTINCT ?pub) AS ?total) "
+                + " WHERE { " + getGraphString(graph) + " { ?s foaf:publications ?pub; dct:provenance ?provenance. ?pub bibo:Quote ?key. } "
+                + values("key", keywords) + "} GROUP BY ?key ?provenance";
+    }
+
+    @Override
+    public String getYearAggregatesQuery(String graph, String yearProperty, Collection<String> years) {
+        return AGGREGATEPREFIXES
+                + " SELECT ?year (COUNT(DISTINCT ?pub) AS ?total) "
+                + " WHERE { " + getGraphString(graph) + " { ?s foaf:publications ?pub. ?pub <" + yearProperty + "> ?date. "
+                + " BIND(SUBSTR(STR(?date), 1, 4) AS ?year) } "
+                + values("year", years) + "} GROUP BY ?year";
+    }
+
+    @Override
+    public String getProvinceAggregatesQuery(String aggregatesGraph) {
+        return AGGREGATEPREFIXES
+                + " SELECT ?province (SUM(?count) AS ?total) "
+                + " WHERE { " + getGraphString(aggregatesGraph) + " { ?node a uc:ProvenanceAggregate; uc:province ?province; uc:total ?count. } } "
+                + " GROUP BY ?province";
+    }
+
+    @Override
+    public String getAggregateKeysQuery(String graph, String yearProperty, Collection<String> publications) {
+        return AGGREGATEPREFIXES
+                + " SELECT DISTINCT ?key ?provenance ?year "
+                + " WHERE { " + getGraphString(graph) + " { "
+                + " { ?pub bibo:Quote ?key. } "
+                + " UNION { ?s foaf:publications ?pub; dct:provenance ?provenance. } "
+                + " UNION { ?pub <" + yearProperty + "> ?date. BIND(SUBSTR(STR(?date), 1, 4) AS ?year) } } "
+                + values("pub", publications) + "}";
+    }
+
+    @Override
+    public String getDeleteAggregatesQuery(String aggregatesGraph, String type, String keyProperty, Collection<String> values) {
+        return AGGREGATEPREFIXES
+                + " DELETE { " + getGraphString(aggregatesGraph) + " { ?node ?p ?o } } "
+                + " WHERE { " + getGraphString(aggregatesGraph) + " { ?node a <" + type + ">; <" + keyProperty + "> ?value. ?node ?p ?o. } "
+                + values("value", values) + "}";
+    }
+
     @Override
     public String getPublicationPropertiesAsResourcesQuery() {
         return "SELECT DISTINCT ?publicationResource ?publicationProperties ?publicationPropertiesValue "
@@ -479,6 +597,53 @@ public class QueriesServiceImpl implements QueriesService {
         return " DELETE  { ?s ?p ?o } where { " + getGraphString(graph) + " { ?s ?p ?o } }";
     }
 
+    @Override
+    public String getDistinctCountQuery(String graph, String predicate, boolean subjects) {
+        return "SELECT (COUNT(DISTINCT ?x) AS ?total) WHERE { " + getGraphString(graph)
+                + (subjects ? " { ?x <" + predicate + "> ?y } }" : " { ?y <" + predicate + "> ?x } }");
+    }
+
+    @Override
+    public String getCountersQuery(String graph) {
+        return PREFIXES + " SELECT ?counter ?total WHERE { " + getGraphString(graph) + " { ?counter bibo:number ?total } }";
+    }
+
+    @Override
+    public String getUpsertCounterQuery(String graph, String counter, long total) {
+        return PREFIXES + " PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "
+                + " DELETE { " + getGraphString(graph) + " { <" + counter + "> bibo:number ?total } } "
+                + " INSERT { " + getGraphString(graph) + " { <" + counter + "> bibo:number \"" + total + "\"^^xsd:integer } } "
+                + " WHERE { OPTIONAL { " + getGraphString(graph) + " { <" + counter + "> bibo:number ?total } } }";
+    }
+
+    @Override
+    public String getCopyGraphQuery(String source, String target) {
+        return "COPY SILENT GRAPH <" + source + "> TO GRAPH <" + target + ">";
+    }
+
+    @Override
+    public String getDropGraphQuery(String graph) {
+        return "DROP SILENT GRAPH <" + graph + ">";
+    }
+
+    @Override
+    public String getAskGraphQuery(String graph) {
+        return "ASK { GRAPH <" + graph + "> { ?s ?p ?o } }";
+    }
+
+    @Override
+    public String getPublishGraphQuery(String graph, String staging, String previous) {
+        return "MOVE SILENT GRAPH <" + graph + "> TO GRAPH <" + previous + "> ; "
+                + "MOVE SILENT GRAPH <" + staging + "> TO GRAPH <" + graph + ">";
+    }
+
+    @Override
+    public String getSwapGraphQuery(String graph, String previous, String temporary) {
+        return "MOVE SILENT GRAPH <" + graph + "> TO GRAPH <" + temporary + "> ; "
+                + "MOVE SILENT GRAPH <" + previous + "> TO GRAPH <" + graph + "> ; "
+                + "MOVE SILENT GRAPH <" + temporary + "> TO GRAPH <" + previous + ">";
+    }
+
     @Override
     public String getTitlePublications(String graph) {
         return PREFIXES
@@ -527,6 +692,16 @@ public class QueriesServiceImpl implements QueriesService {
                 + "} ";
     }
 
+    @Override
+    public String getFirstNameLastNameAuthors(String graph) {
+        return PREFIXES
+                + " SELECT distinct ?subject (str(?firstname) as ?fname) (str(?lastname) as ?lname) from <" + graph + "> WHERE { "
+                + "                ?subject a foaf:Person; "
+                + "                 foaf:firstName  ?firstname;"
+                + "                 foaf:lastName   ?lastname;  "
+                + "}";
+    }
+
     @Override
     public String getAuthorPublicationFilter(String graph, String fname, String lname) {
         return PREFIXES
@@ -0,0 +1,152 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Properties file of the classpath that is read once and kept in memory.
+ *
+ * When the file is a plain file (exploded webapp or development) its
+ * modification time is checked at most every few seconds, and the values are
+ * read again if it changed. Files inside a jar are read only once.
+ *
+ * @author FernandoBac
+ */
+public final class ResourceProperties {
+
+    private static final long CHECKINTERVAL = 5000;
+
+    private static final ConcurrentMap<String, ResourceProperties> FILES = new ConcurrentHashMap<>();
+
+    private final ClassLoader classLoader;
+    private final String file;
+    private volatile Map<String, String> values = Collections.emptyMap();
+    private volatile long lastModified = -1;
+    private volatile long lastCheck;
+    private volatile int version;
+
+    private ResourceProperties(ClassLoader classLoader, String file) {
+        this.classLoader = classLoader;
+        this.file = file;
+    }
+
+    /**
+     * @param classLoader class loader that can see the file
+     * @param file name of the properties file in the classpath
+     * @return the cached properties of the file
+     */
+    public static ResourceProperties get(ClassLoader classLoader, String file) {
+        ResourceProperties properties = FILES.get(file);
+        if (properties == null) {
+            properties = new ResourceProperties(classLoader, file);
+            ResourceProperties previous = FILES.putIfAbsent(file, properties);
+            if (previous != null) {
+                properties = previous;
+            }
+        }
+        properties.refresh();
+        return properties;
+    }
+
+    public String getProperty(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * @return unmodifiable view of the current values
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * @return number of times the file has been read, it changes when the
+     * file is reloaded
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean exists() {
+        return lastModified >= 0;
+    }
+
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        if (version > 0 && now - lastCheck < CHECKINTERVAL) {
+            return;
+        }
+        synchronized (this) {
+            if (version > 0 && now - lastCheck < CHECKINTERVAL) {
+                return;
+            }
+            lastCheck = now;
+            URL url = classLoader.getResource(file);
+            long modified = modificationTime(url);
+            if (version > 0 && modified == lastModified) {
+                return;
+            }
+            values = load(url);
+            lastModified = modified;
+            version++;
+        }
+    }
+
+    private long modificationTime(URL url) {
+        if (url == null) {
+            return -1;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new File(url.toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private Map<String, String> load(URL url) {
+        if (url == null) {
+            Logger.getLogger(ResourceProperties.class.getName()).log(Level.SEVERE, "Properties file not found: {0}", file);
+            return Collections.emptyMap();
+        }
+        Properties propiedades = new Properties();
+        InputStream entrada = null;
+        try {
+            entrada = url.openStream();
+            propiedades.load(entrada);
+        } catch (IOException ex) {
+            Logger.getLogger(ResourceProperties.class.getName()).log(Level.SEVERE, "Error reading " + file, ex);
+        } finally {
+            if (entrada != null) {
+                try {
+                    entrada.close();
+                } catch (IOException e) {
+                    Logger.getLogger(ResourceProperties.class.getName()).log(Level.SEVERE, null, e);
+                }
+            }
+        }
+        Map<String, String> mapping = new HashMap<>();
+        for (String source : propiedades.stringPropertyNames()) {
+            mapping.put(source, propiedades.getProperty(source));
+        }
+        return Collections.unmodifiableMap(mapping);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.apache.marmotta.ucuenca.wk.commons.service.AuthorCursor;
+import org.openrdf.model.Value;
+import org.openrdf.query.Binding;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link AuthorCursor} over the result of a tuple query, keeping only the
+ * authors of one partition that pass the filter. An author belongs to the
+ * partition given by the hash of its subject, so each worker of a job can
+ * read its own authors from the same query.
+ *
+ * @author Satellite
+ */
+class SesameAuthorCursor implements AuthorCursor {
+
+    private static final Logger log = LoggerFactory.getLogger(SesameAuthorCursor.class);
+
+    private final RepositoryConnection connection;
+
+    private final TupleQueryResult result;
+
+    private final Filter filter;
+
+    private final int partition;
+
+    private final int partitions;
+
+    private Map<String, Value> next;
+
+    private String lastSubject;
+
+    private boolean closed;
+
+    /**
+     * @param connection started connection, committed and closed with the
+     * cursor
+     * @param filter null to keep all the authors
+     */
+    SesameAuthorCursor(RepositoryConnection connection, TupleQueryResult result, Filter filter, int partition, int partitions) {
+        this.connection = connection;
+        this.result = result;
+        this.filter = filter;
+        this.partition = partition;
+        this.partitions = partitions;
+    }
+
+    static boolean inPartition(String subject, int partition, int partitions) {
+        return partitions <= 1 || (subject.hashCode() & Integer.MAX_VALUE) % partitions == partition;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null && !closed) {
+                if (!result.hasNext()) {
+                    close();
+                    break;
+                }
+                BindingSet row = result.next();
+                Map<String, Value> author = new HashMap<>();
+                for (Binding binding : row) {
+                    author.put(binding.getName(), binding.getValue());
+                }
+                if (inPartition(author.get("subject").stringValue(), partition, partitions)
+                        && (filter == null || filter.accept(author))) {
+                    next = author;
+                }
+            }
+        } catch (QueryEvaluationException ex) {
+            log.error("Authors could not be read after " + lastSubject + ": " + ex);
+            close();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Map<String, Value> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, Value> author = next;
+        next = null;
+        lastSubject = author.get("subject").stringValue();
+        return author;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getLastSubject() {
+        return lastSubject;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            result.close();
+        } catch (QueryEvaluationException ex) {
+            log.error("Error closing the authors query: " + ex);
+        }
+        try {
+            try {
+                connection.commit();
+            } finally {
+                connection.close();
+            }
+        } catch (RepositoryException ex) {
+            log.error("Error closing the authors connection: " + ex);
+        }
+    }
+}
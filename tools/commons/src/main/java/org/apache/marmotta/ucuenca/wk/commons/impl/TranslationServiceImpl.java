@@ -10,6 +10,7 @@ import com.google.gson.JsonParser;
 import com.memetix.mst.language.Language;
 import com.memetix.mst.translate.Translate;
 import java.util.Random;
+import org.apache.marmotta.ucuenca.wk.commons.function.RetryScheduler;
 import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
 
 
@@ -19,6 +20,10 @@ import org.apache.marmotta.ucuenca.wk.commons.service.TranslationService;
  */
 public class TranslationServiceImpl implements TranslationService {
 
+    /* backoff between the attempts of a translation */
+    private static final long INITIAL_BACKOFF = 500L;
+    private static final long MAX_BACKOFF = 30000L;
+
     /**
      * Function to translate a text in any language to English
      *
@@ -30,7 +35,7 @@ public class TranslationServiceImpl implements TranslationService {
     public JsonObject translate(String text) {
         JsonParser parser = new JsonParser();
         int count = 0;
-        int maxTries = 360;
+        int maxTries = 12;
         Random rand = new Random();
         boolean val = true;
         int client;
@@ -75,10 +80,11 @@ public class TranslationServiceImpl implements TranslationService {
                     return  parser.parse("{\"result\": \" No Result \"}").getAsJsonObject(); // Return a blank string. There was a persistant error.
                 } else {
                     try {
-                        //We will set random between 0 and 5100 milliseconds
-                        Thread.sleep(rand.nextInt(5100));//1000 milliseconds is one second.
+                        //exponential backoff with jitter, so a throttled service is not flooded
+                        RetryScheduler.sleep(INITIAL_BACKOFF, MAX_BACKOFF, count - 1);
                     } catch (InterruptedException ex) {
                         Thread.currentThread().interrupt();
+                        return parser.parse("{\"result\": \" No Result \"}").getAsJsonObject();
                     }
                 }
             }
@@ -0,0 +1,40 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.service;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Map;
+import org.openrdf.model.Value;
+
+/**
+ * Authors read from the triple store while they are iterated, with the same
+ * bindings as the rows of getListOfAuthors; in the order the store returns
+ * them, or ordered by subject if the cursor was opened with
+ * openOrderedAuthorCursor. The cursor holds a connection to the triple store
+ * until it is exhausted or closed.
+ *
+ * @author Satellite
+ */
+public interface AuthorCursor extends Iterator<Map<String, Value>>, Closeable {
+
+    /**
+     * Selection of the authors of a cursor.
+     */
+    interface Filter {
+
+        boolean accept(Map<String, Value> author);
+    }
+
+    /**
+     * @return the subject of the last author returned, to resume a job from
+     * this author with openOrderedAuthorCursor; null if none was returned
+     */
+    String getLastSubject();
+
+    @Override
+    void close();
+}
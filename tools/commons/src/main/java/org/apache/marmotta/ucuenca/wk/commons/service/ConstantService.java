@@ -73,4 +73,6 @@ public interface ConstantService {
     String getAuthorsGraph();
 
     String getProviderNsGraph();
+
+    String getAggregatesGraph();
 }
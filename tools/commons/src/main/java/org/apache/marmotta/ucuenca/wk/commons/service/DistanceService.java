@@ -27,4 +27,15 @@ public interface DistanceService {
     boolean semanticComparison(List<String> listA, List<String> listB);
     
     boolean semanticComparison(String word, List<String> listB);
+
+    /**
+     * Compare two publication titles (3-gram cosine and Levenshtein
+     * similarity).
+     *
+     * @param title title of the publication to recognize
+     * @param centralTitle title of a publication of the central graph, its
+     * profile is cached between calls
+     * @return true if both titles belong to the same publication
+     */
+    boolean syntacticComparisonTitles(String title, String centralTitle);
 }
@@ -7,6 +7,7 @@ package org.apache.marmotta.ucuenca.wk.commons.service;
 
 import java.util.List;
 import java.util.Map;
+import org.apache.marmotta.platform.core.exception.MarmottaException;
 import org.openrdf.model.Value;
 
 /**
@@ -15,4 +16,36 @@ import org.openrdf.model.Value;
  */
 public interface GetAuthorsGraphData {
     List<Map<String, Value>> getListOfAuthors() ;
+
+    /**
+     * Cursor over the authors of getListOfAuthors, streamed from the triple
+     * store without sorting them. The filterByList file is applied as in
+     * getListOfAuthors.
+     */
+    AuthorCursor openAuthorCursor() throws MarmottaException;
+
+    /**
+     * Cursor over the authors of one partition, streamed without sorting them.
+     *
+     * @param filter further selection of the authors, or null
+     * @param partition partition read by this cursor, from 0 to partitions - 1
+     * @param partitions number of partitions; each author is in exactly one
+     */
+    AuthorCursor openAuthorCursor(AuthorCursor.Filter filter, int partition, int partitions) throws MarmottaException;
+
+    /**
+     * Cursor over the authors of one partition in the order of their
+     * subjects, so a job can be resumed from a checkpoint. The store sorts
+     * all the authors before returning the first one.
+     *
+     * @param afterSubject the subject of a checkpoint, as given by
+     * getLastSubject, to read only the authors after it; null for all
+     */
+    AuthorCursor openOrderedAuthorCursor(AuthorCursor.Filter filter, int partition, int partitions, String afterSubject) throws MarmottaException;
+
+    /**
+     * @return the number of rows of getListOfAuthors, without the
+     * filterByList file, or -1 if they could not be counted
+     */
+    int countAuthors();
 }
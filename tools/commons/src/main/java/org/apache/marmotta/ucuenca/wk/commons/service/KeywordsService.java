@@ -28,4 +28,21 @@ public interface KeywordsService {
     
     boolean isValidKeyword(String keyword);
 
+    /**
+     * Translate the keywords that are being loaded, once, for the semantic
+     * comparisons; nothing is done unless semanticPretranslated is true in
+     * parameters.properties.
+     */
+    void translateKeywords(List<String> keywords);
+
+    /**
+     * Translate, once, the dct:subject keywords already in the triple store
+     * that have no stored translation, as the ones loaded before the
+     * translations were stored. Meant to be run as a task before turning
+     * semanticPretranslated on, since the comparisons never translate.
+     *
+     * @return the number of keywords translated
+     */
+    int translateStoredKeywords();
+
 }
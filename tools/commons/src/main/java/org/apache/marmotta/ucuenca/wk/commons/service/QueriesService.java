@@ -5,6 +5,9 @@
  */
 package org.apache.marmotta.ucuenca.wk.commons.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  *
  * @author Satellite
@@ -13,6 +16,19 @@ public interface QueriesService {
 
     String getAuthorsDataQuery(String graph, String endpointsgraph);
 
+    /**
+     * Authors data ordered by subject, to be read with a resumable cursor.
+     *
+     * @param afterSubject only the authors after this subject, or null for
+     * all the authors
+     */
+    String getAuthorsDataQuery(String graph, String endpointsgraph, String afterSubject);
+
+    /**
+     * Number of rows of the authors data query.
+     */
+    String getCountAuthorsDataQuery(String graph, String endpointsgraph);
+
     String getCountPersonQuery(String graph);
 
     String getLimit(String limit);
@@ -28,6 +44,11 @@ public interface QueriesService {
      */
     String getRetrieveKeysQuery();
 
+    /**
+     * Distinct literals of the dct:subject keywords of all the resources.
+     */
+    String getSubjectKeywordsQuery();
+
     /**
      * return a query to obtain all resource related with Authors
      *
@@ -146,6 +167,41 @@ public interface QueriesService {
 
     String deleteDataGraph(String graph);
 
+    /**
+     * Distinct subjects, or objects, of a predicate in a graph.
+     */
+    String getDistinctCountQuery(String graph, String predicate, boolean subjects);
+
+    /**
+     * Counters of a graph: ?counter and its bibo:number as ?total.
+     */
+    String getCountersQuery(String graph);
+
+    /**
+     * Replace the bibo:number of a counter.
+     */
+    String getUpsertCounterQuery(String graph, String counter, long total);
+
+    /**
+     * Empty a graph, or replace it with a copy of another one.
+     */
+    String getCopyGraphQuery(String source, String target);
+
+    String getDropGraphQuery(String graph);
+
+    String getAskGraphQuery(String graph);
+
+    /**
+     * Move a live graph to its previous version and a staging graph to the
+     * live one, in a single update.
+     */
+    String getPublishGraphQuery(String graph, String staging, String previous);
+
+    /**
+     * Swap a live graph and its previous version, in a single update.
+     */
+    String getSwapGraphQuery(String graph, String previous, String temporary);
+
     String getPublicationPropertiesAsResourcesQuery();
 
     String getTitlePublications(String graph);
@@ -156,6 +212,12 @@ public interface QueriesService {
     
     String authorGetProvenance(String graph, String authorResource);
 
+    /**
+     * First and last names of all persons in a graph (bulk version of
+     * getFirstNameLastNameAuhor)
+     */
+    String getFirstNameLastNameAuthors(String graph);
+
     String getAuthorPublicationFilter(String graph, String fname, String lname);
 
     String getAskResourcePropertieQuery(String graph, String resource, String propertie);
@@ -163,6 +225,59 @@ public interface QueriesService {
     String getAskProcessAlreadyAuthorProvider(String providerGraph, String authorResource);
     
     String getAuthorsKeywordsQuery(String resource);
+
+    /**
+     * Keywords of an author with the number of times they were found in its
+     * publications: one dct:subject and one uc:keyword node with
+     * uc:occurrences per keyword.
+     *
+     * @param counts keyword -> occurrences
+     */
+    String getInsertKeywordCountsQuery(String graph, String author, Map<String, Integer> counts);
+
+    /**
+     * Aggregates of the dashboards. Each query is restricted to the given
+     * values of its key, as SPARQL terms, or computes all of them if there
+     * are no values.
+     *
+     * Keywords of the publications: occurrences (author, publication) and
+     * distinct authors.
+     */
+    String getKeywordAggregatesQuery(String graph, Collection<String> keywords);
+
+    /**
+     * Distinct publications and authors of each provenance, with its name and
+     * location from the endpoints graph.
+     */
+    String getProvenanceAggregatesQuery(String graph, String endpointsGraph, Collection<String> provenances);
+
+    /**
+     * Distinct publications of each keyword and provenance.
+     */
+    String getKeywordProvenanceAggregatesQuery(String graph, Collection<String> keywords);
+
+    /**
+     * Distinct publications of each year, the first four characters of the
+     * date property.
+     */
+    String getYearAggregatesQuery(String graph, String yearProperty, Collection<String> years);
+
+    /**
+     * Publications of each province, summed from the provenance aggregates.
+     */
+    String getProvinceAggregatesQuery(String aggregatesGraph);
+
+    /**
+     * Keywords, provenances and years of some publications, to refresh their
+     * aggregates.
+     */
+    String getAggregateKeysQuery(String graph, String yearProperty, Collection<String> publications);
+
+    /**
+     * Delete the aggregates of a type whose key property has one of the
+     * values, or all of them if there are no values.
+     */
+    String getDeleteAggregatesQuery(String aggregatesGraph, String type, String keyProperty, Collection<String> values);
     
     /**
      * Get All Data sources from UTPL ENDPOINT
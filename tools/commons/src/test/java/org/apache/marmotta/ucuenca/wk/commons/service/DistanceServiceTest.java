@@ -5,8 +5,19 @@
  */
 package org.apache.marmotta.ucuenca.wk.commons.service;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import org.apache.marmotta.ucuenca.wk.commons.function.CorpusIndex;
+import org.apache.marmotta.ucuenca.wk.commons.function.CorpusIndexBuilder;
+import org.apache.marmotta.ucuenca.wk.commons.function.KeywordCentrality;
+import org.apache.marmotta.ucuenca.wk.commons.function.WordEmbeddings;
 import org.apache.marmotta.ucuenca.wk.commons.impl.DistanceServiceImpl;
 import org.apache.marmotta.ucuenca.wk.commons.impl.QueriesServiceImpl;
 import org.junit.After;
@@ -121,4 +132,139 @@ public class DistanceServiceTest {
 
     }
 
+    @Test
+    public void testSyntacticComparisonTitles() {
+        DistanceService instance = new DistanceServiceImpl();
+        Assert.assertTrue(instance.syntacticComparisonTitles("semantic-web-platform-for-ecuadorian-researchers",
+                "semantic-web-platform-for-ecuadorian-researcher"));
+        Assert.assertTrue(instance.syntacticComparisonTitles("Análisis de redes sociales en Ecuador", "analisis de redes sociales en ecuador"));
+        Assert.assertFalse(instance.syntacticComparisonTitles("semantic-web-platform-for-ecuadorian-researchers",
+                "parallel-tempering-simulation-on-gpu"));
+        Assert.assertFalse(instance.syntacticComparisonTitles(null, "analisis de redes"));
+    }
+
+    @Test
+    public void testCorpusIndexCounts() throws IOException {
+        CorpusIndexBuilder builder = new CorpusIndexBuilder();
+        builder.add("Semantic web technologies for digital libraries");
+        builder.add("The semantic analysis of the web pages");
+        builder.add("Web services and semantic technologies");
+        builder.add("Ontología y web semántica");
+        File directory = File.createTempFile("corpus", "index");
+        Assert.assertTrue(directory.delete());
+        try {
+            builder.write(directory);
+
+            CorpusIndex index = CorpusIndex.open(directory);
+            try {
+                Assert.assertEquals(4, index.getDocuments(), 0);
+                Assert.assertEquals(4, index.count("Web", 10), 0);
+                Assert.assertEquals(1, index.count("semántica", 10), 0);
+                // adjacent only in the first document, farther apart in the second and third
+                Assert.assertEquals(1, index.count("semantic web", 0), 0);
+                Assert.assertEquals(3, index.count("semantic web", 50), 0);
+                Assert.assertEquals(0, index.count("semantic zebra", 50), 0);
+                // swapped words take a slop of 2
+                Assert.assertEquals(0, index.count("web semantic", 0), 0);
+                Assert.assertEquals(2, index.count("web semantic", 2), 0);
+                Assert.assertEquals(1, index.count("semantic web", 2), 0);
+            } finally {
+                index.close();
+            }
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Assert.assertTrue(file.delete());
+                }
+            }
+            Assert.assertTrue(directory.delete());
+        }
+    }
+
+    @Test
+    public void testCorpusIndexSkips() throws IOException {
+        // enough documents for the skip entries of the frequent words
+        CorpusIndexBuilder builder = new CorpusIndexBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i % 7 == 0 ? "semantic web" : i % 3 == 0 ? "web of data" : "semantic analysis");
+        }
+        File directory = File.createTempFile("corpus", "index");
+        Assert.assertTrue(directory.delete());
+        try {
+            builder.write(directory);
+            CorpusIndex index = CorpusIndex.open(directory);
+            index.close();
+            // closed, so opened again
+            index = CorpusIndex.open(directory);
+            try {
+                Assert.assertEquals(143, index.count("semantic web", 0), 0);
+                Assert.assertEquals(143, index.count("web semantic", 2), 0);
+                Assert.assertEquals(0, index.count("web semantic", 1), 0);
+            } finally {
+                index.close();
+            }
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Assert.assertTrue(file.delete());
+                }
+            }
+            Assert.assertTrue(directory.delete());
+        }
+    }
+
+    @Test
+    public void testWordEmbeddingsSimilarity() throws IOException {
+        String[] words = {"semantic", "ontology", "web", "protein"};
+        float[][] vectors = {{1, 0, 0}, {0.9f, 0.1f, 0}, {0.5f, 0.5f, 0}, {0, 0, 1}};
+        File file = File.createTempFile("vectors", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.write((words.length + " 3\n").getBytes("UTF-8"));
+            for (int i = 0; i < words.length; i++) {
+                out.write((words[i] + " ").getBytes("UTF-8"));
+                for (float value : vectors[i]) {
+                    out.writeInt(Integer.reverseBytes(Float.floatToIntBits(value)));
+                }
+                out.write('\n');
+            }
+        }
+
+        WordEmbeddings embeddings = WordEmbeddings.open(file);
+        Assert.assertEquals(4, embeddings.getWords());
+        Assert.assertArrayEquals(vectors[1], embeddings.word("Ontology"), 0);
+        Assert.assertNull(embeddings.word("zebra"));
+        double close = WordEmbeddings.cosine(embeddings.average(Arrays.asList("semantic web")),
+                embeddings.average(Arrays.asList("ontology", "web", "zebra")));
+        double far = WordEmbeddings.cosine(embeddings.average(Arrays.asList("semantic web")),
+                embeddings.average(Arrays.asList("protein")));
+        Assert.assertTrue(close > 0.9);
+        Assert.assertEquals(0, far, 1e-6);
+        Assert.assertEquals(0.7, WordEmbeddings.calibrate(new double[]{0.9, 0.8, 0.7}, new double[]{0.2, 0.5, 0.75}), 0);
+    }
+
+    @Test
+    public void testSampledTopT() throws Exception {
+        // keywords on a line, the ones in the middle are the most central
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i <= 40; i++) {
+            terms.add(String.valueOf(i));
+        }
+        KeywordCentrality centrality = new KeywordCentrality(new KeywordCentrality.Distance() {
+            @Override
+            public double get(String a, String b) {
+                return Math.abs(Integer.parseInt(a) - Integer.parseInt(b)) / 40.0;
+            }
+        }, new Random(7));
+        List<String> exact = centrality.exact(terms, 7);
+        Assert.assertEquals(41 * 40 / 2, centrality.getEvaluations());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("17", "18", "19", "20", "21", "22", "23")), new HashSet<>(exact));
+
+        List<String> sampled = centrality.sampled(terms, 7, 1.0);
+        Assert.assertTrue(centrality.getEvaluations() < 41 * 40 / 2);
+        Assert.assertTrue(KeywordCentrality.agreement(sampled, exact) >= 0.5);
+        Assert.assertEquals(1, KeywordCentrality.agreement(exact, exact), 0);
+    }
+
 }
@@ -60,6 +60,45 @@ public class QueriesServiceTest {
         Assert.assertEquals(expResult, result);
     }
 
+    /**
+     * Test of the authors data query read by the author cursors, and its count.
+     */
+    @Test
+    public void testGetAuthorsDataQueryCount() {
+        QueriesService instance = new QueriesServiceImpl();
+        String graph = "http://ucuenca.edu.ec/wkhuska/authors";
+        String endpoints = "http://ucuenca.edu.ec/wkhuska/endpoints";
+        String all = instance.getAuthorsDataQuery(graph, endpoints);
+        // streamed as the store returns the rows, without sorting them first
+        Assert.assertFalse(all.contains("ORDER BY"));
+
+        String count = instance.getCountAuthorsDataQuery(graph, endpoints);
+        Assert.assertEquals(all.replace(" SELECT *", " SELECT (COUNT(*) AS ?count)"), count);
+    }
+
+    /**
+     * Test of the ordered authors data query, used by the resumable author
+     * cursors.
+     */
+    @Test
+    public void testGetAuthorsDataQueryAfterSubject() {
+        QueriesService instance = new QueriesServiceImpl();
+        String graph = "http://ucuenca.edu.ec/wkhuska/authors";
+        String endpoints = "http://ucuenca.edu.ec/wkhuska/endpoints";
+        String all = instance.getAuthorsDataQuery(graph, endpoints);
+
+        String ordered = instance.getAuthorsDataQuery(graph, endpoints, null);
+        Assert.assertEquals(all + " ORDER BY ?subject", ordered);
+
+        String resumed = instance.getAuthorsDataQuery(graph, endpoints, "http://example.org/author/B");
+        Assert.assertTrue(resumed.contains("filter (str(?subject) > \"http://example.org/author/B\")"));
+        Assert.assertTrue(resumed.endsWith(" ORDER BY ?subject"));
+
+        // the checkpoint cannot close the literal of the filter
+        String quoted = instance.getAuthorsDataQuery(graph, endpoints, "http://example.org/author/\") } #");
+        Assert.assertTrue(quoted.contains("filter (str(?subject) > \"http://example.org/author/\\\") } #\")"));
+    }
+
     /**
      * Test of getRetrieveResourceQuery method, of class QueriesServiceImplService.
      */
@@ -0,0 +1,148 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package org.apache.marmotta.ucuenca.wk.commons.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.marmotta.ucuenca.wk.commons.function.RetryScheduler;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author FernandoBac
+ */
+public class RetrySchedulerTest {
+
+    private final List<String> runs = new ArrayList<>();
+
+    @Test
+    public void testBackoffBounds() {
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long ceiling = Math.min(100L << Math.min(attempt, 30), 5000L);
+            for (int i = 0; i < 200; i++) {
+                long delay = RetryScheduler.backoff(100, 5000, attempt);
+                Assert.assertTrue(delay >= 0);
+                Assert.assertTrue(delay < ceiling);
+            }
+        }
+        // full jitter: the delays spread over the whole range of the attempt
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 1000; i++) {
+            long delay = RetryScheduler.backoff(100, 5000, 3);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        Assert.assertTrue(min < 200);
+        Assert.assertTrue(max > 600);
+        // a shift past the size of a long is capped too
+        Assert.assertTrue(RetryScheduler.backoff(Long.MAX_VALUE / 2, 5000, 63) < 5000);
+    }
+
+    @Test
+    public void testBudget() throws InterruptedException {
+        RetryScheduler scheduler = scheduler(10, 2);
+        Assert.assertTrue(scheduler.defer("dblp", "a", task("a", 0), new IOException("503")));
+        Assert.assertTrue(scheduler.defer("dblp", "b", task("b", 0), new IOException("503")));
+        // the budget of dblp is spent, but not the one of scopus
+        Assert.assertFalse(scheduler.defer("dblp", "c", task("c", 0), new IOException("503")));
+        Assert.assertTrue(scheduler.defer("scopus", "d", task("d", 0), new IOException("503")));
+
+        List<RetryScheduler.Failure> failures = scheduler.drain();
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("dblp", failures.get(0).getProvider());
+        Assert.assertEquals("c", failures.get(0).getKey());
+        Assert.assertEquals(0, failures.get(0).getAttempts());
+        Assert.assertEquals(Arrays.asList("a", "b", "d"), runs);
+    }
+
+    @Test
+    public void testBudgetSpentByRetries() throws InterruptedException {
+        // the second retry of a would be the third of dblp
+        RetryScheduler scheduler = scheduler(10, 2);
+        scheduler.defer("dblp", "a", task("a", 5), new IOException("503"));
+        scheduler.defer("dblp", "b", task("b", 0), new IOException("503"));
+
+        List<RetryScheduler.Failure> failures = scheduler.drain();
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("a", failures.get(0).getKey());
+        Assert.assertEquals(1, failures.get(0).getAttempts());
+    }
+
+    @Test
+    public void testMaxAttempts() throws InterruptedException {
+        RetryScheduler scheduler = scheduler(3, 100);
+        scheduler.defer("dblp", "a", task("a", Integer.MAX_VALUE), new IOException("503"));
+
+        List<RetryScheduler.Failure> failures = scheduler.drain();
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals(3, failures.get(0).getAttempts());
+        Assert.assertEquals("failure 3", failures.get(0).getCause().getMessage());
+        Assert.assertEquals(3, runs.size());
+    }
+
+    @Test
+    public void testRunDue() throws InterruptedException {
+        RetryScheduler scheduler = scheduler(10, 100);
+        scheduler.defer("dblp", "now 1", task("now 1", 0), new IOException("503"));
+        scheduler.defer("dblp", "later", task("later", 0), new IOException("503"));
+        scheduler.defer("dblp", "now 2", task("now 2", 0), new IOException("503"));
+        Thread.sleep(20);
+
+        Assert.assertEquals(2, scheduler.runDue());
+        Assert.assertEquals(Arrays.asList("now 1", "now 2"), runs);
+        Assert.assertEquals(1, scheduler.pending());
+        Assert.assertEquals(0, scheduler.runDue());
+    }
+
+    @Test
+    public void testDrain() throws InterruptedException {
+        RetryScheduler scheduler = scheduler(2, 100);
+        scheduler.defer("dblp", "a", task("a", 1), new IOException("503"));
+        scheduler.defer("scopus", "b", task("b", 5), new IOException("503"));
+        scheduler.defer("dblp", "c", task("c", 0), new IOException("503"));
+
+        List<RetryScheduler.Failure> failures = scheduler.drain();
+        Assert.assertEquals(0, scheduler.pending());
+        // a succeeds on its second run, b fails on both
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("b", failures.get(0).getKey());
+        Assert.assertEquals(5, runs.size());
+    }
+
+    /**
+     * Retries due after 5 ms, or after a minute if their key starts with
+     * "later".
+     */
+    private RetryScheduler scheduler(int maxAttempts, int budget) {
+        return new RetryScheduler(5, 5, maxAttempts, budget) {
+            @Override
+            protected long delay(String provider, String key, int attempt) {
+                return key.startsWith("later") ? 60000L : 5L;
+            }
+        };
+    }
+
+    /**
+     * @param failures runs that fail before the lookup succeeds
+     */
+    private RetryScheduler.Task task(final String key, final int failures) {
+        return new RetryScheduler.Task() {
+            private int count;
+
+            @Override
+            public void run() throws Exception {
+                runs.add(key);
+                if (++count <= failures) {
+                    throw new IOException("failure " + count);
+                }
+            }
+        };
+    }
+}
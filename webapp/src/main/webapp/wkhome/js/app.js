@@ -33,6 +33,7 @@ wkhomeApp.service('globalData', function () {
     this.authorsGraph = "http://ucuenca.edu.ec/wkhuska/authors";
     this.endpointsGraph = "http://ucuenca.edu.ec/wkhuska/endpoints";
     this.externalAuthorsGraph = "http://ucuenca.edu.ec/wkhuska/externalauthors";
+    this.aggregatesGraph = "http://ucuenca.edu.ec/wkhuska/aggregates";
     this.translateData = null;
     this.PREFIX = ' PREFIX bibo: <http://purl.org/ontology/bibo/>'
             + ' PREFIX foaf: <http://xmlns.com/foaf/0.1/>  '
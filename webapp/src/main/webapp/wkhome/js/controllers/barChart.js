@@ -12,28 +12,12 @@ wkhomeControllers.controller('barChart', ['$scope', 'globalData', 'sparqlQuery',
                 + '     ?prov uc:name ?sname.'
                 + ' } '
                 + ' WHERE {'
-                + ' {'
-                + '     SELECT DISTINCT (SAMPLE(?provenance)  as ?prov) (SAMPLE(?sourcename)  as ?sname)  (count(DISTINCT ?pub) as ?totalp)'
-                + '         WHERE {'
-                + '             GRAPH <' + globalData.centralGraph + '> {'
-                + '                 ?s a foaf:Person.'
-                + '                 ?s foaf:name ?name.'
-                + '                 ?s foaf:publications ?pub.'
-                + '                 ?pub dct:title ?title.'
-                + '                 ?s dct:provenance ?provenance.     '
-                + '                 { '
-                + '                     SELECT * '
-                + '                     WHERE '
-                + '                     { '
-                + '                         graph <http://ucuenca.edu.ec/wkhuska/endpoints> '
-                + '                         { '
-                + '           			?provenance uc:name ?sourcename '
-                + '                         } '
-                + '                     } '
-                + '                 } '
-                + '             }'
-                + '         }group by ?provenance '
-                + ' } '
+                + '     GRAPH <' + globalData.aggregatesGraph + '> {'
+                + '         ?aggregate a uc:ProvenanceAggregate.'
+                + '         ?aggregate uc:provenance ?prov.'
+                + '         ?aggregate uc:name ?sname.'
+                + '         ?aggregate uc:total ?totalp.'
+                + '     }'
                 + ' }';
 
         sparqlQuery.query({query: sparqlquery}, function (result) {
@@ -53,15 +37,11 @@ wkhomeControllers.controller('barChart', ['$scope', 'globalData', 'sparqlQuery',
                                 + ' {  <' + sourceid + '> uc:total ?totalAuthors.'
                                 + ' } '
                                 + ' WHERE {'
-                                + ' {'
-                                + '     SELECT DISTINCT (count(DISTINCT ?s) as ?totalAuthors)'
-                                + '     WHERE {'
-                                + '         GRAPH <' + globalData.centralGraph + '> {'
-                                + '             ?s foaf:publications ?pub.'
-                                + '             ?s dct:provenance <' + sourceid + '>. '
-                                + '       }'
-                                + '     }  '
-                                + ' } '
+                                + '     GRAPH <' + globalData.aggregatesGraph + '> {'
+                                + '         ?aggregate a uc:ProvenanceAggregate.'
+                                + '         ?aggregate uc:provenance <' + sourceid + '>. '
+                                + '         ?aggregate uc:authors ?totalAuthors.'
+                                + '     }'
                                 + ' } ';
                         sparqlQuery.query({query: sparqlCountKeywords}, function (result) {
                             jsonld.compact(result, globalData.CONTEXT, function (err, compacted) {
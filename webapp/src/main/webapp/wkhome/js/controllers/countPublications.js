@@ -16,27 +16,12 @@ wkhomeControllers.controller('countPublications', ['$window','$routeParams','$sc
                 + '     ?prov uc:name ?sname.'
                 + ' } '
                 + ' WHERE {'
-                + ' {'
-                + '     SELECT DISTINCT (SAMPLE(?provenance)  as ?prov) (SAMPLE(?sourcename)  as ?sname)  (count(DISTINCT ?pub) as ?totalp)'
-                + '         WHERE {'
-                + '             GRAPH <' + globalData.centralGraph + '> {'
-                + '                 ?s a foaf:Person.'
-                + '                 ?s foaf:name ?name.'
-                + '                 ?s foaf:publications ?pub.'
-                + '                 ?s dct:provenance ?provenance.     '
-                + '                 { '
-                + '                     SELECT * '
-                + '                     WHERE '
-                + '                     { '
-                + '                         graph <http://ucuenca.edu.ec/wkhuska/endpoints> '
-                + '                         { '
-                + '           			?provenance uc:name ?sourcename '
-                + '                         } '
-                + '                     } '
-                + '                 } '
-                + '             }'
-                + '         }group by ?provenance '
-                + ' } '
+                + '     GRAPH <' + globalData.aggregatesGraph + '> {'
+                + '         ?aggregate a uc:ProvenanceAggregate.'
+                + '         ?aggregate uc:provenance ?prov.'
+                + '         ?aggregate uc:name ?sname.'
+                + '         ?aggregate uc:total ?totalp.'
+                + '     }'
                 + ' }';
         sparqlQuery.querySrv({query: queryTotalAuthors}, function (rdf) {
             jsonld.compact(rdf, globalData.CONTEXT, function (err, compacted) {
@@ -17,15 +17,14 @@ wkhomeControllers.controller('countResearchAreas', ['$routeParams','$scope', 'gl
                 + '     SELECT  ?keyword (IRI(REPLACE(?keyword, " ", "_", "i")) as ?uriArea) ?total '
                 + '     WHERE { '
                 + '         { '
-                + '             SELECT DISTINCT ?keyword (COUNT(DISTINCT ?s) AS ?total) '
+                + '             SELECT ?keyword ?total '
                 + '             WHERE { '
-                + '                 GRAPH <' + globalData.centralGraph + '> { '
-                + '                     ?s foaf:publications ?publications. '
-                + '                     ?publications bibo:Quote ?keyword. '
-                //+ '                     ?s dct:subject ?keyword. '
+                + '                 GRAPH <' + globalData.aggregatesGraph + '> { '
+                + '                     ?aggregate a uc:KeywordAggregate. '
+                + '                     ?aggregate rdfs:label ?keyword. '
+                + '                     ?aggregate uc:authors ?total. '
                 + '                 } '
                 + '              } '
-                + '              GROUP BY ?keyword '
                 + '              ORDER BY DESC(?total) '
                 + '              LIMIT 10 '
                 + '         } '
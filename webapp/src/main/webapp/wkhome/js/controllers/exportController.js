@@ -1,6 +1,28 @@
-wkhomeControllers.controller('exportController', ['$scope', 'reportService', '$window', '$sce',
-    function ($scope, reportService, $window, $sce) {
+wkhomeControllers.controller('exportController', ['$scope', 'reportService', '$window', '$sce', '$timeout',
+    function ($scope, reportService, $window, $sce, $timeout) {
         
+        var reportError = function () {
+            alert("Error al procesar el reporte. Por favor, espere un momento y vuelva a intentarlo. Si el error persiste, consulte al administrador del sistema.");
+            $scope.loading = false;
+        };
+
+        //Poll the status of a report rendered in the server until it is done, once a second for two minutes at most
+        var maxAttempts = 120;
+        var waitReport = function (attempts) {
+            return function (report) {
+                if (report.status === 'done') {
+                    $window.open($sce.trustAsResourceUrl($window.location.origin + report.path));
+                    $scope.loading = false;
+                } else if ((report.status === 'queued' || report.status === 'running') && attempts < maxAttempts) {
+                    $timeout(function () {
+                        reportService.status({id: report.id}, waitReport(attempts + 1), reportError);
+                    }, 1000);
+                } else {
+                    reportError();
+                }
+            };
+        };
+
         //--- Jose Luis ---
         //Generic function used to generate the reports in the server side, and then show them in the web browser
         $scope.exportData = function (type1, reportName, data) {
@@ -11,18 +33,7 @@ wkhomeControllers.controller('exportController', ['$scope', 'reportService', '$w
                     case 'pdf':
                         $scope.loading = true;
                         var params = {hostname: '', report: reportName, type: type1, param1: data};
-                        reportService.querySrv(params, function (response) {
-                            var res = '';
-                            for (var i = 0; i < Object.keys(response).length - 2; i++) {
-                                res += response[i];
-                            }
-                            if (res && res!=='' && res!=='undefinedundefinedundefinedundefined') {
-                                $window.open($sce.trustAsResourceUrl($window.location.origin + res));
-                            } else {
-                                alert("Error al procesar el reporte. Por favor, espere un momento y vuelva a intentarlo. Si el error persiste, consulte al administrador del sistema.");
-                            }
-                            $scope.loading = false;
-                        });
+                        reportService.submit(params, waitReport(0), reportError);
                         break;
                 }
             }
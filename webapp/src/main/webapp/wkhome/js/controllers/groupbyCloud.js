@@ -76,20 +76,14 @@ wkhomeControllers.controller('groupbyCloud', ['$translate', '$routeParams', '$sc
               var queryKeywords = globalData.PREFIX
                     + ' CONSTRUCT { ?keyword rdfs:label ?key } '
                     + ' WHERE { '
-                    + '     SELECT  (count(?pubs) as ?total) ' //(SAMPLE(?keyword) as ?keywordp) (SAMPLE(?key) as ?keyp)  '
-                    + '     WHERE { '
-                    + '         graph <'+globalData.centralGraph+'> {'
-                    + '             ?subject foaf:publications ?pubs. '
-                    //+ '           ?subject dct:subject ?key. '
-                    + '             ?pubs bibo:Quote ?key. '
-                    + '             BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
-                    + '             BIND(IRI(?unickey) as ?keyword) '
-                    + '         }'
-                    + '     } '
-                    + '     GROUP BY ?keyword  ?key '
-                    //+ '     GROUP BY ?subject'
-                    
-                    + '     HAVING(?total > 4) ' //si la keyword aparece en mas de 5 publicaciones
+                    + '     graph <' + globalData.aggregatesGraph + '> {'
+                    + '         ?aggregate a uc:KeywordAggregate. '
+                    + '         ?aggregate rdfs:label ?key. '
+                    + '         ?aggregate uc:total ?total. '
+                    + '     }'
+                    + '     FILTER(?total > 4) ' //si la keyword aparece en mas de 5 publicaciones
+                    + '     BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
+                    + '     BIND(IRI(?unickey) as ?keyword) '
                     + '}';
                 sparqlQuery.querySrv({query: queryKeywords}, function (rdf) {
                  //   waitingDialog.show();
@@ -9,17 +9,14 @@ wkhomeControllers.controller('keywordsCloud', ['$routeParams', '$scope', 'global
             $scope.themes = [];
             var queryKeywords = globalData.PREFIX
                     + ' CONSTRUCT { ?keyword rdfs:label ?key } '
-                    + '	FROM <' + globalData.centralGraph + '> '
+                    + '	FROM <' + globalData.aggregatesGraph + '> '
                     + ' WHERE { '
-                    + '     SELECT  (count(?key) as ?k) ?key '
-                    + '         WHERE { '
-                    + '             ?subject foaf:publications ?pub. '
-                    + '             ?pub bibo:Quote ?key. '
-                    + '             BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
-                    + '             BIND(IRI(?unickey) as ?keyword) '
-                    + '         } '
-                    + '     GROUP BY ?keyword  ?key '
-                    + '     HAVING(?k > 1) '
+                    + '     ?aggregate a uc:KeywordAggregate. '
+                    + '     ?aggregate rdfs:label ?key. '
+                    + '     ?aggregate uc:total ?k. '
+                    + '     FILTER(?k > 1) '
+                    + '     BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
+                    + '     BIND(IRI(?unickey) as ?keyword) '
                     + '}';
             sparqlQuery.querySrv({query: queryKeywords}, function (rdf) {
                 var context = {
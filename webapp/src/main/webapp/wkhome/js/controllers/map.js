@@ -15,20 +15,14 @@ wkhomeControllers.controller('map', ['$routeParams', '$scope', '$window', 'globa
             var queryKeywords = globalData.PREFIX
                     + ' CONSTRUCT { ?keyword rdfs:label ?key } '
                     + ' WHERE { '
-                    + '     SELECT  (count(?pubs) as ?total) ' //(SAMPLE(?keyword) as ?keywordp) (SAMPLE(?key) as ?keyp)  '
-                    + '     WHERE { '
-                    + '         graph <'+globalData.centralGraph+'> {'
-                    + '             ?subject foaf:publications ?pubs. '
-                    //+ '           ?subject dct:subject ?key. '
-                    + '             ?pubs bibo:Quote ?key. '
-                    + '             BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
-                    + '             BIND(IRI(?unickey) as ?keyword) '
-                    + '         }'
-                    + '     } '
-                    + '     GROUP BY ?keyword  ?key '
-                    //+ '     GROUP BY ?subject'
-                    
-                    + '     HAVING(?total > 4) ' //si la keyword aparece en mas de 5 publicaciones
+                    + '     graph <' + globalData.aggregatesGraph + '> {'
+                    + '         ?aggregate a uc:KeywordAggregate. '
+                    + '         ?aggregate rdfs:label ?key. '
+                    + '         ?aggregate uc:total ?total. '
+                    + '     }'
+                    + '     FILTER(?total > 4) ' //si la keyword aparece en mas de 5 publicaciones
+                    + '     BIND(REPLACE(?key, " ", "_", "i") AS ?unickey). '
+                    + '     BIND(IRI(?unickey) as ?keyword) '
                     + '}';
             sparqlQuery.querySrv({query: queryKeywords}, function (rdf) {
                 jsonld.compact(rdf, globalData.CONTEXT, function (err, compacted) {
@@ -72,33 +66,23 @@ wkhomeControllers.controller('map', ['$routeParams', '$scope', '$window', 'globa
                     + '         ?urikeyword uc:fullname ?fullname. '
                     + ' } '
                     + 'WHERE {'
-                    + '     SELECT (COUNT( DISTINCT ?object) as ?cont) ?provenance  ?urikeyword ?provenance ?sourcename ?lat ?long ?province ?city ?fullname '
-                    + '     WHERE {'
-                    + '         GRAPH <' + globalData.centralGraph + '>  {'
-                    + '             ?subject foaf:publications ?object.'
-                    //+ '             ?object bibo:Quote "' + $scope.selectedTagItem + '".'
-                    //+ '             ?subject dct:subject ?key.'
-                    + '             ?object bibo:Quote ?key.'
-                    + '             FILTER (mm:fulltext-search(?key, "' + $scope.selectedTagItem + '")) .'
-                    + '             ?subject dct:provenance ?provenance.'
-                    + '             { '
-                    + '                 SELECT DISTINCT ?sourcename ?lat ?long ?province ?city ?fullname '
-                    + '                 WHERE { '
-                    + '                     GRAPH <' + globalData.endpointsGraph + '>  { '
-                    + '                         ?provenance uc:name ?sourcename. '
-                    + '                         ?provenance  uc:latitude ?lat. '
-                    + '                         ?provenance uc:longitude ?long. '
-                    + '                         ?provenance uc:province ?province. '
-                    + '                         ?provenance uc:city ?city. '
-                    + '                         ?provenance uc:fullName ?fullname.'
-                    + '                     } '
-                    + '                 } '
-                    + '             } '
-                    + '             BIND(REPLACE("' + $scope.selectedTagItem + '"," ","_","i") + "_" + ?sourcename  as ?iduri). '
-                    + '             BIND(IRI(?iduri) as ?urikeyword) '
-                    + '         } '
+                    + '     GRAPH <' + globalData.aggregatesGraph + '>  {'
+                    + '         ?aggregate a uc:KeywordProvenanceAggregate. '
+                    + '         ?aggregate rdfs:label ?key. '
+                    + '         FILTER (STR(?key) = "' + $scope.selectedTagItem + '") .'
+                    + '         ?aggregate uc:provenance ?provenance. '
+                    + '         ?aggregate uc:total ?cont. '
+                    + '         ?source a uc:ProvenanceAggregate. '
+                    + '         ?source uc:provenance ?provenance. '
+                    + '         ?source uc:name ?sourcename. '
+                    + '         ?source uc:latitude ?lat. '
+                    + '         ?source uc:longitude ?long. '
+                    + '         ?source uc:province ?province. '
+                    + '         ?source uc:city ?city. '
+                    + '         ?source uc:fullName ?fullname. '
                     + '     } '
-                    + '     GROUP BY ?sourcename ?provenance ?lat ?long ?province ?city ?fullname  ?urikeyword '
+                    + '     BIND(REPLACE("' + $scope.selectedTagItem + '"," ","_","i") + "_" + ?sourcename  as ?iduri). '
+                    + '     BIND(IRI(?iduri) as ?urikeyword) '
                     + ' } ';
             $scope.publicationsBySource = [];
             sparqlQuery.querySrv({query: queryBySource},
@@ -50,9 +50,20 @@ wkhomeServices.factory('sparqlQuery', ['$resource', '$http', '$window',
         var serverInstance = wkhomeServices.serverInstance ? wkhomeServices.serverInstance :
                 //'http://' + $window.location.hostname + ($window.location.port ? ':8080' : '') + '/marmotta';
                 'http://' + $window.location.hostname + ($window.location.port ? ':8080' : '') + '';
-        return $resource(serverInstance + '/sparql/select', {}, {
-           querySrv: {method: 'POST', isArray: true, transformRequest: transform, headers: {'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8'}}
+        // read only endpoint with the results cached by the server; by GET, so
+        // the browser revalidates its copy, unless the query is too long for a URL
+        var maxGetLength = 6000;
+        var resource = $resource(serverInstance + '/pubman/sparql/select', {}, {
+           queryGet: {method: 'GET', isArray: true},
+           queryPost: {method: 'POST', isArray: true, transformRequest: transform, headers: {'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8'}}
          });
+        resource.querySrv = function (params, success, error) {
+            if (encodeURIComponent(params.query).length > maxGetLength) {
+                return resource.queryPost(params, success, error);
+            }
+            return resource.queryGet(params, success, error);
+        };
+        return resource;
     }]);
 
 wkhomeServices.factory('d3JSON', ['$resource',
@@ -94,7 +105,10 @@ wkhomeServices.factory('reportService', ['$resource', '$http', '$window',
                 + ($window.location.port ? ':8080' : '') + '';
         return $resource(
                 serverInstance + '/pubman/report', {}, {
-            querySrv: {method: 'POST', isArray: false, transformRequest: transform, headers: {'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8'}}
+            querySrv: {method: 'POST', isArray: false, transformRequest: transform, headers: {'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8'}},
+            // the report is rendered in background, its status is polled until it is done
+            submit: {method: 'POST', url: serverInstance + '/pubman/report/submit', isArray: false, transformRequest: transform, headers: {'Content-Type': 'application/x-www-form-urlencoded; charset=UTF-8'}},
+            status: {method: 'GET', url: serverInstance + '/pubman/report/status', isArray: false}
         });
     }]);
 
@@ -1 +1 @@
-wkhomeControllers.controller("countResearchAreas",["$routeParams","$scope","globalData","sparqlQuery","searchData","$window",function(a,o,e,r,t,c){o.ifClick=function(o){t.researchArea=o,c.location.hash="/"+a.lang+"/cloud/group-by"};var l=e.PREFIX+' CONSTRUCT {      ?uriArea a uc:ResearchArea.      ?uriArea uc:name ?keyword;                  uc:total ?total } WHERE {       SELECT  ?keyword (IRI(REPLACE(?keyword, " ", "_", "i")) as ?uriArea) ?total      WHERE {          {              SELECT DISTINCT ?keyword (COUNT(DISTINCT ?s) AS ?total)              WHERE {                  GRAPH <'+e.centralGraph+'> {                      ?s foaf:publications ?publications.                      ?publications bibo:Quote ?keyword.                  }               }               GROUP BY ?keyword               ORDER BY DESC(?total)               LIMIT 10          }          FILTER(!REGEX(?keyword,"TESIS"))      } }';r.querySrv({query:l},function(a){jsonld.compact(a,e.CONTEXT,function(a,e){var r=e["@graph"],t=[];r.forEach(function(a){var o=a["uc:name"],e=a["uc:total"].length>1?a["uc:total"][0]["@value"]:a["uc:total"]["@value"];t.push({label:o,value:e})}),o.$apply(function(){o.data={entityName:"Researchers",data:t}})})})}]);
\ No newline at end of file
+wkhomeControllers.controller("countResearchAreas",["$routeParams","$scope","globalData","sparqlQuery","searchData","$window",function(a,o,e,r,t,c){o.ifClick=function(o){t.researchArea=o,c.location.hash="/"+a.lang+"/cloud/group-by"};var l=e.PREFIX+' CONSTRUCT {      ?uriArea a uc:ResearchArea.      ?uriArea uc:name ?keyword;                  uc:total ?total } WHERE {       SELECT  ?keyword (IRI(REPLACE(?keyword, " ", "_", "i")) as ?uriArea) ?total      WHERE {          {              SELECT ?keyword ?total              WHERE {                  GRAPH <'+e.aggregatesGraph+'> {                      ?aggregate a uc:KeywordAggregate.                      ?aggregate rdfs:label ?keyword.                      ?aggregate uc:authors ?total.                  }               }               ORDER BY DESC(?total)               LIMIT 10          }          FILTER(!REGEX(?keyword,"TESIS"))      } }';r.querySrv({query:l},function(a){jsonld.compact(a,e.CONTEXT,function(a,e){var r=e["@graph"],t=[];r.forEach(function(a){var o=a["uc:name"],e=a["uc:total"].length>1?a["uc:total"][0]["@value"]:a["uc:total"]["@value"];t.push({label:o,value:e})}),o.$apply(function(){o.data={entityName:"Researchers",data:t}})})})}]);
\ No newline at end of file
@@ -1 +1 @@
-wkhomeControllers.controller("exportController",["$scope","reportService","$window","$sce",function(e,r,o,n){e.exportData=function(t,a,i){if(i)switch(t){case"xls":case"pdf":e.loading=!0;var l={hostname:"",report:a,type:t,param1:i};r.querySrv(l,function(r){for(var t="",a=0;a<Object.keys(r).length-2;a++)t+=r[a];t&&""!==t&&"undefinedundefinedundefinedundefined"!==t?o.open(n.trustAsResourceUrl(o.location.origin+t)):alert("Error al procesar el reporte. Por favor, espere un momento y vuelva a intentarlo. Si el error persiste, consulte al administrador del sistema."),e.loading=!1})}}}]);
\ No newline at end of file
+wkhomeControllers.controller("exportController",["$scope","reportService","$window","$sce","$timeout",function(e,r,o,n,t){var a=function(){alert("Error al procesar el reporte. Por favor, espere un momento y vuelva a intentarlo. Si el error persiste, consulte al administrador del sistema."),e.loading=!1},c=120,i=function(u){return function(s){"done"===s.status?(o.open(n.trustAsResourceUrl(o.location.origin+s.path)),e.loading=!1):("queued"===s.status||"running"===s.status)&&u<c?t(function(){r.status({id:s.id},i(u+1),a)},1e3):a()}};e.exportData=function(t,n,o){if(o)switch(t){case"xls":case"pdf":e.loading=!0;var l={hostname:"",report:n,type:t,param1:o};r.submit(l,i(0),a)}}}]);
\ No newline at end of file
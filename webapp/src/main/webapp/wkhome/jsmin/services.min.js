@@ -1 +1 @@
-"use strict";var wkhomeServices=angular.module("wkhomeServices",["ngResource"]);wkhomeServices.factory("Phone",["$resource",function(e){return e("phones/:phoneId.json",{},{query:{method:"GET",params:{phoneId:"phones"},isArray:!0}})}]),wkhomeServices.factory("authorRestQuery",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return $.param(e)},n=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":"");return e(n+"/pubman/pubsearch",{},{query:{method:"POST",isArray:!0,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}}})}]),wkhomeServices.factory("sparqlQuery",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return $.param(e)},n=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":"");return e(n+"/sparql/select",{},{querySrv:{method:"POST",isArray:!0,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}}})}]),wkhomeServices.factory("d3JSON",["$resource",function(e){return e("d3/:geoId.json",{},{query:{method:"GET",params:{geoId:"world-50m"},isArray:!0}})}]),wkhomeServices.factory("clustersQuery",["$resource","$http","$window",function(e,r,o){return r.get("resources/datos_clustering.json").success(function(e){return e}).error(function(e){return e})}]),wkhomeServices.factory("translateService",["$resource","$http","$window","globalData",function(e,r,o,t){return e("resources/:data.json",{},{query:{method:"GET",params:{data:t.language},isArray:!1}})}]),wkhomeServices.factory("reportService",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return e.hostname=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":""),$.param(e)},n="http://"+o.location.hostname+(o.location.port?":8080":"");return e(n+"/pubman/report",{},{querySrv:{method:"POST",isArray:!1,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}}})}]);
\ No newline at end of file
+"use strict";var wkhomeServices=angular.module("wkhomeServices",["ngResource"]);wkhomeServices.factory("Phone",["$resource",function(e){return e("phones/:phoneId.json",{},{query:{method:"GET",params:{phoneId:"phones"},isArray:!0}})}]),wkhomeServices.factory("authorRestQuery",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return $.param(e)},n=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":"");return e(n+"/pubman/pubsearch",{},{query:{method:"POST",isArray:!0,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}}})}]),wkhomeServices.factory("sparqlQuery",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return $.param(e)},n=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":""),a=6e3,s=e(n+"/pubman/sparql/select",{},{queryGet:{method:"GET",isArray:!0},queryPost:{method:"POST",isArray:!0,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}}});return s.querySrv=function(e,r,o){return encodeURIComponent(e.query).length>a?s.queryPost(e,r,o):s.queryGet(e,r,o)},s}]),wkhomeServices.factory("d3JSON",["$resource",function(e){return e("d3/:geoId.json",{},{query:{method:"GET",params:{geoId:"world-50m"},isArray:!0}})}]),wkhomeServices.factory("clustersQuery",["$resource","$http","$window",function(e,r,o){return r.get("resources/datos_clustering.json").success(function(e){return e}).error(function(e){return e})}]),wkhomeServices.factory("translateService",["$resource","$http","$window","globalData",function(e,r,o,t){return e("resources/:data.json",{},{query:{method:"GET",params:{data:t.language},isArray:!1}})}]),wkhomeServices.factory("reportService",["$resource","$http","$window",function(e,r,o){r.defaults.headers.common["content-type"]="application/x-www-form-urlencoded",r.defaults.headers.common.Accept="application/ld+json";var t=function(e){return e.hostname=wkhomeServices.serverInstance?wkhomeServices.serverInstance:"http://"+o.location.hostname+(o.location.port?":8080":""),$.param(e)},n="http://"+o.location.hostname+(o.location.port?":8080":"");return e(n+"/pubman/report",{},{querySrv:{method:"POST",isArray:!1,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}},submit:{method:"POST",url:n+"/pubman/report/submit",isArray:!1,transformRequest:t,headers:{"Content-Type":"application/x-www-form-urlencoded; charset=UTF-8"}},status:{method:"GET",url:n+"/pubman/report/status",isArray:!1}})}]);
\ No newline at end of file